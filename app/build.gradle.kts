@@ -50,6 +50,11 @@ dependencies {
     
     // Modern UI Libraries
     implementation(libs.glide)
+    annotationProcessor(libs.glide.compiler)
+    implementation(libs.glide.recyclerview) {
+        // Uses the RecyclerView version declared above
+        isTransitive = false
+    }
     implementation(libs.circleimageview)
     implementation(libs.swiperefreshlayout)
     implementation(libs.viewpager2)
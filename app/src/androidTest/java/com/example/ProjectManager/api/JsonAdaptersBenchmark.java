@@ -0,0 +1,114 @@
+package com.example.ProjectManager.api;
+
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.ProjectManager.models.dto.PageResponse;
+import com.example.ProjectManager.models.dto.TaskResponse;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.StringReader;
+import java.lang.reflect.Type;
+
+import static org.junit.Assert.*;
+
+/**
+ * Decode time and allocation of a 10,000-task page, with {@link JsonAdapters} and
+ * with Gson's reflective adapters, measured on the device's runtime. Both figures
+ * are logged under "JsonAdaptersBenchmark"; they depend on the device, so nothing
+ * is asserted about which is lower. Run with
+ * {@code ./gradlew connectedDebugAndroidTest
+ * -Pandroid.testInstrumentationRunnerArguments.class=com.example.ProjectManager.api.JsonAdaptersBenchmark}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class JsonAdaptersBenchmark {
+
+    private static final String TAG = "JsonAdaptersBenchmark";
+
+    private static final Type TASK_PAGE = new TypeToken<PageResponse<TaskResponse>>() {}.getType();
+    private static final int TASKS = 10_000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int RUNS = 10;
+
+    @Test
+    public void tenThousandTaskPage() {
+        String json = taskPageJson(TASKS);
+
+        Measurement reflective = measure(new Gson(), json);
+        Measurement streaming = measure(
+                new GsonBuilder().registerTypeAdapterFactory(new JsonAdapters()).create(), json);
+
+        Log.i(TAG, String.format("Reflective Gson: %.1f ms, %d KB per decode",
+                reflective.nanos / 1e6, reflective.bytes / 1024));
+        Log.i(TAG, String.format("JsonAdapters:    %.1f ms, %d KB per decode",
+                streaming.nanos / 1e6, streaming.bytes / 1024));
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Measurement measure(Gson gson, String json) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            decode(gson, json);
+        }
+
+        // Allocation counting slows allocation down, so it gets its own runs
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            decode(gson, json);
+        }
+        long nanos = (System.nanoTime() - start) / RUNS;
+
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < RUNS; i++) {
+                decode(gson, json);
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        long bytes = Debug.getThreadAllocSize() / RUNS;
+
+        return new Measurement(nanos, bytes);
+    }
+
+    private static void decode(Gson gson, String json) {
+        PageResponse<TaskResponse> page = gson.fromJson(new StringReader(json), TASK_PAGE);
+        assertEquals(TASKS, page.getContent().size());
+    }
+
+    private static String taskPageJson(int count) {
+        StringBuilder sb = new StringBuilder("{\"content\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Task ").append(i).append('"')
+                    .append(",\"content\":\"Description of task ").append(i).append('"')
+                    .append(",\"status\":\"IN_PROGRESS\",\"projectId\":").append(i % 50)
+                    .append(",\"createdAt\":\"2024-01-01T10:00:00\",\"updatedAt\":\"2024-01-02T10:00:00\"")
+                    .append(",\"assignee\":{\"id\":").append(i % 200)
+                    .append(",\"firstName\":\"First\",\"lastName\":\"Last\",\"email\":\"user")
+                    .append(i % 200).append("@example.com\",\"profilePictureUrl\":null}}");
+        }
+        sb.append("],\"number\":0,\"size\":").append(count)
+                .append(",\"totalElements\":").append(count)
+                .append(",\"totalPages\":1,\"last\":true,\"first\":true,\"empty\":false}");
+        return sb.toString();
+    }
+
+    private static final class Measurement {
+        final long nanos;
+        final long bytes;
+
+        Measurement(long nanos, long bytes) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+}
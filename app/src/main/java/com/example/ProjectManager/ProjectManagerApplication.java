@@ -0,0 +1,58 @@
+package com.example.ProjectManager;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.bumptech.glide.Glide;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.database.ProjectDatabaseHelper;
+import com.example.ProjectManager.repository.MutationOutbox;
+import com.example.ProjectManager.utils.SharedPrefsManager;
+import com.example.ProjectManager.utils.StartupMetrics;
+
+/**
+ * Application entry point: measures cold start (see {@link StartupMetrics}) and
+ * builds the app's heavy singletons on a background thread while the first
+ * activity inflates and draws, so they are ready by the time it asks for them.
+ * Once they are, writes left in the outbox by an earlier launch are sent.
+ */
+public class ProjectManagerApplication extends Application {
+
+    private static final String TAG = "ProjectManagerApp";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        StartupMetrics.install(this);
+        new Thread(this::warmUp, "warm-up").start();
+    }
+
+    /**
+     * Whatever isn't built here yet is built on first use as before; a caller that
+     * arrives while it is being built waits for it rather than building it twice.
+     */
+    private void warmUp() {
+        long start = SystemClock.uptimeMillis();
+        try {
+            SharedPrefsManager prefs = SharedPrefsManager.getInstance(this);
+            // Gson, OkHttp with its cache and interceptors, Retrofit
+            RetrofitClient.getInstance(this);
+            // Opens the database and runs any pending upgrade
+            ProjectDatabaseHelper.getInstance(this).getWritableDatabase();
+            Glide.get(this);
+            if (prefs.isLoggedIn()) {
+                // The dashboard's first calls are coming
+                RetrofitClient.preconnect(this);
+                new Handler(Looper.getMainLooper()).post(() ->
+                        MutationOutbox.getInstance(this).replay(null));
+            }
+        } catch (RuntimeException e) {
+            // Only a head start: anything that failed is retried on first use
+            Log.w(TAG, "Warm-up failed", e);
+        }
+        StartupMetrics.recordWarmUp(SystemClock.uptimeMillis() - start);
+    }
+}
@@ -4,27 +4,18 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
-import android.widget.Toast;
+import android.widget.EditText;
 
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.ProjectManager.R;
-import com.example.ProjectManager.adapters.MemberAdapter;
-import com.example.ProjectManager.api.ApiService;
-import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.models.Member;
-import com.example.ProjectManager.models.dto.PageResponse;
-import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.utils.MemberPicker;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 /**
  * Activity for selecting project members.
  * Alternative to the bottom sheet dialog for member selection.
@@ -39,13 +30,13 @@ public class AddMemberActivity extends AppCompatActivity {
 
     // UI Components
     private RecyclerView rvMembers;
+    private EditText etMemberSearch;
     private Button btnCancel;
     private Button btnSelect;
 
     // Data
-    private MemberAdapter memberAdapter;
+    private MemberPicker memberPicker;
     private List<Member> preSelectedMembers;
-    private ApiService apiService;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -61,9 +52,6 @@ public class AddMemberActivity extends AppCompatActivity {
             }
         });
 
-        // Initialize API service
-        apiService = RetrofitClient.getInstance(this).create(ApiService.class);
-
         // Get pre-selected members from intent
         if (getIntent() != null && getIntent().hasExtra(EXTRA_PRE_SELECTED_MEMBERS)) {
             preSelectedMembers = (ArrayList<Member>) getIntent().getSerializableExtra(EXTRA_PRE_SELECTED_MEMBERS);
@@ -75,14 +63,17 @@ public class AddMemberActivity extends AppCompatActivity {
         // Initialize views
         initViews();
 
-        // Setup RecyclerView
-        setupRecyclerView();
+        // Setup member list and search
+        setupMemberPicker();
 
         // Setup listeners
         setupListeners();
+    }
 
-        // Load members
-        loadMembers();
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        memberPicker.release();
     }
 
     /**
@@ -90,19 +81,17 @@ public class AddMemberActivity extends AppCompatActivity {
      */
     private void initViews() {
         rvMembers = findViewById(R.id.rv_members);
+        etMemberSearch = findViewById(R.id.et_member_search);
         btnCancel = findViewById(R.id.btn_cancel);
         btnSelect = findViewById(R.id.btn_select);
     }
 
     /**
-     * Setup the RecyclerView with adapter
+     * Setup the member list: stored users first, more pages as the user scrolls or searches
      */
-    private void setupRecyclerView() {
-        memberAdapter = new MemberAdapter();
-        memberAdapter.setMultiSelectEnabled(true);
-
-        rvMembers.setLayoutManager(new LinearLayoutManager(this));
-        rvMembers.setAdapter(memberAdapter);
+    private void setupMemberPicker() {
+        memberPicker = new MemberPicker(this, rvMembers, etMemberSearch, preSelectedMembers);
+        memberPicker.start();
     }
 
     /**
@@ -118,7 +107,7 @@ public class AddMemberActivity extends AppCompatActivity {
         // Select button
         btnSelect.setOnClickListener(v -> {
             // Get selected members and return them
-            ArrayList<Member> selectedMembers = new ArrayList<>(memberAdapter.getSelectedMembers());
+            ArrayList<Member> selectedMembers = new ArrayList<>(memberPicker.getSelectedMembers());
 
             Intent resultIntent = new Intent();
             resultIntent.putExtra(EXTRA_SELECTED_MEMBERS, selectedMembers);
@@ -126,64 +115,4 @@ public class AddMemberActivity extends AppCompatActivity {
             finish();
         });
     }
-
-    /**
-     * Load available members from API
-     */
-    private void loadMembers() {
-        // Show loading state
-        btnSelect.setEnabled(false);
-        btnSelect.setText("Loading...");
-
-        // Make API call to fetch users
-        Call<PageResponse<UserResponseDto>> call = apiService.getUsers(0, 50);
-        call.enqueue(new Callback<PageResponse<UserResponseDto>>() {
-            @Override
-            public void onResponse(Call<PageResponse<UserResponseDto>> call,
-                    Response<PageResponse<UserResponseDto>> response) {
-                btnSelect.setEnabled(true);
-                btnSelect.setText(R.string.select);
-
-                if (response.isSuccessful() && response.body() != null) {
-                    PageResponse<UserResponseDto> pageResponse = response.body();
-                    List<UserResponseDto> users = pageResponse.getContent();
-
-                    // Convert UserResponseDto to Member objects
-                    List<Member> members = new ArrayList<>();
-                    if (users != null) {
-                        for (UserResponseDto user : users) {
-                            Member member = new Member(
-                                    user.getId(),
-                                    user.getFirstName() + " " + user.getLastName(),
-                                    "" // No role from API response
-                            );
-                            members.add(member);
-                        }
-                    }
-
-                    memberAdapter.setMembers(members);
-
-                    // Set pre-selected members
-                    if (!preSelectedMembers.isEmpty()) {
-                        memberAdapter.setPreSelectedMembers(preSelectedMembers);
-                    }
-                } else {
-                    Toast.makeText(AddMemberActivity.this,
-                            "Failed to load users: " + response.code(),
-                            Toast.LENGTH_LONG).show();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<PageResponse<UserResponseDto>> call, Throwable t) {
-                btnSelect.setEnabled(true);
-                btnSelect.setText(R.string.select);
-
-                Toast.makeText(AddMemberActivity.this,
-                        "Network error: " + t.getMessage(),
-                        Toast.LENGTH_LONG).show();
-                t.printStackTrace();
-            }
-        });
-    }
 }
@@ -12,6 +12,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.OnBackPressedCallback;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -19,19 +20,23 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.adapters.MemberAdapter;
 import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.BatchMutationExecutor;
 import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.fragments.AddMemberBottomSheet;
 import com.example.ProjectManager.models.Member;
+import com.example.ProjectManager.models.OutboxMutation;
+import com.example.ProjectManager.models.dto.AddMemberRequest;
 import com.example.ProjectManager.models.dto.CreateProjectRequest;
 import com.example.ProjectManager.models.dto.ProjectResponse;
-import com.example.ProjectManager.utils.SharedPrefsManager;
+import com.example.ProjectManager.repository.MutationOutbox;
+import com.example.ProjectManager.repository.RefreshCoordinator;
+import com.example.ProjectManager.utils.OutboxConfirmationDialog;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Activity for creating a new project.
@@ -52,8 +57,10 @@ public class CreateProjectActivity extends AppCompatActivity implements AddMembe
     private ArrayList<Member> selectedMembers;
     private MemberAdapter selectedMembersAdapter;
     private ApiService apiService;
-    private SharedPrefsManager prefsManager;
     private boolean isCreating = false;
+    // Set once the project exists; member retries go to it
+    private Long createdProjectId;
+    private BatchMutationExecutor<Long> memberBatch;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -63,9 +70,8 @@ public class CreateProjectActivity extends AppCompatActivity implements AddMembe
         // Initialize data
         selectedMembers = new ArrayList<>();
 
-        // Initialize API service and preferences
+        // Initialize API service
         apiService = RetrofitClient.getInstance(this).create(ApiService.class);
-        prefsManager = SharedPrefsManager.getInstance(this);
 
         // Initialize views
         initViews();
@@ -202,103 +208,142 @@ public class CreateProjectActivity extends AppCompatActivity implements AddMembe
         // Build create project request (owner is set from JWT token on backend)
         CreateProjectRequest request = new CreateProjectRequest(title, description);
 
-        // Make API call to create project
-        Call<ProjectResponse> call = apiService.createProject(request);
-        call.enqueue(new Callback<ProjectResponse>() {
+        List<Long> memberIds = new ArrayList<>();
+        for (Member member : selectedMembers) {
+            memberIds.add(member.getId());
+        }
+
+        // Stored before it is sent: made offline, it goes out (members too) once back online
+        MutationOutbox.getInstance(this).createProject(request, memberIds, new MutationOutbox.Callback<ProjectResponse>() {
             @Override
-            public void onResponse(Call<ProjectResponse> call, Response<ProjectResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ProjectResponse projectResponse = response.body();
-                    Long projectId = projectResponse.getId();
-
-                    // Add selected members to the project
-                    if (selectedMembers.isEmpty()) {
-                        // No members to add, project created successfully
-                        Toast.makeText(CreateProjectActivity.this,
-                                R.string.project_created_successfully, Toast.LENGTH_SHORT).show();
-                        setResult(RESULT_OK);
-                        finish();
-                    } else {
-                        // Add members to the project
-                        addMembersToProject(projectId, 0);
-                    }
+            public void onApplied(ProjectResponse projectResponse) {
+                // Add selected members to the project
+                if (selectedMembers.isEmpty() || projectResponse == null) {
+                    // No members to add, project created successfully
+                    Toast.makeText(CreateProjectActivity.this,
+                            R.string.project_created_successfully, Toast.LENGTH_SHORT).show();
+                    setResult(RESULT_OK);
+                    finish();
                 } else {
-                    isCreating = false;
-                    btnCreateProject.setEnabled(true);
-                    handleCreateProjectError(response);
+                    createdProjectId = projectResponse.getId();
+                    // Add members to the project
+                    addMembersToProject();
                 }
             }
 
             @Override
-            public void onFailure(Call<ProjectResponse> call, Throwable t) {
+            public void onQueued() {
+                Toast.makeText(CreateProjectActivity.this,
+                        "You're offline: the project will be created once you're back online",
+                        Toast.LENGTH_LONG).show();
+                setResult(RESULT_OK);
+                finish();
+            }
+
+            @Override
+            public void onSessionExpired() {
+                // The session's end already sends the user to log in again
+                Toast.makeText(CreateProjectActivity.this,
+                        "Your session expired: the project will be created once you log in again",
+                        Toast.LENGTH_LONG).show();
+                finish();
+            }
+
+            @Override
+            public void onNeedsConfirmation(@NonNull OutboxMutation mutation) {
+                OutboxConfirmationDialog.show(CreateProjectActivity.this, mutation, () -> {
+                    setResult(RESULT_OK);
+                    finish();
+                });
+            }
+
+            @Override
+            public void onRejected(int code) {
                 isCreating = false;
                 btnCreateProject.setEnabled(true);
-                Toast.makeText(CreateProjectActivity.this,
-                        "Network error: " + t.getMessage(), Toast.LENGTH_LONG).show();
+                handleCreateProjectError(code);
             }
         });
     }
 
     /**
-     * Recursively add selected members to the project
+     * Add the selected members to the created project, in parallel. Members that
+     * couldn't be added are offered for another try; those already added aren't sent again.
      */
-    private void addMembersToProject(Long projectId, int memberIndex) {
-        if (memberIndex >= selectedMembers.size()) {
-            // All members added successfully
-            Toast.makeText(this, R.string.project_created_successfully, Toast.LENGTH_SHORT).show();
-            setResult(RESULT_OK);
-            finish();
-            return;
+    private void addMembersToProject() {
+        if (memberBatch == null) {
+            List<Long> memberIds = new ArrayList<>();
+            for (Member member : selectedMembers) {
+                memberIds.add(member.getId());
+            }
+            long projectId = createdProjectId;
+            // One key per member for the whole batch; the backend ignores it, a repeated add is told by its 409
+            Map<Long, String> idempotencyKeys = new HashMap<>();
+            for (Long memberId : memberIds) {
+                idempotencyKeys.put(memberId, UUID.randomUUID().toString());
+            }
+            memberBatch = new BatchMutationExecutor<>(memberIds,
+                    userId -> apiService.addMemberToProject(idempotencyKeys.get(userId), projectId,
+                            new AddMemberRequest(userId)))
+                    // Already a member: an earlier attempt went through
+                    .treatAsApplied(409);
         }
 
-        Member member = selectedMembers.get(memberIndex);
-        Long memberId = (long) member.getId();
-
-        // Create add member request
-        com.example.ProjectManager.models.dto.AddMemberRequest addMemberRequest = new com.example.ProjectManager.models.dto.AddMemberRequest(
-                memberId);
-
-        // Make API call to add member
-        Call<Void> call = apiService.addMemberToProject(projectId, addMemberRequest);
-        call.enqueue(new Callback<Void>() {
+        memberBatch.run(new BatchMutationExecutor.Listener<Long>() {
             @Override
-            public void onResponse(Call<Void> call, Response<Void> response) {
-                if (response.isSuccessful()) {
-                    // Add next member
-                    addMembersToProject(projectId, memberIndex + 1);
-                } else {
-                    isCreating = false;
-                    btnCreateProject.setEnabled(true);
+            public void onComplete(int applied, int failed) {
+                RefreshCoordinator.getInstance().invalidate(RefreshCoordinator.Dataset.PROJECT, createdProjectId);
+                if (failed == 0) {
                     Toast.makeText(CreateProjectActivity.this,
-                            "Failed to add member", Toast.LENGTH_SHORT).show();
+                            R.string.project_created_successfully, Toast.LENGTH_SHORT).show();
+                    setResult(RESULT_OK);
+                    finish();
+                } else {
+                    showMemberFailuresDialog(failed);
                 }
             }
+        });
+    }
 
-            @Override
-            public void onFailure(Call<Void> call, Throwable t) {
-                isCreating = false;
-                btnCreateProject.setEnabled(true);
-                Toast.makeText(CreateProjectActivity.this,
-                        "Network error while adding member: " + t.getMessage(), Toast.LENGTH_LONG).show();
+    /**
+     * The project exists but some members are missing: retry them now, leave them to
+     * the outbox, or go on without them
+     */
+    private void showMemberFailuresDialog(int failed) {
+        List<String> names = new ArrayList<>();
+        for (Member member : selectedMembers) {
+            if (memberBatch.getOutcome(member.getId()) == BatchMutationExecutor.Outcome.FAILED) {
+                names.add(member.getName());
             }
-        });
+        }
+
+        new androidx.appcompat.app.AlertDialog.Builder(this)
+                .setTitle("Some Members Weren't Added")
+                .setMessage("The project was created, but " + failed + " of " + selectedMembers.size()
+                        + " members couldn't be added: " + TextUtils.join(", ", names) + ".")
+                .setCancelable(false)
+                .setPositiveButton("Retry", (dialog, which) -> addMembersToProject())
+                .setNeutralButton("Sync Later", (dialog, which) -> {
+                    MutationOutbox.getInstance(this).addMembers(createdProjectId, memberBatch.getFailedKeys());
+                    Toast.makeText(this, R.string.project_created_successfully, Toast.LENGTH_SHORT).show();
+                    setResult(RESULT_OK);
+                    finish();
+                })
+                .setNegativeButton("Skip", (dialog, which) -> {
+                    Toast.makeText(this, R.string.project_created_successfully, Toast.LENGTH_SHORT).show();
+                    setResult(RESULT_OK);
+                    finish();
+                })
+                .show();
     }
 
     /**
      * Handle errors from create project API call
      */
-    private void handleCreateProjectError(Response<ProjectResponse> response) {
+    private void handleCreateProjectError(int code) {
         String errorMessage = "Error creating project";
-        if (response.code() == 400) {
+        if (code == 400) {
             errorMessage = "Invalid project data";
-        } else if (response.code() == 401) {
-            errorMessage = "Unauthorized - please login again";
-            prefsManager.clearUserData();
-            startActivity(new android.content.Intent(this, OnboardingActivity.class));
-            finish();
-            return;
-        } else if (response.code() == 500) {
-            errorMessage = "Server error - please try again";
         }
         Toast.makeText(this, errorMessage, Toast.LENGTH_LONG).show();
     }
@@ -325,5 +370,8 @@ public class CreateProjectActivity extends AppCompatActivity implements AddMembe
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (memberBatch != null) {
+            memberBatch.cancel();
+        }
     }
 }
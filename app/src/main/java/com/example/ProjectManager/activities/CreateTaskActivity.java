@@ -8,6 +8,7 @@ import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -19,11 +20,15 @@ import com.example.ProjectManager.api.ApiService;
 import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.mappers.MemberMapper;
 import com.example.ProjectManager.models.Member;
+import com.example.ProjectManager.models.OutboxMutation;
 import com.example.ProjectManager.models.dto.CreateTaskRequest;
 import com.example.ProjectManager.models.dto.PageResponse;
 import com.example.ProjectManager.models.dto.ProjectMemberResponse;
 import com.example.ProjectManager.models.dto.ProjectResponse;
 import com.example.ProjectManager.models.dto.TaskResponse;
+import com.example.ProjectManager.repository.MutationOutbox;
+import com.example.ProjectManager.repository.ProjectRepository;
+import com.example.ProjectManager.utils.OutboxConfirmationDialog;
 import com.example.ProjectManager.utils.SessionManager;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 
@@ -147,67 +152,13 @@ public class CreateTaskActivity extends AppCompatActivity {
         }
 
         projectList.clear();
-        
-        // First load owned projects, then load member projects
-        api.getProjectsByOwner(userId, 0, 50).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(Call<PageResponse<ProjectResponse>> call,
-                                   retrofit2.Response<PageResponse<ProjectResponse>> response) {
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    List<ProjectResponse> ownedProjects = response.body().getContent();
-                    if (ownedProjects != null) {
-                        projectList.addAll(ownedProjects);
-                    }
-                }
-                
-                // Now load member projects
-                loadMemberProjects(rv, loadingView, dialog, userId);
-            }
 
-            @Override
-            public void onFailure(Call<PageResponse<ProjectResponse>> call, Throwable t) {
-                // Even if owned projects fail, try member projects
-                loadMemberProjects(rv, loadingView, dialog, userId);
-            }
-        });
-    }
-    
-    private void loadMemberProjects(RecyclerView rv, View loadingView, BottomSheetDialog dialog, long userId) {
-        api.getProjectsByMember(userId, 0, 50).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(Call<PageResponse<ProjectResponse>> call,
-                                   retrofit2.Response<PageResponse<ProjectResponse>> response) {
-                if (loadingView != null) loadingView.setVisibility(View.GONE);
-
-                if (response.isSuccessful() && response.body() != null) {
-                    List<ProjectResponse> memberProjects = response.body().getContent();
-                    
-                    // Add member projects that are not already in the list (avoid duplicates)
-                    if (memberProjects != null) {
-                        java.util.Set<Long> existingIds = new java.util.HashSet<>();
-                        for (ProjectResponse p : projectList) {
-                            existingIds.add(p.getId());
-                        }
-                        for (ProjectResponse p : memberProjects) {
-                            if (!existingIds.contains(p.getId())) {
-                                projectList.add(p);
-                            }
-                        }
-                    }
-                }
-                
-                // Display combined projects
-                displayProjects(rv, dialog);
-            }
+        // Owned and member projects, merged without duplicates
+        ProjectRepository.getInstance(this).getProjects(userId, projects -> {
+            if (loadingView != null) loadingView.setVisibility(View.GONE);
 
-            @Override
-            public void onFailure(Call<PageResponse<ProjectResponse>> call, Throwable t) {
-                if (loadingView != null) loadingView.setVisibility(View.GONE);
-                
-                // Display whatever we have from owned projects
-                displayProjects(rv, dialog);
-            }
+            projectList.addAll(projects.getAll());
+            displayProjects(rv, dialog);
         });
     }
     
@@ -441,26 +392,41 @@ public class CreateTaskActivity extends AppCompatActivity {
 
         btnCreate.setEnabled(false);
 
-        api.createTask(req).enqueue(new retrofit2.Callback<TaskResponse>() {
+        // Stored before it is sent: made offline, it goes out once the device is back online
+        MutationOutbox.getInstance(this).createTask(req, new MutationOutbox.Callback<TaskResponse>() {
             @Override
-            public void onResponse(Call<TaskResponse> call, retrofit2.Response<TaskResponse> response) {
-                btnCreate.setEnabled(true);
+            public void onApplied(TaskResponse created) {
+                Toast.makeText(CreateTaskActivity.this, "Task created", Toast.LENGTH_SHORT).show();
+                finish(); // returns to TaskActivity, which refreshes in onResume()
+            }
 
-                if (response.isSuccessful()) {
-                    Toast.makeText(CreateTaskActivity.this, "Task created", Toast.LENGTH_SHORT).show();
-                    finish(); // returns to TaskActivity, which refreshes in onResume()
-                } else {
-                    Toast.makeText(CreateTaskActivity.this,
-                            "Create failed (" + response.code() + ")",
-                            Toast.LENGTH_SHORT).show();
-                }
+            @Override
+            public void onQueued() {
+                Toast.makeText(CreateTaskActivity.this,
+                        "You're offline: the task will be created once you're back online",
+                        Toast.LENGTH_LONG).show();
+                finish();
+            }
+
+            @Override
+            public void onSessionExpired() {
+                // The session's end already sends the user to log in again
+                Toast.makeText(CreateTaskActivity.this,
+                        "Your session expired: the task will be created once you log in again",
+                        Toast.LENGTH_LONG).show();
+                finish();
             }
 
             @Override
-            public void onFailure(Call<TaskResponse> call, Throwable t) {
+            public void onNeedsConfirmation(@NonNull OutboxMutation mutation) {
+                OutboxConfirmationDialog.show(CreateTaskActivity.this, mutation, CreateTaskActivity.this::finish);
+            }
+
+            @Override
+            public void onRejected(int code) {
                 btnCreate.setEnabled(true);
                 Toast.makeText(CreateTaskActivity.this,
-                        "Network error: " + t.getMessage(),
+                        "Create failed (" + code + ")",
                         Toast.LENGTH_SHORT).show();
             }
         });
@@ -16,6 +16,7 @@ import com.example.ProjectManager.api.ApiService;
 import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.models.dto.UpdateUserRequest;
 import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.repository.CurrentUserStore;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputLayout;
@@ -42,6 +43,7 @@ public class EditProfileActivity extends AppCompatActivity {
     private ApiService apiService;
     private SharedPrefsManager prefsManager;
     private long userId;
+    private CurrentUserStore.Subscription userSubscription;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -85,29 +87,11 @@ public class EditProfileActivity extends AppCompatActivity {
     }
 
     private void loadUserData() {
-        // Load from prefs first
-        etFirstName.setText(prefsManager.getUserFirstName());
-        etLastName.setText(prefsManager.getUserLastName());
-        etEmail.setText(prefsManager.getUserEmail());
-
-        // Refresh from API
-        showLoading(true);
-        apiService.getUser(userId).enqueue(new Callback<UserResponseDto>() {
-            @Override
-            public void onResponse(@NonNull Call<UserResponseDto> call, @NonNull Response<UserResponseDto> response) {
-                showLoading(false);
-                if (response.isSuccessful() && response.body() != null) {
-                    UserResponseDto user = response.body();
-                    etFirstName.setText(user.getFirstName());
-                    etLastName.setText(user.getLastName());
-                    etEmail.setText(user.getEmail());
-                }
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {
-                showLoading(false);
-            }
+        // Last known profile, and the backend's if it was stale
+        userSubscription = CurrentUserStore.getInstance(this).observe(user -> {
+            etFirstName.setText(user.getFirstName());
+            etLastName.setText(user.getLastName());
+            etEmail.setText(user.getEmail());
         });
     }
 
@@ -149,17 +133,10 @@ public class EditProfileActivity extends AppCompatActivity {
             public void onResponse(@NonNull Call<UserResponseDto> call, @NonNull Response<UserResponseDto> response) {
                 showLoading(false);
                 if (response.isSuccessful() && response.body() != null) {
-                    UserResponseDto user = response.body();
-                    
-                    // Update SharedPreferences
-                    prefsManager.saveUserData(
-                        user.getId(),
-                        user.getEmail(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        prefsManager.getAuthToken()
-                    );
-                    
+                    // Every screen showing the profile is updated from the response, no refetch
+                    userSubscription.cancel();
+                    CurrentUserStore.getInstance(EditProfileActivity.this).update(response.body());
+
                     Toast.makeText(EditProfileActivity.this, "Profile updated successfully", Toast.LENGTH_SHORT).show();
                     finish();
                 } else {
@@ -175,6 +152,14 @@ public class EditProfileActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (userSubscription != null) {
+            userSubscription.cancel();
+        }
+    }
+
     private void showLoading(boolean show) {
         if (loadingOverlay != null) {
             loadingOverlay.setVisibility(show ? View.VISIBLE : View.GONE);
@@ -16,6 +16,8 @@ import com.example.ProjectManager.api.ApiService;
 import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.models.dto.CreateProjectRequest;
 import com.example.ProjectManager.models.dto.ProjectResponse;
+import com.example.ProjectManager.repository.ProjectRepository;
+import com.example.ProjectManager.repository.RefreshCoordinator;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -215,6 +217,8 @@ public class EditProjectActivity extends AppCompatActivity {
             public void onResponse(Call<ProjectResponse> call, Response<ProjectResponse> response) {
                 showLoading(false);
                 if (response.isSuccessful()) {
+                    ProjectRepository.getInstance(EditProjectActivity.this).invalidate();
+                    RefreshCoordinator.getInstance().invalidate(RefreshCoordinator.Dataset.PROJECT, projectId);
                     Toast.makeText(EditProjectActivity.this, "Project updated successfully", Toast.LENGTH_SHORT).show();
                     setResult(RESULT_OK);
                     finish();
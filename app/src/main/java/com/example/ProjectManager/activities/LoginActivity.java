@@ -22,6 +22,8 @@ import com.example.ProjectManager.api.ApiService;
 import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.models.dto.AuthResponseDto;
 import com.example.ProjectManager.models.dto.LoginRequestDto;
+import com.example.ProjectManager.repository.CurrentUserStore;
+import com.example.ProjectManager.repository.MutationOutbox;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 
 import retrofit2.Call;
@@ -164,11 +166,14 @@ public class LoginActivity extends AppCompatActivity {
                             "", // lastName will be fetched separately if needed
                             token);
 
-                    // Fetch user profile to get full user details
+                    // Fetch user profile to get full user details; the dashboard picks it up from the store
                     if (userId != null) {
-                        fetchUserProfile(userId);
+                        CurrentUserStore.getInstance(LoginActivity.this).refreshIfStale();
                     }
 
+                    // Send the changes this user made before the session ended
+                    MutationOutbox.getInstance(LoginActivity.this).replay(null);
+
                     // Show success message
                     Toast.makeText(LoginActivity.this, R.string.login_successful, Toast.LENGTH_SHORT).show();
 
@@ -243,35 +248,6 @@ public class LoginActivity extends AppCompatActivity {
         finish();
     }
 
-    /**
-     * Fetch user profile to get full user details (firstName, lastName)
-     */
-    private void fetchUserProfile(Long userId) {
-        Call<com.example.ProjectManager.models.dto.UserResponseDto> call = apiService.getUser(userId);
-        call.enqueue(new Callback<com.example.ProjectManager.models.dto.UserResponseDto>() {
-            @Override
-            public void onResponse(Call<com.example.ProjectManager.models.dto.UserResponseDto> call,
-                    Response<com.example.ProjectManager.models.dto.UserResponseDto> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    com.example.ProjectManager.models.dto.UserResponseDto user = response.body();
-                    // Update user data with full profile info
-                    String token = prefsManager.getAuthToken();
-                    prefsManager.saveUserData(
-                            user.getId(),
-                            user.getEmail(),
-                            user.getFirstName(),
-                            user.getLastName(),
-                            token);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<com.example.ProjectManager.models.dto.UserResponseDto> call, Throwable t) {
-                // Silently fail - user is still logged in, just without full profile
-            }
-        });
-    }
-
     // Handle back press using OnBackPressedDispatcher
     private void setupBackPressHandler() {
         getOnBackPressedDispatcher().addCallback(this, new androidx.activity.OnBackPressedCallback(true) {
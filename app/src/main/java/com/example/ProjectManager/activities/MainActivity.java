@@ -10,6 +10,7 @@ import android.widget.Toast;
 
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -18,28 +19,30 @@ import com.bumptech.glide.Glide;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.adapters.DashboardProjectAdapter;
 import com.example.ProjectManager.adapters.DashboardTaskAdapter;
-import com.example.ProjectManager.api.ApiService;
-import com.example.ProjectManager.api.RetrofitClient;
-import com.example.ProjectManager.models.dto.PageResponse;
+import com.example.ProjectManager.models.OutboxMutation;
+import com.example.ProjectManager.models.TaskCounts;
 import com.example.ProjectManager.models.dto.ProjectResponse;
 import com.example.ProjectManager.models.dto.TaskResponse;
-import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.repository.CurrentUserStore;
+import com.example.ProjectManager.repository.DashboardComposer;
+import com.example.ProjectManager.repository.MutationOutbox;
+import com.example.ProjectManager.repository.ProjectRepository;
+import com.example.ProjectManager.repository.RefreshCoordinator;
+import com.example.ProjectManager.utils.AvatarLoader;
 import com.example.ProjectManager.utils.NavigationUtils;
+import com.example.ProjectManager.utils.OutboxConfirmationDialog;
 import com.example.ProjectManager.utils.SharedPrefsManager;
+import com.example.ProjectManager.utils.StartupMetrics;
 import com.google.android.material.button.MaterialButton;
 
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import de.hdodenhof.circleimageview.CircleImageView;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 /**
  * Main Dashboard Activity - Matches web app design.
@@ -89,20 +92,19 @@ public class MainActivity extends AppCompatActivity {
     private DashboardTaskAdapter taskAdapter;
 
     // Data
-    private ApiService apiService;
     private SharedPrefsManager prefsManager;
     private long userId;
 
-    // Project name cache for tasks
-    private Map<Long, String> projectNameCache = new HashMap<>();
-
     // Stats
     private int ownedProjectsCount = 0;
     private int memberProjectsCount = 0;
-    private int totalTasksCount = 0;
-    private int todoCount = 0;
-    private int inProgressCount = 0;
-    private int doneCount = 0;
+    private RefreshCoordinator.Tracker freshness;
+    private DashboardComposer dashboard;
+    private CurrentUserStore.Subscription userSubscription;
+    private MutationOutbox.Subscription outboxSubscription;
+    // Creates held for confirmation already asked about during this visit
+    private final Set<Long> askedConfirmations = new HashSet<>();
+    private boolean confirmationShowing;
 
     // Activity launchers
     private final ActivityResultLauncher<Intent> createProjectLauncher = registerForActivityResult(
@@ -128,7 +130,6 @@ public class MainActivity extends AppCompatActivity {
 
         // Initialize
         prefsManager = SharedPrefsManager.getInstance(this);
-        apiService = RetrofitClient.getInstance(this).create(ApiService.class);
         userId = prefsManager.getUserId();
 
         // Check login
@@ -137,6 +138,9 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
+        freshness = RefreshCoordinator.getInstance().track(
+                RefreshCoordinator.Dataset.PROJECTS, RefreshCoordinator.Dataset.TASKS);
+
         initViews();
         setupAdapters();
         setupListeners();
@@ -258,103 +262,65 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void loadUserProfile() {
-        String firstName = prefsManager.getUserFirstName();
-        if (firstName != null && !firstName.isEmpty()) {
-            tvUserName.setText("Welcome, " + firstName + "!");
-        }
-
-        apiService.getUser(userId).enqueue(new Callback<UserResponseDto>() {
-            @Override
-            public void onResponse(Call<UserResponseDto> call, Response<UserResponseDto> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    UserResponseDto user = response.body();
-                    tvUserName.setText("Welcome, " + user.getFirstName() + "!");
-
-                    // Use ImageUtils to properly convert profile picture URL
-                    String profilePicUrl = com.example.ProjectManager.utils.ImageUtils.getProfilePictureUrl(user.getProfilePictureUrl());
-                    if (profilePicUrl != null) {
-                        Glide.with(MainActivity.this)
-                                .load(profilePicUrl)
-                                .placeholder(R.drawable.ic_profile)
-                                .error(R.drawable.ic_profile)
-                                .into(ivProfile);
-                    }
-                }
+        // Last known profile first; the store reads it again only when stale
+        userSubscription = CurrentUserStore.getInstance(this).observe(user -> {
+            String firstName = user.getFirstName();
+            if (firstName != null && !firstName.isEmpty()) {
+                tvUserName.setText("Welcome, " + firstName + "!");
             }
 
-            @Override
-            public void onFailure(Call<UserResponseDto> call, Throwable t) {
-            }
+            // Use ImageUtils to properly convert profile picture URL
+            String profilePicUrl = com.example.ProjectManager.utils.ImageUtils.getProfilePictureUrl(user.getProfilePictureUrl());
+            AvatarLoader.load(Glide.with(MainActivity.this), ivProfile, profilePicUrl, R.drawable.ic_profile);
         });
     }
 
     private void loadDashboardData() {
-        ownedProjectsCount = 0;
-        memberProjectsCount = 0;
-        projectNameCache.clear();
-        loadOwnedProjects();
-    }
+        if (dashboard != null) {
+            dashboard.cancel();
+        }
+        freshness.markLoading();
+        // Projects, tasks and their local copies load side by side; each card shows as soon as it can
+        dashboard = new DashboardComposer(this, userId, new DashboardComposer.Listener() {
+            @Override
+            public void onProjects(@NonNull ProjectRepository.ProjectSet projects) {
+                showProjects(projects);
+            }
 
-    private void loadOwnedProjects() {
-        apiService.getProjectsByOwner(userId, 0, 50).enqueue(new Callback<PageResponse<ProjectResponse>>() {
             @Override
-            public void onResponse(Call<PageResponse<ProjectResponse>> call, Response<PageResponse<ProjectResponse>> response) {
-                List<DashboardProjectAdapter.ProjectItem> allProjects = new ArrayList<>();
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    List<ProjectResponse> owned = response.body().getContent();
-                    ownedProjectsCount = owned.size();
-                    
-                    for (ProjectResponse p : owned) {
-                        allProjects.add(new DashboardProjectAdapter.ProjectItem(
-                                p.getId(), p.getName(), p.getDescription(), true));
-                        projectNameCache.put(p.getId(), p.getName());
-                    }
-                }
-                
-                loadMemberProjects(allProjects);
+            public void onTaskCounts(@NonNull TaskCounts counts) {
+                showTaskCounts(counts);
             }
 
             @Override
-            public void onFailure(Call<PageResponse<ProjectResponse>> call, Throwable t) {
-                loadMemberProjects(new ArrayList<>());
+            public void onTasks(@NonNull List<TaskResponse> tasks, @NonNull Map<Long, String> projectNames) {
+                processTasks(tasks, projectNames);
             }
-        });
-    }
 
-    private void loadMemberProjects(List<DashboardProjectAdapter.ProjectItem> allProjects) {
-        apiService.getProjectsByMember(userId, 0, 50).enqueue(new Callback<PageResponse<ProjectResponse>>() {
             @Override
-            public void onResponse(Call<PageResponse<ProjectResponse>> call, Response<PageResponse<ProjectResponse>> response) {
-                Set<Long> existingIds = new HashSet<>();
-                for (DashboardProjectAdapter.ProjectItem p : allProjects) {
-                    existingIds.add(p.getId());
-                }
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    List<ProjectResponse> member = response.body().getContent();
-                    
-                    for (ProjectResponse p : member) {
-                        if (!existingIds.contains(p.getId())) {
-                            allProjects.add(new DashboardProjectAdapter.ProjectItem(
-                                    p.getId(), p.getName(), p.getDescription(), false));
-                            existingIds.add(p.getId());
-                            projectNameCache.put(p.getId(), p.getName());
-                        }
-                    }
-                    memberProjectsCount = member.size();
-                }
-                
-                updateProjectsUI(allProjects);
-                loadTasks();
+            public void onTasksFailed() {
+                freshness.markFailed();
             }
 
             @Override
-            public void onFailure(Call<PageResponse<ProjectResponse>> call, Throwable t) {
-                updateProjectsUI(allProjects);
-                loadTasks();
+            public void onAllCardsReady() {
+                StartupMetrics.reportFullyDrawn(MainActivity.this);
             }
         });
+        dashboard.start();
+    }
+
+    private void showProjects(ProjectRepository.ProjectSet projects) {
+        List<DashboardProjectAdapter.ProjectItem> allProjects = new ArrayList<>();
+        ownedProjectsCount = projects.getOwned().size();
+        memberProjectsCount = projects.getMember().size();
+
+        for (ProjectResponse p : projects.getAll()) {
+            allProjects.add(new DashboardProjectAdapter.ProjectItem(
+                    p.getId(), p.getName(), p.getDescription(), projects.isOwned(p.getId())));
+        }
+
+        updateProjectsUI(allProjects);
     }
 
     private void updateProjectsUI(List<DashboardProjectAdapter.ProjectItem> allProjects) {
@@ -376,50 +342,14 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    private void loadTasks() {
-        apiService.getAllTasks(0, 100, userId, null, null).enqueue(new Callback<PageResponse<TaskResponse>>() {
-            @Override
-            public void onResponse(Call<PageResponse<TaskResponse>> call, Response<PageResponse<TaskResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    List<TaskResponse> tasks = response.body().getContent();
-                    processTasks(tasks);
-                } else {
-                    updateTasksUI(new ArrayList<>());
-                }
-            }
-
-            @Override
-            public void onFailure(Call<PageResponse<TaskResponse>> call, Throwable t) {
-                updateTasksUI(new ArrayList<>());
-            }
-        });
-    }
-
-    private void processTasks(List<TaskResponse> tasks) {
-        totalTasksCount = tasks.size();
-        todoCount = 0;
-        inProgressCount = 0;
-        doneCount = 0;
-
+    private void processTasks(List<TaskResponse> tasks, Map<Long, String> projectNames) {
         List<DashboardTaskAdapter.TaskItem> upcomingTasks = new ArrayList<>();
 
         for (TaskResponse task : tasks) {
             String status = task.getStatus();
-            
-            switch (status) {
-                case "TODO":
-                    todoCount++;
-                    break;
-                case "IN_PROGRESS":
-                    inProgressCount++;
-                    break;
-                case "DONE":
-                    doneCount++;
-                    break;
-            }
 
             if (!"DONE".equals(status) && !"ARCHIVED".equals(status)) {
-                String projectName = projectNameCache.get(task.getProjectId());
+                String projectName = projectNames.get(task.getProjectId());
                 upcomingTasks.add(new DashboardTaskAdapter.TaskItem(
                         task.getId(),
                         task.getName(),
@@ -442,19 +372,21 @@ public class MainActivity extends AppCompatActivity {
         updateTasksUI(upcomingTasks);
     }
 
-    private void updateTasksUI(List<DashboardTaskAdapter.TaskItem> upcomingTasks) {
-        tvTotalTasks.setText(String.valueOf(totalTasksCount));
-        tvInProgress.setText(String.valueOf(inProgressCount));
-        tvCompleted.setText(String.valueOf(doneCount));
+    private void showTaskCounts(TaskCounts counts) {
+        tvTotalTasks.setText(String.valueOf(counts.getTotal()));
+        tvInProgress.setText(String.valueOf(counts.getInProgress()));
+        tvCompleted.setText(String.valueOf(counts.getDone()));
         
-        tvTodoCount.setText(String.valueOf(todoCount));
-        tvActiveCount.setText(String.valueOf(inProgressCount));
-        tvDoneCount.setText(String.valueOf(doneCount));
+        tvTodoCount.setText(String.valueOf(counts.getTodo()));
+        tvActiveCount.setText(String.valueOf(counts.getInProgress()));
+        tvDoneCount.setText(String.valueOf(counts.getDone()));
 
-        int progress = totalTasksCount > 0 ? (doneCount * 100 / totalTasksCount) : 0;
+        int progress = counts.getCompletionPercent();
         tvProgressPercent.setText(progress + "%");
         progressBar.setProgress(progress);
+    }
 
+    private void updateTasksUI(List<DashboardTaskAdapter.TaskItem> upcomingTasks) {
         List<DashboardTaskAdapter.TaskItem> recentTasks = upcomingTasks.size() > 5 
                 ? upcomingTasks.subList(0, 5) : upcomingTasks;
         
@@ -479,9 +411,51 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        if (userId > 0) {
+        // Skips the resume right after onCreate, and returns from screens that changed nothing
+        if (userId > 0 && freshness.shouldRefresh()) {
             loadDashboardData();
         }
         NavigationUtils.updateNavigation(navHome, navProjects, navTasks, navProfile, "home");
+
+        // Creates the outbox couldn't confirm, e.g. left for later on the screen that made them
+        askedConfirmations.clear();
+        outboxSubscription = MutationOutbox.getInstance(this).observe(this::askAboutHeldCreates);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (outboxSubscription != null) {
+            outboxSubscription.cancel();
+            outboxSubscription = null;
+        }
+    }
+
+    /**
+     * Ask about the held creates one at a time, each once per visit.
+     */
+    private void askAboutHeldCreates(List<OutboxMutation> pending) {
+        if (confirmationShowing) return;
+        for (OutboxMutation mutation : pending) {
+            if (mutation.isAwaitingConfirmation() && askedConfirmations.add(mutation.getId())) {
+                confirmationShowing = true;
+                OutboxConfirmationDialog.show(this, mutation, () -> {
+                    confirmationShowing = false;
+                    askAboutHeldCreates(pending);
+                });
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (dashboard != null) {
+            dashboard.cancel();
+        }
+        if (userSubscription != null) {
+            userSubscription.cancel();
+        }
     }
 }
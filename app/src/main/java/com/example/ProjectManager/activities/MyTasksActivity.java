@@ -19,21 +19,22 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.adapters.TaskCardAdapter;
-import com.example.ProjectManager.api.ApiService;
-import com.example.ProjectManager.api.RetrofitClient;
-import com.example.ProjectManager.models.dto.PageResponse;
 import com.example.ProjectManager.models.dto.ProjectResponse;
 import com.example.ProjectManager.models.dto.TaskResponse;
+import com.example.ProjectManager.repository.DeltaSync;
+import com.example.ProjectManager.repository.OfflineStore;
+import com.example.ProjectManager.repository.ProjectRepository;
+import com.example.ProjectManager.repository.RefreshCoordinator;
+import com.example.ProjectManager.repository.TaskSync;
 import com.example.ProjectManager.utils.NavigationUtils;
 import com.example.ProjectManager.utils.SessionManager;
 import com.google.android.material.tabs.TabLayout;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.Map;
 
 public class MyTasksActivity extends AppCompatActivity {
 
@@ -51,10 +52,14 @@ public class MyTasksActivity extends AppCompatActivity {
     private LinearLayout navHome, navProjects, navTasks, navProfile;
 
     // Data
-    private ApiService apiService;
     private SessionManager sessionManager;
     private TaskCardAdapter adapter;
-    private List<TaskResponse> allTasks = new ArrayList<>();
+    private TaskSync.Handle taskSync;
+    private RefreshCoordinator.Tracker freshness;
+    // Projects whose tasks are listed, for the counters
+    private List<Long> currentProjectIds = new ArrayList<>();
+    // All tasks keyed by ID, in arrival order
+    private final Map<Long, TaskResponse> tasksById = new LinkedHashMap<>();
     private List<TaskResponse> displayedTasks = new ArrayList<>();
 
     private String currentFilter = "all"; // all, todo, in_progress, done
@@ -98,17 +103,18 @@ public class MyTasksActivity extends AppCompatActivity {
                     getResources().getColor(R.color.status_in_progress, null),
                     getResources().getColor(R.color.status_done, null)
             );
-            swipeRefresh.setOnRefreshListener(this::loadTasks);
+            swipeRefresh.setOnRefreshListener(() -> loadTasks(true));
         }
     }
 
     private void setupServices() {
-        apiService = RetrofitClient.getInstance(this).create(ApiService.class);
         sessionManager = new SessionManager(this);
+        freshness = RefreshCoordinator.getInstance().track(
+                RefreshCoordinator.Dataset.PROJECTS, RefreshCoordinator.Dataset.TASKS);
     }
 
     private void setupRecyclerView() {
-        adapter = new TaskCardAdapter(displayedTasks, task -> {
+        adapter = new TaskCardAdapter(this, displayedTasks, task -> {
             Intent intent = new Intent(this, TaskDetailActivity.class);
             intent.putExtra("task_id", task.getId());
             startActivity(intent);
@@ -175,6 +181,10 @@ public class MyTasksActivity extends AppCompatActivity {
     }
 
     private void loadTasks() {
+        loadTasks(false);
+    }
+
+    private void loadTasks(boolean forceRefresh) {
         Long userId = sessionManager.getUserId();
         if (userId == null) {
             Toast.makeText(this, "Session expired", Toast.LENGTH_SHORT).show();
@@ -185,61 +195,28 @@ public class MyTasksActivity extends AppCompatActivity {
             swipeRefresh.setRefreshing(true);
         }
 
-        allTasks.clear();
+        freshness.markLoading();
+        cancelTaskLoad();
+        tasksById.clear();
         
-        // Load owned projects first, then get all tasks from each project
-        loadTasksFromOwnedProjects(userId);
+        // Load the user's projects first, then get all tasks from each project
+        loadTasksFromUserProjects(userId, forceRefresh);
     }
     
-    private void loadTasksFromOwnedProjects(long userId) {
-        apiService.getProjectsByOwner(userId, 0, 100).enqueue(new Callback<PageResponse<ProjectResponse>>() {
+    private void loadTasksFromUserProjects(long userId, boolean forceRefresh) {
+        ProjectRepository.getInstance(this).getProjects(userId, forceRefresh, new ProjectRepository.ProjectsCallback() {
             @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
-                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
-                java.util.Set<Long> projectIds = new java.util.HashSet<>();
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    for (ProjectResponse project : response.body().getContent()) {
-                        projectIds.add(project.getId());
-                    }
-                }
-                
-                // Now load member projects
-                loadTasksFromMemberProjects(userId, projectIds);
+            public void onLocalProjectsLoaded(@NonNull ProjectRepository.ProjectSet projects) {
+                currentProjectIds = projectIdsOf(projects);
+                loadLocalTasks(currentProjectIds);
             }
 
             @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                loadTasksFromMemberProjects(userId, new java.util.HashSet<>());
-            }
-        });
-    }
-    
-    private void loadTasksFromMemberProjects(long userId, java.util.Set<Long> projectIds) {
-        apiService.getProjectsByMember(userId, 0, 100).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
-                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    for (ProjectResponse project : response.body().getContent()) {
-                        projectIds.add(project.getId());
-                    }
-                }
-                
-                // Now load tasks from all projects
-                if (projectIds.isEmpty()) {
-                    if (swipeRefresh != null) {
-                        swipeRefresh.setRefreshing(false);
-                    }
-                    updateStats();
-                    filterAndDisplayTasks();
-                } else {
-                    loadTasksFromProjects(new java.util.ArrayList<>(projectIds), 0);
-                }
-            }
+            public void onProjectsLoaded(@NonNull ProjectRepository.ProjectSet projects) {
+                List<Long> projectIds = projectIdsOf(projects);
+                currentProjectIds = projectIds;
 
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
+                // Now load tasks from all projects
                 if (projectIds.isEmpty()) {
                     if (swipeRefresh != null) {
                         swipeRefresh.setRefreshing(false);
@@ -247,98 +224,133 @@ public class MyTasksActivity extends AppCompatActivity {
                     updateStats();
                     filterAndDisplayTasks();
                 } else {
-                    loadTasksFromProjects(new java.util.ArrayList<>(projectIds), 0);
+                    loadTasksFromProjects(projectIds);
                 }
             }
         });
     }
-    
-    private void loadTasksFromProjects(java.util.List<Long> projectIds, int index) {
-        if (index >= projectIds.size()) {
-            // All projects loaded
-            if (swipeRefresh != null) {
-                swipeRefresh.setRefreshing(false);
-            }
-            Log.d(TAG, "Loaded " + allTasks.size() + " tasks from " + projectIds.size() + " projects");
+
+    private static List<Long> projectIdsOf(ProjectRepository.ProjectSet projects) {
+        List<Long> projectIds = new ArrayList<>();
+        for (ProjectResponse project : projects.getAll()) {
+            projectIds.add(project.getId());
+        }
+        return projectIds;
+    }
+
+    /**
+     * Show the tasks stored by the last sync until the network results come in.
+     */
+    private void loadLocalTasks(List<Long> projectIds) {
+        OfflineStore.getInstance(this).query(db -> db.getRemoteTasksForProjects(projectIds), localTasks -> {
+            if (localTasks == null || !tasksById.isEmpty()) return;
+            mergeTasks(localTasks);
             updateStats();
             filterAndDisplayTasks();
-            return;
-        }
-        
-        long projectId = projectIds.get(index);
-        apiService.getAllTasks(0, 100, null, projectId, null).enqueue(new Callback<PageResponse<TaskResponse>>() {
+        });
+    }
+    
+    private void loadTasksFromProjects(List<Long> projectIds) {
+        cancelTaskLoad();
+
+        // Each project's local copy is brought up to date with the tasks changed since its
+        // last sync; the screen then re-reads the projects that changed
+        taskSync = TaskSync.getInstance(this).syncProjects(projectIds, new TaskSync.Listener() {
             @Override
-            public void onResponse(@NonNull Call<PageResponse<TaskResponse>> call, 
-                                   @NonNull Response<PageResponse<TaskResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    // Add tasks, avoiding duplicates
-                    java.util.Set<Long> existingTaskIds = new java.util.HashSet<>();
-                    for (TaskResponse t : allTasks) {
-                        existingTaskIds.add(t.getId());
-                    }
-                    for (TaskResponse task : response.body().getContent()) {
-                        if (!existingTaskIds.contains(task.getId())) {
-                            allTasks.add(task);
-                        }
-                    }
+            public void onProjectSynced(long projectId, @NonNull DeltaSync.Result result) {
+                if (!result.isSuccess()) {
+                    // Continue with the other projects even if this one fails
+                    Log.w(TAG, "Failed to sync tasks for project " + projectId + ": " + result.getError());
+                }
+                if (result.getAppliedRows() > 0 || result.getMode() == DeltaSync.Mode.FULL) {
+                    showProjectTasks(projectId);
                 }
-                // Load next project
-                loadTasksFromProjects(projectIds, index + 1);
             }
 
             @Override
-            public void onFailure(@NonNull Call<PageResponse<TaskResponse>> call, @NonNull Throwable t) {
-                // Continue with next project even if this one fails
-                loadTasksFromProjects(projectIds, index + 1);
+            public void onComplete(int succeeded, int failed) {
+                Log.d(TAG, "Synced tasks of " + succeeded + " projects"
+                        + (failed > 0 ? " (" + failed + " failed)" : ""));
+                if (failed > 0) {
+                    freshness.markFailed();
+                }
+                if (swipeRefresh != null) {
+                    swipeRefresh.setRefreshing(false);
+                }
+                // Projects that were removed from the user's list drop out here
+                OfflineStore.getInstance(MyTasksActivity.this).query(
+                        db -> db.getRemoteTasksForProjects(projectIds), tasks -> {
+                            if (tasks == null) return;
+                            tasksById.clear();
+                            mergeTasks(tasks);
+                            updateStats();
+                            filterAndDisplayTasks();
+                            Log.d(TAG, "Loaded " + tasksById.size() + " tasks");
+                        });
             }
         });
     }
 
-    private void updateStats() {
-        int totalCount = allTasks.size();
-        int todoCount = 0;
-        int inProgressCount = 0;
-        int doneCount = 0;
-
-        for (TaskResponse task : allTasks) {
-            String status = task.getStatus();
-            if (status != null) {
-                switch (status.toUpperCase()) {
-                    case "TODO":
-                    case "TO_DO":
-                    case "TO DO":
-                        todoCount++;
-                        break;
-                    case "IN_PROGRESS":
-                    case "IN PROGRESS":
-                        inProgressCount++;
-                        break;
-                    case "DONE":
-                    case "COMPLETED":
-                        doneCount++;
-                        break;
+    /**
+     * Replace the tasks of one project with its freshly synced local copy.
+     */
+    private void showProjectTasks(long projectId) {
+        OfflineStore.getInstance(this).query(db -> db.getRemoteProjectTasks(projectId), tasks -> {
+            if (tasks == null) return;
+            Iterator<TaskResponse> it = tasksById.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().getProjectId() == projectId) {
+                    it.remove();
                 }
             }
-        }
+            mergeTasks(tasks);
+            // Publish partial results while the other projects are in flight
+            updateStats();
+            filterAndDisplayTasks();
+        });
+    }
 
-        if (tvTotalCount != null) {
-            tvTotalCount.setText(String.valueOf(totalCount));
+    private void mergeTasks(List<TaskResponse> tasks) {
+        if (tasks == null) return;
+        for (TaskResponse task : tasks) {
+            tasksById.put(task.getId(), task);
         }
-        if (tvTodoCount != null) {
-            tvTodoCount.setText(String.valueOf(todoCount));
-        }
-        if (tvInProgressCount != null) {
-            tvInProgressCount.setText(String.valueOf(inProgressCount));
-        }
-        if (tvDoneCount != null) {
-            tvDoneCount.setText(String.valueOf(doneCount));
+    }
+
+    private void cancelTaskLoad() {
+        if (taskSync != null) {
+            taskSync.cancel();
+            taskSync = null;
         }
     }
 
+    /**
+     * Status counters of the user's projects, summed from the per-project counters the
+     * local database keeps; no pass over the task list.
+     */
+    private void updateStats() {
+        List<Long> projectIds = currentProjectIds;
+        OfflineStore.getInstance(this).query(db -> db.getTaskCountsForProjects(projectIds), counts -> {
+            if (counts == null) return;
+            if (tvTotalCount != null) {
+                tvTotalCount.setText(String.valueOf(counts.getTotal()));
+            }
+            if (tvTodoCount != null) {
+                tvTodoCount.setText(String.valueOf(counts.getTodo()));
+            }
+            if (tvInProgressCount != null) {
+                tvInProgressCount.setText(String.valueOf(counts.getInProgress()));
+            }
+            if (tvDoneCount != null) {
+                tvDoneCount.setText(String.valueOf(counts.getDone()));
+            }
+        });
+    }
+
     private void filterAndDisplayTasks() {
         displayedTasks.clear();
 
-        for (TaskResponse task : allTasks) {
+        for (TaskResponse task : tasksById.values()) {
             // Apply status filter
             if (!matchesStatusFilter(task)) {
                 continue;
@@ -354,7 +366,7 @@ public class MyTasksActivity extends AppCompatActivity {
 
         // Update UI
         if (adapter != null) {
-            adapter.notifyDataSetChanged();
+            adapter.submitItems(displayedTasks);
         }
         updateEmptyState();
     }
@@ -405,9 +417,18 @@ public class MyTasksActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        cancelTaskLoad();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
-        loadTasks();
+        // The list stays as it is unless a task or project changed or it got old
+        if (freshness.shouldRefresh()) {
+            loadTasks();
+        }
     }
 }
@@ -61,7 +61,7 @@ public class NotificationsActivity extends AppCompatActivity {
         adapter = new NotificationAdapter(notifications, notification -> {
             // Handle notification click
             notification.setRead(true);
-            adapter.notifyDataSetChanged();
+            adapter.notifyReadChanged(notification);
         });
         recyclerNotifications.setLayoutManager(new LinearLayoutManager(this));
         recyclerNotifications.setAdapter(adapter);
@@ -128,7 +128,7 @@ public class NotificationsActivity extends AppCompatActivity {
                 showEmptyState();
             } else {
                 hideEmptyState();
-                adapter.notifyDataSetChanged();
+                adapter.submitItems(notifications);
             }
         }, 500);
     }
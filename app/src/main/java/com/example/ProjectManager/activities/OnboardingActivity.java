@@ -7,6 +7,7 @@ import android.widget.Button;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.ProjectManager.R;
+import com.example.ProjectManager.utils.SessionManager;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 
 /**
@@ -32,7 +33,7 @@ public class OnboardingActivity extends AppCompatActivity {
         } else if (prefsManager.isLoggedIn()) {
             // User is marked as logged in but token is missing/invalid - clear and show
             // login
-            prefsManager.clearUserData();
+            new SessionManager(this).clearSession();
         }
 
         setContentView(R.layout.activity_onboarding);
@@ -22,27 +22,21 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.bitmap.CircleCrop;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.ImageUploadBody;
 import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.models.dto.MessageResponse;
-import com.example.ProjectManager.models.dto.PageResponse;
-import com.example.ProjectManager.models.dto.ProjectResponse;
-import com.example.ProjectManager.models.dto.TaskResponse;
 import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.repository.CurrentUserStore;
+import com.example.ProjectManager.repository.OfflineStore;
+import com.example.ProjectManager.utils.AvatarLoader;
 import com.example.ProjectManager.utils.Constants;
+import com.example.ProjectManager.utils.SessionManager;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-
 import de.hdodenhof.circleimageview.CircleImageView;
-import okhttp3.MediaType;
 import okhttp3.MultipartBody;
-import okhttp3.RequestBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -71,6 +65,7 @@ public class ProfileActivity extends AppCompatActivity {
     private LinearLayout menuLogout;
     private LinearLayout menuDeleteAccount;
     private View loadingOverlay;
+    private TextView txtUploadProgress;
     
     // API & Data
     private ApiService apiService;
@@ -79,6 +74,7 @@ public class ProfileActivity extends AppCompatActivity {
     
     // Activity Result Launcher for image picker
     private ActivityResultLauncher<Intent> imagePickerLauncher;
+    private CurrentUserStore.Subscription userSubscription;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -115,6 +111,7 @@ public class ProfileActivity extends AppCompatActivity {
         menuLogout = findViewById(R.id.menu_logout);
         menuDeleteAccount = findViewById(R.id.menu_delete_account);
         loadingOverlay = findViewById(R.id.loading_overlay);
+        txtUploadProgress = findViewById(R.id.txt_upload_progress);
     }
     
     private void setupImagePicker() {
@@ -172,140 +169,41 @@ public class ProfileActivity extends AppCompatActivity {
     }
     
     private void loadUserData() {
-        // Load from SharedPreferences first (instant)
-        String fullName = prefsManager.getUserFullName();
-        String email = prefsManager.getUserEmail();
-        
-        txtUserName.setText(fullName.isEmpty() ? "User" : fullName);
-        txtUserEmail.setText(email);
-        
-        // Load profile picture
-        loadProfilePicture();
-        
-        // Refresh from API
-        apiService.getUser(userId).enqueue(new Callback<UserResponseDto>() {
-            @Override
-            public void onResponse(@NonNull Call<UserResponseDto> call, @NonNull Response<UserResponseDto> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    UserResponseDto user = response.body();
-                    String name = user.getFirstName() + " " + user.getLastName();
-                    txtUserName.setText(name.trim().isEmpty() ? "User" : name.trim());
-                    txtUserEmail.setText(user.getEmail());
-                    
-                    // Update SharedPreferences
-                    prefsManager.saveUserData(
-                        user.getId(),
-                        user.getEmail(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        prefsManager.getAuthToken()
-                    );
-                }
-            }
+        // Last known profile right away, then again whenever it changes (refreshed when stale)
+        userSubscription = CurrentUserStore.getInstance(this).observe(this::showUser);
+    }
 
-            @Override
-            public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {
-                // Keep cached data, no action needed
-            }
-        });
+    private void showUser(UserResponseDto user) {
+        String name = (nullToEmpty(user.getFirstName()) + " " + nullToEmpty(user.getLastName())).trim();
+        txtUserName.setText(name.isEmpty() ? "User" : name);
+        txtUserEmail.setText(user.getEmail());
+
+        String profilePicUrl = com.example.ProjectManager.utils.ImageUtils.getProfilePictureUrl(
+            user.getProfilePictureUrl()
+        );
+        if (profilePicUrl != null) {
+            AvatarLoader.request(Glide.with(ProfileActivity.this), profilePicUrl, true)
+                .circleCrop()
+                .placeholder(R.drawable.ic_profile_placeholder)
+                .error(R.drawable.ic_profile_placeholder)
+                .into(profileImage);
+        } else {
+            Glide.with(this).clear(profileImage);
+            profileImage.setImageResource(R.drawable.ic_profile_placeholder);
+        }
     }
-    
-    private void loadProfilePicture() {
-        // Fetch user data and use the profilePictureUrl from response
-        apiService.getUser(userId).enqueue(new Callback<UserResponseDto>() {
-            @Override
-            public void onResponse(@NonNull Call<UserResponseDto> call, @NonNull Response<UserResponseDto> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    String profilePicUrl = com.example.ProjectManager.utils.ImageUtils.getProfilePictureUrl(
-                        response.body().getProfilePictureUrl()
-                    );
-                    if (profilePicUrl != null) {
-                        Glide.with(ProfileActivity.this)
-                            .load(profilePicUrl)
-                            .transform(new CircleCrop())
-                            .placeholder(R.drawable.ic_profile_placeholder)
-                            .error(R.drawable.ic_profile_placeholder)
-                            .into(profileImage);
-                    }
-                }
-            }
 
-            @Override
-            public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {
-                // Keep default placeholder
-            }
-        });
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
     }
     
     private void loadStatistics() {
-        // Load projects count
-        apiService.getProjectsByOwner(userId, 0, 1).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call, 
-                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    int ownedProjects = (int) response.body().getTotalElements();
-                    
-                    // Also load member projects
-                    apiService.getProjectsByMember(userId, 0, 1).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-                        @Override
-                        public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
-                                               @NonNull Response<PageResponse<ProjectResponse>> response) {
-                            int memberProjects = 0;
-                            if (response.isSuccessful() && response.body() != null) {
-                                memberProjects = (int) response.body().getTotalElements();
-                            }
-                            txtProjectCount.setText(String.valueOf(ownedProjects + memberProjects));
-                        }
-
-                        @Override
-                        public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                            txtProjectCount.setText(String.valueOf(ownedProjects));
-                        }
-                    });
-                }
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                txtProjectCount.setText("0");
-            }
-        });
-        
-        // Load tasks count
-        apiService.getAllTasks(0, 1, userId, null, null).enqueue(new Callback<PageResponse<TaskResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<TaskResponse>> call,
-                                   @NonNull Response<PageResponse<TaskResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    txtTaskCount.setText(String.valueOf(response.body().getTotalElements()));
-                } else {
-                    txtTaskCount.setText("0");
-                }
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<TaskResponse>> call, @NonNull Throwable t) {
-                txtTaskCount.setText("0");
-            }
-        });
-        
-        // Load completed tasks count
-        apiService.getAllTasks(0, 1, userId, null, "DONE").enqueue(new Callback<PageResponse<TaskResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<TaskResponse>> call,
-                                   @NonNull Response<PageResponse<TaskResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    txtCompletedCount.setText(String.valueOf(response.body().getTotalElements()));
-                } else {
-                    txtCompletedCount.setText("0");
-                }
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<TaskResponse>> call, @NonNull Throwable t) {
-                txtCompletedCount.setText("0");
-            }
+        // Counters kept by the local database as projects and tasks are synced; no network
+        OfflineStore.getInstance(this).query(db -> db.getUserStats(userId), stats -> {
+            if (stats == null) return;
+            txtProjectCount.setText(String.valueOf(stats.getProjectCount()));
+            txtTaskCount.setText(String.valueOf(stats.getAssignedTasks().getTotal()));
+            txtCompletedCount.setText(String.valueOf(stats.getAssignedTasks().getDone()));
         });
     }
     
@@ -362,67 +260,40 @@ public class ProfileActivity extends AppCompatActivity {
     
     private void uploadProfilePicture(Uri imageUri) {
         showLoading(true);
-        
-        try {
-            File file = createTempFileFromUri(imageUri);
-            if (file == null) {
+
+        // Read, shrunk and sent from OkHttp's thread; nothing is copied to disk
+        ImageUploadBody requestBody = new ImageUploadBody(getContentResolver(), imageUri,
+                (written, total) -> showUploadProgress((int) (100 * written / total)));
+        MultipartBody.Part part = MultipartBody.Part.createFormData("file", ImageUploadBody.FILE_NAME, requestBody);
+
+        apiService.uploadProfilePicture(part).enqueue(new Callback<UserResponseDto>() {
+            @Override
+            public void onResponse(@NonNull Call<UserResponseDto> call,
+                                  @NonNull Response<UserResponseDto> response) {
                 showLoading(false);
-                Toast.makeText(this, "Failed to read image", Toast.LENGTH_SHORT).show();
-                return;
-            }
-            
-            RequestBody requestBody = RequestBody.create(MediaType.parse("image/*"), file);
-            MultipartBody.Part part = MultipartBody.Part.createFormData("file", file.getName(), requestBody);
-            
-            apiService.uploadProfilePicture(part).enqueue(new Callback<UserResponseDto>() {
-                @Override
-                public void onResponse(@NonNull Call<UserResponseDto> call, 
-                                      @NonNull Response<UserResponseDto> response) {
-                    showLoading(false);
-                    if (response.isSuccessful()) {
-                        Toast.makeText(ProfileActivity.this, "Profile picture updated", Toast.LENGTH_SHORT).show();
-                        loadProfilePicture();
-                    } else {
-                        Toast.makeText(ProfileActivity.this, "Failed to upload picture", Toast.LENGTH_SHORT).show();
+                if (response.isSuccessful()) {
+                    Toast.makeText(ProfileActivity.this, "Profile picture updated", Toast.LENGTH_SHORT).show();
+                    if (response.body() != null) {
+                        // The response is the updated user: the picture is shown through the store
+                        CurrentUserStore.getInstance(ProfileActivity.this).update(response.body());
                     }
-                    // Clean up temp file
-                    file.delete();
+                } else {
+                    Toast.makeText(ProfileActivity.this, "Failed to upload picture", Toast.LENGTH_SHORT).show();
                 }
+            }
 
-                @Override
-                public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {
-                    showLoading(false);
-                    Toast.makeText(ProfileActivity.this, "Network error: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-                    file.delete();
-                }
-            });
-        } catch (Exception e) {
-            showLoading(false);
-            Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-        }
-    }
-    
-    private File createTempFileFromUri(Uri uri) {
-        try {
-            InputStream inputStream = getContentResolver().openInputStream(uri);
-            if (inputStream == null) return null;
-            
-            File tempFile = File.createTempFile("profile_", ".jpg", getCacheDir());
-            FileOutputStream outputStream = new FileOutputStream(tempFile);
-            
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
+            @Override
+            public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {
+                showLoading(false);
+                Toast.makeText(ProfileActivity.this, "Network error: " + t.getMessage(), Toast.LENGTH_SHORT).show();
             }
-            
-            inputStream.close();
-            outputStream.close();
-            
-            return tempFile;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
+        });
+    }
+
+    private void showUploadProgress(int percent) {
+        if (txtUploadProgress != null && loadingOverlay.getVisibility() == View.VISIBLE) {
+            txtUploadProgress.setVisibility(View.VISIBLE);
+            txtUploadProgress.setText("Uploading " + percent + "%");
         }
     }
     
@@ -436,7 +307,7 @@ public class ProfileActivity extends AppCompatActivity {
                 showLoading(false);
                 if (response.isSuccessful()) {
                     Toast.makeText(ProfileActivity.this, "Profile picture removed", Toast.LENGTH_SHORT).show();
-                    profileImage.setImageResource(R.drawable.ic_profile_placeholder);
+                    CurrentUserStore.getInstance(ProfileActivity.this).setProfilePictureUrl(null);
                 } else {
                     Toast.makeText(ProfileActivity.this, "Failed to remove picture", Toast.LENGTH_SHORT).show();
                 }
@@ -460,7 +331,7 @@ public class ProfileActivity extends AppCompatActivity {
     }
     
     private void performLogout() {
-        prefsManager.clearUserData();
+        new SessionManager(this).clearSession();
         
         Intent intent = new Intent(this, LoginActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -504,13 +375,24 @@ public class ProfileActivity extends AppCompatActivity {
         if (loadingOverlay != null) {
             loadingOverlay.setVisibility(show ? View.VISIBLE : View.GONE);
         }
+        if (txtUploadProgress != null) {
+            txtUploadProgress.setVisibility(View.GONE);
+        }
     }
     
     @Override
     protected void onResume() {
         super.onResume();
-        // Refresh data when returning to this activity
-        loadUserData();
+        // Edits made elsewhere reach this screen through the store; only a stale profile is read again
+        CurrentUserStore.getInstance(this).refreshIfStale();
         loadStatistics();
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (userSubscription != null) {
+            userSubscription.cancel();
+        }
+    }
 }
@@ -21,12 +21,17 @@ import com.example.ProjectManager.R;
 import com.example.ProjectManager.adapters.ProjectMemberAdapter;
 import com.example.ProjectManager.adapters.TaskAdapter;
 import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.PageLoader;
 import com.example.ProjectManager.api.RetrofitClient;
-import com.example.ProjectManager.models.dto.PageResponse;
 import com.example.ProjectManager.models.dto.ProjectMemberResponse;
 import com.example.ProjectManager.models.dto.ProjectResponse;
 import com.example.ProjectManager.models.dto.TaskResponse;
-import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.repository.DeltaSync;
+import com.example.ProjectManager.repository.OfflineStore;
+import com.example.ProjectManager.repository.ProjectRepository;
+import com.example.ProjectManager.repository.RefreshCoordinator;
+import com.example.ProjectManager.repository.TaskSync;
+import com.example.ProjectManager.repository.UserResolver;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
@@ -48,6 +53,10 @@ import retrofit2.Response;
 public class ProjectDetailActivity extends AppCompatActivity {
 
     public static final String EXTRA_PROJECT_ID = "project_id";
+
+    private static final int MEMBER_PAGE_SIZE = 50;
+    // Rows from the end of the members list at which the next page is requested
+    private static final int MEMBER_PREFETCH_DISTANCE = 10;
     
     // Views
     private ImageView btnBack;
@@ -82,7 +91,30 @@ public class ProjectDetailActivity extends AppCompatActivity {
     private long currentUserId;
     private ProjectResponse currentProject;
     private List<TaskResponse> tasks = new ArrayList<>();
+    private TaskSync.Handle taskSync;
+    private RefreshCoordinator.Tracker freshness;
+    // Set once network data arrived, so a late local read doesn't overwrite it
+    private boolean tasksFromNetwork;
+    private boolean membersFromNetwork;
     private List<ProjectMemberResponse> members = new ArrayList<>();
+    private PageLoader<ProjectMemberResponse> memberLoader;
+    private final PageLoader.Listener<ProjectMemberResponse> memberPages =
+            new PageLoader.Listener<ProjectMemberResponse>() {
+                @Override
+                public void onPageLoaded(List<ProjectMemberResponse> items, boolean complete) {
+                    if (memberLoader.getTotalElements() < 0) {
+                        // Nothing from the network yet (or page 0 failed): keep what is shown
+                        return;
+                    }
+                    membersFromNetwork = true;
+                    if (complete && !memberLoader.hasMore()) {
+                        // Only a complete list replaces the local copy
+                        OfflineStore.getInstance(ProjectDetailActivity.this)
+                                .execute(db -> db.replaceProjectMembers(projectId, items));
+                    }
+                    showMembers(items);
+                }
+            };
     
     private SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
 
@@ -101,6 +133,10 @@ public class ProjectDetailActivity extends AppCompatActivity {
         apiService = RetrofitClient.getInstance(this).create(ApiService.class);
         prefsManager = SharedPrefsManager.getInstance(this);
         currentUserId = prefsManager.getUserId();
+        freshness = RefreshCoordinator.getInstance().track(projectId,
+                RefreshCoordinator.Dataset.PROJECT, RefreshCoordinator.Dataset.TASKS);
+        memberLoader = new PageLoader<>("projects/" + projectId + "/members", MEMBER_PAGE_SIZE,
+                (page, size) -> apiService.getProjectMembers(projectId, page, size));
 
         initViews();
         setupAdapters();
@@ -135,7 +171,7 @@ public class ProjectDetailActivity extends AppCompatActivity {
     }
 
     private void setupAdapters() {
-        taskAdapter = new TaskAdapter(tasks, task -> {
+        taskAdapter = new TaskAdapter(this, tasks, task -> {
             // Open task detail
             Intent intent = new Intent(this, TaskDetailActivity.class);
             intent.putExtra(TaskDetailActivity.EXTRA_TASK_ID, task.getId());
@@ -159,6 +195,11 @@ public class ProjectDetailActivity extends AppCompatActivity {
         });
         
         recyclerContent.setLayoutManager(new LinearLayoutManager(this));
+        // Each only preloads while its tab's adapter is the one shown
+        taskAdapter.preloadAvatars(recyclerContent);
+        memberAdapter.preloadAvatars(recyclerContent);
+        // Further member pages are loaded as the members tab is scrolled
+        memberLoader.attachToRecyclerView(recyclerContent, memberAdapter, MEMBER_PREFETCH_DISTANCE, memberPages);
     }
 
     private void setupClickListeners() {
@@ -215,23 +256,27 @@ public class ProjectDetailActivity extends AppCompatActivity {
     }
 
     private void loadProjectDetails() {
-        showLoading(true);
-        
+        if (currentProject == null) {
+            showLoading(true);
+            loadLocalProject();
+        }
+        freshness.markLoading();
+
         apiService.getProject(projectId).enqueue(new Callback<ProjectResponse>() {
             @Override
             public void onResponse(@NonNull Call<ProjectResponse> call, 
                                    @NonNull Response<ProjectResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
                     currentProject = response.body();
+                    ProjectResponse project = currentProject;
+                    OfflineStore.getInstance(ProjectDetailActivity.this)
+                            .execute(db -> db.upsertRemoteProject(project));
                     displayProjectInfo();
+                    applyOwnership();
                     loadTasks();
                     loadMembers();
-                    
-                    // Show/hide edit/delete buttons based on ownership
-                    boolean isOwner = currentProject.getOwnerId() == currentUserId;
-                    btnEdit.setVisibility(isOwner ? View.VISIBLE : View.GONE);
-                    btnDelete.setVisibility(isOwner ? View.VISIBLE : View.GONE);
                 } else {
+                    freshness.markFailed();
                     showLoading(false);
                     Toast.makeText(ProjectDetailActivity.this, "Failed to load project", Toast.LENGTH_SHORT).show();
                 }
@@ -239,6 +284,7 @@ public class ProjectDetailActivity extends AppCompatActivity {
 
             @Override
             public void onFailure(@NonNull Call<ProjectResponse> call, @NonNull Throwable t) {
+                freshness.markFailed();
                 showLoading(false);
                 swipeRefresh.setRefreshing(false);
                 Toast.makeText(ProjectDetailActivity.this, "Network error: " + t.getMessage(), Toast.LENGTH_SHORT).show();
@@ -246,6 +292,35 @@ public class ProjectDetailActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Cold open: render the last synced project, tasks and members while the network loads.
+     */
+    private void loadLocalProject() {
+        OfflineStore store = OfflineStore.getInstance(this);
+        store.query(db -> db.getRemoteProject(projectId), project -> {
+            if (project == null || currentProject != null) return;
+            currentProject = project;
+            displayProjectInfo();
+            applyOwnership();
+            showLoading(false);
+        });
+        store.query(db -> db.getRemoteProjectTasks(projectId), localTasks -> {
+            if (localTasks == null || localTasks.isEmpty() || tasksFromNetwork) return;
+            showTasks(localTasks);
+        });
+        store.query(db -> db.getRemoteProjectMembers(projectId), localMembers -> {
+            if (localMembers == null || localMembers.isEmpty() || membersFromNetwork) return;
+            showMembers(localMembers);
+        });
+    }
+
+    private void applyOwnership() {
+        // Show/hide edit/delete buttons based on ownership
+        boolean isOwner = currentProject.getOwnerId() == currentUserId;
+        btnEdit.setVisibility(isOwner ? View.VISIBLE : View.GONE);
+        btnDelete.setVisibility(isOwner ? View.VISIBLE : View.GONE);
+    }
+
     private void displayProjectInfo() {
         txtProjectName.setText(currentProject.getName());
         
@@ -266,99 +341,72 @@ public class ProjectDetailActivity extends AppCompatActivity {
         }
         
         // Load owner info
-        apiService.getUser(currentProject.getOwnerId()).enqueue(new Callback<UserResponseDto>() {
-            @Override
-            public void onResponse(@NonNull Call<UserResponseDto> call, 
-                                   @NonNull Response<UserResponseDto> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    String ownerName = response.body().getFirstName() + " " + response.body().getLastName();
-                    txtOwner.setText("Owner: " + ownerName.trim());
-                }
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {}
+        UserResolver.getInstance(this).resolve(currentProject.getOwnerId(), owner -> {
+            String ownerName = owner.getFirstName() + " " + owner.getLastName();
+            txtOwner.setText("Owner: " + ownerName.trim());
         });
     }
 
     private void loadTasks() {
-        // Backend limits to 10 items per page, so we need to load all pages
-        tasks.clear();
-        loadTasksPage(0);
-    }
-    
-    private void loadTasksPage(int page) {
-        apiService.getAllTasks(page, 100, null, projectId, null).enqueue(new Callback<PageResponse<TaskResponse>>() {
+        // Only the tasks changed since the last sync are downloaded; the list is then
+        // re-read from the local copy
+        cancelTaskSync();
+        taskSync = TaskSync.getInstance(this).syncProject(projectId, new TaskSync.Listener() {
             @Override
-            public void onResponse(@NonNull Call<PageResponse<TaskResponse>> call,
-                                   @NonNull Response<PageResponse<TaskResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    PageResponse<TaskResponse> pageResponse = response.body();
-                    tasks.addAll(pageResponse.getContent());
-                    
-                    // Check if there are more pages to load using isLast() flag
-                    if (!pageResponse.isLast()) {
-                        // Load next page
-                        loadTasksPage(page + 1);
-                    } else {
-                        // All pages loaded, update UI
-                        updateProgress();
-                        if (tabLayout.getSelectedTabPosition() == 0) {
-                            updateContent(0);
-                        }
-                        showLoading(false);
-                        swipeRefresh.setRefreshing(false);
-                    }
-                } else {
-                    // Update UI even if response failed (show what we have)
-                    updateProgress();
-                    if (tabLayout.getSelectedTabPosition() == 0) {
-                        updateContent(0);
-                    }
-                    showLoading(false);
-                    swipeRefresh.setRefreshing(false);
-                }
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<TaskResponse>> call, @NonNull Throwable t) {
-                // Update UI even if request failed (show what we have)
-                updateProgress();
-                if (tabLayout.getSelectedTabPosition() == 0) {
-                    updateContent(0);
-                }
-                showLoading(false);
-                swipeRefresh.setRefreshing(false);
+            public void onProjectSynced(long syncedProjectId, @NonNull DeltaSync.Result result) {
+                taskSync = null;
+                // On failure this still shows whatever the last sync stored
+                OfflineStore.getInstance(ProjectDetailActivity.this).query(
+                        db -> db.getRemoteProjectTasks(projectId), synced -> {
+                            tasksFromNetwork = true;
+                            if (synced != null) {
+                                showTasks(synced);
+                            }
+                            showLoading(false);
+                            swipeRefresh.setRefreshing(false);
+                        });
             }
         });
     }
 
+    private void cancelTaskSync() {
+        if (taskSync != null) {
+            taskSync.cancel();
+            taskSync = null;
+        }
+    }
+
+    private void showTasks(List<TaskResponse> items) {
+        tasks.clear();
+        tasks.addAll(items);
+        taskAdapter.setItems(tasks);
+        updateProgress();
+        if (tabLayout.getSelectedTabPosition() == 0) {
+            updateContent(0);
+        }
+    }
+
     private void loadMembers() {
-        apiService.getProjectMembers(projectId, 0, 100).enqueue(new Callback<PageResponse<ProjectMemberResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectMemberResponse>> call,
-                                   @NonNull Response<PageResponse<ProjectMemberResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    members.clear();
-                    members.addAll(response.body().getContent());
-                    
-                    // Update adapter with new data
-                    memberAdapter.setMembers(members);
-                    if (currentProject != null) {
-                        memberAdapter.setOwnerId(currentProject.getOwnerId());
-                        // Show remove button only for owner (except for owner themselves)
-                        memberAdapter.setShowRemoveButton(currentProject.getOwnerId() == currentUserId);
-                    }
-                    
-                    if (tabLayout.getSelectedTabPosition() == 1) {
-                        updateContent(1);
-                    }
-                }
-            }
+        // First page only; the rest follow as the user scrolls
+        memberLoader.reset();
+        memberLoader.loadNextPage(memberPages);
+    }
 
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectMemberResponse>> call, @NonNull Throwable t) {}
-        });
+    private void showMembers(List<ProjectMemberResponse> loaded) {
+        members.clear();
+        members.addAll(loaded);
+
+        // Update adapter with new data
+        memberAdapter.setMembers(members);
+        if (currentProject != null) {
+            memberAdapter.setOwnerId(currentProject.getOwnerId());
+            // Show remove button only for owner (except for owner themselves)
+            memberAdapter.setShowRemoveButton(currentProject.getOwnerId() == currentUserId);
+        }
+
+        if (tabLayout.getSelectedTabPosition() == 1) {
+            updateContent(1);
+        }
     }
 
     private void updateProgress() {
@@ -366,32 +414,22 @@ public class ProjectDetailActivity extends AppCompatActivity {
             progressContainer.setVisibility(View.GONE);
             return;
         }
-        
-        progressContainer.setVisibility(View.VISIBLE);
-        
-        int total = tasks.size();
-        int done = 0;
-        int inProgress = 0;
-        
-        for (TaskResponse task : tasks) {
-            if ("DONE".equals(task.getStatus())) {
-                done++;
-            } else if ("IN_PROGRESS".equals(task.getStatus())) {
-                inProgress++;
-            }
-        }
-        
-        int percent = (int) ((done * 100.0) / total);
-        progressBar.setProgress(percent);
-        txtProgressPercent.setText(percent + "%");
-        txtTaskStats.setText(done + "/" + total + " tasks completed");
+
+        // Counters kept by the local database for this project
+        OfflineStore.getInstance(this).query(db -> db.getProjectTaskCounts(projectId), counts -> {
+            if (counts == null || counts.getTotal() == 0) return;
+            progressContainer.setVisibility(View.VISIBLE);
+            int percent = counts.getCompletionPercent();
+            progressBar.setProgress(percent);
+            txtProgressPercent.setText(percent + "%");
+            txtTaskStats.setText(counts.getDone() + "/" + counts.getTotal() + " tasks completed");
+        });
     }
 
     private void updateContent(int tabPosition) {
         if (tabPosition == 0) {
             // Tasks tab
             recyclerContent.setAdapter(taskAdapter);
-            taskAdapter.notifyDataSetChanged();
             fabAdd.setText("Add Task");
             fabAdd.setIconResource(R.drawable.ic_add);
             
@@ -403,7 +441,6 @@ public class ProjectDetailActivity extends AppCompatActivity {
         } else {
             // Members tab
             recyclerContent.setAdapter(memberAdapter);
-            memberAdapter.notifyDataSetChanged();
             fabAdd.setText("Add Member");
             fabAdd.setIconResource(R.drawable.ic_person_add);
             
@@ -462,6 +499,7 @@ public class ProjectDetailActivity extends AppCompatActivity {
             public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
                 showLoading(false);
                 if (response.isSuccessful()) {
+                    RefreshCoordinator.getInstance().invalidate(RefreshCoordinator.Dataset.PROJECT, projectId);
                     Toast.makeText(ProjectDetailActivity.this, "Member removed", Toast.LENGTH_SHORT).show();
                     loadMembers();
                 } else {
@@ -494,6 +532,11 @@ public class ProjectDetailActivity extends AppCompatActivity {
             public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
                 showLoading(false);
                 if (response.isSuccessful()) {
+                    ProjectRepository.getInstance(ProjectDetailActivity.this).invalidate();
+                    // Its tasks leave every task list too
+                    RefreshCoordinator.getInstance().invalidate(RefreshCoordinator.Dataset.TASKS);
+                    OfflineStore.getInstance(ProjectDetailActivity.this)
+                            .execute(db -> db.deleteRemoteProject(projectId));
                     Toast.makeText(ProjectDetailActivity.this, "Project deleted", Toast.LENGTH_SHORT).show();
                     finish();
                 } else {
@@ -530,8 +573,18 @@ public class ProjectDetailActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        if (currentProject != null) {
+        // Coming back from a screen that changed nothing keeps what is shown
+        if (freshness.shouldRefresh()) {
             loadProjectDetails();
         }
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        cancelTaskSync();
+        if (memberLoader != null) {
+            memberLoader.cancel();
+        }
+    }
 }
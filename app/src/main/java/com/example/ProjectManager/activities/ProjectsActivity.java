@@ -11,7 +11,6 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -19,10 +18,9 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.adapters.ProjectCardAdapter;
-import com.example.ProjectManager.api.ApiService;
-import com.example.ProjectManager.api.RetrofitClient;
-import com.example.ProjectManager.models.dto.PageResponse;
 import com.example.ProjectManager.models.dto.ProjectResponse;
+import com.example.ProjectManager.repository.ProjectRepository;
+import com.example.ProjectManager.repository.RefreshCoordinator;
 import com.example.ProjectManager.utils.NavigationUtils;
 import com.example.ProjectManager.utils.SessionManager;
 import com.google.android.material.tabs.TabLayout;
@@ -31,10 +29,6 @@ import android.widget.ImageView;
 import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class ProjectsActivity extends AppCompatActivity {
 
     private static final String TAG = "ProjectsActivity";
@@ -52,9 +46,9 @@ public class ProjectsActivity extends AppCompatActivity {
     private LinearLayout navHome, navProjects, navTasks, navProfile;
 
     // Data
-    private ApiService apiService;
     private SessionManager sessionManager;
     private ProjectCardAdapter adapter;
+    private RefreshCoordinator.Tracker freshness;
     private List<ProjectResponse> allProjects = new ArrayList<>();
     private List<ProjectResponse> ownedProjects = new ArrayList<>();
     private List<ProjectResponse> memberProjects = new ArrayList<>();
@@ -102,13 +96,13 @@ public class ProjectsActivity extends AppCompatActivity {
                     getResources().getColor(R.color.status_in_progress, null),
                     getResources().getColor(R.color.status_done, null)
             );
-            swipeRefresh.setOnRefreshListener(this::loadProjects);
+            swipeRefresh.setOnRefreshListener(() -> loadProjects(true));
         }
     }
 
     private void setupServices() {
-        apiService = RetrofitClient.getInstance(this).create(ApiService.class);
         sessionManager = new SessionManager(this);
+        freshness = RefreshCoordinator.getInstance().track(RefreshCoordinator.Dataset.PROJECTS);
     }
 
     private void setupRecyclerView() {
@@ -192,6 +186,10 @@ public class ProjectsActivity extends AppCompatActivity {
     }
 
     private void loadProjects() {
+        loadProjects(false);
+    }
+
+    private void loadProjects(boolean forceRefresh) {
         Long userId = sessionManager.getUserId();
         if (userId == null) {
             Toast.makeText(this, "Session expired", Toast.LENGTH_SHORT).show();
@@ -202,82 +200,26 @@ public class ProjectsActivity extends AppCompatActivity {
             swipeRefresh.setRefreshing(true);
         }
 
-        // Load owned projects
-        loadOwnedProjects(userId);
-    }
-
-    private void loadOwnedProjects(Long userId) {
-        apiService.getProjectsByOwner(userId, 0, 100).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call, 
-                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ownedProjects.clear();
-                    ownedProjects.addAll(response.body().getContent());
-                    Log.d(TAG, "Loaded " + ownedProjects.size() + " owned projects");
-                    
-                    // Now load member projects
-                    loadMemberProjects(userId);
-                } else {
-                    Log.e(TAG, "Failed to load owned projects: " + response.code());
-                    loadMemberProjects(userId);
-                }
+        freshness.markLoading();
+        ProjectRepository.getInstance(this).getProjects(userId, forceRefresh, projects -> {
+            if (swipeRefresh != null) {
+                swipeRefresh.setRefreshing(false);
             }
 
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                Log.e(TAG, "Error loading owned projects", t);
-                loadMemberProjects(userId);
-            }
-        });
-    }
-
-    private void loadMemberProjects(Long userId) {
-        apiService.getProjectsByMember(userId, 0, 100).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call, 
-                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
-                if (swipeRefresh != null) {
-                    swipeRefresh.setRefreshing(false);
-                }
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    memberProjects.clear();
-                    memberProjects.addAll(response.body().getContent());
-                    Log.d(TAG, "Loaded " + memberProjects.size() + " member projects");
-                }
-                
-                combineAndDisplayProjects();
-            }
+            ownedProjects.clear();
+            ownedProjects.addAll(projects.getOwned());
+            memberProjects.clear();
+            memberProjects.addAll(projects.getMember());
+            Log.d(TAG, "Loaded " + ownedProjects.size() + " owned and " + memberProjects.size() + " member projects");
 
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                Log.e(TAG, "Error loading member projects", t);
-                if (swipeRefresh != null) {
-                    swipeRefresh.setRefreshing(false);
-                }
-                combineAndDisplayProjects();
-            }
+            combineAndDisplayProjects(projects);
         });
     }
 
-    private void combineAndDisplayProjects() {
-        // Combine all projects (avoiding duplicates by ID)
+    private void combineAndDisplayProjects(ProjectRepository.ProjectSet projects) {
+        // Combined list is already de-duplicated by ID in the repository
         allProjects.clear();
-        allProjects.addAll(ownedProjects);
-        
-        for (ProjectResponse memberProject : memberProjects) {
-            boolean exists = false;
-            for (ProjectResponse owned : ownedProjects) {
-                if (owned.getId().equals(memberProject.getId())) {
-                    exists = true;
-                    break;
-                }
-            }
-            if (!exists) {
-                allProjects.add(memberProject);
-            }
-        }
+        allProjects.addAll(projects.getAll());
 
         // Update stats
         updateStats();
@@ -326,7 +268,7 @@ public class ProjectsActivity extends AppCompatActivity {
 
         // Update UI
         if (adapter != null) {
-            adapter.notifyDataSetChanged();
+            adapter.submitList(displayedProjects);
         }
         updateEmptyState();
     }
@@ -356,6 +298,9 @@ public class ProjectsActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        loadProjects();
+        // Reload only when a project was changed meanwhile or the list got old
+        if (freshness.shouldRefresh()) {
+            loadProjects();
+        }
     }
 }
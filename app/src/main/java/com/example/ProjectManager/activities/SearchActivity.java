@@ -6,6 +6,7 @@ import android.os.Handler;
 import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.view.View;
 import android.view.inputmethod.EditorInfo;
 import android.widget.EditText;
@@ -22,40 +23,75 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.adapters.SearchResultAdapter;
 import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.CallGenerations;
 import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.database.ProjectDatabaseHelper;
+import com.example.ProjectManager.models.SearchHit;
 import com.example.ProjectManager.models.dto.PageResponse;
 import com.example.ProjectManager.models.dto.ProjectResponse;
 import com.example.ProjectManager.models.dto.TaskResponse;
 import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.repository.OfflineStore;
+import com.example.ProjectManager.repository.ProjectRepository;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
+/**
+ * Searches projects, tasks and users in the local full-text index as the user
+ * types, so results appear without waiting for the network and work offline.
+ * Opening the screen (and pull-to-refresh) downloads the user's projects and
+ * tasks and a page of users into the index in the background; the current
+ * search runs again once that is done.
+ *
+ * Every search and every refresh gets a generation id. A newer one supersedes
+ * the older: queued local queries are skipped, running refresh calls are
+ * cancelled and late answers are dropped, so results never arrive out of order.
+ * A search loads all kinds at once, so switching filter chips re-renders its
+ * results without querying again.
+ */
 public class SearchActivity extends AppCompatActivity {
 
+    private static final String TAG = "SearchActivity";
+
+    // Hits loaded per kind, shown in full by the kind's own filter
+    private static final int SEARCH_LIMIT = 100;
+    private static final long SEARCH_DEBOUNCE_MS = 150;
+    // Tasks and users downloaded per refresh of the index
+    private static final int REFRESH_PAGE_SIZE = 100;
+
     private ImageView btnBack, btnClear;
     private EditText editSearch;
     private ChipGroup chipGroupFilters;
     private Chip chipAll, chipProjects, chipTasks, chipMembers;
     private SwipeRefreshLayout swipeRefresh;
     private RecyclerView recyclerResults;
-    private View emptyState, noResultsState, loadingOverlay;
+    private View emptyState, noResultsState;
 
     private ApiService apiService;
     private SharedPrefsManager prefsManager;
+    private OfflineStore offlineStore;
     private SearchResultAdapter adapter;
     private Handler searchHandler = new Handler(Looper.getMainLooper());
     private Runnable searchRunnable;
 
     private String currentQuery = "";
     private String currentFilter = "all"; // all, projects, tasks, members
+    // Id of the latest search; read on the database thread to skip superseded queries
+    private volatile int searchGeneration;
+    // Results of the last completed search, reused when only the filter changes
+    private String resultsQuery;
+    private SearchResults results;
+    // Calls of the running index refresh, and how many have yet to answer
+    private CallGenerations refreshCalls;
+    private int pendingRefreshCalls;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -64,11 +100,14 @@ public class SearchActivity extends AppCompatActivity {
 
         apiService = RetrofitClient.getInstance(this).create(ApiService.class);
         prefsManager = SharedPrefsManager.getInstance(this);
+        offlineStore = OfflineStore.getInstance(this);
+        refreshCalls = new CallGenerations(RetrofitClient.getNetworkMetrics(this));
 
         initViews();
         setupAdapter();
         setupListeners();
         setupBackPressHandler();
+        refreshIndex(false);
 
         // Focus search input
         editSearch.requestFocus();
@@ -87,7 +126,6 @@ public class SearchActivity extends AppCompatActivity {
         recyclerResults = findViewById(R.id.recycler_results);
         emptyState = findViewById(R.id.empty_state);
         noResultsState = findViewById(R.id.no_results_state);
-        loadingOverlay = findViewById(R.id.loading_overlay);
     }
 
     private void setupAdapter() {
@@ -115,6 +153,7 @@ public class SearchActivity extends AppCompatActivity {
         });
         recyclerResults.setLayoutManager(new LinearLayoutManager(this));
         recyclerResults.setAdapter(adapter);
+        adapter.preloadAvatars(recyclerResults);
     }
 
     private void setupListeners() {
@@ -123,6 +162,7 @@ public class SearchActivity extends AppCompatActivity {
         btnClear.setOnClickListener(v -> {
             editSearch.setText("");
             currentQuery = "";
+            searchGeneration++;
             showEmptyState();
         });
 
@@ -142,12 +182,17 @@ public class SearchActivity extends AppCompatActivity {
                 searchRunnable = () -> {
                     currentQuery = query;
                     if (query.isEmpty()) {
+                        searchGeneration++;
                         showEmptyState();
+                    } else if (query.equals(resultsQuery)) {
+                        // Back to the text of the last results: drop any search still running
+                        searchGeneration++;
+                        showResults();
                     } else {
                         performSearch();
                     }
                 };
-                searchHandler.postDelayed(searchRunnable, 400);
+                searchHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
             }
 
             @Override
@@ -157,6 +202,9 @@ public class SearchActivity extends AppCompatActivity {
         editSearch.setOnEditorActionListener((v, actionId, event) -> {
             if (actionId == EditorInfo.IME_ACTION_SEARCH) {
                 currentQuery = editSearch.getText().toString().trim();
+                if (searchRunnable != null) {
+                    searchHandler.removeCallbacks(searchRunnable);
+                }
                 if (!currentQuery.isEmpty()) {
                     performSearch();
                 }
@@ -176,19 +224,18 @@ public class SearchActivity extends AppCompatActivity {
                 currentFilter = "members";
             }
             
-            if (!currentQuery.isEmpty()) {
+            if (currentQuery.isEmpty()) {
+                return;
+            }
+            if (currentQuery.equals(resultsQuery)) {
+                showResults();
+            } else {
                 performSearch();
             }
         });
 
         swipeRefresh.setColorSchemeResources(R.color.primary, R.color.secondary);
-        swipeRefresh.setOnRefreshListener(() -> {
-            if (!currentQuery.isEmpty()) {
-                performSearch();
-            } else {
-                swipeRefresh.setRefreshing(false);
-            }
-        });
+        swipeRefresh.setOnRefreshListener(() -> refreshIndex(true));
     }
 
     private void setupBackPressHandler() {
@@ -200,233 +247,145 @@ public class SearchActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchHandler.removeCallbacksAndMessages(null);
+        searchGeneration++;
+        refreshCalls.cancelAll();
+        Log.d(TAG, "Refresh calls: " + refreshCalls);
+    }
+
     private void performSearch() {
         if (currentQuery.isEmpty()) {
             showEmptyState();
             return;
         }
 
-        showLoading(true);
-        adapter.clearResults();
-
-        // Search based on filter
-        switch (currentFilter) {
-            case "projects":
-                searchProjects();
-                break;
-            case "tasks":
-                searchTasks();
-                break;
-            case "members":
-                searchMembers();
-                break;
-            default:
-                searchAll();
-                break;
-        }
-    }
-
-    private void searchAll() {
-        final int[] completedCalls = {0};
-        final int totalCalls = 3;
-
-        // Search projects
-        long userId = prefsManager.getUserId();
-        apiService.getProjectsByOwner(userId, 0, 20).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
-                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    List<ProjectResponse> filtered = filterProjects(response.body().getContent());
-                    adapter.addProjects(filtered);
-                }
-                checkSearchComplete(++completedCalls[0], totalCalls);
+        int generation = ++searchGeneration;
+        String query = currentQuery;
+        offlineStore.query(db -> {
+            if (generation != searchGeneration) {
+                // Superseded while queued behind other database work
+                return null;
             }
-
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                checkSearchComplete(++completedCalls[0], totalCalls);
+            return search(db, query);
+        }, found -> {
+            if (generation != searchGeneration) {
+                return;
             }
+            // A failed query shows no results and is not reused
+            resultsQuery = found != null ? query : null;
+            results = found;
+            showResults();
         });
+    }
 
-        // Search member projects
-        apiService.getProjectsByMember(userId, 0, 20).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
-                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    List<ProjectResponse> filtered = filterProjects(response.body().getContent());
-                    adapter.addProjects(filtered);
-                }
-                checkSearchComplete(++completedCalls[0], totalCalls);
+    /**
+     * Show the last search's results for the current filter.
+     */
+    private void showResults() {
+        // Mixed results show a few rows per section; a single kind shows them all
+        adapter.setSectionLimit("all".equals(currentFilter)
+                ? SearchResultAdapter.DEFAULT_SECTION_LIMIT : SearchResultAdapter.NO_SECTION_LIMIT);
+        adapter.clearResults();
+        if (results != null) {
+            if ("all".equals(currentFilter) || "projects".equals(currentFilter)) {
+                adapter.addProjects(results.projects);
             }
-
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                checkSearchComplete(++completedCalls[0], totalCalls);
+            if ("all".equals(currentFilter) || "tasks".equals(currentFilter)) {
+                adapter.addTasks(results.tasks);
             }
-        });
-
-        // Search tasks
-        apiService.getAllTasks(0, 50, userId, null, null).enqueue(new Callback<PageResponse<TaskResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<TaskResponse>> call,
-                                   @NonNull Response<PageResponse<TaskResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    List<TaskResponse> filtered = filterTasks(response.body().getContent());
-                    adapter.addTasks(filtered);
-                }
-                checkSearchComplete(++completedCalls[0], totalCalls);
+            if ("all".equals(currentFilter) || "members".equals(currentFilter)) {
+                adapter.addUsers(results.users);
             }
+        }
+        updateResultsVisibility();
+    }
 
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<TaskResponse>> call, @NonNull Throwable t) {
-                checkSearchComplete(++completedCalls[0], totalCalls);
-            }
-        });
+    /**
+     * Query the local index for every kind. Runs on the database thread.
+     */
+    private static SearchResults search(ProjectDatabaseHelper db, String query) {
+        long start = System.nanoTime();
+        SearchResults results = new SearchResults();
+        results.projects = db.searchProjects(query, SEARCH_LIMIT);
+        results.tasks = db.searchTasks(query, SEARCH_LIMIT);
+        results.users = db.searchUsers(query, SEARCH_LIMIT);
+        Log.d(TAG, "Local search \"" + query + "\" took " + (System.nanoTime() - start) / 1000 + " us");
+        return results;
     }
 
-    private void searchProjects() {
+    /**
+     * Download the user's projects and tasks and a page of users into the local
+     * index, then search again. Offline, the index keeps answering from the last sync.
+     *
+     * @param force pull-to-refresh: supersede a refresh already running instead of
+     *              waiting for it
+     */
+    private void refreshIndex(boolean force) {
+        if (pendingRefreshCalls > 0 && !force) {
+            return;
+        }
+        int generation = refreshCalls.next();
+        pendingRefreshCalls = 3;
         long userId = prefsManager.getUserId();
-        
-        apiService.getProjectsByOwner(userId, 0, 50).enqueue(new Callback<PageResponse<ProjectResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
-                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    List<ProjectResponse> filtered = filterProjects(response.body().getContent());
-                    adapter.addProjects(filtered);
-                }
-                
-                // Also search member projects
-                apiService.getProjectsByMember(userId, 0, 50).enqueue(new Callback<PageResponse<ProjectResponse>>() {
+
+        // The repository stores the projects it downloads
+        ProjectRepository.getInstance(this).getProjects(userId, force, projects -> {
+            if (refreshCalls.isCurrent(generation)) {
+                onRefreshCallDone();
+            }
+        });
+
+        refreshCalls.enqueue(apiService.getAllTasks(0, REFRESH_PAGE_SIZE, userId, null, null),
+                new Callback<PageResponse<TaskResponse>>() {
                     @Override
-                    public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
-                                           @NonNull Response<PageResponse<ProjectResponse>> response) {
-                        showLoading(false);
-                        swipeRefresh.setRefreshing(false);
-                        if (response.isSuccessful() && response.body() != null) {
-                            List<ProjectResponse> filtered = filterProjects(response.body().getContent());
-                            adapter.addProjects(filtered);
+                    public void onResponse(@NonNull Call<PageResponse<TaskResponse>> call,
+                                           @NonNull Response<PageResponse<TaskResponse>> response) {
+                        if (response.isSuccessful() && response.body() != null
+                                && response.body().getContent() != null) {
+                            List<TaskResponse> tasks = response.body().getContent();
+                            offlineStore.execute(db -> db.upsertRemoteTasks(tasks));
                         }
-                        updateResultsVisibility();
+                        onRefreshCallDone();
                     }
 
                     @Override
-                    public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                        showLoading(false);
-                        swipeRefresh.setRefreshing(false);
-                        updateResultsVisibility();
+                    public void onFailure(@NonNull Call<PageResponse<TaskResponse>> call, @NonNull Throwable t) {
+                        onRefreshCallDone();
                     }
                 });
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
-                showLoading(false);
-                swipeRefresh.setRefreshing(false);
-                Toast.makeText(SearchActivity.this, "Search failed", Toast.LENGTH_SHORT).show();
-            }
-        });
-    }
-
-    private void searchTasks() {
-        long userId = prefsManager.getUserId();
-        
-        apiService.getAllTasks(0, 100, userId, null, null).enqueue(new Callback<PageResponse<TaskResponse>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<TaskResponse>> call,
-                                   @NonNull Response<PageResponse<TaskResponse>> response) {
-                showLoading(false);
-                swipeRefresh.setRefreshing(false);
-                if (response.isSuccessful() && response.body() != null) {
-                    List<TaskResponse> filtered = filterTasks(response.body().getContent());
-                    adapter.addTasks(filtered);
-                }
-                updateResultsVisibility();
-            }
-
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<TaskResponse>> call, @NonNull Throwable t) {
-                showLoading(false);
-                swipeRefresh.setRefreshing(false);
-                Toast.makeText(SearchActivity.this, "Search failed", Toast.LENGTH_SHORT).show();
-            }
-        });
-    }
-
-    private void searchMembers() {
-        apiService.getUsers(0, 50).enqueue(new Callback<PageResponse<UserResponseDto>>() {
-            @Override
-            public void onResponse(@NonNull Call<PageResponse<UserResponseDto>> call,
-                                   @NonNull Response<PageResponse<UserResponseDto>> response) {
-                showLoading(false);
-                swipeRefresh.setRefreshing(false);
-                if (response.isSuccessful() && response.body() != null) {
-                    List<UserResponseDto> filtered = filterUsers(response.body().getContent());
-                    adapter.addUsers(filtered);
-                }
-                updateResultsVisibility();
-            }
 
-            @Override
-            public void onFailure(@NonNull Call<PageResponse<UserResponseDto>> call, @NonNull Throwable t) {
-                showLoading(false);
-                swipeRefresh.setRefreshing(false);
-                Toast.makeText(SearchActivity.this, "Search failed", Toast.LENGTH_SHORT).show();
-            }
-        });
-    }
-
-    private void checkSearchComplete(int completed, int total) {
-        if (completed >= total) {
-            showLoading(false);
-            swipeRefresh.setRefreshing(false);
-            updateResultsVisibility();
-        }
-    }
+        refreshCalls.enqueue(apiService.getUsers(0, REFRESH_PAGE_SIZE),
+                new Callback<PageResponse<UserResponseDto>>() {
+                    @Override
+                    public void onResponse(@NonNull Call<PageResponse<UserResponseDto>> call,
+                                           @NonNull Response<PageResponse<UserResponseDto>> response) {
+                        if (response.isSuccessful() && response.body() != null
+                                && response.body().getContent() != null) {
+                            List<UserResponseDto> users = response.body().getContent();
+                            offlineStore.execute(db -> db.upsertRemoteUsers(users));
+                        }
+                        onRefreshCallDone();
+                    }
 
-    private List<ProjectResponse> filterProjects(List<ProjectResponse> projects) {
-        if (projects == null) return new ArrayList<>();
-        List<ProjectResponse> filtered = new ArrayList<>();
-        String queryLower = currentQuery.toLowerCase();
-        for (ProjectResponse project : projects) {
-            if (project.getName() != null && project.getName().toLowerCase().contains(queryLower)) {
-                filtered.add(project);
-            } else if (project.getDescription() != null && project.getDescription().toLowerCase().contains(queryLower)) {
-                filtered.add(project);
-            }
-        }
-        return filtered;
+                    @Override
+                    public void onFailure(@NonNull Call<PageResponse<UserResponseDto>> call, @NonNull Throwable t) {
+                        onRefreshCallDone();
+                    }
+                });
     }
 
-    private List<TaskResponse> filterTasks(List<TaskResponse> tasks) {
-        if (tasks == null) return new ArrayList<>();
-        List<TaskResponse> filtered = new ArrayList<>();
-        String queryLower = currentQuery.toLowerCase();
-        for (TaskResponse task : tasks) {
-            if (task.getName() != null && task.getName().toLowerCase().contains(queryLower)) {
-                filtered.add(task);
-            } else if (task.getDescription() != null && task.getDescription().toLowerCase().contains(queryLower)) {
-                filtered.add(task);
-            }
+    private void onRefreshCallDone() {
+        if (--pendingRefreshCalls > 0) {
+            return;
         }
-        return filtered;
-    }
-
-    private List<UserResponseDto> filterUsers(List<UserResponseDto> users) {
-        if (users == null) return new ArrayList<>();
-        List<UserResponseDto> filtered = new ArrayList<>();
-        String queryLower = currentQuery.toLowerCase();
-        for (UserResponseDto user : users) {
-            String fullName = (user.getFirstName() + " " + user.getLastName()).toLowerCase();
-            if (fullName.contains(queryLower)) {
-                filtered.add(user);
-            } else if (user.getEmail() != null && user.getEmail().toLowerCase().contains(queryLower)) {
-                filtered.add(user);
-            }
+        swipeRefresh.setRefreshing(false);
+        if (!currentQuery.isEmpty()) {
+            // Queued after the writes above, so it sees what was downloaded
+            performSearch();
         }
-        return filtered;
     }
 
     private void showEmptyState() {
@@ -447,7 +406,12 @@ public class SearchActivity extends AppCompatActivity {
         }
     }
 
-    private void showLoading(boolean show) {
-        loadingOverlay.setVisibility(show ? View.VISIBLE : View.GONE);
+    /**
+     * Hits of one search, per kind
+     */
+    private static final class SearchResults {
+        List<SearchHit<ProjectResponse>> projects = Collections.emptyList();
+        List<SearchHit<TaskResponse>> tasks = Collections.emptyList();
+        List<SearchHit<UserResponseDto>> users = Collections.emptyList();
     }
 }
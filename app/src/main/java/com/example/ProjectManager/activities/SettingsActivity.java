@@ -1,8 +1,10 @@
 package com.example.ProjectManager.activities;
 
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.net.Uri;
 import android.os.Bundle;
+import android.util.Log;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
@@ -12,6 +14,9 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
 
 import com.example.ProjectManager.R;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.repository.RefreshCoordinator;
+import com.example.ProjectManager.utils.ImageMetrics;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 
 /**
@@ -19,6 +24,8 @@ import com.google.android.material.switchmaterial.SwitchMaterial;
  */
 public class SettingsActivity extends AppCompatActivity {
 
+    private static final String TAG = "SettingsActivity";
+
     private ImageView btnBack;
     private SwitchMaterial switchDarkMode;
     private SwitchMaterial switchNotifications;
@@ -120,6 +127,33 @@ public class SettingsActivity extends AppCompatActivity {
                 startActivity(intent);
             }
         });
+
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            // Debug builds only: long-press the version for the performance counters
+            txtVersion.setOnLongClickListener(v -> {
+                showMetrics();
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Show the network, HTTP cache, image and refresh counters, and write them to logcat.
+     */
+    private void showMetrics() {
+        String report = RetrofitClient.getNetworkMetrics(this).dump()
+                + "\n" + RetrofitClient.getCacheStats(this)
+                + "\n\n" + ImageMetrics.getInstance().dump()
+                + "\n\n" + RefreshCoordinator.getInstance().dump();
+        for (String line : report.split("\n")) {
+            Log.i(TAG, line);
+        }
+
+        new androidx.appcompat.app.AlertDialog.Builder(this)
+            .setTitle("Metrics")
+            .setMessage(report)
+            .setPositiveButton("OK", null)
+            .show();
     }
 
     private void loadSettings() {
@@ -14,18 +14,17 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.adapters.TaskAdapter;
 import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.PageLoader;
 import com.example.ProjectManager.api.RetrofitClient;
-import com.example.ProjectManager.models.dto.PageResponse;
 import com.example.ProjectManager.models.dto.TaskResponse;
+import com.example.ProjectManager.repository.RefreshCoordinator;
 import com.example.ProjectManager.utils.NavigationUtils;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.floatingactionbutton.ExtendedFloatingActionButton;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.List;
 
 public class TaskActivity extends AppCompatActivity {
 
@@ -48,6 +47,8 @@ public class TaskActivity extends AppCompatActivity {
     private long projectId = -1;
     private String projectName = null;
     private SharedPrefsManager prefsManager;
+    private PageLoader<TaskResponse> taskLoader;
+    private RefreshCoordinator.Tracker freshness;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -61,7 +62,7 @@ public class TaskActivity extends AppCompatActivity {
         initViews();
 
         // Initialize adapter
-        adapter = new TaskAdapter();
+        adapter = new TaskAdapter(this);
         adapter.setOnTaskClickListener(task -> {
             Intent intent = new Intent(TaskActivity.this, TaskDetailActivity.class);
             intent.putExtra(TaskDetailActivity.EXTRA_TASK_ID, task.getId());
@@ -69,6 +70,7 @@ public class TaskActivity extends AppCompatActivity {
         });
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(adapter);
+        adapter.preloadAvatars(recyclerView);
 
         // API
         apiService = RetrofitClient.getInstance(this).create(ApiService.class);
@@ -117,6 +119,12 @@ public class TaskActivity extends AppCompatActivity {
             startActivity(i);
         });
 
+        Long projectFilter = projectId > 0 ? projectId : null;
+        taskLoader = new PageLoader<>("tasks?projectId=" + projectFilter, 100,
+                (page, size) -> apiService.getAllTasks(page, size, null, projectFilter, null));
+
+        freshness = RefreshCoordinator.getInstance().track(RefreshCoordinator.Dataset.TASKS);
+
         // First load
         loadTasksFromBackend();
     }
@@ -186,48 +194,37 @@ public class TaskActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        // Refresh list when coming back from CreateTaskActivity
-        loadTasksFromBackend();
+        // Refresh the list when a task was created or changed meanwhile, or it got old
+        if (freshness.shouldRefresh()) {
+            loadTasksFromBackend();
+        }
         // Update navigation again to ensure correct highlighting
         NavigationUtils.updateNavigation(navHome, navProjects, navTasks, navProfile, "tasks");
     }
 
-    private void loadTasksFromBackend() {
-        Call<PageResponse<TaskResponse>> call;
-
-        if (projectId > 0) {
-            // Filter tasks by project
-            call = apiService.getAllTasks(0, 100, null, projectId, null);
-        } else {
-            // Load all tasks (no project filter)
-            call = apiService.getAllTasks(0, 100, null, null, null);
-        }
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        taskLoader.cancel();
+    }
 
-        call.enqueue(new Callback<PageResponse<TaskResponse>>() {
+    private void loadTasksFromBackend() {
+        freshness.markLoading();
+        // Loads every page (page 0 first, the rest in parallel) so the counters are complete
+        taskLoader.loadAll(new PageLoader.Listener<TaskResponse>() {
             @Override
-            public void onResponse(Call<PageResponse<TaskResponse>> call,
-                    Response<PageResponse<TaskResponse>> response) {
-
-                if (response.isSuccessful() && response.body() != null) {
-                    if (response.body().getContent() != null) {
-                        adapter.setItems(response.body().getContent());
-                    } else {
-                        adapter.setItems(null);
-                    }
-                    updateStats();
-                    updateTaskCount();
-                    updateEmptyState();
-                } else {
-                    Toast.makeText(TaskActivity.this,
-                            "Error loading tasks: " + response.code(),
-                            Toast.LENGTH_SHORT).show();
-                }
+            public void onPageLoaded(List<TaskResponse> items, boolean complete) {
+                adapter.setItems(items);
+                updateStats();
+                updateTaskCount();
+                updateEmptyState();
             }
 
             @Override
-            public void onFailure(Call<PageResponse<TaskResponse>> call, Throwable t) {
+            public void onError(Throwable error) {
+                freshness.markFailed();
                 Toast.makeText(TaskActivity.this,
-                        "Connection failed: " + t.getMessage(),
+                        "Error loading tasks: " + error.getMessage(),
                         Toast.LENGTH_SHORT).show();
             }
         });
@@ -246,12 +243,12 @@ public class TaskActivity extends AppCompatActivity {
     }
 
     private void updateTaskCount() {
-        int count = adapter.getItemCount();
+        int count = adapter.getSubmittedCount();
         tvTaskCount.setText(count + (count == 1 ? " task" : " tasks"));
     }
 
     private void updateEmptyState() {
-        if (adapter.getItemCount() == 0) {
+        if (adapter.getSubmittedCount() == 0) {
             emptyState.setVisibility(View.VISIBLE);
             recyclerView.setVisibility(View.GONE);
         } else {
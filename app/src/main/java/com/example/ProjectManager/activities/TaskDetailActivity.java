@@ -14,21 +14,23 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.bitmap.CircleCrop;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.api.ApiService;
 import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.models.dto.TaskResponse;
 import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.models.OutboxMutation;
+import com.example.ProjectManager.repository.MutationOutbox;
+import com.example.ProjectManager.repository.OfflineStore;
+import com.example.ProjectManager.repository.UserResolver;
+import com.example.ProjectManager.utils.AvatarLoader;
 import com.example.ProjectManager.utils.Constants;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 
 import java.text.SimpleDateFormat;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -52,6 +54,7 @@ public class TaskDetailActivity extends AppCompatActivity {
     private MaterialCardView cardStatus;
     private AutoCompleteTextView dropdownStatus;
     private MaterialButton btnSaveStatus;
+    private TextView txtStatusPending;
     private View loadingOverlay;
 
     private ApiService apiService;
@@ -63,6 +66,9 @@ public class TaskDetailActivity extends AppCompatActivity {
     private String[] statusOptions = {"TODO", "IN_PROGRESS", "DONE", "ARCHIVED"};
     private String[] statusDisplayNames = {"To Do", "In Progress", "Done", "Archived"};
     private String selectedStatus;
+    // Status change made offline and not sent yet, shown over the loaded one
+    private String pendingStatus;
+    private MutationOutbox.Subscription outboxSubscription;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -85,6 +91,15 @@ public class TaskDetailActivity extends AppCompatActivity {
         setupBackPressHandler();
         
         loadTaskDetails();
+        observePendingStatus();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (outboxSubscription != null) {
+            outboxSubscription.cancel();
+        }
     }
 
     private void initViews() {
@@ -99,6 +114,7 @@ public class TaskDetailActivity extends AppCompatActivity {
         cardStatus = findViewById(R.id.card_status);
         dropdownStatus = findViewById(R.id.dropdown_status);
         btnSaveStatus = findViewById(R.id.btn_save_status);
+        txtStatusPending = findViewById(R.id.txt_status_pending);
         loadingOverlay = findViewById(R.id.loading_overlay);
     }
 
@@ -148,8 +164,41 @@ public class TaskDetailActivity extends AppCompatActivity {
 
             @Override
             public void onFailure(@NonNull Call<TaskResponse> call, @NonNull Throwable t) {
-                showLoading(false);
-                Toast.makeText(TaskDetailActivity.this, "Network error: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+                loadLocalTask(t);
+            }
+        });
+    }
+
+    /**
+     * Offline: show the copy stored by the last sync
+     */
+    private void loadLocalTask(Throwable networkError) {
+        OfflineStore.getInstance(this).query(db -> db.getRemoteTask(taskId), task -> {
+            if (isDestroyed()) return;
+            showLoading(false);
+            if (task != null) {
+                currentTask = task;
+                displayTaskInfo();
+            } else {
+                Toast.makeText(this, "Network error: " + networkError.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Show the status change of this task still waiting in the outbox, if any
+     */
+    private void observePendingStatus() {
+        outboxSubscription = MutationOutbox.getInstance(this).observe(pending -> {
+            pendingStatus = null;
+            for (OutboxMutation mutation : pending) {
+                if (mutation.getKind() == OutboxMutation.Kind.UPDATE_TASK_STATUS && mutation.getTargetId() == taskId) {
+                    pendingStatus = mutation.getPayload();
+                }
+            }
+            txtStatusPending.setVisibility(pendingStatus != null ? View.VISIBLE : View.GONE);
+            if (pendingStatus != null && currentTask != null) {
+                showStatus(pendingStatus);
             }
         });
     }
@@ -165,12 +214,8 @@ public class TaskDetailActivity extends AppCompatActivity {
             txtTaskDescription.setVisibility(View.GONE);
         }
 
-        // Set current status in dropdown
-        selectedStatus = currentTask.getStatus();
-        int statusIndex = getStatusIndex(selectedStatus);
-        if (statusIndex >= 0) {
-            dropdownStatus.setText(statusDisplayNames[statusIndex], false);
-        }
+        // Set current status in dropdown, or the one waiting to be sent
+        showStatus(pendingStatus != null ? pendingStatus : currentTask.getStatus());
 
         // Load project info
         if (currentTask.getProjectId() > 0) {
@@ -197,11 +242,8 @@ public class TaskDetailActivity extends AppCompatActivity {
             
             // Load avatar using assignee ID
             String avatarUrl = Constants.BASE_URL + "/api/v1/users/" + assignee.getId() + "/profile-picture";
-            Glide.with(TaskDetailActivity.this)
-                    .load(avatarUrl)
-                    .placeholder(R.drawable.ic_profile_placeholder)
-                    .error(R.drawable.ic_profile_placeholder)
-                    .into(imgAssigneeAvatar);
+            AvatarLoader.load(Glide.with(TaskDetailActivity.this), imgAssigneeAvatar, avatarUrl,
+                    R.drawable.ic_profile_placeholder);
         } else if (currentTask.getAssigneeId() != null) {
             // Backend returned only userId (TaskResponse), fetch user details
             loadAssigneeInfo(currentTask.getAssigneeId());
@@ -217,32 +259,38 @@ public class TaskDetailActivity extends AppCompatActivity {
     }
 
     private void loadAssigneeInfo(Long assigneeId) {
-        apiService.getUser(assigneeId).enqueue(new Callback<UserResponseDto>() {
+        UserResolver.getInstance(this).resolve(assigneeId, new UserResolver.UserCallback() {
             @Override
-            public void onResponse(@NonNull Call<UserResponseDto> call, @NonNull Response<UserResponseDto> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    UserResponseDto user = response.body();
-                    String name = (user.getFirstName() + " " + user.getLastName()).trim();
-                    txtAssigneeName.setText(name.isEmpty() ? "Unknown" : name);
-
-                    // Load avatar
-                    String avatarUrl = Constants.BASE_URL + "/api/v1/users/" + assigneeId + "/profile-picture";
-                    Glide.with(TaskDetailActivity.this)
-                        .load(avatarUrl)
-                        .transform(new CircleCrop())
-                        .placeholder(R.drawable.ic_profile_placeholder)
-                        .error(R.drawable.ic_profile_placeholder)
-                        .into(imgAssigneeAvatar);
-                }
+            public void onUserResolved(@NonNull UserResponseDto user) {
+                if (isDestroyed()) return;
+                String name = (user.getFirstName() + " " + user.getLastName()).trim();
+                txtAssigneeName.setText(name.isEmpty() ? "Unknown" : name);
+
+                // Load avatar
+                String avatarUrl = Constants.BASE_URL + "/api/v1/users/" + assigneeId + "/profile-picture";
+                AvatarLoader.request(Glide.with(TaskDetailActivity.this), avatarUrl, false)
+                    .circleCrop()
+                    .placeholder(R.drawable.ic_profile_placeholder)
+                    .error(R.drawable.ic_profile_placeholder)
+                    .into(imgAssigneeAvatar);
             }
 
             @Override
-            public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {
+            public void onUserUnavailable(long userId) {
                 txtAssigneeName.setText("Unknown");
             }
         });
     }
 
+    private void showStatus(String status) {
+        selectedStatus = status;
+        currentTask.setStatus(status);
+        int statusIndex = getStatusIndex(status);
+        if (statusIndex >= 0) {
+            dropdownStatus.setText(statusDisplayNames[statusIndex], false);
+        }
+    }
+
     private int getStatusIndex(String status) {
         for (int i = 0; i < statusOptions.length; i++) {
             if (statusOptions[i].equals(status)) {
@@ -259,26 +307,40 @@ public class TaskDetailActivity extends AppCompatActivity {
 
         showLoading(true);
 
-        Map<String, String> statusMap = new HashMap<>();
-        statusMap.put("status", selectedStatus);
-
-        apiService.updateTaskStatus(taskId, statusMap).enqueue(new Callback<TaskResponse>() {
+        String status = selectedStatus;
+        MutationOutbox.getInstance(this).updateTaskStatus(taskId, status, new MutationOutbox.Callback<TaskResponse>() {
             @Override
-            public void onResponse(@NonNull Call<TaskResponse> call, @NonNull Response<TaskResponse> response) {
+            public void onApplied(TaskResponse updated) {
                 showLoading(false);
-                if (response.isSuccessful()) {
-                    Toast.makeText(TaskDetailActivity.this, "Status updated", Toast.LENGTH_SHORT).show();
-                    currentTask = response.body();
-                    btnSaveStatus.setEnabled(false);
-                } else {
-                    Toast.makeText(TaskDetailActivity.this, "Failed to update status", Toast.LENGTH_SHORT).show();
+                Toast.makeText(TaskDetailActivity.this, "Status updated", Toast.LENGTH_SHORT).show();
+                if (updated != null) {
+                    currentTask = updated;
                 }
+                btnSaveStatus.setEnabled(false);
             }
 
             @Override
-            public void onFailure(@NonNull Call<TaskResponse> call, @NonNull Throwable t) {
+            public void onQueued() {
+                showLoading(false);
+                Toast.makeText(TaskDetailActivity.this, "Saved offline, it will sync once you're back online",
+                        Toast.LENGTH_SHORT).show();
+                currentTask.setStatus(status);
+                btnSaveStatus.setEnabled(false);
+            }
+
+            @Override
+            public void onSessionExpired() {
+                showLoading(false);
+                Toast.makeText(TaskDetailActivity.this, "Your session expired: it will sync once you log in again",
+                        Toast.LENGTH_SHORT).show();
+                currentTask.setStatus(status);
+                btnSaveStatus.setEnabled(false);
+            }
+
+            @Override
+            public void onRejected(int code) {
                 showLoading(false);
-                Toast.makeText(TaskDetailActivity.this, "Network error", Toast.LENGTH_SHORT).show();
+                Toast.makeText(TaskDetailActivity.this, "Failed to update status", Toast.LENGTH_SHORT).show();
             }
         });
     }
@@ -295,22 +357,35 @@ public class TaskDetailActivity extends AppCompatActivity {
     private void deleteTask() {
         showLoading(true);
 
-        apiService.deleteTask(taskId).enqueue(new Callback<Void>() {
+        MutationOutbox.getInstance(this).deleteTask(taskId, new MutationOutbox.Callback<Void>() {
             @Override
-            public void onResponse(@NonNull Call<Void> call, @NonNull Response<Void> response) {
+            public void onApplied(Void result) {
                 showLoading(false);
-                if (response.isSuccessful()) {
-                    Toast.makeText(TaskDetailActivity.this, "Task deleted", Toast.LENGTH_SHORT).show();
-                    finish();
-                } else {
-                    Toast.makeText(TaskDetailActivity.this, "Failed to delete task", Toast.LENGTH_SHORT).show();
-                }
+                Toast.makeText(TaskDetailActivity.this, "Task deleted", Toast.LENGTH_SHORT).show();
+                finish();
+            }
+
+            @Override
+            public void onQueued() {
+                showLoading(false);
+                Toast.makeText(TaskDetailActivity.this, "The task will be deleted once you're back online",
+                        Toast.LENGTH_SHORT).show();
+                finish();
+            }
+
+            @Override
+            public void onSessionExpired() {
+                showLoading(false);
+                Toast.makeText(TaskDetailActivity.this,
+                        "Your session expired: the task will be deleted once you log in again",
+                        Toast.LENGTH_SHORT).show();
+                finish();
             }
 
             @Override
-            public void onFailure(@NonNull Call<Void> call, @NonNull Throwable t) {
+            public void onRejected(int code) {
                 showLoading(false);
-                Toast.makeText(TaskDetailActivity.this, "Network error", Toast.LENGTH_SHORT).show();
+                Toast.makeText(TaskDetailActivity.this, "Failed to delete task", Toast.LENGTH_SHORT).show();
             }
         });
     }
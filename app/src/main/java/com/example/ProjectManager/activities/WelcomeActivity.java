@@ -10,6 +10,8 @@ import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.ProjectManager.R;
+import com.example.ProjectManager.api.AuthToken;
+import com.example.ProjectManager.utils.SharedPrefsManager;
 
 public class WelcomeActivity extends AppCompatActivity {
 
@@ -22,6 +24,20 @@ public class WelcomeActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Signed in already: straight to the dashboard, without inflating the onboarding.
+        // An expired session goes through the onboarding to the login instead
+        SharedPrefsManager prefsManager = SharedPrefsManager.getInstance(this);
+        String token = prefsManager.getAuthToken();
+        if (prefsManager.isLoggedIn() && token != null && !token.isEmpty()
+                && !AuthToken.parse(token).isExpired()) {
+            Intent intent = new Intent(this, MainActivity.class);
+            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+            startActivity(intent);
+            finish();
+            return;
+        }
+
         setContentView(R.layout.activity_welcome);
 
         btnNext = findViewById(R.id.btnNext);
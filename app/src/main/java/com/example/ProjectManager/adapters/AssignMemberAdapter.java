@@ -12,74 +12,76 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.models.Member;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-public class AssignMemberAdapter extends RecyclerView.Adapter<AssignMemberAdapter.VH> {
+public class AssignMemberAdapter extends DiffListAdapter<Member, AssignMemberAdapter.VH> {
 
-    private final List<Member> items = new ArrayList<>();
-    private int selectedPos = -1;
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    // Selection follows the member across list updates, not the position
     private Member selectedMember = null;
 
     public void setItems(List<Member> data) {
-        items.clear();
-        if (data != null)
-            items.addAll(data);
-        // Restore selection position if we have a selected member
-        if (selectedMember != null) {
-            for (int i = 0; i < items.size(); i++) {
-                if (items.get(i).getId() == selectedMember.getId()) {
-                    selectedPos = i;
-                    break;
-                }
-            }
-        }
-        notifyDataSetChanged();
+        submitList(data);
     }
 
     public Member getSelected() {
-        if (selectedMember != null)
-            return selectedMember;
-        if (selectedPos >= 0 && selectedPos < items.size())
-            return items.get(selectedPos);
-        return null;
+        return selectedMember;
     }
 
-    @NonNull
     @Override
-    public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View v = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_assign_member_radio, parent, false);
-        return new VH(v);
+    protected long getItemKey(@NonNull Member member) {
+        return member.getId();
     }
 
     @Override
-    public void onBindViewHolder(@NonNull VH holder, int position) {
-        Member m = items.get(position);
-
-        holder.tvLabel.setText(m.getDisplayText());
-        holder.rb.setChecked(position == selectedPos);
+    protected boolean areContentsTheSame(@NonNull Member oldMember, @NonNull Member newMember) {
+        return Objects.equals(oldMember.getDisplayText(), newMember.getDisplayText());
+    }
 
-        holder.itemView.setOnClickListener(v -> {
+    @NonNull
+    @Override
+    public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View v = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_assign_member_radio, parent, false);
+        VH holder = new VH(v);
+        holder.itemView.setOnClickListener(view -> {
             int adapterPos = holder.getAdapterPosition();
             if (adapterPos == RecyclerView.NO_POSITION)
                 return;
 
-            int oldPos = selectedPos;
-            selectedPos = adapterPos;
-            selectedMember = items.get(selectedPos);
+            Member old = selectedMember;
+            selectedMember = getItem(adapterPos);
 
             // Only notify the changed items, not the whole dataset
-            if (oldPos >= 0) {
-                notifyItemChanged(oldPos);
+            if (old != null) {
+                notifyItemUpdated(old, PAYLOAD_SELECTION);
             }
-            notifyItemChanged(selectedPos);
+            notifyItemChanged(adapterPos, PAYLOAD_SELECTION);
         });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        if (onlyPayload(payloads, PAYLOAD_SELECTION)) {
+            bindSelection(holder, getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return items.size();
+    public void onBindViewHolder(@NonNull VH holder, int position) {
+        Member m = getItem(position);
+
+        holder.tvLabel.setText(m.getDisplayText());
+        bindSelection(holder, m);
+    }
+
+    private void bindSelection(@NonNull VH holder, Member m) {
+        holder.rb.setChecked(selectedMember != null && selectedMember.getId() == m.getId());
     }
 
     static class VH extends RecyclerView.ViewHolder {
@@ -12,16 +12,15 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.models.dto.ProjectResponse;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying projects in the dashboard.
  * Shows project name, description, and owner/member badge.
  */
-public class DashboardProjectAdapter extends RecyclerView.Adapter<DashboardProjectAdapter.ProjectViewHolder> {
+public class DashboardProjectAdapter extends DiffListAdapter<DashboardProjectAdapter.ProjectItem, DashboardProjectAdapter.ProjectViewHolder> {
 
-    private List<ProjectItem> projects = new ArrayList<>();
     private OnProjectClickListener listener;
 
     public interface OnProjectClickListener {
@@ -33,8 +32,19 @@ public class DashboardProjectAdapter extends RecyclerView.Adapter<DashboardProje
     }
 
     public void setProjects(List<ProjectItem> projects) {
-        this.projects = projects != null ? projects : new ArrayList<>();
-        notifyDataSetChanged();
+        submitList(projects);
+    }
+
+    @Override
+    protected long getItemKey(@NonNull ProjectItem project) {
+        return project.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull ProjectItem oldProject, @NonNull ProjectItem newProject) {
+        return Objects.equals(oldProject.getName(), newProject.getName())
+                && Objects.equals(oldProject.getDescription(), newProject.getDescription())
+                && oldProject.isOwner() == newProject.isOwner();
     }
 
     @NonNull
@@ -47,15 +57,10 @@ public class DashboardProjectAdapter extends RecyclerView.Adapter<DashboardProje
 
     @Override
     public void onBindViewHolder(@NonNull ProjectViewHolder holder, int position) {
-        ProjectItem project = projects.get(position);
+        ProjectItem project = getItem(position);
         holder.bind(project);
     }
 
-    @Override
-    public int getItemCount() {
-        return projects.size();
-    }
-
     class ProjectViewHolder extends RecyclerView.ViewHolder {
         private final TextView tvProjectName;
         private final TextView tvProjectDescription;
@@ -70,7 +75,7 @@ public class DashboardProjectAdapter extends RecyclerView.Adapter<DashboardProje
             itemView.setOnClickListener(v -> {
                 int pos = getAdapterPosition();
                 if (pos != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onProjectClick(projects.get(pos));
+                    listener.onProjectClick(getItem(pos));
                 }
             });
         }
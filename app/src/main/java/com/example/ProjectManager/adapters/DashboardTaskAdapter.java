@@ -11,16 +11,17 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.models.dto.TaskResponse;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying tasks in the dashboard.
  * Shows task name, project name, and status badge with color coding.
  */
-public class DashboardTaskAdapter extends RecyclerView.Adapter<DashboardTaskAdapter.TaskViewHolder> {
+public class DashboardTaskAdapter extends DiffListAdapter<DashboardTaskAdapter.TaskItem, DashboardTaskAdapter.TaskViewHolder> {
+
+    private static final Object PAYLOAD_STATUS = new Object();
 
-    private List<TaskItem> tasks = new ArrayList<>();
     private OnTaskClickListener listener;
 
     public interface OnTaskClickListener {
@@ -32,8 +33,27 @@ public class DashboardTaskAdapter extends RecyclerView.Adapter<DashboardTaskAdap
     }
 
     public void setTasks(List<TaskItem> tasks) {
-        this.tasks = tasks != null ? tasks : new ArrayList<>();
-        notifyDataSetChanged();
+        submitList(tasks);
+    }
+
+    @Override
+    protected long getItemKey(@NonNull TaskItem task) {
+        return task.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull TaskItem oldTask, @NonNull TaskItem newTask) {
+        return Objects.equals(oldTask.getStatus(), newTask.getStatus()) && sameExceptStatus(oldTask, newTask);
+    }
+
+    @Override
+    protected Object getChangePayload(@NonNull TaskItem oldTask, @NonNull TaskItem newTask) {
+        return sameExceptStatus(oldTask, newTask) ? PAYLOAD_STATUS : null;
+    }
+
+    private static boolean sameExceptStatus(TaskItem a, TaskItem b) {
+        return Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getProjectName(), b.getProjectName());
     }
 
     @NonNull
@@ -45,14 +65,18 @@ public class DashboardTaskAdapter extends RecyclerView.Adapter<DashboardTaskAdap
     }
 
     @Override
-    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        TaskItem task = tasks.get(position);
-        holder.bind(task);
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (onlyPayload(payloads, PAYLOAD_STATUS)) {
+            holder.bindStatus(getItem(position).getStatus());
+        } else {
+            onBindViewHolder(holder, position);
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return tasks.size();
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
+        TaskItem task = getItem(position);
+        holder.bind(task);
     }
 
     class TaskViewHolder extends RecyclerView.ViewHolder {
@@ -71,7 +95,7 @@ public class DashboardTaskAdapter extends RecyclerView.Adapter<DashboardTaskAdap
             itemView.setOnClickListener(v -> {
                 int pos = getAdapterPosition();
                 if (pos != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onTaskClick(tasks.get(pos));
+                    listener.onTaskClick(getItem(pos));
                 }
             });
         }
@@ -80,8 +104,13 @@ public class DashboardTaskAdapter extends RecyclerView.Adapter<DashboardTaskAdap
             tvTaskName.setText(task.getName());
             tvProjectName.setText(task.getProjectName() != null ? task.getProjectName() : "Unknown Project");
 
-            // Set status badge and indicator color
-            String status = task.getStatus();
+            bindStatus(task.getStatus());
+        }
+
+        /**
+         * Set status badge and indicator color
+         */
+        void bindStatus(String status) {
             switch (status) {
                 case "IN_PROGRESS":
                     tvStatus.setText("In Progress");
@@ -0,0 +1,167 @@
+package com.example.ProjectManager.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base for list adapters that update by diffing instead of notifyDataSetChanged().
+ *
+ * Each submitted list is compared with the one on screen on a background thread,
+ * matching rows by their server id, and only the rows that were inserted, moved,
+ * removed or changed are dispatched. Rows whose content is unchanged are not bound
+ * again, so refreshing an unchanged list binds nothing. A changed row can describe
+ * what changed with a payload, letting the holder update just those views.
+ *
+ * Items are compared by value: a subclass whose items are mutated in place (a
+ * selection flag, a read marker) must report that change itself with
+ * {@link #notifyItemUpdated(Object, Object)}. Must be used from the main thread.
+ *
+ * @param <T>  item type
+ * @param <VH> view holder type
+ */
+public abstract class DiffListAdapter<T, VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+
+    private final AsyncListDiffer<T> differ;
+    // Latest list handed to submitList(); differ.getCurrentList() only catches up once its diff is applied
+    private List<T> submitted = Collections.emptyList();
+
+    protected DiffListAdapter() {
+        differ = new AsyncListDiffer<>(new AdapterListUpdateCallback(this),
+                new AsyncDifferConfig.Builder<>(new DiffUtil.ItemCallback<T>() {
+                    @Override
+                    public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                        return getItemKey(oldItem) == getItemKey(newItem);
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                        return DiffListAdapter.this.areContentsTheSame(oldItem, newItem);
+                    }
+
+                    @Nullable
+                    @Override
+                    public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+                        return DiffListAdapter.this.getChangePayload(oldItem, newItem);
+                    }
+                }).build());
+        setHasStableIds(true);
+    }
+
+    /**
+     * Stable id of an item, unique within the list (usually its server id).
+     */
+    protected abstract long getItemKey(@NonNull T item);
+
+    /**
+     * Whether two versions of the same item render identically. Called off the main thread.
+     */
+    protected abstract boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+    /**
+     * What changed between two versions of the same item, passed to
+     * onBindViewHolder(holder, position, payloads); null for a full rebind.
+     * Called off the main thread.
+     */
+    @Nullable
+    protected Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+        return null;
+    }
+
+    /**
+     * Show a new list. The list is copied, so the caller may keep changing its own.
+     */
+    public void submitList(@Nullable List<T> items) {
+        submitList(items, null);
+    }
+
+    /**
+     * Show a new list and run {@code onCommitted} once it is on screen.
+     */
+    public void submitList(@Nullable List<T> items, @Nullable Runnable onCommitted) {
+        submitted = items != null ? new ArrayList<>(items) : new ArrayList<>();
+        differ.submitList(submitted, onCommitted);
+    }
+
+    /**
+     * The list on screen. Read-only.
+     */
+    @NonNull
+    public List<T> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    /**
+     * Size of the list most recently submitted. {@link #getItemCount()} lags behind it
+     * until the diff has been applied, so use this for empty states and counters.
+     */
+    public int getSubmittedCount() {
+        return submitted.size();
+    }
+
+    /**
+     * The list most recently submitted, to derive the next one from. Read-only.
+     */
+    @NonNull
+    protected List<T> getSubmittedList() {
+        return Collections.unmodifiableList(submitted);
+    }
+
+    @NonNull
+    protected T getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    /**
+     * Position of the item with the given key in the list on screen, or {@link RecyclerView#NO_POSITION}.
+     */
+    protected int indexOfKey(long key) {
+        List<T> items = differ.getCurrentList();
+        for (int i = 0; i < items.size(); i++) {
+            if (getItemKey(items.get(i)) == key) {
+                return i;
+            }
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * Rebind one item that was changed in place.
+     */
+    public void notifyItemUpdated(@NonNull T item, @Nullable Object payload) {
+        int position = indexOfKey(getItemKey(item));
+        if (position != RecyclerView.NO_POSITION) {
+            notifyItemChanged(position, payload);
+        }
+    }
+
+    /**
+     * Whether {@code payloads} is non-empty and holds nothing but {@code payload}, i.e.
+     * a partial bind for that payload is enough.
+     */
+    protected static boolean onlyPayload(@NonNull List<Object> payloads, @NonNull Object payload) {
+        if (payloads.isEmpty()) return false;
+        for (Object p : payloads) {
+            if (p != payload) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public final long getItemId(int position) {
+        return getItemKey(getItem(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ProjectManager.adapters;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link DiffListAdapter} whose rows are display models prepared from the
+ * loaded items on a background thread.
+ *
+ * Everything a row shows (formatted dates, labels, colours, visibility) is worked
+ * out once in {@link #toDisplay(List)} when the data arrives, so binding a row is
+ * plain field assignment and scrolling allocates nothing. Rows are diffed against
+ * each other, so only rows whose displayed values changed are bound again.
+ *
+ * Must be used from the main thread.
+ *
+ * @param <S>  loaded item type
+ * @param <T>  display row type
+ * @param <VH> view holder type
+ */
+public abstract class MappedListAdapter<S, T, VH extends RecyclerView.ViewHolder> extends DiffListAdapter<T, VH> {
+
+    // Shared by every list: mapping a screen of rows takes well under a frame
+    private static final ExecutorService MAPPER = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    // Latest items handed to submitItems(); the rows follow once they are mapped
+    private List<S> items = Collections.emptyList();
+    private int generation;
+
+    /**
+     * Build the display rows for {@code items}, in the same order. Called off the main thread.
+     */
+    @WorkerThread
+    @NonNull
+    protected abstract List<T> toDisplay(@NonNull List<S> items);
+
+    /**
+     * Show a new list of items. The list is copied, so the caller may keep changing its own.
+     */
+    public void submitItems(@Nullable List<S> items) {
+        submitItems(items, null);
+    }
+
+    /**
+     * Show a new list of items and run {@code onCommitted} once its rows are on screen.
+     * If newer items are submitted before these are mapped, these are skipped and
+     * {@code onCommitted} is not run.
+     */
+    public void submitItems(@Nullable List<S> items, @Nullable Runnable onCommitted) {
+        List<S> copy = items != null ? new ArrayList<>(items) : new ArrayList<>();
+        this.items = copy;
+        int gen = ++generation;
+        MAPPER.execute(() -> {
+            List<T> rows = toDisplay(copy);
+            MAIN.post(() -> {
+                if (gen == generation) {
+                    submitList(rows, onCommitted);
+                }
+            });
+        });
+    }
+
+    /**
+     * Size of the item list most recently submitted, mapped or not.
+     */
+    @Override
+    public int getSubmittedCount() {
+        return items.size();
+    }
+
+    /**
+     * The items most recently submitted, to derive the next list from. Read-only.
+     */
+    @NonNull
+    protected List<S> getSubmittedItems() {
+        return Collections.unmodifiableList(items);
+    }
+}
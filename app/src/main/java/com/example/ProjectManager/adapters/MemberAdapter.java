@@ -14,14 +14,17 @@ import com.example.ProjectManager.models.Member;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying a list of members in a RecyclerView.
  * Supports both single and multiple selection modes.
  */
-public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberViewHolder> {
+public class MemberAdapter extends DiffListAdapter<Member, MemberAdapter.MemberViewHolder> {
+
+    // Payload for a row whose selection is all that changed
+    private static final Object PAYLOAD_SELECTION = new Object();
 
-    private List<Member> members;
     private OnMemberClickListener listener;
     private boolean isMultiSelectEnabled;
     private boolean isDisplayMode; // For showing selected members without interaction
@@ -37,7 +40,6 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
      * Default constructor with empty member list
      */
     public MemberAdapter() {
-        this.members = new ArrayList<>();
         this.isMultiSelectEnabled = true;
         this.isDisplayMode = false;
     }
@@ -46,9 +48,8 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
      * Constructor with member list
      */
     public MemberAdapter(List<Member> members) {
-        this.members = members != null ? members : new ArrayList<>();
-        this.isMultiSelectEnabled = true;
-        this.isDisplayMode = false;
+        this();
+        submitList(members);
     }
 
     /**
@@ -84,15 +85,14 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
      * Update the member list
      */
     public void setMembers(List<Member> members) {
-        this.members = members != null ? members : new ArrayList<>();
-        notifyDataSetChanged();
+        submitList(members);
     }
 
     /**
-     * Get current member list
+     * Get current member list (read-only)
      */
     public List<Member> getMembers() {
-        return members;
+        return getSubmittedList();
     }
 
     /**
@@ -100,7 +100,7 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
      */
     public List<Member> getSelectedMembers() {
         List<Member> selectedMembers = new ArrayList<>();
-        for (Member member : members) {
+        for (Member member : getSubmittedList()) {
             if (member.isSelected()) {
                 selectedMembers.add(member);
             }
@@ -113,7 +113,7 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
      */
     public int getSelectedCount() {
         int count = 0;
-        for (Member member : members) {
+        for (Member member : getSubmittedList()) {
             if (member.isSelected()) {
                 count++;
             }
@@ -125,10 +125,10 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
      * Toggle selection state of a member
      */
     public void toggleSelection(int position) {
-        if (position >= 0 && position < members.size()) {
-            Member member = members.get(position);
+        if (position >= 0 && position < getItemCount()) {
+            Member member = getItem(position);
             member.setSelected(!member.isSelected());
-            notifyItemChanged(position);
+            notifyItemChanged(position, PAYLOAD_SELECTION);
         }
     }
 
@@ -136,20 +136,18 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
      * Clear all selections
      */
     public void clearSelections() {
-        for (Member member : members) {
-            member.setSelected(false);
+        for (Member member : getSubmittedList()) {
+            setSelected(member, false);
         }
-        notifyDataSetChanged();
     }
 
     /**
      * Select all members
      */
     public void selectAll() {
-        for (Member member : members) {
-            member.setSelected(true);
+        for (Member member : getSubmittedList()) {
+            setSelected(member, true);
         }
-        notifyDataSetChanged();
     }
 
     /**
@@ -159,10 +157,35 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
         if (preSelectedMembers == null)
             return;
 
-        for (Member member : members) {
-            member.setSelected(preSelectedMembers.contains(member));
+        for (Member member : getSubmittedList()) {
+            setSelected(member, preSelectedMembers.contains(member));
+        }
+    }
+
+    /**
+     * Change the selection of a member, rebinding its row only if it changed
+     */
+    private void setSelected(Member member, boolean selected) {
+        if (member.isSelected() != selected) {
+            member.setSelected(selected);
+            notifyItemUpdated(member, PAYLOAD_SELECTION);
         }
-        notifyDataSetChanged();
+    }
+
+    @Override
+    protected long getItemKey(@NonNull Member member) {
+        return member.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull Member oldMember, @NonNull Member newMember) {
+        return Objects.equals(oldMember.getDisplayText(), newMember.getDisplayText())
+                && oldMember.isSelected() == newMember.isSelected();
+    }
+
+    @Override
+    protected Object getChangePayload(@NonNull Member oldMember, @NonNull Member newMember) {
+        return Objects.equals(oldMember.getDisplayText(), newMember.getDisplayText()) ? PAYLOAD_SELECTION : null;
     }
 
     @NonNull
@@ -174,14 +197,18 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
     }
 
     @Override
-    public void onBindViewHolder(@NonNull MemberViewHolder holder, int position) {
-        Member member = members.get(position);
-        holder.bind(member);
+    public void onBindViewHolder(@NonNull MemberViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (onlyPayload(payloads, PAYLOAD_SELECTION)) {
+            holder.bindSelection(getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return members.size();
+    public void onBindViewHolder(@NonNull MemberViewHolder holder, int position) {
+        Member member = getItem(position);
+        holder.bind(member);
     }
 
     /**
@@ -202,7 +229,7 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
                 if (!isDisplayMode) {
                     int position = getAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        Member member = members.get(position);
+                        Member member = getItem(position);
 
                         // Toggle selection
                         toggleSelection(position);
@@ -223,8 +250,7 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
             // Set member display text (Name - Role)
             tvMemberName.setText(member.getDisplayText());
 
-            // Set radio button state
-            rbMemberSelect.setChecked(member.isSelected());
+            bindSelection(member);
 
             // Hide radio button in display mode
             if (isDisplayMode) {
@@ -233,5 +259,12 @@ public class MemberAdapter extends RecyclerView.Adapter<MemberAdapter.MemberView
                 rbMemberSelect.setVisibility(View.VISIBLE);
             }
         }
+
+        /**
+         * Set radio button state
+         */
+        void bindSelection(Member member) {
+            rbMemberSelect.setChecked(member.isSelected());
+        }
     }
 }
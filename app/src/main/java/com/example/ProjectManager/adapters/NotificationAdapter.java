@@ -11,28 +11,108 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.models.NotificationItem;
+import com.example.ProjectManager.utils.DateLabels;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-import java.util.concurrent.TimeUnit;
+import java.util.Objects;
 
 /**
  * Adapter for displaying notifications in a RecyclerView.
  */
-public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.NotificationViewHolder> {
+public class NotificationAdapter extends MappedListAdapter<NotificationItem, NotificationAdapter.NotificationRow,
+        NotificationAdapter.NotificationViewHolder> {
+
+    // Payload for a notification whose read state is all that changed
+    public static final Object PAYLOAD_READ = new Object();
 
-    private List<NotificationItem> notifications;
     private OnNotificationClickListener listener;
 
     public interface OnNotificationClickListener {
         void onNotificationClick(NotificationItem notification);
     }
 
+    /**
+     * What one row shows, worked out when the notifications arrive. The time is
+     * relative to that moment and is refreshed with the next list.
+     */
+    static final class NotificationRow {
+        final NotificationItem notification;
+        final String timeLabel;
+        final int iconRes;
+
+        NotificationRow(NotificationItem notification, DateLabels dates) {
+            this.notification = notification;
+            timeLabel = dates.relative(notification.getCreatedAt());
+            iconRes = iconFor(notification.getType());
+        }
+
+        // Read state is changed in place when a notification is opened
+        boolean isRead() {
+            return notification.isRead();
+        }
+    }
+
     public NotificationAdapter(List<NotificationItem> notifications, OnNotificationClickListener listener) {
-        this.notifications = notifications;
         this.listener = listener;
+        submitItems(notifications);
+    }
+
+    /**
+     * Rebind the read state of a notification that was marked (un)read in place.
+     */
+    public void notifyReadChanged(@NonNull NotificationItem notification) {
+        int position = indexOfKey(notification.getId());
+        if (position != RecyclerView.NO_POSITION) {
+            notifyItemChanged(position, PAYLOAD_READ);
+        }
+    }
+
+    @NonNull
+    @Override
+    protected List<NotificationRow> toDisplay(@NonNull List<NotificationItem> notifications) {
+        DateLabels dates = new DateLabels();
+        List<NotificationRow> rows = new ArrayList<>(notifications.size());
+        for (NotificationItem notification : notifications) {
+            rows.add(new NotificationRow(notification, dates));
+        }
+        return rows;
+    }
+
+    private static int iconFor(String type) {
+        if (type == null) return R.drawable.ic_notification_primary;
+        switch (type) {
+            case "task_assigned":
+                return R.drawable.ic_task_assigned;
+            case "task_completed":
+                return R.drawable.ic_task_done;
+            case "project_update":
+                return R.drawable.ic_project;
+            default:
+                return R.drawable.ic_notification_primary;
+        }
+    }
+
+    @Override
+    protected long getItemKey(@NonNull NotificationRow row) {
+        return row.notification.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull NotificationRow oldRow, @NonNull NotificationRow newRow) {
+        return oldRow.isRead() == newRow.isRead() && sameExceptRead(oldRow, newRow);
+    }
+
+    @Override
+    protected Object getChangePayload(@NonNull NotificationRow oldRow, @NonNull NotificationRow newRow) {
+        return sameExceptRead(oldRow, newRow) ? PAYLOAD_READ : null;
+    }
+
+    private static boolean sameExceptRead(NotificationRow a, NotificationRow b) {
+        return Objects.equals(a.notification.getTitle(), b.notification.getTitle())
+                && Objects.equals(a.notification.getMessage(), b.notification.getMessage())
+                && a.iconRes == b.iconRes
+                && Objects.equals(a.timeLabel, b.timeLabel);
     }
 
     @NonNull
@@ -44,14 +124,17 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
     }
 
     @Override
-    public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position) {
-        NotificationItem notification = notifications.get(position);
-        holder.bind(notification);
+    public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (onlyPayload(payloads, PAYLOAD_READ)) {
+            holder.bindReadState(getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return notifications.size();
+    public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position) {
+        holder.bind(getItem(position));
     }
 
     class NotificationViewHolder extends RecyclerView.ViewHolder {
@@ -68,67 +151,34 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
             txtTitle = itemView.findViewById(R.id.txt_title);
             txtMessage = itemView.findViewById(R.id.txt_message);
             txtTime = itemView.findViewById(R.id.txt_time);
+
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onNotificationClick(getItem(position).notification);
+                }
+            });
         }
 
-        public void bind(NotificationItem notification) {
-            txtTitle.setText(notification.getTitle());
-            txtMessage.setText(notification.getMessage());
-            txtTime.setText(getRelativeTime(notification.getCreatedAt()));
-            
+        public void bind(NotificationRow row) {
+            txtTitle.setText(row.notification.getTitle());
+            txtMessage.setText(row.notification.getMessage());
+            txtTime.setText(row.timeLabel);
+            imgIcon.setImageResource(row.iconRes);
+
+            bindReadState(row);
+        }
+
+        void bindReadState(NotificationRow row) {
             // Show/hide unread indicator
-            unreadIndicator.setVisibility(notification.isRead() ? View.GONE : View.VISIBLE);
-            
-            // Set icon based on type
-            int iconRes;
-            switch (notification.getType()) {
-                case "task_assigned":
-                    iconRes = R.drawable.ic_task_assigned;
-                    break;
-                case "task_completed":
-                    iconRes = R.drawable.ic_task_done;
-                    break;
-                case "project_update":
-                    iconRes = R.drawable.ic_project;
-                    break;
-                default:
-                    iconRes = R.drawable.ic_notification_primary;
-            }
-            imgIcon.setImageResource(iconRes);
-            
+            unreadIndicator.setVisibility(row.isRead() ? View.GONE : View.VISIBLE);
+
             // Apply different background for unread
-            if (!notification.isRead()) {
+            if (!row.isRead()) {
                 itemView.setBackgroundResource(R.drawable.bg_notification_unread);
             } else {
                 itemView.setBackgroundResource(0);
             }
-            
-            itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onNotificationClick(notification);
-                }
-            });
-        }
-        
-        private String getRelativeTime(Date date) {
-            if (date == null) return "";
-            
-            long diffInMillis = System.currentTimeMillis() - date.getTime();
-            long diffInMinutes = TimeUnit.MILLISECONDS.toMinutes(diffInMillis);
-            long diffInHours = TimeUnit.MILLISECONDS.toHours(diffInMillis);
-            long diffInDays = TimeUnit.MILLISECONDS.toDays(diffInMillis);
-            
-            if (diffInMinutes < 1) {
-                return "Just now";
-            } else if (diffInMinutes < 60) {
-                return diffInMinutes + "m ago";
-            } else if (diffInHours < 24) {
-                return diffInHours + "h ago";
-            } else if (diffInDays < 7) {
-                return diffInDays + "d ago";
-            } else {
-                SimpleDateFormat sdf = new SimpleDateFormat("MMM d", Locale.getDefault());
-                return sdf.format(date);
-            }
         }
     }
 }
@@ -10,23 +10,20 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.ProjectManager.R;
-import com.example.ProjectManager.models.Member;
 import com.example.ProjectManager.models.Project;
+import com.example.ProjectManager.utils.DateLabels;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Adapter for displaying projects in a RecyclerView.
  * Shows project cards with title, member avatars, and due date.
  */
-public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectViewHolder> {
+public class ProjectAdapter extends MappedListAdapter<Project, ProjectAdapter.ProjectRow, ProjectAdapter.ProjectViewHolder> {
 
-    private List<Project> projects;
     private OnProjectClickListener listener;
-    private SimpleDateFormat dateFormat;
 
     /**
      * Interface for handling project item clicks
@@ -37,12 +34,36 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
         void onProjectLongClick(Project project, int position);
     }
 
+    /**
+     * What one card shows, worked out when the projects arrive
+     */
+    static final class ProjectRow {
+        final Project project;
+        final String title;
+        final String dateLabel; // null hides the date
+        final int memberCount;
+        final int statusColorRes;
+
+        ProjectRow(Project project, DateLabels dates) {
+            this.project = project;
+            title = project.getTitle();
+            // Show created date if no due date
+            if (project.getDueDate() != null) {
+                dateLabel = dates.dayMonth(project.getDueDate());
+            } else if (project.getCreatedAt() != null) {
+                dateLabel = dates.dayMonth(project.getCreatedAt());
+            } else {
+                dateLabel = null;
+            }
+            memberCount = project.getMembers() != null ? project.getMembers().size() : 0;
+            statusColorRes = statusColor(project.getStatus());
+        }
+    }
+
     /**
      * Default constructor
      */
     public ProjectAdapter() {
-        this.projects = new ArrayList<>();
-        this.dateFormat = new SimpleDateFormat("dd MMM", Locale.getDefault());
     }
 
     /**
@@ -50,7 +71,7 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
      */
     public ProjectAdapter(List<Project> projects) {
         this();
-        this.projects = projects != null ? projects : new ArrayList<>();
+        submitItems(projects);
     }
 
     /**
@@ -72,8 +93,7 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
      * Update the project list
      */
     public void setProjects(List<Project> projects) {
-        this.projects = projects != null ? projects : new ArrayList<>();
-        notifyDataSetChanged();
+        submitItems(projects);
     }
 
     /**
@@ -81,8 +101,9 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
      */
     public void addProject(Project project) {
         if (project != null) {
+            List<Project> projects = new ArrayList<>(getSubmittedItems());
             projects.add(0, project); // Add at the beginning
-            notifyItemInserted(0);
+            submitItems(projects);
         }
     }
 
@@ -90,9 +111,11 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
      * Remove a project from the list
      */
     public void removeProject(int position) {
-        if (position >= 0 && position < projects.size()) {
-            projects.remove(position);
-            notifyItemRemoved(position);
+        Project project = getProject(position);
+        if (project != null) {
+            List<Project> projects = new ArrayList<>(getSubmittedItems());
+            projects.remove(project);
+            submitItems(projects);
         }
     }
 
@@ -100,17 +123,59 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
      * Get project at position
      */
     public Project getProject(int position) {
-        if (position >= 0 && position < projects.size()) {
-            return projects.get(position);
+        if (position >= 0 && position < getItemCount()) {
+            return getItem(position).project;
         }
         return null;
     }
 
     /**
-     * Get all projects
+     * Get all projects (read-only)
      */
     public List<Project> getProjects() {
-        return projects;
+        return getSubmittedItems();
+    }
+
+    @NonNull
+    @Override
+    protected List<ProjectRow> toDisplay(@NonNull List<Project> projects) {
+        DateLabels dates = new DateLabels();
+        List<ProjectRow> rows = new ArrayList<>(projects.size());
+        for (Project project : projects) {
+            rows.add(new ProjectRow(project, dates));
+        }
+        return rows;
+    }
+
+    /**
+     * Status indicator color for a project status
+     */
+    private static int statusColor(String status) {
+        if (status == null) {
+            return R.color.purple_primary;
+        }
+        switch (status.toLowerCase()) {
+            case "completed":
+                return R.color.teal_700;
+            case "in_progress":
+                return R.color.badge_red;
+            case "created":
+            default:
+                return R.color.purple_primary;
+        }
+    }
+
+    @Override
+    protected long getItemKey(@NonNull ProjectRow row) {
+        return row.project.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull ProjectRow oldRow, @NonNull ProjectRow newRow) {
+        return Objects.equals(oldRow.title, newRow.title)
+                && Objects.equals(oldRow.dateLabel, newRow.dateLabel)
+                && oldRow.statusColorRes == newRow.statusColorRes
+                && oldRow.memberCount == newRow.memberCount;
     }
 
     @NonNull
@@ -123,13 +188,7 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
 
     @Override
     public void onBindViewHolder(@NonNull ProjectViewHolder holder, int position) {
-        Project project = projects.get(position);
-        holder.bind(project);
-    }
-
-    @Override
-    public int getItemCount() {
-        return projects.size();
+        holder.bind(getItem(position));
     }
 
     /**
@@ -145,6 +204,8 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
         private View avatar2;
         private View avatar3;
         private TextView tvDueDate;
+        // Color currently on the status indicator, so an unchanged one is not applied again
+        private int appliedColorRes;
 
         public ProjectViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -162,7 +223,7 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onProjectClick(projects.get(position), position);
+                    listener.onProjectClick(getItem(position).project, position);
                 }
             });
 
@@ -170,7 +231,7 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
             itemView.setOnLongClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onProjectLongClick(projects.get(position), position);
+                    listener.onProjectLongClick(getItem(position).project, position);
                     return true;
                 }
                 return false;
@@ -180,56 +241,25 @@ public class ProjectAdapter extends RecyclerView.Adapter<ProjectAdapter.ProjectV
         /**
          * Bind project data to the view
          */
-        public void bind(Project project) {
-            // Set project title
-            tvProjectTitle.setText(project.getTitle());
+        public void bind(ProjectRow row) {
+            tvProjectTitle.setText(row.title);
 
-            // Set due date
-            if (project.getDueDate() != null) {
-                tvDueDate.setText(dateFormat.format(project.getDueDate()));
-                tvDueDate.setVisibility(View.VISIBLE);
-            } else if (project.getCreatedAt() != null) {
-                // Show created date if no due date
-                tvDueDate.setText(dateFormat.format(project.getCreatedAt()));
+            if (row.dateLabel != null) {
+                tvDueDate.setText(row.dateLabel);
                 tvDueDate.setVisibility(View.VISIBLE);
             } else {
                 tvDueDate.setVisibility(View.GONE);
             }
 
             // Setup member avatars visibility based on member count
-            List<Member> members = project.getMembers();
-            int memberCount = members != null ? members.size() : 0;
-
-            avatar1.setVisibility(memberCount >= 1 ? View.VISIBLE : View.GONE);
-            avatar2.setVisibility(memberCount >= 2 ? View.VISIBLE : View.GONE);
-            avatar3.setVisibility(memberCount >= 3 ? View.VISIBLE : View.GONE);
-
-            // Update status indicator color based on project status
-            updateStatusIndicator(project.getStatus());
-        }
+            avatar1.setVisibility(row.memberCount >= 1 ? View.VISIBLE : View.GONE);
+            avatar2.setVisibility(row.memberCount >= 2 ? View.VISIBLE : View.GONE);
+            avatar3.setVisibility(row.memberCount >= 3 ? View.VISIBLE : View.GONE);
 
-        /**
-         * Update the status indicator color based on project status
-         */
-        private void updateStatusIndicator(String status) {
-            int colorRes;
-            if (status == null) {
-                colorRes = R.color.purple_primary;
-            } else {
-                switch (status.toLowerCase()) {
-                    case "completed":
-                        colorRes = R.color.teal_700;
-                        break;
-                    case "in_progress":
-                        colorRes = R.color.badge_red;
-                        break;
-                    case "created":
-                    default:
-                        colorRes = R.color.purple_primary;
-                        break;
-                }
+            if (appliedColorRes != row.statusColorRes) {
+                viewStatusIndicator.setBackgroundResource(row.statusColorRes);
+                appliedColorRes = row.statusColorRes;
             }
-            viewStatusIndicator.setBackgroundResource(colorRes);
         }
     }
 }
@@ -14,10 +14,10 @@ import com.example.ProjectManager.R;
 import com.example.ProjectManager.models.dto.ProjectResponse;
 
 import java.util.List;
+import java.util.Objects;
 
-public class ProjectCardAdapter extends RecyclerView.Adapter<ProjectCardAdapter.ViewHolder> {
+public class ProjectCardAdapter extends DiffListAdapter<ProjectResponse, ProjectCardAdapter.ViewHolder> {
 
-    private final List<ProjectResponse> projects;
     private final OnProjectClickListener listener;
     private Long currentUserId;
 
@@ -26,12 +26,27 @@ public class ProjectCardAdapter extends RecyclerView.Adapter<ProjectCardAdapter.
     }
 
     public ProjectCardAdapter(List<ProjectResponse> projects, OnProjectClickListener listener) {
-        this.projects = projects;
         this.listener = listener;
+        submitList(projects);
     }
 
     public void setCurrentUserId(Long userId) {
+        if (Objects.equals(currentUserId, userId)) return;
         this.currentUserId = userId;
+        // The owner badge depends on it
+        notifyItemRangeChanged(0, getItemCount());
+    }
+
+    @Override
+    protected long getItemKey(@NonNull ProjectResponse project) {
+        return project.getId() != null ? project.getId() : RecyclerView.NO_ID;
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull ProjectResponse oldProject, @NonNull ProjectResponse newProject) {
+        return Objects.equals(oldProject.getName(), newProject.getName())
+                && Objects.equals(oldProject.getDescription(), newProject.getDescription())
+                && Objects.equals(oldProject.getOwnerId(), newProject.getOwnerId());
     }
 
     @NonNull
@@ -44,15 +59,10 @@ public class ProjectCardAdapter extends RecyclerView.Adapter<ProjectCardAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        ProjectResponse project = projects.get(position);
+        ProjectResponse project = getItem(position);
         holder.bind(project);
     }
 
-    @Override
-    public int getItemCount() {
-        return projects.size();
-    }
-
     class ViewHolder extends RecyclerView.ViewHolder {
         private final CardView cardView;
         private final TextView tvProjectName;
@@ -75,6 +85,14 @@ public class ProjectCardAdapter extends RecyclerView.Adapter<ProjectCardAdapter.
             tvTasksCount = itemView.findViewById(R.id.tv_tasks_count);
             tvDoneCount = itemView.findViewById(R.id.tv_done_count);
             tvInProgressCount = itemView.findViewById(R.id.tv_in_progress_count);
+
+            // Click listener
+            cardView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onProjectClick(getItem(position));
+                }
+            });
         }
 
         void bind(ProjectResponse project) {
@@ -102,19 +120,10 @@ public class ProjectCardAdapter extends RecyclerView.Adapter<ProjectCardAdapter.
                 tvBadge.setText("Member");
                 tvBadge.setBackgroundResource(R.drawable.bg_badge_member);
             }
-
-            // Click listener
-            cardView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onProjectClick(project);
-                }
-            });
         }
     }
 
     public void updateProjects(List<ProjectResponse> newProjects) {
-        projects.clear();
-        projects.addAll(newProjects);
-        notifyDataSetChanged();
+        submitList(newProjects);
     }
 }
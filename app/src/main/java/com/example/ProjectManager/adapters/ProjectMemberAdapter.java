@@ -8,26 +8,32 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.models.dto.ProjectMemberResponse;
+import com.example.ProjectManager.utils.AvatarLoader;
+import com.example.ProjectManager.utils.AvatarPreloader;
 import com.example.ProjectManager.utils.ImageUtils;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 
-public class ProjectMemberAdapter extends RecyclerView.Adapter<ProjectMemberAdapter.MemberViewHolder> {
+public class ProjectMemberAdapter extends DiffListAdapter<ProjectMemberResponse, ProjectMemberAdapter.MemberViewHolder>
+        implements AvatarPreloader.Source {
+
+    // Payload for rows whose owner badge or remove button may need to change
+    private static final Object PAYLOAD_ROLE = new Object();
 
     private final Context context;
-    private List<ProjectMemberResponse> members = new ArrayList<>();
     private long ownerId = -1;
     private boolean showRemoveButton = false;
     private OnMemberActionListener listener;
+    private AvatarPreloader avatarPreloader;
 
     public interface OnMemberActionListener {
         void onMemberClick(ProjectMemberResponse member);
@@ -39,18 +45,58 @@ public class ProjectMemberAdapter extends RecyclerView.Adapter<ProjectMemberAdap
     }
 
     public void setMembers(List<ProjectMemberResponse> members) {
-        this.members = members != null ? members : new ArrayList<>();
-        notifyDataSetChanged();
+        submitList(members);
+    }
+
+    /**
+     * Load member avatars ahead of scrolling while this adapter is shown in {@code list}.
+     */
+    public void preloadAvatars(@NonNull RecyclerView list) {
+        avatarPreloader = AvatarPreloader.attach(list, this);
+    }
+
+    @Nullable
+    @Override
+    public String getAvatarUrl(int position) {
+        return avatarUrl(getItem(position));
+    }
+
+    /**
+     * Try profilePictureUrl first, then fall back to the userId-based URL
+     */
+    private static String avatarUrl(ProjectMemberResponse member) {
+        String imageUrl = ImageUtils.getProfilePictureUrl(member.getProfilePictureUrl());
+        if (imageUrl == null && member.getId() != null) {
+            // Backend doesn't provide profilePictureUrl, use userId-based endpoint
+            imageUrl = ImageUtils.getProfilePictureUrlByUserId(member.getId());
+        }
+        return imageUrl;
     }
 
     public void setOwnerId(long ownerId) {
+        if (this.ownerId == ownerId) return;
         this.ownerId = ownerId;
-        notifyDataSetChanged();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_ROLE);
     }
 
     public void setShowRemoveButton(boolean show) {
+        if (this.showRemoveButton == show) return;
         this.showRemoveButton = show;
-        notifyDataSetChanged();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_ROLE);
+    }
+
+    @Override
+    protected long getItemKey(@NonNull ProjectMemberResponse member) {
+        return member.getId() != null ? member.getId() : RecyclerView.NO_ID;
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull ProjectMemberResponse oldMember,
+                                         @NonNull ProjectMemberResponse newMember) {
+        return Objects.equals(oldMember.getFirstName(), newMember.getFirstName())
+                && Objects.equals(oldMember.getLastName(), newMember.getLastName())
+                && Objects.equals(oldMember.getEmail(), newMember.getEmail())
+                && Objects.equals(oldMember.getProfilePictureUrl(), newMember.getProfilePictureUrl());
     }
 
     public void setOnMemberActionListener(OnMemberActionListener listener) {
@@ -65,14 +111,19 @@ public class ProjectMemberAdapter extends RecyclerView.Adapter<ProjectMemberAdap
     }
 
     @Override
-    public void onBindViewHolder(@NonNull MemberViewHolder holder, int position) {
-        ProjectMemberResponse member = members.get(position);
-        holder.bind(member);
+    public void onBindViewHolder(@NonNull MemberViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (onlyPayload(payloads, PAYLOAD_ROLE)) {
+            // Leaves the avatar alone, so Glide isn't asked to load it again
+            holder.bindRole(getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return members.size();
+    public void onBindViewHolder(@NonNull MemberViewHolder holder, int position) {
+        ProjectMemberResponse member = getItem(position);
+        holder.bind(member);
     }
 
     class MemberViewHolder extends RecyclerView.ViewHolder {
@@ -89,6 +140,21 @@ public class ProjectMemberAdapter extends RecyclerView.Adapter<ProjectMemberAdap
             txtEmail = itemView.findViewById(R.id.txt_member_email);
             txtRole = itemView.findViewById(R.id.txt_member_role);
             btnRemove = itemView.findViewById(R.id.btn_remove_member);
+
+            btnRemove.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onRemoveMember(getItem(position));
+                }
+            });
+
+            // Item click listener
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onMemberClick(getItem(position));
+                }
+            });
         }
 
         void bind(ProjectMemberResponse member) {
@@ -99,6 +165,19 @@ public class ProjectMemberAdapter extends RecyclerView.Adapter<ProjectMemberAdap
             // Set email
             txtEmail.setText(member.getEmail());
 
+            bindRole(member);
+
+            // Load avatar
+            AvatarLoader.load(Glide.with(context), imgAvatar, avatarUrl(member), R.drawable.ic_profile_placeholder);
+            if (avatarPreloader != null) {
+                avatarPreloader.observe(imgAvatar);
+            }
+        }
+
+        /**
+         * Owner badge and remove button, which depend on the project rather than the member
+         */
+        void bindRole(ProjectMemberResponse member) {
             // Show role badge if owner
             if (member.getId() == ownerId) {
                 txtRole.setVisibility(View.VISIBLE);
@@ -108,42 +187,8 @@ public class ProjectMemberAdapter extends RecyclerView.Adapter<ProjectMemberAdap
                 txtRole.setVisibility(View.GONE);
             }
 
-            // Load avatar - try profilePictureUrl first, then fallback to userId-based URL
-            String imageUrl = ImageUtils.getProfilePictureUrl(member.getProfilePictureUrl());
-            if (imageUrl == null && member.getId() != null) {
-                // Backend doesn't provide profilePictureUrl, use userId-based endpoint
-                imageUrl = ImageUtils.getProfilePictureUrlByUserId(member.getId());
-            }
-            
-            if (imageUrl != null) {
-                Glide.with(context)
-                        .load(imageUrl)
-                        .diskCacheStrategy(DiskCacheStrategy.ALL)
-                        .placeholder(R.drawable.ic_profile_placeholder)
-                        .error(R.drawable.ic_profile_placeholder)
-                        .into(imgAvatar);
-            } else {
-                imgAvatar.setImageResource(R.drawable.ic_profile_placeholder);
-            }
-
             // Show/hide remove button (not for owner)
-            if (showRemoveButton && member.getId() != ownerId) {
-                btnRemove.setVisibility(View.VISIBLE);
-                btnRemove.setOnClickListener(v -> {
-                    if (listener != null) {
-                        listener.onRemoveMember(member);
-                    }
-                });
-            } else {
-                btnRemove.setVisibility(View.GONE);
-            }
-
-            // Item click listener
-            itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onMemberClick(member);
-                }
-            });
+            btnRemove.setVisibility(showRemoveButton && member.getId() != ownerId ? View.VISIBLE : View.GONE);
         }
     }
 }
@@ -8,13 +8,18 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.ProjectManager.R;
+import com.example.ProjectManager.models.SearchHit;
 import com.example.ProjectManager.models.dto.ProjectResponse;
 import com.example.ProjectManager.models.dto.TaskResponse;
 import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.utils.AvatarLoader;
+import com.example.ProjectManager.utils.AvatarPreloader;
+import com.example.ProjectManager.utils.HighlightUtils;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -23,19 +28,41 @@ import java.util.Set;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 
-public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+/**
+ * Search results grouped in three sections: projects, tasks and members, always in
+ * that order. Each section is a header, its rows and, when it holds more results
+ * than the section limit, a "show more" row that expands it.
+ *
+ * Every section knows the adapter position it starts at, so results arriving for one
+ * section are inserted as a single range (the sections after it shift) and a position
+ * is resolved without looking at the rows of other sections.
+ *
+ * Rows are local search hits, shown in the order given with the matched words highlighted.
+ */
+public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
+        implements AvatarPreloader.Source {
 
     private static final int TYPE_PROJECT = 0;
     private static final int TYPE_TASK = 1;
     private static final int TYPE_USER = 2;
     private static final int TYPE_SECTION = 3;
+    private static final int TYPE_SHOW_MORE = 4;
+
+    public static final int DEFAULT_SECTION_LIMIT = 5;
+    public static final int NO_SECTION_LIMIT = Integer.MAX_VALUE;
 
     private final Context context;
-    private final List<Object> items = new ArrayList<>();
-    private final Set<Long> addedProjectIds = new HashSet<>();
-    private final Set<Long> addedTaskIds = new HashSet<>();
-    private final Set<Long> addedUserIds = new HashSet<>();
     private final OnSearchResultClickListener listener;
+    private final int highlightColor;
+
+    private final Section<ProjectResponse> projects = new Section<>("Projects", TYPE_PROJECT);
+    private final Section<TaskResponse> tasks = new Section<>("Tasks", TYPE_TASK);
+    private final Section<UserResponseDto> users = new Section<>("Members", TYPE_USER);
+    // Display order
+    private final Section<?>[] sections = {projects, tasks, users};
+
+    private int sectionLimit = DEFAULT_SECTION_LIMIT;
+    private AvatarPreloader avatarPreloader;
 
     public interface OnSearchResultClickListener {
         void onProjectClick(ProjectResponse project);
@@ -46,108 +73,175 @@ public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
     public SearchResultAdapter(Context context, OnSearchResultClickListener listener) {
         this.context = context;
         this.listener = listener;
+        this.highlightColor = context.getResources().getColor(R.color.primary, null);
+        setHasStableIds(true);
+    }
+
+    /**
+     * Load member avatars ahead of scrolling while this adapter is shown in {@code list}.
+     */
+    public void preloadAvatars(@NonNull RecyclerView list) {
+        avatarPreloader = AvatarPreloader.attach(list, this);
+    }
+
+    @Nullable
+    @Override
+    public String getAvatarUrl(int position) {
+        if (getItemViewType(position) != TYPE_USER) return null;
+        return avatarUrl(users.items.get(position - users.start - 1).getItem());
+    }
+
+    private static String avatarUrl(UserResponseDto user) {
+        String imageUrl = user.getProfilePictureUrl();
+        if (imageUrl == null || imageUrl.isEmpty()) return null;
+        return imageUrl.startsWith("http") ? imageUrl : "http://10.0.2.2:8080" + imageUrl;
+    }
+
+    /**
+     * Rows shown per section before its "show more" row; {@link #NO_SECTION_LIMIT} shows all.
+     * Applies from the next {@link #clearResults()}.
+     */
+    public void setSectionLimit(int limit) {
+        this.sectionLimit = Math.max(1, limit);
     }
 
     public void clearResults() {
-        items.clear();
-        addedProjectIds.clear();
-        addedTaskIds.clear();
-        addedUserIds.clear();
-        notifyDataSetChanged();
+        int count = getItemCount();
+        for (Section<?> section : sections) {
+            section.clear(sectionLimit);
+        }
+        if (count > 0) {
+            notifyItemRangeRemoved(0, count);
+        }
     }
 
-    public void addProjects(List<ProjectResponse> projects) {
-        if (projects == null || projects.isEmpty()) return;
-        
-        boolean needsSection = true;
-        for (Object item : items) {
-            if (item instanceof String && "Projects".equals(item)) {
-                needsSection = false;
-                break;
-            }
+    public void addProjects(List<SearchHit<ProjectResponse>> results) {
+        append(projects, results);
+    }
+
+    public void addTasks(List<SearchHit<TaskResponse>> results) {
+        append(tasks, results);
+    }
+
+    public void addUsers(List<SearchHit<UserResponseDto>> results) {
+        append(users, results);
+    }
+
+    private <T> void append(Section<T> section, List<SearchHit<T>> results) {
+        if (results == null || results.isEmpty()) return;
+
+        int rowsBefore = section.rowCount();
+        int shownBefore = section.shownCount();
+        boolean moreBefore = section.hasMore();
+        boolean added = false;
+        for (SearchHit<T> hit : results) {
+            added |= section.add(hit, keyOf(hit.getItem()));
         }
-        
-        List<ProjectResponse> newProjects = new ArrayList<>();
-        for (ProjectResponse project : projects) {
-            if (!addedProjectIds.contains(project.getId())) {
-                addedProjectIds.add(project.getId());
-                newProjects.add(project);
-            }
+        if (!added) return;
+
+        int delta = section.rowCount() - rowsBefore;
+        updateOffsets();
+
+        if (rowsBefore == 0) {
+            // Header, rows and "show more" in one go
+            notifyItemRangeInserted(section.start, delta);
+            return;
         }
-        
-        if (!newProjects.isEmpty()) {
-            if (needsSection) {
-                items.add("Projects");
-            }
-            items.addAll(newProjects);
-            notifyDataSetChanged();
+        if (moreBefore) {
+            // Only the hidden count on the "show more" row changed
+            notifyItemChanged(section.showMorePosition());
+        }
+        if (delta > 0) {
+            // New rows (and a new "show more" row) follow the rows already shown
+            notifyItemRangeInserted(section.start + 1 + shownBefore, delta);
         }
     }
 
-    public void addTasks(List<TaskResponse> tasks) {
-        if (tasks == null || tasks.isEmpty()) return;
-        
-        boolean needsSection = true;
-        for (Object item : items) {
-            if (item instanceof String && "Tasks".equals(item)) {
-                needsSection = false;
-                break;
-            }
-        }
-        
-        List<TaskResponse> newTasks = new ArrayList<>();
-        for (TaskResponse task : tasks) {
-            if (!addedTaskIds.contains(task.getId())) {
-                addedTaskIds.add(task.getId());
-                newTasks.add(task);
-            }
+    /**
+     * Show every row of a capped section in place of its "show more" row.
+     */
+    private void expand(Section<?> section) {
+        if (!section.hasMore()) return;
+        int showMore = section.showMorePosition();
+        int shownBefore = section.shownCount();
+        section.expanded = true;
+        updateOffsets();
+
+        notifyItemRemoved(showMore);
+        notifyItemRangeInserted(section.start + 1 + shownBefore, section.shownCount() - shownBefore);
+    }
+
+    /**
+     * Recompute where each section starts after one of them changed size.
+     */
+    private void updateOffsets() {
+        int start = 0;
+        for (Section<?> section : sections) {
+            section.start = start;
+            start += section.rowCount();
         }
-        
-        if (!newTasks.isEmpty()) {
-            if (needsSection) {
-                items.add("Tasks");
+    }
+
+    /**
+     * The section whose rows include {@code position}.
+     */
+    private Section<?> sectionAt(int position) {
+        for (int i = sections.length - 1; i > 0; i--) {
+            if (position >= sections[i].start && sections[i].rowCount() > 0) {
+                return sections[i];
             }
-            items.addAll(newTasks);
-            notifyDataSetChanged();
         }
+        return sections[0];
     }
 
-    public void addUsers(List<UserResponseDto> users) {
-        if (users == null || users.isEmpty()) return;
-        
-        boolean needsSection = true;
-        for (Object item : items) {
-            if (item instanceof String && "Members".equals(item)) {
-                needsSection = false;
-                break;
-            }
+    private static long keyOf(Object item) {
+        if (item instanceof ProjectResponse) {
+            Long id = ((ProjectResponse) item).getId();
+            return id != null ? id : 0;
         }
-        
-        List<UserResponseDto> newUsers = new ArrayList<>();
-        for (UserResponseDto user : users) {
-            if (!addedUserIds.contains(user.getId())) {
-                addedUserIds.add(user.getId());
-                newUsers.add(user);
-            }
+        if (item instanceof TaskResponse) {
+            return ((TaskResponse) item).getId();
         }
-        
-        if (!newUsers.isEmpty()) {
-            if (needsSection) {
-                items.add("Members");
-            }
-            items.addAll(newUsers);
-            notifyDataSetChanged();
+        if (item instanceof UserResponseDto) {
+            Long id = ((UserResponseDto) item).getId();
+            return id != null ? id : 0;
+        }
+        return 0;
+    }
+
+    @Override
+    public int getItemCount() {
+        int count = 0;
+        for (Section<?> section : sections) {
+            count += section.rowCount();
         }
+        return count;
     }
 
     @Override
     public int getItemViewType(int position) {
-        Object item = items.get(position);
-        if (item instanceof String) return TYPE_SECTION;
-        if (item instanceof ProjectResponse) return TYPE_PROJECT;
-        if (item instanceof TaskResponse) return TYPE_TASK;
-        if (item instanceof UserResponseDto) return TYPE_USER;
-        return TYPE_SECTION;
+        Section<?> section = sectionAt(position);
+        int offset = position - section.start;
+        if (offset == 0) return TYPE_SECTION;
+        if (offset <= section.shownCount()) return section.viewType;
+        return TYPE_SHOW_MORE;
+    }
+
+    /**
+     * Ids of different kinds of rows can collide, so the row type goes in the low bits.
+     * Headers and "show more" rows, one of each per section, get negative ids.
+     */
+    @Override
+    public long getItemId(int position) {
+        Section<?> section = sectionAt(position);
+        int offset = position - section.start;
+        if (offset == 0) {
+            return -1 - section.viewType;
+        }
+        if (offset > section.shownCount()) {
+            return -10 - section.viewType;
+        }
+        return (keyOf(section.items.get(offset - 1).getItem()) << 2) | section.viewType;
     }
 
     @NonNull
@@ -161,6 +255,8 @@ public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
                 return new TaskViewHolder(inflater.inflate(R.layout.item_search_task, parent, false));
             case TYPE_USER:
                 return new UserViewHolder(inflater.inflate(R.layout.item_search_user, parent, false));
+            case TYPE_SHOW_MORE:
+                return new ShowMoreViewHolder(inflater.inflate(R.layout.item_search_show_more, parent, false));
             default:
                 return new SectionViewHolder(inflater.inflate(R.layout.item_search_section, parent, false));
         }
@@ -168,22 +264,74 @@ public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        Object item = items.get(position);
-        
-        if (holder instanceof ProjectViewHolder && item instanceof ProjectResponse) {
-            ((ProjectViewHolder) holder).bind((ProjectResponse) item);
-        } else if (holder instanceof TaskViewHolder && item instanceof TaskResponse) {
-            ((TaskViewHolder) holder).bind((TaskResponse) item);
-        } else if (holder instanceof UserViewHolder && item instanceof UserResponseDto) {
-            ((UserViewHolder) holder).bind((UserResponseDto) item);
-        } else if (holder instanceof SectionViewHolder && item instanceof String) {
-            ((SectionViewHolder) holder).bind((String) item);
+        Section<?> section = sectionAt(position);
+        int offset = position - section.start;
+
+        if (holder instanceof SectionViewHolder) {
+            ((SectionViewHolder) holder).bind(section.title);
+        } else if (holder instanceof ShowMoreViewHolder) {
+            ((ShowMoreViewHolder) holder).bind(section);
+        } else if (holder instanceof ProjectViewHolder) {
+            ((ProjectViewHolder) holder).bind(projects.items.get(offset - 1));
+        } else if (holder instanceof TaskViewHolder) {
+            ((TaskViewHolder) holder).bind(tasks.items.get(offset - 1));
+        } else if (holder instanceof UserViewHolder) {
+            ((UserViewHolder) holder).bind(users.items.get(offset - 1));
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return items.size();
+    /**
+     * The results of one kind, and where they currently start in the adapter.
+     */
+    private static final class Section<T> {
+        final String title;
+        final int viewType;
+        final List<SearchHit<T>> items = new ArrayList<>();
+        final Set<Long> ids = new HashSet<>();
+        int limit = DEFAULT_SECTION_LIMIT;
+        boolean expanded;
+        // Adapter position of the header (or where it will go while the section is empty)
+        int start;
+
+        Section(String title, int viewType) {
+            this.title = title;
+            this.viewType = viewType;
+        }
+
+        boolean add(SearchHit<T> hit, long id) {
+            if (!ids.add(id)) return false;
+            items.add(hit);
+            return true;
+        }
+
+        void clear(int newLimit) {
+            items.clear();
+            ids.clear();
+            limit = newLimit;
+            expanded = false;
+            start = 0;
+        }
+
+        int shownCount() {
+            return expanded ? items.size() : Math.min(items.size(), limit);
+        }
+
+        boolean hasMore() {
+            return shownCount() < items.size();
+        }
+
+        int hiddenCount() {
+            return items.size() - shownCount();
+        }
+
+        int showMorePosition() {
+            return start + 1 + shownCount();
+        }
+
+        int rowCount() {
+            if (items.isEmpty()) return 0;
+            return 1 + shownCount() + (hasMore() ? 1 : 0);
+        }
     }
 
     // ViewHolders
@@ -200,6 +348,25 @@ public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
         }
     }
 
+    class ShowMoreViewHolder extends RecyclerView.ViewHolder {
+        private final TextView txtShowMore;
+
+        ShowMoreViewHolder(@NonNull View itemView) {
+            super(itemView);
+            txtShowMore = itemView.findViewById(R.id.txt_show_more);
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION) {
+                    expand(sectionAt(position));
+                }
+            });
+        }
+
+        void bind(Section<?> section) {
+            txtShowMore.setText("Show " + section.hiddenCount() + " more " + section.title.toLowerCase());
+        }
+    }
+
     class ProjectViewHolder extends RecyclerView.ViewHolder {
         private final ImageView imgIcon;
         private final TextView txtName;
@@ -212,10 +379,12 @@ public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
             txtDescription = itemView.findViewById(R.id.txt_description);
         }
 
-        void bind(ProjectResponse project) {
-            txtName.setText(project.getName());
-            txtDescription.setText(project.getDescription() != null ? project.getDescription() : "No description");
-            
+        void bind(SearchHit<ProjectResponse> hit) {
+            ProjectResponse project = hit.getItem();
+            txtName.setText(HighlightUtils.highlight(hit.getTitle(), highlightColor));
+            txtDescription.setText(hit.getDetail() != null
+                    ? HighlightUtils.highlight(hit.getDetail(), highlightColor) : "No description");
+
             itemView.setOnClickListener(v -> {
                 if (listener != null) {
                     listener.onProjectClick(project);
@@ -236,9 +405,10 @@ public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
             txtStatus = itemView.findViewById(R.id.txt_status);
         }
 
-        void bind(TaskResponse task) {
-            txtName.setText(task.getName());
-            
+        void bind(SearchHit<TaskResponse> hit) {
+            TaskResponse task = hit.getItem();
+            txtName.setText(HighlightUtils.highlight(hit.getTitle(), highlightColor));
+
             String status = task.getStatus();
             txtStatus.setText(formatStatus(status));
             
@@ -290,22 +460,14 @@ public class SearchResultAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
             txtEmail = itemView.findViewById(R.id.txt_email);
         }
 
-        void bind(UserResponseDto user) {
-            txtName.setText(user.getFirstName() + " " + user.getLastName());
-            txtEmail.setText(user.getEmail());
-            
-            if (user.getProfilePictureUrl() != null && !user.getProfilePictureUrl().isEmpty()) {
-                String imageUrl = user.getProfilePictureUrl();
-                if (!imageUrl.startsWith("http")) {
-                    imageUrl = "http://10.0.2.2:8080" + imageUrl;
-                }
-                Glide.with(context)
-                        .load(imageUrl)
-                        .placeholder(R.drawable.ic_profile_placeholder)
-                        .error(R.drawable.ic_profile_placeholder)
-                        .into(imgAvatar);
-            } else {
-                imgAvatar.setImageResource(R.drawable.ic_profile_placeholder);
+        void bind(SearchHit<UserResponseDto> hit) {
+            UserResponseDto user = hit.getItem();
+            txtName.setText(HighlightUtils.highlight(hit.getTitle(), highlightColor));
+            txtEmail.setText(HighlightUtils.highlight(hit.getDetail(), highlightColor));
+
+            AvatarLoader.load(Glide.with(context), imgAvatar, avatarUrl(user), R.drawable.ic_profile_placeholder);
+            if (avatarPreloader != null) {
+                avatarPreloader.observe(imgAvatar);
             }
             
             itemView.setOnClickListener(v -> {
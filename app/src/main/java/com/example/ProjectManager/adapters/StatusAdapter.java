@@ -54,15 +54,21 @@ public class StatusAdapter extends RecyclerView.Adapter<StatusAdapter.VH> {
 
         holder.rb.setChecked(position == selectedPos);
 
-        holder.itemView.setOnClickListener(v -> {
-            selectedPos = holder.getAdapterPosition();
-            notifyDataSetChanged();
-        });
-
-        holder.rb.setOnClickListener(v -> {
-            selectedPos = holder.getAdapterPosition();
-            notifyDataSetChanged();
-        });
+        holder.itemView.setOnClickListener(v -> select(holder.getAdapterPosition()));
+        holder.rb.setOnClickListener(v -> select(holder.getAdapterPosition()));
+    }
+
+    /**
+     * Move the selection, rebinding only the rows that changed
+     */
+    private void select(int position) {
+        if (position == RecyclerView.NO_POSITION || position == selectedPos) return;
+        int oldPos = selectedPos;
+        selectedPos = position;
+        if (oldPos >= 0) {
+            notifyItemChanged(oldPos);
+        }
+        notifyItemChanged(selectedPos);
     }
 
     @Override
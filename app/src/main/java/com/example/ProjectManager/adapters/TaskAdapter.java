@@ -1,98 +1,191 @@
 package com.example.ProjectManager.adapters;
 
 import android.content.Context;
-import android.graphics.Color;
-import android.util.LruCache;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.ProjectManager.R;
-import com.example.ProjectManager.api.ApiService;
-import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.models.dto.TaskResponse;
 import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.repository.UserResolver;
+import com.example.ProjectManager.utils.AvatarLoader;
+import com.example.ProjectManager.utils.AvatarPreloader;
+import com.example.ProjectManager.utils.DateLabels;
 import com.example.ProjectManager.utils.ImageUtils;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 import de.hdodenhof.circleimageview.CircleImageView;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
-public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskVH> {
+public class TaskAdapter extends MappedListAdapter<TaskResponse, TaskAdapter.TaskRow, TaskAdapter.TaskVH>
+        implements AvatarPreloader.Source {
 
-    private final List<TaskResponse> items = new ArrayList<>();
+    // Payload for a task whose status (and with it updatedAt) is all that changed
+    private static final Object PAYLOAD_STATUS = new Object();
+
+    private final UserResolver userResolver;
     private final List<TaskResponse> allItems = new ArrayList<>(); // Keep all items for filtering
     private OnTaskClickListener listener;
     private String currentFilter = null; // null = All
-    
-    // Cache for user names to avoid repeated API calls
-    private static final LruCache<Long, String> userNameCache = new LruCache<>(50);
+    private AvatarPreloader avatarPreloader;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // A re-submission is posted for the names resolved meanwhile
+    private boolean relabelPending;
 
     public interface OnTaskClickListener {
         void onTaskClick(TaskResponse task);
     }
 
-    public TaskAdapter() {
+    /**
+     * Look of the status chip and the indicator bar for each task status.
+     */
+    private enum StatusStyle {
+        TODO(R.drawable.bg_status_indicator_todo, R.drawable.bg_chip_todo, 0xFF6366F1),
+        IN_PROGRESS(R.drawable.bg_status_indicator_progress, R.drawable.bg_chip_progress, 0xFFF59E0B),
+        DONE(R.drawable.bg_status_indicator_done, R.drawable.bg_chip_done, 0xFF10B981),
+        ARCHIVED(R.drawable.bg_status_indicator_archived, R.drawable.bg_chip_archived, 0xFF94A3B8),
+        OTHER(R.drawable.bg_status_indicator_todo, R.drawable.bg_chip_archived, 0xFF64748B);
+
+        final int indicatorRes;
+        final int chipRes;
+        final int textColor;
+
+        StatusStyle(int indicatorRes, int chipRes, int textColor) {
+            this.indicatorRes = indicatorRes;
+            this.chipRes = chipRes;
+            this.textColor = textColor;
+        }
+
+        static StatusStyle of(String status) {
+            if (status == null) return OTHER;
+            switch (status) {
+                case "TODO": return TODO;
+                case "IN_PROGRESS": return IN_PROGRESS;
+                case "DONE": return DONE;
+                case "ARCHIVED": return ARCHIVED;
+                default: return OTHER;
+            }
+        }
     }
 
-    public TaskAdapter(List<TaskResponse> tasks, OnTaskClickListener listener) {
-        if (tasks != null) {
-            items.addAll(tasks);
-            allItems.addAll(tasks);
+    /**
+     * What one row shows, worked out when the tasks arrive.
+     */
+    static final class TaskRow {
+        final TaskResponse task;
+        final String title;
+        final String description; // null hides it
+        final String dateLabel;
+        final String statusLabel;
+        final StatusStyle statusStyle;
+        final Long assigneeId;
+        // Null while the assignee still has to be looked up
+        final String assigneeLabel;
+        final String avatarUrl; // null shows the placeholder
+        final String projectName; // null hides the badge
+
+        TaskRow(TaskResponse task, DateLabels dates, UserResolver userResolver) {
+            this.task = task;
+            title = task.getName();
+            description = task.getContent() != null && !task.getContent().isEmpty() ? task.getContent() : null;
+
+            // Date - use updatedAt or createdAt
+            String dateStr = task.getUpdatedAt() != null ? task.getUpdatedAt() : task.getCreatedAt();
+            dateLabel = dateStr != null ? dates.dayMonth(dateStr) : "No date";
+            statusLabel = formatStatus(task.getStatus());
+            statusStyle = StatusStyle.of(task.getStatus());
+
+            // Assignee - check both assignee object (RichTaskResponse) and direct userId (TaskResponse)
+            if (task.hasAssigneeDetails()) {
+                TaskResponse.Assignee assignee = task.getAssignee();
+                assigneeId = assignee.getId();
+                assigneeLabel = fullName(assignee.getFirstName(), assignee.getLastName(),
+                        assignee.getEmail(), "Unassigned");
+                // Backend doesn't provide profilePictureUrl in AssigneeDto, fall back to the userId-based endpoint
+                String imageUrl = ImageUtils.getProfilePictureUrl(assignee.getProfilePictureUrl());
+                avatarUrl = imageUrl != null ? imageUrl : ImageUtils.getProfilePictureUrlByUserId(assignee.getId());
+            } else if (task.getAssigneeId() != null) {
+                // Backend returned only userId; use the user if it was already resolved
+                assigneeId = task.getAssigneeId();
+                UserResponseDto user = userResolver.getCached(assigneeId);
+                assigneeLabel = user != null ? fullName(user) : null;
+                avatarUrl = ImageUtils.getProfilePictureUrlByUserId(assigneeId);
+            } else {
+                assigneeId = null;
+                assigneeLabel = "Unassigned";
+                avatarUrl = null;
+            }
+
+            projectName = task.getProjectName() != null && !task.getProjectName().isEmpty()
+                    ? task.getProjectName() : null;
         }
+    }
+
+    public TaskAdapter(Context context) {
+        userResolver = UserResolver.getInstance(context);
+    }
+
+    public TaskAdapter(Context context, List<TaskResponse> tasks, OnTaskClickListener listener) {
+        this(context);
         this.listener = listener;
+        setItems(tasks);
     }
 
     public void setOnTaskClickListener(OnTaskClickListener listener) {
         this.listener = listener;
     }
 
+    /**
+     * Load assignee avatars ahead of scrolling while this adapter is shown in {@code list}.
+     */
+    public void preloadAvatars(@NonNull RecyclerView list) {
+        avatarPreloader = AvatarPreloader.attach(list, this);
+    }
+
+    @Nullable
+    @Override
+    public String getAvatarUrl(int position) {
+        return getItem(position).avatarUrl;
+    }
+
     public void setItems(List<TaskResponse> tasks) {
         allItems.clear();
-        items.clear();
         if (tasks != null) {
             allItems.addAll(tasks);
-            if (currentFilter == null) {
-                items.addAll(tasks);
-            } else {
-                for (TaskResponse task : tasks) {
-                    if (currentFilter.equals(task.getStatus())) {
-                        items.add(task);
-                    }
-                }
-            }
         }
-        notifyDataSetChanged();
+        submitFiltered();
     }
 
     public void filterByStatus(String status) {
         currentFilter = status;
-        items.clear();
-        if (status == null) {
-            items.addAll(allItems);
-        } else {
-            for (TaskResponse task : allItems) {
-                if (status.equals(task.getStatus())) {
-                    items.add(task);
-                }
+        submitFiltered();
+    }
+
+    private void submitFiltered() {
+        if (currentFilter == null) {
+            submitItems(allItems);
+            return;
+        }
+        List<TaskResponse> filtered = new ArrayList<>();
+        for (TaskResponse task : allItems) {
+            if (currentFilter.equals(task.getStatus())) {
+                filtered.add(task);
             }
         }
-        notifyDataSetChanged();
+        submitItems(filtered);
     }
 
     public int getCountByStatus(String status) {
@@ -108,12 +201,16 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskVH> {
         return allItems.size();
     }
 
-    static class TaskVH extends RecyclerView.ViewHolder {
+    class TaskVH extends RecyclerView.ViewHolder {
         View statusIndicator;
         TextView tvTitle, tvDescription, tvDate, tvStatus, tvAssigneeName, tvProjectName;
         CircleImageView imgAssignee;
         LinearLayout projectBadge;
         ProgressBar pbProgress;
+        // Style the status views currently have, so an unchanged one is not applied again
+        StatusStyle appliedStyle;
+        // Pending assignee lookup for the task currently bound
+        UserResolver.UserCallback assigneeCallback;
 
         TaskVH(@NonNull View itemView) {
             super(itemView);
@@ -127,6 +224,13 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskVH> {
             imgAssignee = itemView.findViewById(R.id.imgAssignee);
             projectBadge = itemView.findViewById(R.id.projectBadge);
             pbProgress = itemView.findViewById(R.id.pbProgress);
+
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onTaskClick(getItem(position).task);
+                }
+            });
         }
     }
 
@@ -138,141 +242,111 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskVH> {
         return new TaskVH(view);
     }
 
+    @NonNull
+    @Override
+    protected List<TaskRow> toDisplay(@NonNull List<TaskResponse> tasks) {
+        DateLabels dates = new DateLabels();
+        List<TaskRow> rows = new ArrayList<>(tasks.size());
+        for (TaskResponse task : tasks) {
+            rows.add(new TaskRow(task, dates, userResolver));
+        }
+        return rows;
+    }
+
+    @Override
+    protected long getItemKey(@NonNull TaskRow row) {
+        return row.task.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull TaskRow oldRow, @NonNull TaskRow newRow) {
+        return oldRow.statusStyle == newRow.statusStyle
+                && Objects.equals(oldRow.statusLabel, newRow.statusLabel)
+                && Objects.equals(oldRow.dateLabel, newRow.dateLabel)
+                && sameExceptStatus(oldRow, newRow);
+    }
+
+    @Override
+    protected Object getChangePayload(@NonNull TaskRow oldRow, @NonNull TaskRow newRow) {
+        return sameExceptStatus(oldRow, newRow) ? PAYLOAD_STATUS : null;
+    }
+
+    /**
+     * Compares everything the row shows apart from the status chip and the date.
+     */
+    private static boolean sameExceptStatus(TaskRow a, TaskRow b) {
+        return Objects.equals(a.title, b.title)
+                && Objects.equals(a.description, b.description)
+                && Objects.equals(a.projectName, b.projectName)
+                && Objects.equals(a.assigneeId, b.assigneeId)
+                && Objects.equals(a.avatarUrl, b.avatarUrl)
+                && Objects.equals(a.assigneeLabel, b.assigneeLabel);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskVH holder, int position, @NonNull List<Object> payloads) {
+        if (onlyPayload(payloads, PAYLOAD_STATUS)) {
+            bindStatus(holder, getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
     @Override
     public void onBindViewHolder(@NonNull TaskVH holder, int position) {
-        TaskResponse task = items.get(position);
+        TaskRow row = getItem(position);
         Context context = holder.itemView.getContext();
+        // The holder may still be waiting on the assignee of the task it showed before
+        cancelAssigneeLookup(holder);
 
-        // Title
-        holder.tvTitle.setText(task.getName());
+        holder.tvTitle.setText(row.title);
 
-        // Description
-        if (task.getContent() != null && !task.getContent().isEmpty()) {
+        if (row.description != null) {
             holder.tvDescription.setVisibility(View.VISIBLE);
-            holder.tvDescription.setText(task.getContent());
+            holder.tvDescription.setText(row.description);
         } else {
             holder.tvDescription.setVisibility(View.GONE);
         }
 
-        // Date - use updatedAt or createdAt
-        String dateStr = task.getUpdatedAt() != null ? task.getUpdatedAt() : task.getCreatedAt();
-        if (dateStr != null) {
-            holder.tvDate.setText(formatDate(dateStr));
-        } else {
-            holder.tvDate.setText("No date");
-        }
+        // Date and status
+        bindStatus(holder, row);
 
-        // Status + styling
-        String status = task.getStatus();
-        holder.tvStatus.setText(formatStatus(status));
-        applyStatusStyle(holder, status);
-
-        // Assignee - check both assignee object (RichTaskResponse) and direct userId (TaskResponse)
-        if (task.hasAssigneeDetails()) {
-            // We have full assignee details from RichTaskResponse
-            TaskResponse.Assignee assignee = task.getAssignee();
-            String fullName = "";
-            if (assignee.getFirstName() != null) fullName += assignee.getFirstName();
-            if (assignee.getLastName() != null) fullName += " " + assignee.getLastName();
-            fullName = fullName.trim();
-            
-            if (fullName.isEmpty()) {
-                fullName = assignee.getEmail() != null ? assignee.getEmail() : "Unassigned";
-            }
-            holder.tvAssigneeName.setText(fullName);
-
-            // Load avatar - try profilePictureUrl first, then fallback to userId-based URL
-            String imageUrl = ImageUtils.getProfilePictureUrl(assignee.getProfilePictureUrl());
-            if (imageUrl == null && assignee.getId() != null) {
-                // Backend doesn't provide profilePictureUrl in AssigneeDto, use userId-based endpoint
-                imageUrl = ImageUtils.getProfilePictureUrlByUserId(assignee.getId());
-            }
-            
-            if (imageUrl != null) {
-                Glide.with(context)
-                        .load(imageUrl)
-                        .placeholder(R.drawable.ic_profile_placeholder)
-                        .error(R.drawable.ic_profile_placeholder)
-                        .into(holder.imgAssignee);
-            } else {
-                holder.imgAssignee.setImageResource(R.drawable.ic_profile_placeholder);
-            }
-        } else if (task.getAssigneeId() != null) {
-            // Backend returned only userId (TaskResponse), fetch user details async
-            Long userId = task.getAssigneeId();
-            holder.tvAssigneeName.setText("Loading...");
-            
-            // Load avatar immediately using userId
-            String avatarUrl = ImageUtils.getProfilePictureUrlByUserId(userId);
-            Glide.with(context)
-                    .load(avatarUrl)
-                    .placeholder(R.drawable.ic_profile_placeholder)
-                    .error(R.drawable.ic_profile_placeholder)
-                    .into(holder.imgAssignee);
-            
-            // Fetch user name async
-            loadUserName(context, userId, holder.tvAssigneeName, task);
+        // Assignee
+        if (row.assigneeLabel != null) {
+            holder.tvAssigneeName.setText(row.assigneeLabel);
         } else {
-            holder.tvAssigneeName.setText("Unassigned");
-            holder.imgAssignee.setImageResource(R.drawable.ic_profile_placeholder);
+            holder.tvAssigneeName.setText("Loading...");
+            loadUserName(holder, row);
+        }
+        AvatarLoader.load(Glide.with(context), holder.imgAssignee, row.avatarUrl, R.drawable.ic_profile_placeholder);
+        if (avatarPreloader != null) {
+            avatarPreloader.observe(holder.imgAssignee);
         }
 
         // Project name (if available)
-        if (task.getProjectName() != null && !task.getProjectName().isEmpty()) {
+        if (row.projectName != null) {
             holder.projectBadge.setVisibility(View.VISIBLE);
-            holder.tvProjectName.setText(task.getProjectName());
+            holder.tvProjectName.setText(row.projectName);
         } else {
             holder.projectBadge.setVisibility(View.GONE);
         }
-
-        // Click listener
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onTaskClick(task);
-            }
-        });
     }
 
-    private void applyStatusStyle(@NonNull TaskVH holder, String status) {
-        switch (status) {
-            case "TODO":
-                holder.statusIndicator.setBackgroundResource(R.drawable.bg_status_indicator_todo);
-                holder.tvStatus.setTextColor(Color.parseColor("#6366F1"));
-                holder.tvStatus.setBackgroundResource(R.drawable.bg_chip_todo);
-                break;
-
-            case "IN_PROGRESS":
-                holder.statusIndicator.setBackgroundResource(R.drawable.bg_status_indicator_progress);
-                holder.tvStatus.setTextColor(Color.parseColor("#F59E0B"));
-                holder.tvStatus.setBackgroundResource(R.drawable.bg_chip_progress);
-                break;
-
-            case "DONE":
-                holder.statusIndicator.setBackgroundResource(R.drawable.bg_status_indicator_done);
-                holder.tvStatus.setTextColor(Color.parseColor("#10B981"));
-                holder.tvStatus.setBackgroundResource(R.drawable.bg_chip_done);
-                break;
-
-            case "ARCHIVED":
-                holder.statusIndicator.setBackgroundResource(R.drawable.bg_status_indicator_archived);
-                holder.tvStatus.setTextColor(Color.parseColor("#94A3B8"));
-                holder.tvStatus.setBackgroundResource(R.drawable.bg_chip_archived);
-                break;
-
-            default:
-                holder.statusIndicator.setBackgroundResource(R.drawable.bg_status_indicator_todo);
-                holder.tvStatus.setTextColor(Color.parseColor("#64748B"));
-                holder.tvStatus.setBackgroundResource(R.drawable.bg_chip_archived);
-                break;
+    /**
+     * The views that follow the task's status: the chip, its styling and the date.
+     */
+    private void bindStatus(@NonNull TaskVH holder, TaskRow row) {
+        holder.tvDate.setText(row.dateLabel);
+        holder.tvStatus.setText(row.statusLabel);
+        if (holder.appliedStyle != row.statusStyle) {
+            holder.statusIndicator.setBackgroundResource(row.statusStyle.indicatorRes);
+            holder.tvStatus.setTextColor(row.statusStyle.textColor);
+            holder.tvStatus.setBackgroundResource(row.statusStyle.chipRes);
+            holder.appliedStyle = row.statusStyle;
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return items.size();
-    }
-
-    private String formatStatus(String status) {
+    private static String formatStatus(String status) {
         if (status == null) return "Unknown";
         switch (status) {
             case "TODO": return "To Do";
@@ -283,84 +357,69 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskVH> {
         }
     }
 
-    private String formatDate(String dateStr) {
-        if (dateStr == null) return "";
-        try {
-            // Try ISO format first
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-            SimpleDateFormat outputFormat = new SimpleDateFormat("dd MMM", Locale.getDefault());
-            Date date = inputFormat.parse(dateStr);
-            if (date != null) {
-                return outputFormat.format(date);
-            }
-        } catch (Exception e) {
-            // Try alternative format
-            try {
-                SimpleDateFormat inputFormat2 = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-                SimpleDateFormat outputFormat = new SimpleDateFormat("dd MMM", Locale.getDefault());
-                Date date = inputFormat2.parse(dateStr);
-                if (date != null) {
-                    return outputFormat.format(date);
-                }
-            } catch (Exception e2) {
-                // Return first 10 chars if all else fails
-                if (dateStr.length() > 10) {
-                    return dateStr.substring(0, 10);
-                }
-            }
+    private static String fullName(UserResponseDto user) {
+        return fullName(user.getFirstName(), user.getLastName(), user.getEmail(), "Unknown");
+    }
+
+    private static String fullName(String firstName, String lastName, String email, String fallback) {
+        String fullName = "";
+        if (firstName != null) fullName += firstName;
+        if (lastName != null) fullName += " " + lastName;
+        fullName = fullName.trim();
+
+        if (fullName.isEmpty()) {
+            fullName = email != null ? email : fallback;
         }
-        return dateStr;
+        return fullName;
     }
-    
+
+    @Override
+    public void onViewRecycled(@NonNull TaskVH holder) {
+        super.onViewRecycled(holder);
+        cancelAssigneeLookup(holder);
+    }
+
+    private void cancelAssigneeLookup(TaskVH holder) {
+        if (holder.assigneeCallback != null) {
+            userResolver.cancel(holder.assigneeCallback);
+            holder.assigneeCallback = null;
+        }
+    }
+
     /**
-     * Load user name from API and cache it for future use.
-     * Also populates the assignee object in TaskResponse for consistency.
+     * Resolve the assignee's name through the shared {@link UserResolver}, which
+     * batches lookups and serves repeated IDs from memory. Rows are shared with the
+     * mapper and the diff, so they are never changed: the items are submitted again
+     * and the new rows pick the name up from the resolver's cache.
      */
-    private void loadUserName(Context context, Long userId, TextView textView, TaskResponse task) {
-        // Check cache first
-        String cachedName = userNameCache.get(userId);
-        if (cachedName != null) {
-            textView.setText(cachedName);
-            return;
-        }
-        
-        ApiService apiService = RetrofitClient.getInstance(context).create(ApiService.class);
-        apiService.getUser(userId).enqueue(new Callback<UserResponseDto>() {
+    private void loadUserName(TaskVH holder, TaskRow row) {
+        UserResolver.UserCallback callback = new UserResolver.UserCallback() {
             @Override
-            public void onResponse(@NonNull Call<UserResponseDto> call, @NonNull Response<UserResponseDto> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    UserResponseDto user = response.body();
-                    String fullName = "";
-                    if (user.getFirstName() != null) fullName += user.getFirstName();
-                    if (user.getLastName() != null) fullName += " " + user.getLastName();
-                    fullName = fullName.trim();
-                    
-                    if (fullName.isEmpty()) {
-                        fullName = user.getEmail() != null ? user.getEmail() : "Unknown";
-                    }
-                    
-                    // Cache the name
-                    userNameCache.put(userId, fullName);
-                    
-                    // Update UI
-                    textView.setText(fullName);
-                    
-                    // Populate assignee object in task for future use
-                    TaskResponse.Assignee assignee = new TaskResponse.Assignee();
-                    assignee.setId(userId);
-                    assignee.setFirstName(user.getFirstName());
-                    assignee.setLastName(user.getLastName());
-                    assignee.setEmail(user.getEmail());
-                    task.setAssignee(assignee);
-                } else {
-                    textView.setText("Unknown");
-                }
+            public void onUserResolved(@NonNull UserResponseDto user) {
+                holder.assigneeCallback = null;
+                holder.tvAssigneeName.setText(fullName(user));
+                relabel();
             }
 
             @Override
-            public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {
-                textView.setText("Unknown");
+            public void onUserUnavailable(long id) {
+                holder.assigneeCallback = null;
+                holder.tvAssigneeName.setText("Unknown");
             }
+        };
+        holder.assigneeCallback = callback;
+        userResolver.resolve(row.assigneeId, callback);
+    }
+
+    /**
+     * Rebuild the rows once for all the names resolved in this pass.
+     */
+    private void relabel() {
+        if (relabelPending) return;
+        relabelPending = true;
+        handler.post(() -> {
+            relabelPending = false;
+            submitFiltered();
         });
     }
 }
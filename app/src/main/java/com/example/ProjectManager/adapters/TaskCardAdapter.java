@@ -1,5 +1,6 @@
 package com.example.ProjectManager.adapters;
 
+import android.content.Context;
 import android.graphics.drawable.GradientDrawable;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -14,22 +15,120 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.ProjectManager.R;
 import com.example.ProjectManager.models.dto.TaskResponse;
 
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
-public class TaskCardAdapter extends RecyclerView.Adapter<TaskCardAdapter.ViewHolder> {
+public class TaskCardAdapter extends MappedListAdapter<TaskResponse, TaskCardAdapter.TaskCard, TaskCardAdapter.ViewHolder> {
 
-    private final List<TaskResponse> tasks;
+    private static final Object PAYLOAD_STATUS = new Object();
+
+    private final Context context;
     private final OnTaskClickListener listener;
 
     public interface OnTaskClickListener {
         void onTaskClick(TaskResponse task);
     }
 
-    public TaskCardAdapter(List<TaskResponse> tasks, OnTaskClickListener listener) {
-        this.tasks = tasks;
+    /**
+     * What one card shows, worked out when the tasks arrive.
+     */
+    static final class TaskCard {
+        final TaskResponse task;
+        final String title;
+        final String description;
+        final String projectLabel;
+        final String statusLabel;
+        final int statusColor;
+        final String priorityLabel;
+        final int priorityColor;
+
+        TaskCard(TaskResponse task, String title, String description, String projectLabel,
+                 String statusLabel, int statusColor, String priorityLabel, int priorityColor) {
+            this.task = task;
+            this.title = title;
+            this.description = description;
+            this.projectLabel = projectLabel;
+            this.statusLabel = statusLabel;
+            this.statusColor = statusColor;
+            this.priorityLabel = priorityLabel;
+            this.priorityColor = priorityColor;
+        }
+    }
+
+    public TaskCardAdapter(Context context, List<TaskResponse> tasks, OnTaskClickListener listener) {
+        this.context = context.getApplicationContext();
         this.listener = listener;
+        submitItems(tasks);
+    }
+
+    @NonNull
+    @Override
+    protected List<TaskCard> toDisplay(@NonNull List<TaskResponse> tasks) {
+        int todoColor = ContextCompat.getColor(context, R.color.status_todo);
+        int inProgressColor = ContextCompat.getColor(context, R.color.status_in_progress);
+        int doneColor = ContextCompat.getColor(context, R.color.status_done);
+        // Priority - not available from backend, default to MEDIUM
+        int priorityColor = ContextCompat.getColor(context, R.color.priority_medium);
+
+        List<TaskCard> cards = new ArrayList<>(tasks.size());
+        for (TaskResponse task : tasks) {
+            String status = task.getStatus() != null ? task.getStatus() : "TODO";
+            int statusColor;
+            String statusLabel;
+            switch (status.toUpperCase().replace(" ", "_")) {
+                case "IN_PROGRESS":
+                    statusColor = inProgressColor;
+                    statusLabel = "In Progress";
+                    break;
+                case "DONE":
+                case "COMPLETED":
+                    statusColor = doneColor;
+                    statusLabel = "Done";
+                    break;
+                case "TODO":
+                case "TO_DO":
+                default:
+                    statusColor = todoColor;
+                    statusLabel = "To Do";
+                    break;
+            }
+
+            // Project name - use projectName if available, otherwise show ID
+            String projectLabel = task.getProjectName() != null && !task.getProjectName().isEmpty()
+                    ? task.getProjectName() : "Project #" + task.getProjectId();
+
+            cards.add(new TaskCard(task,
+                    task.getTitle() != null ? task.getTitle() : "Untitled Task",
+                    task.getDescription() != null ? task.getDescription() : "No description",
+                    projectLabel, statusLabel, statusColor, "Medium", priorityColor));
+        }
+        return cards;
+    }
+
+    @Override
+    protected long getItemKey(@NonNull TaskCard card) {
+        return card.task.getId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull TaskCard oldCard, @NonNull TaskCard newCard) {
+        return oldCard.statusColor == newCard.statusColor
+                && Objects.equals(oldCard.statusLabel, newCard.statusLabel)
+                && sameExceptStatus(oldCard, newCard);
+    }
+
+    @Override
+    protected Object getChangePayload(@NonNull TaskCard oldCard, @NonNull TaskCard newCard) {
+        return sameExceptStatus(oldCard, newCard) ? PAYLOAD_STATUS : null;
+    }
+
+    private static boolean sameExceptStatus(TaskCard a, TaskCard b) {
+        return Objects.equals(a.title, b.title)
+                && Objects.equals(a.description, b.description)
+                && Objects.equals(a.projectLabel, b.projectLabel)
+                && Objects.equals(a.priorityLabel, b.priorityLabel)
+                && a.priorityColor == b.priorityColor;
     }
 
     @NonNull
@@ -41,14 +140,17 @@ public class TaskCardAdapter extends RecyclerView.Adapter<TaskCardAdapter.ViewHo
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        TaskResponse task = tasks.get(position);
-        holder.bind(task);
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (onlyPayload(payloads, PAYLOAD_STATUS)) {
+            holder.bindStatus(getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return tasks.size();
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position));
     }
 
     class ViewHolder extends RecyclerView.ViewHolder {
@@ -60,6 +162,9 @@ public class TaskCardAdapter extends RecyclerView.Adapter<TaskCardAdapter.ViewHo
         private final TextView tvProjectName;
         private final TextView tvPriority;
         private final TextView tvDueDate;
+        // Badge backgrounds, created once per holder and recoloured on bind
+        private final GradientDrawable statusBackground;
+        private final GradientDrawable priorityBackground;
 
         ViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -71,109 +176,54 @@ public class TaskCardAdapter extends RecyclerView.Adapter<TaskCardAdapter.ViewHo
             tvProjectName = itemView.findViewById(R.id.tv_project_name);
             tvPriority = itemView.findViewById(R.id.tv_priority);
             tvDueDate = itemView.findViewById(R.id.tv_due_date);
-        }
 
-        void bind(TaskResponse task) {
-            tvTaskTitle.setText(task.getTitle() != null ? task.getTitle() : "Untitled Task");
-            tvTaskDescription.setText(task.getDescription() != null ? 
-                    task.getDescription() : "No description");
-
-            // Status
-            String status = task.getStatus() != null ? task.getStatus() : "TODO";
-            setupStatus(status);
-
-            // Project name - use projectName if available, otherwise show ID
-            if (task.getProjectName() != null && !task.getProjectName().isEmpty()) {
-                tvProjectName.setText(task.getProjectName());
-            } else {
-                tvProjectName.setText("Project #" + task.getProjectId());
-            }
-
-            // Priority - not available from backend, default to MEDIUM
-            String priority = "MEDIUM";
-            setupPriority(priority);
+            statusBackground = badgeBackground(8);
+            tvStatusBadge.setBackground(statusBackground);
+            priorityBackground = badgeBackground(6);
+            tvPriority.setBackground(priorityBackground);
 
             // Due date - not available from current backend, hide it
             tvDueDate.setText("");
-            tvDueDate.setVisibility(android.view.View.GONE);
+            tvDueDate.setVisibility(View.GONE);
 
             // Click listener
             cardView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onTaskClick(task);
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onTaskClick(getItem(position).task);
                 }
             });
         }
 
-        private void setupStatus(String status) {
-            int color;
-            String label;
+        void bind(TaskCard card) {
+            tvTaskTitle.setText(card.title);
+            tvTaskDescription.setText(card.description);
 
-            switch (status.toUpperCase().replace(" ", "_")) {
-                case "IN_PROGRESS":
-                case "IN PROGRESS":
-                    color = ContextCompat.getColor(itemView.getContext(), R.color.status_in_progress);
-                    label = "In Progress";
-                    break;
-                case "DONE":
-                case "COMPLETED":
-                    color = ContextCompat.getColor(itemView.getContext(), R.color.status_done);
-                    label = "Done";
-                    break;
-                case "TODO":
-                case "TO_DO":
-                case "TO DO":
-                default:
-                    color = ContextCompat.getColor(itemView.getContext(), R.color.status_todo);
-                    label = "To Do";
-                    break;
-            }
+            // Status
+            bindStatus(card);
 
-            // Status indicator bar
-            statusIndicator.setBackgroundColor(color);
+            tvProjectName.setText(card.projectLabel);
 
-            // Status badge
-            tvStatusBadge.setText(label);
-            tvStatusBadge.setTextColor(color);
-            
-            // Create background with matching color
-            GradientDrawable background = new GradientDrawable();
-            background.setShape(GradientDrawable.RECTANGLE);
-            background.setCornerRadius(dpToPx(8));
-            background.setColor(adjustAlpha(color, 0.15f));
-            tvStatusBadge.setBackground(background);
+            tvPriority.setText(card.priorityLabel);
+            tvPriority.setTextColor(card.priorityColor);
+            priorityBackground.setColor(adjustAlpha(card.priorityColor, 0.15f));
         }
 
-        private void setupPriority(String priority) {
-            int color;
-            String label;
+        void bindStatus(TaskCard card) {
+            // Status indicator bar
+            statusIndicator.setBackgroundColor(card.statusColor);
 
-            switch (priority.toUpperCase()) {
-                case "HIGH":
-                case "URGENT":
-                    color = ContextCompat.getColor(itemView.getContext(), R.color.priority_high);
-                    label = "High";
-                    break;
-                case "LOW":
-                    color = ContextCompat.getColor(itemView.getContext(), R.color.priority_low);
-                    label = "Low";
-                    break;
-                case "MEDIUM":
-                default:
-                    color = ContextCompat.getColor(itemView.getContext(), R.color.priority_medium);
-                    label = "Medium";
-                    break;
-            }
+            // Status badge with a matching background
+            tvStatusBadge.setText(card.statusLabel);
+            tvStatusBadge.setTextColor(card.statusColor);
+            statusBackground.setColor(adjustAlpha(card.statusColor, 0.15f));
+        }
 
-            tvPriority.setText(label);
-            tvPriority.setTextColor(color);
-            
-            // Create background with matching color
+        private GradientDrawable badgeBackground(int cornerRadiusDp) {
             GradientDrawable background = new GradientDrawable();
             background.setShape(GradientDrawable.RECTANGLE);
-            background.setCornerRadius(dpToPx(6));
-            background.setColor(adjustAlpha(color, 0.15f));
-            tvPriority.setBackground(background);
+            background.setCornerRadius(dpToPx(cornerRadiusDp));
+            return background;
         }
 
         private int adjustAlpha(int color, float factor) {
@@ -190,8 +240,6 @@ public class TaskCardAdapter extends RecyclerView.Adapter<TaskCardAdapter.ViewHo
     }
 
     public void updateTasks(List<TaskResponse> newTasks) {
-        tasks.clear();
-        tasks.addAll(newTasks);
-        notifyDataSetChanged();
+        submitItems(newTasks);
     }
 }
@@ -24,6 +24,7 @@ import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Multipart;
 
 import retrofit2.http.PATCH;
@@ -83,8 +84,13 @@ public interface ApiService {
 
     // ============== PROJECTS (Require authentication) ==============
 
+    // Writes the outbox may send again carry an Idempotency-Key (null to send none).
+    // Only the client sends it: the backend doesn't support it, so a repeat can be
+    // applied twice, and creates are not resent unless the user confirms
+
     @POST("/api/v1/projects")
-    Call<ProjectResponse> createProject(@Body CreateProjectRequest request);
+    Call<ProjectResponse> createProject(@Header("Idempotency-Key") String idempotencyKey,
+                                        @Body CreateProjectRequest request);
 
     @GET("/api/v1/projects/{id}")
     Call<ProjectResponse> getProject(@Path("id") long id);
@@ -110,7 +116,8 @@ public interface ApiService {
     // ============== PROJECT MEMBERS (Require authentication) ==============
 
     @POST("/api/v1/projects/{projectId}/members")
-    Call<Void> addMemberToProject(@Path("projectId") long projectId, @Body AddMemberRequest request);
+    Call<Void> addMemberToProject(@Header("Idempotency-Key") String idempotencyKey,
+                                  @Path("projectId") long projectId, @Body AddMemberRequest request);
 
     @GET("/api/v1/projects/{projectId}/members")
     Call<PageResponse<ProjectMemberResponse>> getProjectMembers(
@@ -125,7 +132,8 @@ public interface ApiService {
 
     // Créer une tâche
     @POST("/api/v1/tasks")
-    Call<TaskResponse> createTask(@Body CreateTaskRequest request);
+    Call<TaskResponse> createTask(@Header("Idempotency-Key") String idempotencyKey,
+                                  @Body CreateTaskRequest request);
 
     // Récupérer une tâche par ID
     @GET("/api/v1/tasks/{taskId}")
@@ -141,16 +149,27 @@ public interface ApiService {
             @Query("status") String status
     );
 
+    // Tâches modifiées après un instant donné, les plus anciennes d'abord (synchronisation incrémentale)
+    @GET("/api/v1/tasks")
+    Call<PageResponse<TaskResponse>> getTasksUpdatedAfter(
+            @Query("page") int page,
+            @Query("size") int size,
+            @Query("projectId") Long projectId,
+            @Query("updatedAfter") String updatedAfter,
+            @Query("sort") String sort
+    );
+
     // Mettre à jour une tâche
     @PUT("/api/v1/tasks/{taskId}")
     Call<TaskResponse> updateTask(@Path("taskId") long taskId, @Body CreateTaskRequest request);
 
     // Mettre à jour uniquement le status
     @PATCH("/api/v1/tasks/{taskId}/status")
-    Call<TaskResponse> updateTaskStatus(@Path("taskId") long taskId, @Body Map<String, String> status);
+    Call<TaskResponse> updateTaskStatus(@Header("Idempotency-Key") String idempotencyKey,
+                                        @Path("taskId") long taskId, @Body Map<String, String> status);
 
     // Supprimer une tâche
     @DELETE("/api/v1/tasks/{taskId}")
-    Call<Void> deleteTask(@Path("taskId") long taskId);
+    Call<Void> deleteTask(@Header("Idempotency-Key") String idempotencyKey, @Path("taskId") long taskId);
 
 }
\ No newline at end of file
@@ -4,60 +4,121 @@ import android.content.Context;
 import android.content.Intent;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 
 import com.example.ProjectManager.activities.OnboardingActivity;
+import com.example.ProjectManager.utils.SessionManager;
 import com.example.ProjectManager.utils.SharedPrefsManager;
 
 import java.io.IOException;
 
 import okhttp3.Interceptor;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * OkHttp Interceptor that adds JWT token to all API requests
  * and handles 401 Unauthorized responses (redirects to login).
+ *
+ * The token is decoded once and kept with its expiry. Once it has expired,
+ * requests are answered with a local 401 instead of being sent. However many
+ * requests run into the dead session at once, the user data is cleared and the
+ * redirect is posted once per token.
  */
 public class AuthInterceptor implements Interceptor {
+
+    private static final String TAG = "AuthInterceptor";
+
     private final Context context;
     private final SharedPrefsManager prefsManager;
+    private final SessionManager sessionManager;
     private final Handler mainHandler;
 
+    // Token currently in the preferences, decoded
+    private AuthToken token;
+
     public AuthInterceptor(Context context) {
         this.context = context.getApplicationContext();
         this.prefsManager = SharedPrefsManager.getInstance(context);
+        this.sessionManager = new SessionManager(context);
         this.mainHandler = new Handler(Looper.getMainLooper());
     }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request originalRequest = chain.request();
-
-        // Get the token from SharedPreferences
-        String token = prefsManager.getAuthToken();
+        AuthToken current = currentToken();
 
         // Add token to request if available
         Request.Builder requestBuilder = originalRequest.newBuilder();
-        if (token != null && !token.isEmpty()) {
-            requestBuilder.addHeader("Authorization", "Bearer " + token);
+        if (current != null) {
+            if (current.isExpired()) {
+                // The backend would answer 401: spare the round trip
+                endSession(current.getValue());
+                return expiredResponse(originalRequest);
+            }
+            requestBuilder.addHeader("Authorization", "Bearer " + current.getValue());
         }
 
         Request newRequest = requestBuilder.build();
         Response response = chain.proceed(newRequest);
 
         // Handle 401 Unauthorized (token expired or invalid)
-        if (response.code() == 401) {
-            // Clear user data
-            prefsManager.clearUserData();
-
-            // Redirect to OnboardingActivity on the main thread
-            mainHandler.post(() -> {
-                Intent intent = new Intent(context, OnboardingActivity.class);
-                intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-                context.startActivity(intent);
-            });
+        if (response.code() == 401 && current != null) {
+            endSession(current.getValue());
         }
 
         return response;
     }
+
+    /**
+     * The stored token, decoded again only when it changed (login, logout).
+     */
+    private synchronized AuthToken currentToken() {
+        String value = prefsManager.getAuthToken();
+        if (value == null || value.isEmpty()) {
+            token = null;
+        } else if (token == null || !token.getValue().equals(value)) {
+            token = AuthToken.parse(value);
+        }
+        return token;
+    }
+
+    /**
+     * Log out and send the user to onboarding, once for {@code deadToken}: the first
+     * caller clears it from the preferences, the others find it gone. A 401 for a
+     * token already replaced by a new login leaves the new session alone too.
+     */
+    private void endSession(String deadToken) {
+        synchronized (this) {
+            if (!deadToken.equals(prefsManager.getAuthToken())) {
+                return;
+            }
+            // Cleared here so the other requests find it gone; the rest of the
+            // logout follows on the main thread
+            prefsManager.clearUserData();
+            token = null;
+        }
+        Log.i(TAG, "Session ended, redirecting to onboarding");
+
+        // Finish the logout and redirect to OnboardingActivity on the main thread
+        mainHandler.post(() -> {
+            sessionManager.clearSession();
+            Intent intent = new Intent(context, OnboardingActivity.class);
+            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+            context.startActivity(intent);
+        });
+    }
+
+    private static Response expiredResponse(Request request) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(401)
+                .message("Token expired")
+                .body(ResponseBody.create("", null))
+                .build();
+    }
 }
@@ -0,0 +1,71 @@
+package com.example.ProjectManager.api;
+
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A JWT issued by the backend, with the expiry read from its {@code exp} claim.
+ *
+ * The token is only decoded, not verified: the backend remains the judge of its
+ * validity, this just lets the app stop using a token it knows has run out.
+ * A token whose expiry can't be read never counts as expired.
+ */
+public final class AuthToken {
+
+    // Treat the token as expired slightly early, so a request doesn't expire on its way
+    private static final long CLOCK_SKEW_MS = 30_000;
+
+    private final String value;
+    // Expiry in epoch millis, or 0 when unknown
+    private final long expiresAt;
+
+    private AuthToken(String value, long expiresAt) {
+        this.value = value;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Decode {@code token}.
+     */
+    @NonNull
+    public static AuthToken parse(@NonNull String token) {
+        return new AuthToken(token, readExpiry(token));
+    }
+
+    @NonNull
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Expiry in epoch milliseconds, or 0 when the token carries none.
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired() {
+        return expiresAt > 0 && System.currentTimeMillis() >= expiresAt - CLOCK_SKEW_MS;
+    }
+
+    private static long readExpiry(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return 0;
+        }
+        try {
+            byte[] payload = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+            long exp = new JSONObject(new String(payload, StandardCharsets.UTF_8)).optLong("exp", 0);
+            return exp * 1000;
+        } catch (IllegalArgumentException | JSONException e) {
+            // Not a JWT we can read: leave it to the backend
+            return 0;
+        }
+    }
+}
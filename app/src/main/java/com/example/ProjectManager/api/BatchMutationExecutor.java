@@ -0,0 +1,258 @@
+package com.example.ProjectManager.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Applies one write per key (e.g. adding each selected member to a project) with
+ * bounded parallelism, so a batch costs about one round trip instead of one per key.
+ *
+ * Unlike {@link FanOutExecutor}, a batch keeps the outcome of every key: transient
+ * failures (network errors, timeouts, 408, 429 and 5xx) are retried a few times with
+ * backoff, and whatever still failed can be resumed with another {@link #run},
+ * which only sends the keys not yet applied. Writes answered with a code registered
+ * through {@link #treatAsApplied(int)} count as applied, so a retry of a write the
+ * server had already taken doesn't fail the batch.
+ *
+ * Must be used from the main thread (Retrofit delivers callbacks there).
+ *
+ * @param <K> key identifying one write (e.g. a user ID)
+ */
+public final class BatchMutationExecutor<K> {
+
+    private static final String TAG = "BatchMutationExecutor";
+
+    public static final int MAX_ATTEMPTS = 3;
+    // Doubled after each failed attempt
+    private static final long RETRY_DELAY_MS = 500;
+
+    /**
+     * State of one key of the batch.
+     */
+    public enum Outcome {
+        PENDING,
+        APPLIED,
+        FAILED
+    }
+
+    /**
+     * Creates the write for a key.
+     */
+    public interface CallFactory<K> {
+        Call<?> create(K key);
+    }
+
+    /**
+     * Receives progress on the main thread. Not called after {@link #cancel()}.
+     */
+    public interface Listener<K> {
+        /**
+         * {@code key} was applied, or failed for good in this run.
+         */
+        default void onItemDone(K key, Outcome outcome) {
+        }
+
+        /**
+         * Every key of the run has an outcome; see {@link #getFailedKeys()}.
+         */
+        void onComplete(int applied, int failed);
+    }
+
+    private final CallFactory<K> factory;
+    private final int parallelism;
+    private final long timeoutMs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Map<K, Outcome> outcomes = new LinkedHashMap<>();
+    private final Map<K, Throwable> errors = new LinkedHashMap<>();
+    private final Set<Integer> appliedCodes = new HashSet<>();
+
+    private final Set<Call<?>> inFlight = new HashSet<>();
+    private List<K> queue = new ArrayList<>();
+    private int next;
+    private int waiting;
+    private Listener<K> listener;
+    // Bumped on every run and cancel so callbacks of an older run are dropped
+    private int generation;
+
+    public BatchMutationExecutor(@NonNull List<K> keys, @NonNull CallFactory<K> factory) {
+        this(keys, factory, FanOutExecutor.DEFAULT_PARALLELISM, FanOutExecutor.DEFAULT_TIMEOUT_MS);
+    }
+
+    public BatchMutationExecutor(@NonNull List<K> keys, @NonNull CallFactory<K> factory,
+                                 int parallelism, long timeoutMs) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        for (K key : new LinkedHashSet<>(keys)) {
+            outcomes.put(key, Outcome.PENDING);
+        }
+        this.factory = factory;
+        this.parallelism = parallelism;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Count a write answered with {@code code} as applied (e.g. 409 when the member
+     * is already part of the project).
+     */
+    @NonNull
+    public BatchMutationExecutor<K> treatAsApplied(int code) {
+        appliedCodes.add(code);
+        return this;
+    }
+
+    /**
+     * Send every key not applied yet: all of them the first time, the failed ones
+     * when resuming. A run already going is cancelled first.
+     */
+    public void run(@NonNull Listener<K> listener) {
+        cancel();
+        this.listener = listener;
+        queue = new ArrayList<>();
+        for (Map.Entry<K, Outcome> entry : outcomes.entrySet()) {
+            if (entry.getValue() != Outcome.APPLIED) {
+                entry.setValue(Outcome.PENDING);
+                queue.add(entry.getKey());
+            }
+        }
+        next = 0;
+        waiting = queue.size();
+        if (waiting == 0) {
+            listener.onComplete(outcomes.size(), 0);
+            return;
+        }
+        int gen = generation;
+        while (inFlight.size() < parallelism && next < queue.size()) {
+            dispatch(queue.get(next++), 1, gen);
+        }
+    }
+
+    /**
+     * Stop the current run; writes already sent may still be applied by the server,
+     * which the next {@link #run} finds out through {@link #treatAsApplied(int)}.
+     */
+    public void cancel() {
+        generation++;
+        for (Call<?> call : inFlight) {
+            call.cancel();
+        }
+        inFlight.clear();
+    }
+
+    @NonNull
+    public Outcome getOutcome(K key) {
+        Outcome outcome = outcomes.get(key);
+        return outcome != null ? outcome : Outcome.PENDING;
+    }
+
+    /**
+     * Keys whose last attempt failed, in the order they were given.
+     */
+    @NonNull
+    public List<K> getFailedKeys() {
+        List<K> failed = new ArrayList<>();
+        for (Map.Entry<K, Outcome> entry : outcomes.entrySet()) {
+            if (entry.getValue() == Outcome.FAILED) {
+                failed.add(entry.getKey());
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Why {@code key} failed, or null if it didn't.
+     */
+    @Nullable
+    public Throwable getError(K key) {
+        return errors.get(key);
+    }
+
+    public boolean isComplete() {
+        return !outcomes.containsValue(Outcome.PENDING) && !outcomes.containsValue(Outcome.FAILED);
+    }
+
+    private void dispatch(K key, int attempt, int gen) {
+        @SuppressWarnings("unchecked")
+        Call<Object> call = (Call<Object>) factory.create(key);
+        if (timeoutMs > 0) {
+            call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        inFlight.add(call);
+        call.enqueue(new Callback<Object>() {
+            @Override
+            public void onResponse(@NonNull Call<Object> call, @NonNull Response<Object> response) {
+                if (gen != generation) return;
+                inFlight.remove(call);
+                int code = response.code();
+                if (response.isSuccessful() || appliedCodes.contains(code)) {
+                    finish(key, Outcome.APPLIED, null, gen);
+                } else {
+                    onAttemptFailed(key, attempt, new IllegalStateException("HTTP " + code), isTransient(code), gen);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<Object> call, @NonNull Throwable t) {
+                if (gen != generation) return;
+                inFlight.remove(call);
+                onAttemptFailed(key, attempt, t, t instanceof IOException, gen);
+            }
+        });
+    }
+
+    private void onAttemptFailed(K key, int attempt, Throwable error, boolean transientError, int gen) {
+        if (transientError && attempt < MAX_ATTEMPTS) {
+            long delay = RETRY_DELAY_MS << (attempt - 1);
+            Log.d(TAG, "Retrying " + key + " in " + delay + " ms after: " + error.getMessage());
+            // The key keeps its slot while it waits, so the batch stays within its parallelism
+            mainHandler.postDelayed(() -> {
+                if (gen != generation) return;
+                dispatch(key, attempt + 1, gen);
+            }, delay);
+            return;
+        }
+        Log.w(TAG, "Failed to apply " + key, error);
+        finish(key, Outcome.FAILED, error, gen);
+    }
+
+    private void finish(K key, Outcome outcome, Throwable error, int gen) {
+        outcomes.put(key, outcome);
+        if (error != null) {
+            errors.put(key, error);
+        } else {
+            errors.remove(key);
+        }
+        listener.onItemDone(key, outcome);
+
+        waiting--;
+        if (next < queue.size()) {
+            dispatch(queue.get(next++), 1, gen);
+        } else if (waiting == 0) {
+            List<K> failed = getFailedKeys();
+            listener.onComplete(outcomes.size() - failed.size(), failed.size());
+        }
+    }
+
+    private static boolean isTransient(int code) {
+        return code == 408 || code == 429 || code >= 500;
+    }
+}
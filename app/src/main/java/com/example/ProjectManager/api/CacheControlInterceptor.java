@@ -0,0 +1,59 @@
+package com.example.ProjectManager.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp network interceptor that rewrites the caching headers of API responses
+ * according to {@link CachePolicy}, so the disk cache stores GET responses and
+ * revalidates them with the server's ETag / Last-Modified instead of
+ * downloading the full body again.
+ */
+public class CacheControlInterceptor implements Interceptor {
+
+    private final HttpCacheStats stats;
+
+    public CacheControlInterceptor(HttpCacheStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean conditional = request.header("If-None-Match") != null
+                || request.header("If-Modified-Since") != null;
+        if (conditional) {
+            stats.conditionalRequests.incrementAndGet();
+        }
+
+        Response response = chain.proceed(request);
+        if (conditional && response.code() == 304) {
+            stats.notModified.incrementAndGet();
+        }
+
+        CachePolicy policy = CachePolicy.forRequest(request);
+        if (policy.getMode() == CachePolicy.Mode.NONE) {
+            return response;
+        }
+
+        String cacheControl;
+        if (policy.getMode() == CachePolicy.Mode.STALE_WHILE_REVALIDATE) {
+            // Immediately stale, so any read without max-stale revalidates
+            cacheControl = "private, max-age=0";
+        } else {
+            // Store, but always check with the server before reuse
+            cacheControl = "private, no-cache";
+        }
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", cacheControl)
+                // Responses depend on the logged-in user
+                .header("Vary", "Authorization")
+                .build();
+    }
+}
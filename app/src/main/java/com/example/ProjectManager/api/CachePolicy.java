@@ -0,0 +1,74 @@
+package com.example.ProjectManager.api;
+
+import com.example.ProjectManager.utils.Constants;
+
+import java.util.regex.Pattern;
+
+import okhttp3.Request;
+
+/**
+ * Client-side HTTP caching rules for the GET endpoints in {@link ApiService}.
+ * The backend marks its responses as non-cacheable, so the rules here decide
+ * what the OkHttp disk cache keeps and when a stored copy may be reused.
+ */
+public final class CachePolicy {
+
+    public enum Mode {
+        // Not stored at all (auth endpoints, non-GET requests)
+        NONE,
+        // Stored, but every use is revalidated with If-None-Match / If-Modified-Since
+        REVALIDATE,
+        // Stored copy is served immediately and refreshed in the background
+        STALE_WHILE_REVALIDATE
+    }
+
+    // How long a stale-while-revalidate copy may be served before the caller has to wait
+    private static final int DEFAULT_STALE_SECONDS = 5 * 60;
+
+    private static final Pattern USER_BY_ID = Pattern.compile(
+            Pattern.quote(Constants.USERS_PREFIX) + "/\\d+");
+
+    static final CachePolicy NO_CACHE = new CachePolicy(Mode.NONE, 0);
+    static final CachePolicy REVALIDATE = new CachePolicy(Mode.REVALIDATE, 0);
+    static final CachePolicy STALE_WHILE_REVALIDATE =
+            new CachePolicy(Mode.STALE_WHILE_REVALIDATE, DEFAULT_STALE_SECONDS);
+
+    private final Mode mode;
+    private final int staleSeconds;
+
+    private CachePolicy(Mode mode, int staleSeconds) {
+        this.mode = mode;
+        this.staleSeconds = staleSeconds;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getStaleSeconds() {
+        return staleSeconds;
+    }
+
+    /**
+     * Resolve the policy for a request.
+     */
+    public static CachePolicy forRequest(Request request) {
+        if (!"GET".equals(request.method())) {
+            return NO_CACHE;
+        }
+
+        String path = request.url().encodedPath();
+        if (path.startsWith(Constants.AUTH_PREFIX)) {
+            return NO_CACHE;
+        }
+
+        // Rarely changing data where showing a slightly old copy is fine. Membership
+        // lists stay on REVALIDATE: member writes go to other URLs, so OkHttp would keep
+        // serving the list from before an add or removal.
+        if (USER_BY_ID.matcher(path).matches()) {
+            return STALE_WHILE_REVALIDATE;
+        }
+
+        return REVALIDATE;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.ProjectManager.api;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Calls issued for the latest version of a request that keeps being re-issued,
+ * such as the query of a search screen or its refresh.
+ *
+ * Each {@link #next()} starts a new generation: calls of older generations that
+ * are still running are cancelled, and any answer they still deliver is dropped
+ * instead of reaching the callback. Dropped answers are reported to
+ * {@link NetworkMetrics} so the bytes they cost show up as wasted.
+ *
+ * Must be used from the main thread (Retrofit delivers callbacks there).
+ */
+public final class CallGenerations {
+
+    private final NetworkMetrics metrics;
+
+    private int generation;
+    private final List<Call<?>> inFlight = new ArrayList<>();
+
+    // Counters since creation
+    private int cancelledCount;
+    private int droppedCount;
+
+    public CallGenerations(@NonNull NetworkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Start a new generation, cancelling every call of the previous ones.
+     *
+     * @return the new generation id
+     */
+    public int next() {
+        cancelAll();
+        return generation;
+    }
+
+    /**
+     * Id of the current generation.
+     */
+    public int current() {
+        return generation;
+    }
+
+    public boolean isCurrent(int generation) {
+        return this.generation == generation;
+    }
+
+    /**
+     * Run {@code call} as part of the current generation. The callback is only called
+     * if no newer generation has started by the time the answer arrives.
+     */
+    public <T> void enqueue(@NonNull Call<T> call, @NonNull Callback<T> callback) {
+        int gen = generation;
+        inFlight.add(call);
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                inFlight.remove(call);
+                if (gen != generation) {
+                    // Arrived after being superseded: downloaded for nothing
+                    droppedCount++;
+                    metrics.recordDiscarded(call.request());
+                    return;
+                }
+                callback.onResponse(call, response);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                inFlight.remove(call);
+                if (gen != generation) {
+                    // Usually our own cancel; the body may still have landed just before it
+                    metrics.recordDiscarded(call.request());
+                    return;
+                }
+                callback.onFailure(call, t);
+            }
+        });
+    }
+
+    /**
+     * Cancel every running call and drop answers still on their way (e.g. when the
+     * screen goes away). Later calls start a new generation.
+     */
+    public void cancelAll() {
+        generation++;
+        for (Call<?> call : inFlight) {
+            call.cancel();
+            cancelledCount++;
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * Calls cancelled before they answered.
+     */
+    public int getCancelledCount() {
+        return cancelledCount;
+    }
+
+    /**
+     * Answers that arrived for a superseded generation and were thrown away.
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "generation=" + generation + " inFlight=" + inFlight.size()
+                + " cancelled=" + cancelledCount + " dropped=" + droppedCount;
+    }
+}
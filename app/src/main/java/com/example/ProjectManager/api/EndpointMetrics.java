@@ -0,0 +1,178 @@
+package com.example.ProjectManager.api;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregated network metrics of one ApiService endpoint (e.g. "GET /api/v1/tasks").
+ * Filled by {@link MetricsEventListener}, read through {@link NetworkMetrics}.
+ */
+public final class EndpointMetrics {
+
+    private final String endpoint;
+
+    private final LatencyHistogram dns = new LatencyHistogram();
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    private long calls;
+    private long failures;
+    private long cacheHits;
+    private long requestBytes;
+    private long responseBytes;
+    // Calls cancelled before they completed, and response bytes the app never used
+    private long cancelled;
+    private long wastedBytes;
+    // HTTP status (>= 400) or exception name -> count
+    private final Map<String, Long> errors = new HashMap<>();
+    // Foreground screen when the call started -> count
+    private final Map<String, Long> callsByScreen = new HashMap<>();
+
+    EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void recordCall(String screen, boolean cacheHit, long reqBytes, long respBytes,
+                                 String error, long totalMs) {
+        calls++;
+        if (cacheHit) cacheHits++;
+        requestBytes += reqBytes;
+        responseBytes += respBytes;
+        if (error != null) {
+            failures++;
+            increment(errors, error);
+        }
+        if (screen != null) {
+            increment(callsByScreen, screen);
+        }
+        total.record(totalMs);
+    }
+
+    /**
+     * A call cancelled while running; {@code respBytes} had already been received.
+     */
+    synchronized void recordCancelled(long respBytes) {
+        cancelled++;
+        wastedBytes += respBytes;
+    }
+
+    /**
+     * A completed response the app threw away (e.g. superseded by a newer query).
+     */
+    synchronized void recordWasted(long respBytes) {
+        wastedBytes += respBytes;
+    }
+
+    void recordDns(long millis) {
+        dns.record(millis);
+    }
+
+    void recordConnect(long millis) {
+        connect.record(millis);
+    }
+
+    void recordTimeToFirstByte(long millis) {
+        timeToFirstByte.record(millis);
+    }
+
+    private static void increment(Map<String, Long> map, String key) {
+        Long current = map.get(key);
+        map.put(key, current == null ? 1 : current + 1);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized long getCallCount() {
+        return calls;
+    }
+
+    /**
+     * Calls that ended with an HTTP error status or an exception.
+     */
+    public synchronized long getFailureCount() {
+        return failures;
+    }
+
+    public synchronized long getCacheHitCount() {
+        return cacheHits;
+    }
+
+    public synchronized long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public synchronized long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public synchronized long getCancelledCount() {
+        return cancelled;
+    }
+
+    /**
+     * Response bytes received for calls that were cancelled or whose answer was dropped.
+     */
+    public synchronized long getWastedBytes() {
+        return wastedBytes;
+    }
+
+    public synchronized Map<String, Long> getErrors() {
+        return new HashMap<>(errors);
+    }
+
+    public synchronized Map<String, Long> getCallsByScreen() {
+        return new HashMap<>(callsByScreen);
+    }
+
+    public LatencyHistogram getDns() {
+        return dns;
+    }
+
+    public LatencyHistogram getConnect() {
+        return connect;
+    }
+
+    public LatencyHistogram getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    synchronized void reset() {
+        calls = 0;
+        failures = 0;
+        cacheHits = 0;
+        requestBytes = 0;
+        responseBytes = 0;
+        cancelled = 0;
+        wastedBytes = 0;
+        errors.clear();
+        callsByScreen.clear();
+        dns.reset();
+        connect.reset();
+        timeToFirstByte.reset();
+        total.reset();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return endpoint
+                + " calls=" + calls
+                + " cacheHits=" + cacheHits
+                + " failures=" + failures + (errors.isEmpty() ? "" : " " + errors)
+                + " total=" + total
+                + " ttfb=" + timeToFirstByte
+                + " dns=" + dns
+                + " connect=" + connect
+                + " sent=" + requestBytes + "B"
+                + " received=" + responseBytes + "B"
+                + " cancelled=" + cancelled
+                + " wasted=" + wastedBytes + "B"
+                + " screens=" + callsByScreen;
+    }
+}
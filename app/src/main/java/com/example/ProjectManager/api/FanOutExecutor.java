@@ -0,0 +1,165 @@
+package com.example.ProjectManager.api;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Runs one Retrofit call per key with bounded parallelism and a per-request timeout,
+ * reporting each result as soon as it arrives. Total latency follows the slowest
+ * batch instead of the sum of all calls.
+ *
+ * Must be used from the main thread (Retrofit delivers callbacks there).
+ *
+ * @param <K> key identifying one request (e.g. a project ID)
+ * @param <T> response body type
+ */
+public final class FanOutExecutor<K, T> {
+
+    // OkHttp runs at most 5 requests per host concurrently by default
+    public static final int DEFAULT_PARALLELISM = 5;
+    public static final long DEFAULT_TIMEOUT_MS = 15_000;
+
+    /**
+     * Creates the call for a key.
+     */
+    public interface CallFactory<K, T> {
+        Call<T> create(K key);
+    }
+
+    /**
+     * Receives results on the main thread. Not called after {@link Handle#cancel()}.
+     */
+    public interface Listener<K, T> {
+        void onResult(K key, T body);
+
+        default void onError(K key, Throwable error) {
+        }
+
+        void onComplete(int succeeded, int failed);
+    }
+
+    /**
+     * Handle on a running fan-out.
+     */
+    public interface Handle {
+        void cancel();
+
+        boolean isDone();
+    }
+
+    private final int parallelism;
+    private final long timeoutMs;
+
+    public FanOutExecutor() {
+        this(DEFAULT_PARALLELISM, DEFAULT_TIMEOUT_MS);
+    }
+
+    public FanOutExecutor(int parallelism, long timeoutMs) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.parallelism = parallelism;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Start one call per key. Duplicate keys are only requested once.
+     */
+    public Handle execute(List<K> keys, CallFactory<K, T> factory, Listener<K, T> listener) {
+        Run run = new Run(new ArrayList<>(new LinkedHashSet<>(keys)), factory, listener);
+        run.start();
+        return run;
+    }
+
+    private final class Run implements Handle {
+        private final List<K> keys;
+        private final CallFactory<K, T> factory;
+        private final Listener<K, T> listener;
+        private final Set<Call<T>> inFlight = new HashSet<>();
+        private int next;
+        private int succeeded;
+        private int failed;
+        private boolean cancelled;
+
+        Run(List<K> keys, CallFactory<K, T> factory, Listener<K, T> listener) {
+            this.keys = keys;
+            this.factory = factory;
+            this.listener = listener;
+        }
+
+        void start() {
+            if (keys.isEmpty()) {
+                listener.onComplete(0, 0);
+                return;
+            }
+            while (inFlight.size() < parallelism && next < keys.size()) {
+                dispatch(keys.get(next++));
+            }
+        }
+
+        private void dispatch(K key) {
+            Call<T> call = factory.create(key);
+            if (timeoutMs > 0) {
+                call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+            }
+            inFlight.add(call);
+            call.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                    if (cancelled) return;
+                    if (response.isSuccessful() && response.body() != null) {
+                        succeeded++;
+                        listener.onResult(key, response.body());
+                    } else {
+                        failed++;
+                        listener.onError(key, new IllegalStateException("HTTP " + response.code()));
+                    }
+                    onCallFinished(call);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                    if (cancelled) return;
+                    failed++;
+                    listener.onError(key, t);
+                    onCallFinished(call);
+                }
+            });
+        }
+
+        private void onCallFinished(Call<T> call) {
+            inFlight.remove(call);
+            if (cancelled) return;
+
+            if (next < keys.size()) {
+                dispatch(keys.get(next++));
+            } else if (inFlight.isEmpty()) {
+                listener.onComplete(succeeded, failed);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            for (Call<T> call : inFlight) {
+                call.cancel();
+            }
+            inFlight.clear();
+        }
+
+        @Override
+        public boolean isDone() {
+            return cancelled || (next >= keys.size() && inFlight.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ProjectManager.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+
+/**
+ * Counters for the HTTP response cache, used to verify that revalidation
+ * actually saves downloads. Read them through
+ * {@link RetrofitClient#getCacheStats(android.content.Context)}.
+ */
+public final class HttpCacheStats {
+
+    // Conditional requests sent with If-None-Match / If-Modified-Since
+    final AtomicLong conditionalRequests = new AtomicLong();
+    // Conditional requests answered with 304 Not Modified
+    final AtomicLong notModified = new AtomicLong();
+    // Stale copies returned immediately by stale-while-revalidate
+    final AtomicLong staleServed = new AtomicLong();
+    // Background refreshes started by stale-while-revalidate
+    final AtomicLong backgroundRevalidations = new AtomicLong();
+
+    private final Cache cache;
+
+    HttpCacheStats(Cache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Total requests that went through the cache.
+     */
+    public int getRequestCount() {
+        return cache.requestCount();
+    }
+
+    /**
+     * Responses served from the cache, including ones validated by a 304.
+     */
+    public int getHitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * Requests that had to download a full body.
+     */
+    public long getMissCount() {
+        return Math.max(0, cache.networkCount() - notModified.get());
+    }
+
+    public long getConditionalRequestCount() {
+        return conditionalRequests.get();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    public long getStaleServedCount() {
+        return staleServed.get();
+    }
+
+    public long getBackgroundRevalidationCount() {
+        return backgroundRevalidations.get();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStats{"
+                + "requests=" + getRequestCount()
+                + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount()
+                + ", conditional=" + getConditionalRequestCount()
+                + ", notModified=" + getNotModifiedCount()
+                + ", staleServed=" + getStaleServedCount()
+                + ", backgroundRevalidations=" + getBackgroundRevalidationCount()
+                + "}";
+    }
+}
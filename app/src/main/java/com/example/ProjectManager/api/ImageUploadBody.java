@@ -0,0 +1,179 @@
+package com.example.ProjectManager.api;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+
+/**
+ * Request body uploading a picture picked by the user, shrunk to avatar size.
+ *
+ * The picture is read straight from the {@link ContentResolver}: decoded with a
+ * power-of-two sample size (so a 12 MP photo is never fully decoded), scaled to
+ * at most {@link #MAX_SIDE} pixels, turned upright from its EXIF orientation and
+ * recompressed as JPEG. A camera photo of several MB becomes about 100 KB.
+ *
+ * OkHttp asks for the body on its own threads, so none of this runs on the main
+ * thread. The encoded picture is kept, so a retried or logged request doesn't
+ * decode it again. Upload progress is reported on the main thread.
+ */
+public class ImageUploadBody extends RequestBody {
+
+    public static final String FILE_NAME = "profile.jpg";
+
+    private static final MediaType JPEG = MediaType.parse("image/jpeg");
+    private static final int MAX_SIDE = 512;
+    private static final int JPEG_QUALITY = 85;
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    /**
+     * Receives upload progress on the main thread.
+     */
+    public interface ProgressListener {
+        void onProgress(long bytesWritten, long totalBytes);
+    }
+
+    private final ContentResolver resolver;
+    private final Uri uri;
+    @Nullable
+    private final ProgressListener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private byte[] encoded;
+
+    public ImageUploadBody(@NonNull ContentResolver resolver, @NonNull Uri uri, @Nullable ProgressListener listener) {
+        this.resolver = resolver;
+        this.uri = uri;
+        this.listener = listener;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return JPEG;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return encoded().length;
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        byte[] bytes = encoded();
+        // Logging interceptors copy the body into a Buffer first; only the real upload reports progress
+        boolean report = listener != null && !(sink instanceof Buffer);
+        for (int offset = 0; offset < bytes.length; offset += CHUNK_SIZE) {
+            int count = Math.min(CHUNK_SIZE, bytes.length - offset);
+            sink.write(bytes, offset, count);
+            if (report) {
+                long written = offset + count;
+                mainHandler.post(() -> listener.onProgress(written, bytes.length));
+            }
+        }
+    }
+
+    private synchronized byte[] encoded() throws IOException {
+        if (encoded == null) {
+            encoded = encode();
+        }
+        return encoded;
+    }
+
+    private byte[] encode() throws IOException {
+        // Read the size only, to pick the sample size
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream in = open()) {
+            BitmapFactory.decodeStream(in, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Not an image: " + uri);
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight);
+        Bitmap bitmap;
+        try (InputStream in = open()) {
+            bitmap = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (bitmap == null) {
+            throw new IOException("Could not decode image: " + uri);
+        }
+
+        Bitmap upright = scaleAndRotate(bitmap, rotation());
+        if (upright != bitmap) {
+            bitmap.recycle();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        upright.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        upright.recycle();
+        return out.toByteArray();
+    }
+
+    private InputStream open() throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Could not open image: " + uri);
+        }
+        return in;
+    }
+
+    /**
+     * Largest power of two that still leaves the longer side at least {@link #MAX_SIDE}.
+     */
+    static int sampleSize(int width, int height) {
+        int longer = Math.max(width, height);
+        int sampleSize = 1;
+        while (longer / (sampleSize * 2) >= MAX_SIDE) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Degrees the picture must be turned to be upright, from its EXIF orientation.
+     */
+    private int rotation() {
+        try (InputStream in = open()) {
+            int orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90: return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180: return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270: return 270;
+                default: return 0;
+            }
+        } catch (IOException e) {
+            // No readable EXIF: keep the picture as decoded
+            return 0;
+        }
+    }
+
+    private static Bitmap scaleAndRotate(Bitmap bitmap, int rotation) {
+        float scale = Math.min(1f, (float) MAX_SIDE / Math.max(bitmap.getWidth(), bitmap.getHeight()));
+        if (scale == 1f && rotation == 0) {
+            return bitmap;
+        }
+        Matrix matrix = new Matrix();
+        matrix.postScale(scale, scale);
+        matrix.postRotate(rotation);
+        return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.ProjectManager.api;
+
+import com.example.ProjectManager.models.dto.PageResponse;
+import com.example.ProjectManager.models.dto.ProjectMemberResponse;
+import com.example.ProjectManager.models.dto.ProjectResponse;
+import com.example.ProjectManager.models.dto.TaskResponse;
+import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written Gson adapters for the DTOs on the hot paths: task, project, member
+ * and user lists, and the PageResponse wrapping them. They read fields by name
+ * straight off the JsonReader, with no reflection, and skip fields the app does
+ * not use (Spring's pageable, sort, ...) without building them.
+ *
+ * Decoding matches Gson's reflective adapters: a JSON null leaves the field at its
+ * default, numbers may be sent as strings, and unknown fields are ignored. Nulls
+ * are not written, as with a default {@link Gson}.
+ */
+final class JsonAdapters implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        if (raw == TaskResponse.class) return (TypeAdapter<T>) new TaskAdapter().nullSafe();
+        if (raw == TaskResponse.Assignee.class) return (TypeAdapter<T>) new AssigneeAdapter().nullSafe();
+        if (raw == ProjectResponse.class) return (TypeAdapter<T>) new ProjectAdapter().nullSafe();
+        if (raw == ProjectMemberResponse.class) return (TypeAdapter<T>) new MemberAdapter().nullSafe();
+        if (raw == UserResponseDto.class) return (TypeAdapter<T>) new UserAdapter().nullSafe();
+        if (raw == PageResponse.class) {
+            Type itemType = type.getType() instanceof ParameterizedType
+                    ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0]
+                    : Object.class;
+            return (TypeAdapter<T>) new PageAdapter<>(gson.getAdapter(TypeToken.get(itemType))).nullSafe();
+        }
+        return null;
+    }
+
+    // ===================== TASKS =====================
+
+    private static final class TaskAdapter extends TypeAdapter<TaskResponse> {
+        private final AssigneeAdapter assigneeAdapter = new AssigneeAdapter();
+
+        @Override
+        public TaskResponse read(JsonReader in) throws IOException {
+            TaskResponse task = new TaskResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": task.setId(in.nextLong()); break;
+                    case "name": task.setName(nextString(in)); break;
+                    case "content": task.setContent(nextString(in)); break;
+                    case "status": task.setStatus(nextString(in)); break;
+                    case "projectId": task.setProjectId(in.nextLong()); break;
+                    case "projectName": task.setProjectName(nextString(in)); break;
+                    case "createdAt": task.setCreatedAt(nextString(in)); break;
+                    case "updatedAt": task.setUpdatedAt(nextString(in)); break;
+                    case "assignee": task.setAssignee(assigneeAdapter.read(in)); break;
+                    case "userId": task.setUserId(in.nextLong()); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return task;
+        }
+
+        @Override
+        public void write(JsonWriter out, TaskResponse task) throws IOException {
+            out.beginObject();
+            out.name("id").value(task.getId());
+            writeString(out, "name", task.getName());
+            writeString(out, "content", task.getContent());
+            writeString(out, "status", task.getStatus());
+            out.name("projectId").value(task.getProjectId());
+            writeString(out, "projectName", task.getProjectName());
+            writeString(out, "createdAt", task.getCreatedAt());
+            writeString(out, "updatedAt", task.getUpdatedAt());
+            if (task.getAssignee() != null) {
+                out.name("assignee");
+                assigneeAdapter.write(out, task.getAssignee());
+            }
+            writeLong(out, "userId", task.getDirectUserId());
+            out.endObject();
+        }
+    }
+
+    private static final class AssigneeAdapter extends TypeAdapter<TaskResponse.Assignee> {
+        @Override
+        public TaskResponse.Assignee read(JsonReader in) throws IOException {
+            TaskResponse.Assignee assignee = new TaskResponse.Assignee();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": assignee.setId(in.nextLong()); break;
+                    case "firstName": assignee.setFirstName(nextString(in)); break;
+                    case "lastName": assignee.setLastName(nextString(in)); break;
+                    case "email": assignee.setEmail(nextString(in)); break;
+                    case "profilePictureUrl": assignee.setProfilePictureUrl(nextString(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return assignee;
+        }
+
+        @Override
+        public void write(JsonWriter out, TaskResponse.Assignee assignee) throws IOException {
+            out.beginObject();
+            writeLong(out, "id", assignee.getId());
+            writeString(out, "firstName", assignee.getFirstName());
+            writeString(out, "lastName", assignee.getLastName());
+            writeString(out, "email", assignee.getEmail());
+            writeString(out, "profilePictureUrl", assignee.getProfilePictureUrl());
+            out.endObject();
+        }
+    }
+
+    // ===================== PROJECTS =====================
+
+    private static final class ProjectAdapter extends TypeAdapter<ProjectResponse> {
+        @Override
+        public ProjectResponse read(JsonReader in) throws IOException {
+            ProjectResponse project = new ProjectResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": project.setId(in.nextLong()); break;
+                    case "name": project.setName(nextString(in)); break;
+                    case "description": project.setDescription(nextString(in)); break;
+                    case "ownerId": project.setOwnerId(in.nextLong()); break;
+                    case "startDate": project.setStartDate(nextString(in)); break;
+                    case "endDate": project.setEndDate(nextString(in)); break;
+                    case "createdAt": project.setCreatedAt(nextString(in)); break;
+                    case "updatedAt": project.setUpdatedAt(nextString(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return project;
+        }
+
+        @Override
+        public void write(JsonWriter out, ProjectResponse project) throws IOException {
+            out.beginObject();
+            writeLong(out, "id", project.getId());
+            writeString(out, "name", project.getName());
+            writeString(out, "description", project.getDescription());
+            writeLong(out, "ownerId", project.getOwnerId());
+            writeString(out, "startDate", project.getStartDate());
+            writeString(out, "endDate", project.getEndDate());
+            writeString(out, "createdAt", project.getCreatedAt());
+            writeString(out, "updatedAt", project.getUpdatedAt());
+            out.endObject();
+        }
+    }
+
+    private static final class MemberAdapter extends TypeAdapter<ProjectMemberResponse> {
+        @Override
+        public ProjectMemberResponse read(JsonReader in) throws IOException {
+            ProjectMemberResponse member = new ProjectMemberResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "projectId": member.setProjectId(in.nextLong()); break;
+                    case "userId": member.setUserId(in.nextLong()); break;
+                    case "firstName": member.setFirstName(nextString(in)); break;
+                    case "lastName": member.setLastName(nextString(in)); break;
+                    case "email": member.setEmail(nextString(in)); break;
+                    case "profilePictureUrl": member.setProfilePictureUrl(nextString(in)); break;
+                    case "addedAt": member.setAddedAt(nextString(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return member;
+        }
+
+        @Override
+        public void write(JsonWriter out, ProjectMemberResponse member) throws IOException {
+            out.beginObject();
+            writeLong(out, "projectId", member.getProjectId());
+            writeLong(out, "userId", member.getUserId());
+            writeString(out, "firstName", member.getFirstName());
+            writeString(out, "lastName", member.getLastName());
+            writeString(out, "email", member.getEmail());
+            writeString(out, "profilePictureUrl", member.getProfilePictureUrl());
+            writeString(out, "addedAt", member.getAddedAt());
+            out.endObject();
+        }
+    }
+
+    // ===================== USERS =====================
+
+    private static final class UserAdapter extends TypeAdapter<UserResponseDto> {
+        @Override
+        public UserResponseDto read(JsonReader in) throws IOException {
+            UserResponseDto user = new UserResponseDto();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": user.setId(in.nextLong()); break;
+                    case "firstName": user.setFirstName(nextString(in)); break;
+                    case "lastName": user.setLastName(nextString(in)); break;
+                    case "email": user.setEmail(nextString(in)); break;
+                    case "verificationToken": user.setVerificationToken(nextString(in)); break;
+                    case "profilePictureUrl": user.setProfilePictureUrl(nextString(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return user;
+        }
+
+        @Override
+        public void write(JsonWriter out, UserResponseDto user) throws IOException {
+            out.beginObject();
+            writeLong(out, "id", user.getId());
+            writeString(out, "firstName", user.getFirstName());
+            writeString(out, "lastName", user.getLastName());
+            writeString(out, "email", user.getEmail());
+            writeString(out, "verificationToken", user.getVerificationToken());
+            writeString(out, "profilePictureUrl", user.getProfilePictureUrl());
+            out.endObject();
+        }
+    }
+
+    // ===================== PAGES =====================
+
+    private static final class PageAdapter<T> extends TypeAdapter<PageResponse<T>> {
+        private final TypeAdapter<T> itemAdapter;
+
+        PageAdapter(TypeAdapter<T> itemAdapter) {
+            this.itemAdapter = itemAdapter;
+        }
+
+        @Override
+        public PageResponse<T> read(JsonReader in) throws IOException {
+            PageResponse<T> page = new PageResponse<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "content": page.setContent(readItems(in)); break;
+                    case "page": page.setPage(in.nextInt()); break;
+                    case "number": page.setNumber(in.nextInt()); break;
+                    case "size": page.setSize(in.nextInt()); break;
+                    case "totalElements": page.setTotalElements(in.nextLong()); break;
+                    case "totalPages": page.setTotalPages(in.nextInt()); break;
+                    case "last": page.setLast(nextBoolean(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return page;
+        }
+
+        private List<T> readItems(JsonReader in) throws IOException {
+            List<T> items = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+                items.add(itemAdapter.read(in));
+            }
+            in.endArray();
+            return items;
+        }
+
+        @Override
+        public void write(JsonWriter out, PageResponse<T> page) throws IOException {
+            out.beginObject();
+            if (page.getContent() != null) {
+                out.name("content").beginArray();
+                for (T item : page.getContent()) {
+                    itemAdapter.write(out, item);
+                }
+                out.endArray();
+            }
+            out.name("page").value(page.getPage());
+            out.name("number").value(page.getNumber());
+            out.name("size").value(page.getSize());
+            out.name("totalElements").value(page.getTotalElements());
+            out.name("totalPages").value(page.getTotalPages());
+            out.name("last").value(page.isLast());
+            out.endObject();
+        }
+    }
+
+    // ===================== HELPERS =====================
+
+    /**
+     * Like Gson's String adapter: numbers and booleans are accepted as text.
+     */
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Like Gson's boolean adapter: "true" sent as a string is accepted.
+     */
+    private static boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    private static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    private static void writeLong(JsonWriter out, String name, Long value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.ProjectManager.api;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples of one phase (DNS, connect, TTFB, total) of one endpoint.
+ * Keeps the most recent samples in a ring buffer, so percentiles follow the
+ * current behaviour of the app rather than the whole process lifetime.
+ */
+public final class LatencyHistogram {
+
+    private static final int MAX_SAMPLES = 512;
+
+    private final long[] samples = new long[MAX_SAMPLES];
+    private int next;
+    private int size;
+    private long count;
+
+    synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % MAX_SAMPLES;
+        if (size < MAX_SAMPLES) size++;
+        count++;
+    }
+
+    /**
+     * Number of samples recorded since the last reset.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Percentile in milliseconds over the retained samples, or -1 if there are none.
+     *
+     * @param percentile between 0 and 100, e.g. 95 for p95
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (size == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    synchronized void reset() {
+        next = 0;
+        size = 0;
+        count = 0;
+    }
+
+    @Override
+    public String toString() {
+        if (getCount() == 0) {
+            return "-";
+        }
+        return getPercentile(50) + "/" + getPercentile(95) + "/" + getPercentile(99) + "ms";
+    }
+}
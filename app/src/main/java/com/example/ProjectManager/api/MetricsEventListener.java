@@ -0,0 +1,149 @@
+package com.example.ProjectManager.api;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp EventListener recording the phases of one call into {@link NetworkMetrics}.
+ * A new instance is created per call, so its fields need no synchronization.
+ */
+class MetricsEventListener extends EventListener {
+
+    static final class Factory implements EventListener.Factory {
+        private final NetworkMetrics metrics;
+
+        Factory(NetworkMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @NonNull
+        @Override
+        public EventListener create(@NonNull Call call) {
+            return new MetricsEventListener(metrics);
+        }
+    }
+
+    private final NetworkMetrics metrics;
+
+    private EndpointMetrics endpoint;
+    private String screen;
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private boolean firstByteSeen;
+    private boolean cacheHit;
+    private long requestBytes;
+    private long responseBytes;
+    private String error;
+
+    private MetricsEventListener(NetworkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private static long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        callStart = now();
+        endpoint = metrics.forRequest(call.request());
+        screen = metrics.getCurrentScreen();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStart = now();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> addresses) {
+        endpoint.recordDns(now() - dnsStart);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy) {
+        connectStart = now();
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy,
+                           Protocol protocol) {
+        endpoint.recordConnect(now() - connectStart);
+    }
+
+    @Override
+    public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress address, @NonNull Proxy proxy,
+                              Protocol protocol, @NonNull IOException ioe) {
+        endpoint.recordConnect(now() - connectStart);
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+        requestBytes += request.headers().byteCount();
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        requestBytes += byteCount;
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        // Only the first exchange counts; redirects and auth retries follow it
+        if (!firstByteSeen) {
+            firstByteSeen = true;
+            endpoint.recordTimeToFirstByte(now() - callStart);
+        }
+    }
+
+    @Override
+    public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+        responseBytes += response.headers().byteCount();
+        error = response.code() >= 400 ? String.valueOf(response.code()) : null;
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        responseBytes += byteCount;
+    }
+
+    @Override
+    public void cacheHit(@NonNull Call call, @NonNull Response cachedResponse) {
+        cacheHit = true;
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        finish();
+        metrics.recordCompleted(call.request(), responseBytes);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        error = call.isCanceled() ? "Canceled" : ioe.getClass().getSimpleName();
+        finish();
+        if (call.isCanceled() && endpoint != null) {
+            endpoint.recordCancelled(responseBytes);
+        }
+    }
+
+    private void finish() {
+        if (endpoint != null) {
+            endpoint.recordCall(screen, cacheHit, requestBytes, responseBytes, error, now() - callStart);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.ProjectManager.api;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Request;
+import retrofit2.Invocation;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.HTTP;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+
+/**
+ * In-process registry of per-endpoint network metrics: call counts, latency
+ * percentiles per phase, bytes and error codes, plus which screen issued the calls.
+ * Read it through {@link RetrofitClient#getNetworkMetrics}; {@link #dump()} gives a
+ * readable report for a debug screen or a test.
+ *
+ * Also counts what superseded calls cost: calls cancelled while running and the
+ * response bytes of answers that were received but never used.
+ */
+public final class NetworkMetrics {
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    // Endpoint template per ApiService method, resolved once
+    private final Map<Method, String> templates = new ConcurrentHashMap<>();
+    // Response bytes of recently completed calls, until the app uses or drops the answer
+    private final Map<Request, Long> completedBytes = Collections.synchronizedMap(new WeakHashMap<>());
+    private volatile String currentScreen;
+
+    NetworkMetrics() {
+    }
+
+    /**
+     * Attribute calls to the activity in the foreground when they start.
+     */
+    void trackScreens(Application application) {
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {
+                currentScreen = activity.getClass().getSimpleName();
+            }
+
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+                // Calls issued from onCreate belong to the new screen
+                currentScreen = activity.getClass().getSimpleName();
+            }
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+            }
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {
+            }
+        });
+    }
+
+    String getCurrentScreen() {
+        return currentScreen;
+    }
+
+    /**
+     * Metrics bucket for a request, keyed by the ApiService endpoint template
+     * (e.g. "GET /api/v1/users/{id}") so calls with different IDs are aggregated.
+     */
+    EndpointMetrics forRequest(Request request) {
+        String endpoint = endpointOf(request);
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            endpoints.putIfAbsent(endpoint, new EndpointMetrics(endpoint));
+            metrics = endpoints.get(endpoint);
+        }
+        return metrics;
+    }
+
+    /**
+     * Remember the response size of a completed call, in case its answer gets dropped.
+     */
+    void recordCompleted(Request request, long responseBytes) {
+        completedBytes.put(request, responseBytes);
+    }
+
+    /**
+     * The answer to {@code request} was thrown away: count its bytes as wasted. Calls
+     * cancelled while running were already counted when they failed.
+     */
+    public void recordDiscarded(Request request) {
+        Long bytes = completedBytes.remove(request);
+        if (bytes != null) {
+            forRequest(request).recordWasted(bytes);
+        }
+    }
+
+    private String endpointOf(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            // Not issued through ApiService (e.g. an image load)
+            return request.method() + " " + request.url().encodedPath();
+        }
+        Method method = invocation.method();
+        String template = templates.get(method);
+        if (template == null) {
+            template = templateOf(method, request);
+            templates.put(method, template);
+        }
+        return template;
+    }
+
+    private static String templateOf(Method method, Request request) {
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation instanceof GET) return "GET " + ((GET) annotation).value();
+            if (annotation instanceof POST) return "POST " + ((POST) annotation).value();
+            if (annotation instanceof PUT) return "PUT " + ((PUT) annotation).value();
+            if (annotation instanceof PATCH) return "PATCH " + ((PATCH) annotation).value();
+            if (annotation instanceof DELETE) return "DELETE " + ((DELETE) annotation).value();
+            if (annotation instanceof HTTP) {
+                return ((HTTP) annotation).method() + " " + ((HTTP) annotation).path();
+            }
+        }
+        return request.method() + " " + method.getName();
+    }
+
+    /**
+     * Metrics of one endpoint template, or null if it was never called.
+     */
+    @Nullable
+    public EndpointMetrics getEndpoint(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * All endpoints, busiest first.
+     */
+    public List<EndpointMetrics> getEndpoints() {
+        List<EndpointMetrics> list = new ArrayList<>(endpoints.values());
+        Collections.sort(list, (a, b) -> Long.compare(b.getCallCount(), a.getCallCount()));
+        return list;
+    }
+
+    /**
+     * Calls cancelled while running, over all endpoints.
+     */
+    public long getCancelledCount() {
+        long count = 0;
+        for (EndpointMetrics metrics : endpoints.values()) {
+            count += metrics.getCancelledCount();
+        }
+        return count;
+    }
+
+    /**
+     * Response bytes received but never used, over all endpoints.
+     */
+    public long getWastedBytes() {
+        long bytes = 0;
+        for (EndpointMetrics metrics : endpoints.values()) {
+            bytes += metrics.getWastedBytes();
+        }
+        return bytes;
+    }
+
+    public void reset() {
+        for (EndpointMetrics metrics : endpoints.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Human readable report, one endpoint per line.
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder("Network metrics (p50/p95/p99):\n");
+        for (EndpointMetrics metrics : getEndpoints()) {
+            sb.append(metrics).append('\n');
+        }
+        sb.append("Superseded calls: cancelled=").append(getCancelledCount())
+                .append(" wasted=").append(getWastedBytes()).append("B\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.ProjectManager.api;
+
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.ProjectManager.models.dto.PageResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Loads a paginated {@link PageResponse} endpoint.
+ *
+ * Two modes:
+ * - {@link #loadAll}: fetches page 0, then every remaining page concurrently once
+ *   totalPages is known, for screens that need the complete list (counters, progress).
+ * - {@link #loadNextPage} / {@link #attachToRecyclerView}: infinite scroll, the next
+ *   page is requested when the user gets within a prefetch distance of the end.
+ *
+ * Each page is reported as it lands, and loaded pages are kept in a small in-memory
+ * cache keyed by query so that reopening a screen renders immediately.
+ *
+ * Must be used from the main thread (Retrofit delivers callbacks there).
+ */
+public final class PageLoader<T> {
+
+    private static final String TAG = "PageLoader";
+
+    // Number of distinct queries whose pages are kept in memory
+    private static final int PAGE_CACHE_QUERIES = 20;
+    private static final LruCache<String, CachedPages> PAGE_CACHE = new LruCache<>(PAGE_CACHE_QUERIES);
+
+    /**
+     * Creates the call for one page.
+     */
+    public interface PageFetcher<T> {
+        Call<PageResponse<T>> fetch(int page, int size);
+    }
+
+    /**
+     * Receives the loaded items on the main thread.
+     */
+    public interface Listener<T> {
+        /**
+         * @param items    all items loaded so far, in page order
+         * @param complete true once no more pages will arrive for this load
+         */
+        void onPageLoaded(List<T> items, boolean complete);
+
+        default void onError(Throwable error) {
+        }
+    }
+
+    private final String cacheKey;
+    private final int pageSize;
+    private final PageFetcher<T> fetcher;
+    private final FanOutExecutor<Integer, PageResponse<T>> fanOut = new FanOutExecutor<>();
+
+    private TreeMap<Integer, List<T>> pages = new TreeMap<>();
+    private int totalPages = -1;
+    private long totalElements = -1;
+    private int nextPage;
+    private boolean hasMore = true;
+    private boolean loading;
+    private boolean failed;
+
+    // Bumped on every new load so late responses of an older one are dropped
+    private int generation;
+    private Call<PageResponse<T>> pageCall;
+    private FanOutExecutor.Handle remainingPages;
+
+    /**
+     * @param cacheKey identifies the query (endpoint and filters) in the page cache
+     */
+    public PageLoader(String cacheKey, int pageSize, PageFetcher<T> fetcher) {
+        this.cacheKey = cacheKey;
+        this.pageSize = pageSize;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Load every page. Cached pages for the same query are reported first.
+     */
+    public void loadAll(Listener<T> listener) {
+        reset();
+        int gen = generation;
+        emitCached(listener, false);
+
+        loading = true;
+        fetchPage(0, gen, listener, () -> continueLoading(0, gen, listener));
+    }
+
+    /**
+     * Infinite scroll: load the next page if there is one and none is in flight.
+     */
+    public void loadNextPage(Listener<T> listener) {
+        if (loading || !hasMore) {
+            return;
+        }
+        if (nextPage == 0) {
+            // Later pages are fetched again as the user scrolls
+            emitCached(listener, true);
+        }
+
+        loading = true;
+        int gen = generation;
+        fetchPage(nextPage, gen, listener, () -> {
+            loading = false;
+            storeInCache();
+            emit(listener, !hasMore);
+        });
+    }
+
+    /**
+     * Drive {@link #loadNextPage} from scrolling: the next page is requested once the
+     * last visible row is within {@code prefetchDistance} rows of the end, while
+     * {@code adapter} is the one shown (the list may switch adapters, e.g. tabs).
+     */
+    public void attachToRecyclerView(RecyclerView recyclerView, RecyclerView.Adapter<?> adapter,
+                                     int prefetchDistance, Listener<T> listener) {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0 || rv.getAdapter() != adapter || !(rv.getLayoutManager() instanceof LinearLayoutManager)) {
+                    return;
+                }
+                LinearLayoutManager lm = (LinearLayoutManager) rv.getLayoutManager();
+                if (lm.findLastVisibleItemPosition() >= lm.getItemCount() - 1 - prefetchDistance) {
+                    loadNextPage(listener);
+                }
+            }
+        });
+    }
+
+    /**
+     * Forget loaded pages and cancel anything in flight; the next load starts from page 0.
+     */
+    public void reset() {
+        cancel();
+        pages = new TreeMap<>();
+        totalPages = -1;
+        totalElements = -1;
+        nextPage = 0;
+        hasMore = true;
+        failed = false;
+    }
+
+    /**
+     * Cancel in-flight requests without dropping the pages already loaded.
+     */
+    public void cancel() {
+        generation++;
+        loading = false;
+        if (pageCall != null) {
+            pageCall.cancel();
+            pageCall = null;
+        }
+        if (remainingPages != null) {
+            remainingPages.cancel();
+            remainingPages = null;
+        }
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Total number of items reported by the backend, or -1 before the first page.
+     */
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * Drop cached pages for every query (e.g. on logout).
+     */
+    public static void clearCache() {
+        PAGE_CACHE.evictAll();
+    }
+
+    private void fetchPage(int page, int gen, Listener<T> listener, Runnable then) {
+        Call<PageResponse<T>> call = fetcher.fetch(page, pageSize);
+        pageCall = call;
+        call.enqueue(new Callback<PageResponse<T>>() {
+            @Override
+            public void onResponse(@NonNull Call<PageResponse<T>> call, @NonNull Response<PageResponse<T>> response) {
+                if (gen != generation) return;
+                pageCall = null;
+                if (response.isSuccessful() && response.body() != null) {
+                    onPageReceived(page, response.body());
+                    then.run();
+                } else {
+                    onLoadFailed(listener, new IllegalStateException("HTTP " + response.code()));
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<PageResponse<T>> call, @NonNull Throwable t) {
+                if (gen != generation) return;
+                pageCall = null;
+                onLoadFailed(listener, t);
+            }
+        });
+    }
+
+    /**
+     * After page {@code page} of a load-all landed: report it and fetch what is left.
+     */
+    private void continueLoading(int page, int gen, Listener<T> listener) {
+        if (!hasMore) {
+            finish(listener);
+            return;
+        }
+        emit(listener, false);
+        if (page == 0 && totalPages > 1) {
+            loadRemainingPages(gen, listener);
+        } else {
+            // Backend did not report totalPages, follow 'last' page by page
+            int next = page + 1;
+            fetchPage(next, gen, listener, () -> continueLoading(next, gen, listener));
+        }
+    }
+
+    private void loadRemainingPages(int gen, Listener<T> listener) {
+        List<Integer> remaining = new ArrayList<>();
+        for (int page = 1; page < totalPages; page++) {
+            remaining.add(page);
+        }
+
+        remainingPages = fanOut.execute(remaining,
+                page -> fetcher.fetch(page, pageSize),
+                new FanOutExecutor.Listener<Integer, PageResponse<T>>() {
+                    @Override
+                    public void onResult(Integer page, PageResponse<T> body) {
+                        if (gen != generation) return;
+                        pages.put(page, body.getContent() != null ? body.getContent() : new ArrayList<>());
+                        emit(listener, false);
+                    }
+
+                    @Override
+                    public void onError(Integer page, Throwable error) {
+                        if (gen != generation) return;
+                        Log.w(TAG, "Failed to load page " + page + " of " + cacheKey, error);
+                        failed = true;
+                    }
+
+                    @Override
+                    public void onComplete(int succeeded, int failedCount) {
+                        if (gen != generation) return;
+                        remainingPages = null;
+                        nextPage = totalPages;
+                        hasMore = false;
+                        if (failedCount > 0) {
+                            listener.onError(new IllegalStateException(
+                                    failedCount + " of " + (totalPages - 1) + " pages failed"));
+                        }
+                        finish(listener);
+                    }
+                });
+    }
+
+    private void onPageReceived(int page, PageResponse<T> body) {
+        List<T> content = body.getContent() != null ? body.getContent() : new ArrayList<>();
+        pages.put(page, content);
+        totalElements = body.getTotalElements();
+        if (body.getTotalPages() > 0) {
+            totalPages = body.getTotalPages();
+            // The list may have shrunk since cached pages were loaded
+            pages.tailMap(totalPages, true).clear();
+        }
+        nextPage = page + 1;
+        hasMore = !body.isLast() && (totalPages <= 0 || nextPage < totalPages) && !content.isEmpty();
+    }
+
+    private void onLoadFailed(Listener<T> listener, Throwable error) {
+        Log.w(TAG, "Failed to load " + cacheKey, error);
+        loading = false;
+        failed = true;
+        listener.onError(error);
+        emit(listener, true);
+    }
+
+    private void finish(Listener<T> listener) {
+        loading = false;
+        if (!failed) {
+            storeInCache();
+        }
+        emit(listener, true);
+    }
+
+    private void emit(Listener<T> listener, boolean complete) {
+        List<T> items = new ArrayList<>();
+        for (List<T> page : pages.values()) {
+            items.addAll(page);
+        }
+        listener.onPageLoaded(items, complete);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void emitCached(Listener<T> listener, boolean firstPageOnly) {
+        CachedPages cached = PAGE_CACHE.get(cacheKey);
+        if (cached == null || !cached.pages.containsKey(0)) {
+            return;
+        }
+        for (Map.Entry<Integer, List<?>> entry : cached.pages.entrySet()) {
+            pages.put(entry.getKey(), (List<T>) entry.getValue());
+            if (firstPageOnly) break;
+        }
+        emit(listener, false);
+    }
+
+    private void storeInCache() {
+        PAGE_CACHE.put(cacheKey, new CachedPages(new TreeMap<>(pages)));
+    }
+
+    private static final class CachedPages {
+        final TreeMap<Integer, List<?>> pages = new TreeMap<>();
+
+        <E> CachedPages(TreeMap<Integer, List<E>> source) {
+            pages.putAll(source);
+        }
+    }
+}
@@ -1,22 +1,43 @@
 package com.example.ProjectManager.api;
 
+import android.app.Application;
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 
 import com.example.ProjectManager.utils.Constants;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
+import okhttp3.Request;
+import okhttp3.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
- * Provides a configured Retrofit instance with authentication interceptor.
+ * Provides a configured Retrofit instance with authentication interceptor,
+ * an on-disk HTTP response cache (see {@link CachePolicy}), per-endpoint
+ * network metrics (see {@link NetworkMetrics}) and reflection-free JSON
+ * decoding of the list DTOs (see {@link JsonAdapters}).
  */
 public final class RetrofitClient {
 
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 10L * 1024 * 1024; // 10 MB
+    // Debug builds log the full body of one call in this many
+    private static final int LOG_BODY_SAMPLE_RATE = 10;
+
     private static volatile Retrofit retrofit;
+    private static volatile HttpCacheStats cacheStats;
+    private static volatile NetworkMetrics networkMetrics;
 
     private RetrofitClient() {
     }
@@ -25,20 +46,44 @@ public final class RetrofitClient {
         if (retrofit == null) {
             synchronized (RetrofitClient.class) {
                 if (retrofit == null) {
-                    HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-                    logging.setLevel(HttpLoggingInterceptor.Level.BODY);
+                    Context appContext = context.getApplicationContext();
+                    NetworkMetrics metrics = new NetworkMetrics();
+                    if (appContext instanceof Application) {
+                        metrics.trackScreens((Application) appContext);
+                    }
+
+                    Cache cache = new Cache(
+                            new File(appContext.getCacheDir(), HTTP_CACHE_DIR),
+                            HTTP_CACHE_SIZE);
+                    HttpCacheStats stats = new HttpCacheStats(cache);
+                    StaleWhileRevalidateInterceptor staleWhileRevalidate =
+                            new StaleWhileRevalidateInterceptor(stats);
 
-                    OkHttpClient client = new OkHttpClient.Builder()
+                    OkHttpClient.Builder builder = new OkHttpClient.Builder()
                             .connectTimeout(15, TimeUnit.SECONDS)
                             .readTimeout(30, TimeUnit.SECONDS)
                             .writeTimeout(30, TimeUnit.SECONDS)
-                            .addInterceptor(new AuthInterceptor(context))
-                            .addInterceptor(logging)
+                            .cache(cache)
+                            .eventListenerFactory(new MetricsEventListener.Factory(metrics))
+                            .addInterceptor(staleWhileRevalidate)
+                            .addInterceptor(new AuthInterceptor(context));
+                    if (isDebuggable(appContext)) {
+                        builder.addInterceptor(new SampledLoggingInterceptor(LOG_BODY_SAMPLE_RATE));
+                    }
+                    OkHttpClient client = builder
+                            .addNetworkInterceptor(new CacheControlInterceptor(stats))
                             .build();
+                    staleWhileRevalidate.attach(client);
+                    cacheStats = stats;
+                    networkMetrics = metrics;
+
+                    Gson gson = new GsonBuilder()
+                            .registerTypeAdapterFactory(new JsonAdapters())
+                            .create();
 
                     retrofit = new Retrofit.Builder()
                             .baseUrl(Constants.BASE_URL)
-                            .addConverterFactory(GsonConverterFactory.create())
+                            .addConverterFactory(GsonConverterFactory.create(gson))
                             .client(client)
                             .build();
                 }
@@ -46,4 +91,54 @@ public final class RetrofitClient {
         }
         return retrofit;
     }
+
+    /**
+     * HTTP cache hit/miss/revalidation counters.
+     */
+    public static HttpCacheStats getCacheStats(Context context) {
+        getInstance(context);
+        return cacheStats;
+    }
+
+    /**
+     * Per-endpoint call counts, latency percentiles, bytes and errors.
+     */
+    public static NetworkMetrics getNetworkMetrics(Context context) {
+        getInstance(context);
+        return networkMetrics;
+    }
+
+    /**
+     * Open a connection to the backend ahead of the first call, so that call finds
+     * one in the pool. Sent without the app's interceptors: the answer is ignored and
+     * must neither log the user out nor count as an endpoint.
+     */
+    public static void preconnect(Context context) {
+        OkHttpClient.Builder builder = ((OkHttpClient) getInstance(context).callFactory()).newBuilder()
+                .cache(null)
+                .eventListener(okhttp3.EventListener.NONE);
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        Request request = new Request.Builder()
+                .url(Constants.BASE_URL)
+                .head()
+                .cacheControl(CacheControl.FORCE_NETWORK)
+                .build();
+        builder.build().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                // The first real call will connect instead
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                // Closing the response returns the connection to the pool
+                response.close();
+            }
+        });
+    }
+
+    private static boolean isDebuggable(Context context) {
+        return (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
 }
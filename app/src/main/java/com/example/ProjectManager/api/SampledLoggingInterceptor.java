@@ -0,0 +1,33 @@
+package com.example.ProjectManager.api;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.logging.HttpLoggingInterceptor;
+
+/**
+ * Debug-only request logging. Every call gets a one-line summary; full bodies,
+ * which have to be buffered in memory to be printed, are logged for one call
+ * out of {@code bodySampleRate}.
+ */
+class SampledLoggingInterceptor implements Interceptor {
+
+    private final HttpLoggingInterceptor basic = new HttpLoggingInterceptor();
+    private final HttpLoggingInterceptor body = new HttpLoggingInterceptor();
+    private final AtomicLong calls = new AtomicLong();
+    private final int bodySampleRate;
+
+    SampledLoggingInterceptor(int bodySampleRate) {
+        this.bodySampleRate = Math.max(1, bodySampleRate);
+        basic.setLevel(HttpLoggingInterceptor.Level.BASIC);
+        body.setLevel(HttpLoggingInterceptor.Level.BODY);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        boolean sampled = calls.getAndIncrement() % bodySampleRate == 0;
+        return (sampled ? body : basic).intercept(chain);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.ProjectManager.api;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp application interceptor implementing stale-while-revalidate for the
+ * endpoints marked so in {@link CachePolicy}: a cached copy is returned right
+ * away, even if stale, and a conditional refresh runs in the background so the
+ * next read sees up-to-date data.
+ *
+ * Must be added before {@link AuthInterceptor} so background refreshes are
+ * re-issued from the original request.
+ */
+public class StaleWhileRevalidateInterceptor implements Interceptor {
+
+    private static final String TAG = "StaleWhileRevalidate";
+
+    private final HttpCacheStats stats;
+    // URLs with a background refresh already on the wire
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private volatile OkHttpClient client;
+
+    public StaleWhileRevalidateInterceptor(HttpCacheStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Set the client used for background refreshes (the one this interceptor belongs to).
+     */
+    void attach(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        CachePolicy policy = CachePolicy.forRequest(request);
+
+        // Callers that set their own cache directives (including our refreshes) pass through
+        if (policy.getMode() != CachePolicy.Mode.STALE_WHILE_REVALIDATE
+                || request.header("Cache-Control") != null) {
+            return chain.proceed(request);
+        }
+
+        Request allowStale = request.newBuilder()
+                .cacheControl(new CacheControl.Builder()
+                        .maxStale(policy.getStaleSeconds(), TimeUnit.SECONDS)
+                        .build())
+                .build();
+        Response response = chain.proceed(allowStale);
+
+        boolean servedFromCache = response.networkResponse() == null && response.cacheResponse() != null;
+        if (servedFromCache) {
+            stats.staleServed.incrementAndGet();
+            revalidateInBackground(request);
+        }
+        return response;
+    }
+
+    private void revalidateInBackground(Request original) {
+        OkHttpClient client = this.client;
+        String url = original.url().toString();
+        if (client == null || !revalidating.add(url)) {
+            return;
+        }
+        stats.backgroundRevalidations.incrementAndGet();
+
+        // max-age=0 makes OkHttp send a conditional request and update the stored copy
+        Request refresh = original.newBuilder()
+                .cacheControl(new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build())
+                .build();
+
+        client.newCall(refresh).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+                revalidating.remove(url);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                Log.w(TAG, "Background revalidation failed for " + url, e);
+                revalidating.remove(url);
+            }
+        });
+    }
+}
@@ -7,24 +7,49 @@ import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
 import com.example.ProjectManager.models.Member;
+import com.example.ProjectManager.models.OutboxMutation;
 import com.example.ProjectManager.models.Project;
+import com.example.ProjectManager.models.SearchHit;
+import com.example.ProjectManager.models.SyncState;
+import com.example.ProjectManager.models.TaskCounts;
+import com.example.ProjectManager.models.UserStats;
+import com.example.ProjectManager.models.dto.ProjectMemberResponse;
+import com.example.ProjectManager.models.dto.ProjectResponse;
+import com.example.ProjectManager.models.dto.TaskResponse;
+import com.example.ProjectManager.models.dto.UserResponseDto;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * SQLite database helper for managing projects and members.
  * Handles all database operations including CRUD for projects and
  * project-member relationships.
+ *
+ * Also holds a local mirror of the backend's projects, tasks and project
+ * members (the remote_* tables, keyed by server IDs) so screens can render
+ * the last synced data before the network answers. The sync_state table
+ * records how far each mirrored collection has been synced, and remote_stats
+ * holds task and project counters that triggers keep in step with the mirror.
+ *
+ * Users met in member lists, task assignees and user pages are kept in
+ * remote_users. Project, task and user text is indexed for full-text search in
+ * the search_* tables (FTS4), which triggers also keep in step with the mirror.
  */
 public class ProjectDatabaseHelper extends SQLiteOpenHelper {
 
     // Database Info
     private static final String DATABASE_NAME = "ProjectManager.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 7;
 
     // Table Names
     private static final String TABLE_PROJECTS = "projects";
@@ -51,6 +76,116 @@ public class ProjectDatabaseHelper extends SQLiteOpenHelper {
     private static final String KEY_PM_PROJECT_ID = "project_id";
     private static final String KEY_PM_MEMBER_ID = "member_id";
 
+    // Remote mirror tables (server IDs, filled from API responses)
+    private static final String TABLE_REMOTE_PROJECTS = "remote_projects";
+    private static final String TABLE_REMOTE_MEMBER_PROJECTS = "remote_member_projects";
+    private static final String TABLE_REMOTE_TASKS = "remote_tasks";
+    private static final String TABLE_REMOTE_PROJECT_MEMBERS = "remote_project_members";
+    private static final String TABLE_SYNC_STATE = "sync_state";
+    private static final String TABLE_REMOTE_STATS = "remote_stats";
+    private static final String TABLE_REMOTE_USERS = "remote_users";
+    private static final String TABLE_OUTBOX = "outbox";
+
+    // Full-text search tables, one row per mirrored row with the same id as docid
+    private static final String TABLE_SEARCH_PROJECTS = "search_projects";
+    private static final String TABLE_SEARCH_TASKS = "search_tasks";
+    private static final String TABLE_SEARCH_USERS = "search_users";
+
+    // Remote Projects Table Columns
+    private static final String KEY_RP_ID = "id";
+    private static final String KEY_RP_NAME = "name";
+    private static final String KEY_RP_DESCRIPTION = "description";
+    private static final String KEY_RP_OWNER_ID = "owner_id";
+    private static final String KEY_RP_START_DATE = "start_date";
+    private static final String KEY_RP_END_DATE = "end_date";
+    private static final String KEY_RP_CREATED_AT = "created_at";
+    private static final String KEY_RP_UPDATED_AT = "updated_at";
+
+    // Remote Member Projects Table Columns (projects a user is a member of)
+    private static final String KEY_RMP_USER_ID = "user_id";
+    private static final String KEY_RMP_PROJECT_ID = "project_id";
+
+    // Remote Tasks Table Columns
+    private static final String KEY_RT_ID = "id";
+    private static final String KEY_RT_NAME = "name";
+    private static final String KEY_RT_CONTENT = "content";
+    private static final String KEY_RT_STATUS = "status";
+    private static final String KEY_RT_PROJECT_ID = "project_id";
+    private static final String KEY_RT_PROJECT_NAME = "project_name";
+    private static final String KEY_RT_CREATED_AT = "created_at";
+    private static final String KEY_RT_UPDATED_AT = "updated_at";
+    private static final String KEY_RT_ASSIGNEE_ID = "assignee_id";
+    private static final String KEY_RT_ASSIGNEE_FIRST_NAME = "assignee_first_name";
+    private static final String KEY_RT_ASSIGNEE_LAST_NAME = "assignee_last_name";
+    private static final String KEY_RT_ASSIGNEE_EMAIL = "assignee_email";
+    private static final String KEY_RT_ASSIGNEE_PICTURE = "assignee_picture_url";
+
+    // Remote Project Members Table Columns
+    private static final String KEY_RPM_PROJECT_ID = "project_id";
+    private static final String KEY_RPM_USER_ID = "user_id";
+    private static final String KEY_RPM_FIRST_NAME = "first_name";
+    private static final String KEY_RPM_LAST_NAME = "last_name";
+    private static final String KEY_RPM_EMAIL = "email";
+    private static final String KEY_RPM_PICTURE = "profile_picture_url";
+    private static final String KEY_RPM_ADDED_AT = "added_at";
+
+    // Sync State Table Columns (one row per mirrored collection)
+    private static final String KEY_SS_COLLECTION = "collection";
+    private static final String KEY_SS_HIGH_WATER_MARK = "high_water_mark";
+    private static final String KEY_SS_LAST_FULL_SYNC_AT = "last_full_sync_at";
+    private static final String KEY_SS_DELTA_SUPPORTED = "delta_supported";
+    // Sync state collection of the user directory (task lists: see projectTasksCollection)
+    private static final String USER_DIRECTORY_COLLECTION = "users:directory";
+
+    // Remote Stats Table Columns (counters kept up to date by triggers)
+    private static final String KEY_RS_SCOPE = "scope";
+    private static final String KEY_RS_SCOPE_ID = "scope_id";
+    private static final String KEY_RS_TOTAL = "total";
+    private static final String KEY_RS_TODO = "todo";
+    private static final String KEY_RS_IN_PROGRESS = "in_progress";
+    private static final String KEY_RS_DONE = "done";
+
+    // Remote Users Table Columns
+    private static final String KEY_RU_ID = "id";
+    private static final String KEY_RU_FIRST_NAME = "first_name";
+    private static final String KEY_RU_LAST_NAME = "last_name";
+    private static final String KEY_RU_EMAIL = "email";
+    private static final String KEY_RU_PICTURE = "profile_picture_url";
+
+    // Outbox Table Columns (writes waiting to be sent, in id order)
+    private static final String KEY_OB_ID = "id";
+    private static final String KEY_OB_USER_ID = "user_id";
+    private static final String KEY_OB_KIND = "kind";
+    private static final String KEY_OB_TARGET_ID = "target_id";
+    private static final String KEY_OB_PAYLOAD = "payload";
+    private static final String KEY_OB_IDEMPOTENCY_KEY = "idempotency_key";
+    private static final String KEY_OB_ATTEMPTS = "attempts";
+    private static final String KEY_OB_CREATED_AT = "created_at";
+    private static final String KEY_OB_LAST_ERROR = "last_error";
+    private static final String KEY_OB_AWAITING_CONFIRMATION = "awaiting_confirmation";
+
+    // Search Tables Columns: the text shown as the result's title (name) and its detail
+    private static final String KEY_SEARCH_TITLE = "title";
+    private static final String KEY_SEARCH_BODY = "body";
+
+    // Title matches weigh more than description matches when ranking
+    private static final double[] SEARCH_WEIGHTS = {3.0, 1.0};
+    // Matches ranked per query; a one-letter prefix can match nearly every row
+    private static final int MAX_SEARCH_CANDIDATES = 1000;
+    // Words of context shown around a match in the detail text
+    private static final int SEARCH_SNIPPET_WORDS = 12;
+
+    // Remote Stats scopes: tasks per project / per assignee, projects per owner / per member
+    private static final String SCOPE_PROJECT_TASKS = "project_tasks";
+    private static final String SCOPE_ASSIGNED_TASKS = "assigned_tasks";
+    private static final String SCOPE_OWNED_PROJECTS = "owned_projects";
+    private static final String SCOPE_MEMBER_PROJECTS = "member_projects";
+
+    // Status spellings counted in each bucket; any other status only counts in the total
+    private static final String STATUSES_TODO = "('TODO','TO_DO','TO DO')";
+    private static final String STATUSES_IN_PROGRESS = "('IN_PROGRESS','IN PROGRESS')";
+    private static final String STATUSES_DONE = "('DONE','COMPLETED')";
+
     // Date format for database operations
     private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
 
@@ -109,17 +244,359 @@ public class ProjectDatabaseHelper extends SQLiteOpenHelper {
 
         // Insert sample members
         insertSampleMembers(db);
+
+        createRemoteMirrorTables(db);
+        createSyncStateTable(db);
+        createStatsTable(db);
+        createSearchIndex(db);
+        createOutboxTable(db);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // Rows replaced by CONFLICT_REPLACE must fire the delete triggers keeping remote_stats right
+        db.execSQL("PRAGMA recursive_triggers = ON");
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // Drop older tables if existed
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_PROJECT_MEMBERS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_PROJECTS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_MEMBERS);
+        if (oldVersion < 2) {
+            createRemoteMirrorTables(db);
+        }
+        if (oldVersion < 3) {
+            createSyncStateTable(db);
+        }
+        if (oldVersion < 4) {
+            createStatsTable(db);
+            rebuildStats(db);
+        }
+        if (oldVersion < 5) {
+            createSearchIndex(db);
+            fillSearchIndex(db);
+        }
+        if (oldVersion < 6) {
+            createOutboxTable(db);
+        } else if (oldVersion < 7) {
+            // An outbox created above already has the column
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN " + KEY_OB_AWAITING_CONFIRMATION
+                    + " INTEGER DEFAULT 0");
+        }
+    }
 
-        // Create tables again
-        onCreate(db);
+    /**
+     * Create the tables mirroring backend data (added in version 2)
+     */
+    private void createRemoteMirrorTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_REMOTE_PROJECTS + "("
+                + KEY_RP_ID + " INTEGER PRIMARY KEY,"
+                + KEY_RP_NAME + " TEXT,"
+                + KEY_RP_DESCRIPTION + " TEXT,"
+                + KEY_RP_OWNER_ID + " INTEGER,"
+                + KEY_RP_START_DATE + " TEXT,"
+                + KEY_RP_END_DATE + " TEXT,"
+                + KEY_RP_CREATED_AT + " TEXT,"
+                + KEY_RP_UPDATED_AT + " TEXT"
+                + ")");
+        db.execSQL("CREATE INDEX idx_remote_projects_owner ON " + TABLE_REMOTE_PROJECTS
+                + "(" + KEY_RP_OWNER_ID + ")");
+
+        db.execSQL("CREATE TABLE " + TABLE_REMOTE_MEMBER_PROJECTS + "("
+                + KEY_RMP_USER_ID + " INTEGER NOT NULL,"
+                + KEY_RMP_PROJECT_ID + " INTEGER NOT NULL,"
+                + "PRIMARY KEY(" + KEY_RMP_USER_ID + "," + KEY_RMP_PROJECT_ID + ")"
+                + ")");
+
+        db.execSQL("CREATE TABLE " + TABLE_REMOTE_TASKS + "("
+                + KEY_RT_ID + " INTEGER PRIMARY KEY,"
+                + KEY_RT_NAME + " TEXT,"
+                + KEY_RT_CONTENT + " TEXT,"
+                + KEY_RT_STATUS + " TEXT,"
+                + KEY_RT_PROJECT_ID + " INTEGER,"
+                + KEY_RT_PROJECT_NAME + " TEXT,"
+                + KEY_RT_CREATED_AT + " TEXT,"
+                + KEY_RT_UPDATED_AT + " TEXT,"
+                + KEY_RT_ASSIGNEE_ID + " INTEGER,"
+                + KEY_RT_ASSIGNEE_FIRST_NAME + " TEXT,"
+                + KEY_RT_ASSIGNEE_LAST_NAME + " TEXT,"
+                + KEY_RT_ASSIGNEE_EMAIL + " TEXT,"
+                + KEY_RT_ASSIGNEE_PICTURE + " TEXT"
+                + ")");
+        db.execSQL("CREATE INDEX idx_remote_tasks_project ON " + TABLE_REMOTE_TASKS
+                + "(" + KEY_RT_PROJECT_ID + ")");
+        db.execSQL("CREATE INDEX idx_remote_tasks_assignee ON " + TABLE_REMOTE_TASKS
+                + "(" + KEY_RT_ASSIGNEE_ID + ")");
+
+        db.execSQL("CREATE TABLE " + TABLE_REMOTE_PROJECT_MEMBERS + "("
+                + KEY_RPM_PROJECT_ID + " INTEGER NOT NULL,"
+                + KEY_RPM_USER_ID + " INTEGER NOT NULL,"
+                + KEY_RPM_FIRST_NAME + " TEXT,"
+                + KEY_RPM_LAST_NAME + " TEXT,"
+                + KEY_RPM_EMAIL + " TEXT,"
+                + KEY_RPM_PICTURE + " TEXT,"
+                + KEY_RPM_ADDED_AT + " TEXT,"
+                + "PRIMARY KEY(" + KEY_RPM_PROJECT_ID + "," + KEY_RPM_USER_ID + ")"
+                + ")");
+    }
+
+    /**
+     * Create the table holding the delta sync high-water marks (added in version 3)
+     */
+    private void createSyncStateTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + "("
+                + KEY_SS_COLLECTION + " TEXT PRIMARY KEY,"
+                + KEY_SS_HIGH_WATER_MARK + " TEXT,"
+                + KEY_SS_LAST_FULL_SYNC_AT + " INTEGER,"
+                + KEY_SS_DELTA_SUPPORTED + " INTEGER"
+                + ")");
+    }
+
+    /**
+     * Create the table of writes waiting to be sent (added in version 6; the
+     * awaiting_confirmation column in version 7)
+     */
+    private void createOutboxTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_OUTBOX + "("
+                + KEY_OB_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + KEY_OB_USER_ID + " INTEGER NOT NULL,"
+                + KEY_OB_KIND + " TEXT NOT NULL,"
+                + KEY_OB_TARGET_ID + " INTEGER,"
+                + KEY_OB_PAYLOAD + " TEXT,"
+                + KEY_OB_IDEMPOTENCY_KEY + " TEXT NOT NULL UNIQUE,"
+                + KEY_OB_ATTEMPTS + " INTEGER DEFAULT 0,"
+                + KEY_OB_CREATED_AT + " INTEGER,"
+                + KEY_OB_LAST_ERROR + " TEXT,"
+                + KEY_OB_AWAITING_CONFIRMATION + " INTEGER DEFAULT 0"
+                + ")");
+    }
+
+    /**
+     * Create the counters table and the triggers keeping it in step with the mirror
+     * (added in version 4). Every insert, update or delete of a mirrored task or
+     * project adjusts the counters of the scopes it belongs to, so reading them never
+     * needs a scan.
+     */
+    private void createStatsTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_REMOTE_STATS + "("
+                + KEY_RS_SCOPE + " TEXT NOT NULL,"
+                + KEY_RS_SCOPE_ID + " INTEGER NOT NULL,"
+                + KEY_RS_TOTAL + " INTEGER NOT NULL DEFAULT 0,"
+                + KEY_RS_TODO + " INTEGER NOT NULL DEFAULT 0,"
+                + KEY_RS_IN_PROGRESS + " INTEGER NOT NULL DEFAULT 0,"
+                + KEY_RS_DONE + " INTEGER NOT NULL DEFAULT 0,"
+                + "PRIMARY KEY(" + KEY_RS_SCOPE + "," + KEY_RS_SCOPE_ID + ")"
+                + ")");
+
+        db.execSQL("CREATE TRIGGER trg_remote_tasks_insert AFTER INSERT ON " + TABLE_REMOTE_TASKS + " BEGIN "
+                + countTask("NEW.", "+")
+                + " END");
+        db.execSQL("CREATE TRIGGER trg_remote_tasks_delete AFTER DELETE ON " + TABLE_REMOTE_TASKS + " BEGIN "
+                + countTask("OLD.", "-")
+                + " END");
+        db.execSQL("CREATE TRIGGER trg_remote_tasks_update AFTER UPDATE OF "
+                + KEY_RT_STATUS + "," + KEY_RT_PROJECT_ID + "," + KEY_RT_ASSIGNEE_ID
+                + " ON " + TABLE_REMOTE_TASKS + " BEGIN "
+                + countTask("OLD.", "-") + countTask("NEW.", "+")
+                + " END");
+
+        db.execSQL("CREATE TRIGGER trg_remote_projects_insert AFTER INSERT ON " + TABLE_REMOTE_PROJECTS + " BEGIN "
+                + count(SCOPE_OWNED_PROJECTS, "NEW." + KEY_RP_OWNER_ID, null, "+")
+                + " END");
+        db.execSQL("CREATE TRIGGER trg_remote_projects_delete AFTER DELETE ON " + TABLE_REMOTE_PROJECTS + " BEGIN "
+                + count(SCOPE_OWNED_PROJECTS, "OLD." + KEY_RP_OWNER_ID, null, "-")
+                + " END");
+        db.execSQL("CREATE TRIGGER trg_remote_projects_update AFTER UPDATE OF " + KEY_RP_OWNER_ID
+                + " ON " + TABLE_REMOTE_PROJECTS + " BEGIN "
+                + count(SCOPE_OWNED_PROJECTS, "OLD." + KEY_RP_OWNER_ID, null, "-")
+                + count(SCOPE_OWNED_PROJECTS, "NEW." + KEY_RP_OWNER_ID, null, "+")
+                + " END");
+
+        db.execSQL("CREATE TRIGGER trg_remote_member_projects_insert AFTER INSERT ON "
+                + TABLE_REMOTE_MEMBER_PROJECTS + " BEGIN "
+                + count(SCOPE_MEMBER_PROJECTS, "NEW." + KEY_RMP_USER_ID, null, "+")
+                + " END");
+        db.execSQL("CREATE TRIGGER trg_remote_member_projects_delete AFTER DELETE ON "
+                + TABLE_REMOTE_MEMBER_PROJECTS + " BEGIN "
+                + count(SCOPE_MEMBER_PROJECTS, "OLD." + KEY_RMP_USER_ID, null, "-")
+                + " END");
+    }
+
+    /**
+     * Trigger statements adding (+) or removing (-) one task row from its project and assignee counters
+     */
+    private static String countTask(String row, String sign) {
+        return count(SCOPE_PROJECT_TASKS, row + KEY_RT_PROJECT_ID, row, sign)
+                + count(SCOPE_ASSIGNED_TASKS, row + KEY_RT_ASSIGNEE_ID, row, sign);
+    }
+
+    /**
+     * Trigger statements adjusting one counter row, created on first use. Rows with a
+     * null scope ID (e.g. an unassigned task) are not counted.
+     *
+     * @param statusRow "NEW." or "OLD." to also adjust the status buckets, null for a plain total
+     */
+    private static String count(String scope, String scopeId, String statusRow, String sign) {
+        StringBuilder sql = new StringBuilder();
+        // Not INSERT OR IGNORE: inside a trigger the outer statement's conflict clause wins,
+        // and an outer CONFLICT_REPLACE would reset the counter row
+        sql.append("INSERT INTO ").append(TABLE_REMOTE_STATS)
+                .append("(").append(KEY_RS_SCOPE).append(",").append(KEY_RS_SCOPE_ID).append(")")
+                .append(" SELECT '").append(scope).append("', ").append(scopeId)
+                .append(" WHERE ").append(scopeId).append(" IS NOT NULL")
+                .append(" AND NOT EXISTS (SELECT 1 FROM ").append(TABLE_REMOTE_STATS)
+                .append(" WHERE ").append(KEY_RS_SCOPE).append(" = '").append(scope).append("'")
+                .append(" AND ").append(KEY_RS_SCOPE_ID).append(" = ").append(scopeId).append(");");
+        sql.append("UPDATE ").append(TABLE_REMOTE_STATS).append(" SET ")
+                .append(KEY_RS_TOTAL).append(" = ").append(KEY_RS_TOTAL).append(sign).append("1");
+        if (statusRow != null) {
+            sql.append(",").append(KEY_RS_TODO).append(" = ").append(KEY_RS_TODO).append(sign)
+                    .append(statusIn(statusRow, STATUSES_TODO));
+            sql.append(",").append(KEY_RS_IN_PROGRESS).append(" = ").append(KEY_RS_IN_PROGRESS).append(sign)
+                    .append(statusIn(statusRow, STATUSES_IN_PROGRESS));
+            sql.append(",").append(KEY_RS_DONE).append(" = ").append(KEY_RS_DONE).append(sign)
+                    .append(statusIn(statusRow, STATUSES_DONE));
+        }
+        sql.append(" WHERE ").append(KEY_RS_SCOPE).append(" = '").append(scope).append("'")
+                .append(" AND ").append(KEY_RS_SCOPE_ID).append(" = ").append(scopeId).append(";");
+        return sql.toString();
+    }
+
+    /**
+     * 1 if the row's status is one of the given spellings, else 0
+     */
+    private static String statusIn(String row, String statuses) {
+        return "(COALESCE(UPPER(" + row + KEY_RT_STATUS + "),'') IN " + statuses + ")";
+    }
+
+    /**
+     * Recompute all counters from the mirrored rows (after an upgrade)
+     */
+    private void rebuildStats(SQLiteDatabase db) {
+        db.delete(TABLE_REMOTE_STATS, null, null);
+        rebuildTaskStats(db, SCOPE_PROJECT_TASKS, KEY_RT_PROJECT_ID);
+        rebuildTaskStats(db, SCOPE_ASSIGNED_TASKS, KEY_RT_ASSIGNEE_ID);
+        db.execSQL("INSERT INTO " + TABLE_REMOTE_STATS + "(" + KEY_RS_SCOPE + "," + KEY_RS_SCOPE_ID + "," + KEY_RS_TOTAL + ")"
+                + " SELECT '" + SCOPE_OWNED_PROJECTS + "', " + KEY_RP_OWNER_ID + ", COUNT(*)"
+                + " FROM " + TABLE_REMOTE_PROJECTS
+                + " WHERE " + KEY_RP_OWNER_ID + " IS NOT NULL GROUP BY " + KEY_RP_OWNER_ID);
+        db.execSQL("INSERT INTO " + TABLE_REMOTE_STATS + "(" + KEY_RS_SCOPE + "," + KEY_RS_SCOPE_ID + "," + KEY_RS_TOTAL + ")"
+                + " SELECT '" + SCOPE_MEMBER_PROJECTS + "', " + KEY_RMP_USER_ID + ", COUNT(*)"
+                + " FROM " + TABLE_REMOTE_MEMBER_PROJECTS + " GROUP BY " + KEY_RMP_USER_ID);
+    }
+
+    private void rebuildTaskStats(SQLiteDatabase db, String scope, String scopeColumn) {
+        db.execSQL("INSERT INTO " + TABLE_REMOTE_STATS + "(" + KEY_RS_SCOPE + "," + KEY_RS_SCOPE_ID + ","
+                + KEY_RS_TOTAL + "," + KEY_RS_TODO + "," + KEY_RS_IN_PROGRESS + "," + KEY_RS_DONE + ")"
+                + " SELECT '" + scope + "', " + scopeColumn + ", COUNT(*),"
+                + " SUM" + statusIn("", STATUSES_TODO) + ","
+                + " SUM" + statusIn("", STATUSES_IN_PROGRESS) + ","
+                + " SUM" + statusIn("", STATUSES_DONE)
+                + " FROM " + TABLE_REMOTE_TASKS
+                + " WHERE " + scopeColumn + " IS NOT NULL GROUP BY " + scopeColumn);
+    }
+
+    /**
+     * Create the users table and the full-text search index (added in version 5).
+     * Each search table holds a title and a body column per mirrored row, under
+     * the row's id; triggers index rows as they are inserted, replaced, edited or
+     * deleted, so the index never needs a rebuild. Words are matched case- and
+     * accent-insensitively, and 2 and 3 letter prefixes are indexed so prefix
+     * queries stay fast while the user is typing.
+     */
+    private void createSearchIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_REMOTE_USERS + "("
+                + KEY_RU_ID + " INTEGER PRIMARY KEY,"
+                + KEY_RU_FIRST_NAME + " TEXT,"
+                + KEY_RU_LAST_NAME + " TEXT,"
+                + KEY_RU_EMAIL + " TEXT,"
+                + KEY_RU_PICTURE + " TEXT"
+                + ")");
+
+        createSearchTable(db, TABLE_SEARCH_PROJECTS, TABLE_REMOTE_PROJECTS, KEY_RP_ID,
+                KEY_RP_NAME, KEY_RP_DESCRIPTION);
+        createSearchTable(db, TABLE_SEARCH_TASKS, TABLE_REMOTE_TASKS, KEY_RT_ID,
+                KEY_RT_NAME, KEY_RT_CONTENT);
+        createSearchTable(db, TABLE_SEARCH_USERS, TABLE_REMOTE_USERS, KEY_RU_ID,
+                KEY_RU_FIRST_NAME, KEY_RU_LAST_NAME, KEY_RU_EMAIL);
+    }
+
+    /**
+     * One search table over {@code source} and its triggers. The last column is the
+     * body; the ones before it are joined with spaces into the title.
+     */
+    private static void createSearchTable(SQLiteDatabase db, String table, String source, String idColumn,
+                                          String... columns) {
+        db.execSQL("CREATE VIRTUAL TABLE " + table + " USING fts4("
+                + KEY_SEARCH_TITLE + "," + KEY_SEARCH_BODY + ","
+                + "tokenize=unicode61, prefix=\"2,3\")");
+
+        String[] titleColumns = new String[columns.length - 1];
+        System.arraycopy(columns, 0, titleColumns, 0, titleColumns.length);
+        String body = columns[columns.length - 1];
+
+        String index = "INSERT INTO " + table + "(docid," + KEY_SEARCH_TITLE + "," + KEY_SEARCH_BODY + ")"
+                + " VALUES (NEW." + idColumn + "," + searchTitle("NEW.", titleColumns) + ",NEW." + body + ");";
+        String unindex = "DELETE FROM " + table + " WHERE docid = OLD." + idColumn + ";";
+
+        StringBuilder changed = new StringBuilder();
+        for (String column : columns) {
+            if (changed.length() > 0) changed.append(" OR ");
+            changed.append("OLD.").append(column).append(" IS NOT NEW.").append(column);
+        }
+
+        db.execSQL("CREATE TRIGGER trg_" + table + "_insert AFTER INSERT ON " + source + " BEGIN "
+                + index
+                + " END");
+        db.execSQL("CREATE TRIGGER trg_" + table + "_delete AFTER DELETE ON " + source + " BEGIN "
+                + unindex
+                + " END");
+        db.execSQL("CREATE TRIGGER trg_" + table + "_update AFTER UPDATE OF " + String.join(",", columns)
+                + " ON " + source + " WHEN " + changed + " BEGIN "
+                + unindex + index
+                + " END");
+    }
+
+    /**
+     * SQL expression joining the title columns of a row, skipping missing ones
+     */
+    private static String searchTitle(String row, String... columns) {
+        if (columns.length == 1) {
+            return row + columns[0];
+        }
+        StringBuilder sql = new StringBuilder("TRIM(");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) sql.append(" || ' ' || ");
+            sql.append("COALESCE(").append(row).append(columns[i]).append(",'')");
+        }
+        return sql.append(")").toString();
+    }
+
+    /**
+     * Index the rows mirrored before the search index existed, and collect the users
+     * already known from member lists and task assignees
+     */
+    private void fillSearchIndex(SQLiteDatabase db) {
+        db.execSQL("INSERT INTO " + TABLE_SEARCH_PROJECTS + "(docid," + KEY_SEARCH_TITLE + "," + KEY_SEARCH_BODY + ")"
+                + " SELECT " + KEY_RP_ID + "," + KEY_RP_NAME + "," + KEY_RP_DESCRIPTION
+                + " FROM " + TABLE_REMOTE_PROJECTS);
+        db.execSQL("INSERT INTO " + TABLE_SEARCH_TASKS + "(docid," + KEY_SEARCH_TITLE + "," + KEY_SEARCH_BODY + ")"
+                + " SELECT " + KEY_RT_ID + "," + KEY_RT_NAME + "," + KEY_RT_CONTENT
+                + " FROM " + TABLE_REMOTE_TASKS);
+
+        // remote_users is empty here, so its insert trigger indexes these rows
+        db.execSQL("INSERT OR IGNORE INTO " + TABLE_REMOTE_USERS + "(" + KEY_RU_ID + "," + KEY_RU_FIRST_NAME + ","
+                + KEY_RU_LAST_NAME + "," + KEY_RU_EMAIL + "," + KEY_RU_PICTURE + ")"
+                + " SELECT " + KEY_RPM_USER_ID + "," + KEY_RPM_FIRST_NAME + "," + KEY_RPM_LAST_NAME + ","
+                + KEY_RPM_EMAIL + "," + KEY_RPM_PICTURE
+                + " FROM " + TABLE_REMOTE_PROJECT_MEMBERS + " GROUP BY " + KEY_RPM_USER_ID);
+        db.execSQL("INSERT OR IGNORE INTO " + TABLE_REMOTE_USERS + "(" + KEY_RU_ID + "," + KEY_RU_FIRST_NAME + ","
+                + KEY_RU_LAST_NAME + "," + KEY_RU_EMAIL + "," + KEY_RU_PICTURE + ")"
+                + " SELECT " + KEY_RT_ASSIGNEE_ID + "," + KEY_RT_ASSIGNEE_FIRST_NAME + "," + KEY_RT_ASSIGNEE_LAST_NAME + ","
+                + KEY_RT_ASSIGNEE_EMAIL + "," + KEY_RT_ASSIGNEE_PICTURE
+                + " FROM " + TABLE_REMOTE_TASKS
+                + " WHERE " + KEY_RT_ASSIGNEE_ID + " IS NOT NULL AND (" + KEY_RT_ASSIGNEE_FIRST_NAME + " IS NOT NULL"
+                + " OR " + KEY_RT_ASSIGNEE_LAST_NAME + " IS NOT NULL OR " + KEY_RT_ASSIGNEE_EMAIL + " IS NOT NULL)"
+                + " GROUP BY " + KEY_RT_ASSIGNEE_ID);
     }
 
     /**
@@ -472,4 +949,894 @@ public class ProjectDatabaseHelper extends SQLiteOpenHelper {
 
         return count;
     }
+
+    // ===================== REMOTE MIRROR OPERATIONS =====================
+
+    /**
+     * Store the user's owned and member projects as returned by the backend.
+     * Owned projects no longer returned are removed, and the membership list is replaced.
+     */
+    public void replaceUserProjects(long userId, List<ProjectResponse> owned, List<ProjectResponse> member) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_REMOTE_PROJECTS, KEY_RP_OWNER_ID + " = ?",
+                    new String[]{String.valueOf(userId)});
+            for (ProjectResponse project : owned) {
+                upsertRemoteProject(db, project);
+            }
+
+            db.delete(TABLE_REMOTE_MEMBER_PROJECTS, KEY_RMP_USER_ID + " = ?",
+                    new String[]{String.valueOf(userId)});
+            for (ProjectResponse project : member) {
+                upsertRemoteProject(db, project);
+                ContentValues values = new ContentValues();
+                values.put(KEY_RMP_USER_ID, userId);
+                values.put(KEY_RMP_PROJECT_ID, project.getId());
+                db.insertWithOnConflict(TABLE_REMOTE_MEMBER_PROJECTS, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+            }
+
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Insert or update one project (e.g. after create or edit)
+     */
+    public void upsertRemoteProject(ProjectResponse project) {
+        upsertRemoteProject(this.getWritableDatabase(), project);
+    }
+
+    private void upsertRemoteProject(SQLiteDatabase db, ProjectResponse project) {
+        if (project.getId() == null) return;
+        ContentValues values = new ContentValues();
+        values.put(KEY_RP_ID, project.getId());
+        values.put(KEY_RP_NAME, project.getName());
+        values.put(KEY_RP_DESCRIPTION, project.getDescription());
+        values.put(KEY_RP_OWNER_ID, project.getOwnerId());
+        values.put(KEY_RP_START_DATE, project.getStartDate());
+        values.put(KEY_RP_END_DATE, project.getEndDate());
+        values.put(KEY_RP_CREATED_AT, project.getCreatedAt());
+        values.put(KEY_RP_UPDATED_AT, project.getUpdatedAt());
+        db.insertWithOnConflict(TABLE_REMOTE_PROJECTS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Projects owned by a user, as last synced
+     */
+    public List<ProjectResponse> getOwnedRemoteProjects(long userId) {
+        return queryRemoteProjects("SELECT * FROM " + TABLE_REMOTE_PROJECTS
+                        + " WHERE " + KEY_RP_OWNER_ID + " = ? ORDER BY " + KEY_RP_ID,
+                new String[]{String.valueOf(userId)});
+    }
+
+    /**
+     * Projects a user is a member of, as last synced
+     */
+    public List<ProjectResponse> getMemberRemoteProjects(long userId) {
+        return queryRemoteProjects("SELECT p.* FROM " + TABLE_REMOTE_PROJECTS + " p"
+                        + " INNER JOIN " + TABLE_REMOTE_MEMBER_PROJECTS + " mp"
+                        + " ON p." + KEY_RP_ID + " = mp." + KEY_RMP_PROJECT_ID
+                        + " WHERE mp." + KEY_RMP_USER_ID + " = ? ORDER BY p." + KEY_RP_ID,
+                new String[]{String.valueOf(userId)});
+    }
+
+    /**
+     * Get a mirrored project by its server ID, or null
+     */
+    public ProjectResponse getRemoteProject(long projectId) {
+        List<ProjectResponse> projects = queryRemoteProjects("SELECT * FROM " + TABLE_REMOTE_PROJECTS
+                + " WHERE " + KEY_RP_ID + " = ?", new String[]{String.valueOf(projectId)});
+        return projects.isEmpty() ? null : projects.get(0);
+    }
+
+    /**
+     * Remove a deleted project together with its tasks and members
+     */
+    public void deleteRemoteProject(long projectId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        String[] args = {String.valueOf(projectId)};
+
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_REMOTE_TASKS, KEY_RT_PROJECT_ID + " = ?", args);
+            db.delete(TABLE_REMOTE_PROJECT_MEMBERS, KEY_RPM_PROJECT_ID + " = ?", args);
+            db.delete(TABLE_REMOTE_MEMBER_PROJECTS, KEY_RMP_PROJECT_ID + " = ?", args);
+            db.delete(TABLE_REMOTE_PROJECTS, KEY_RP_ID + " = ?", args);
+            db.delete(TABLE_SYNC_STATE, KEY_SS_COLLECTION + " = ?",
+                    new String[]{projectTasksCollection(projectId)});
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private List<ProjectResponse> queryRemoteProjects(String sql, String[] args) {
+        List<ProjectResponse> projects = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            while (cursor.moveToNext()) {
+                projects.add(cursorToRemoteProject(cursor));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return projects;
+    }
+
+    private ProjectResponse cursorToRemoteProject(Cursor cursor) {
+        ProjectResponse project = new ProjectResponse();
+        project.setId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_RP_ID)));
+        project.setName(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RP_NAME)));
+        project.setDescription(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RP_DESCRIPTION)));
+        int ownerIndex = cursor.getColumnIndexOrThrow(KEY_RP_OWNER_ID);
+        project.setOwnerId(cursor.isNull(ownerIndex) ? null : cursor.getLong(ownerIndex));
+        project.setStartDate(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RP_START_DATE)));
+        project.setEndDate(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RP_END_DATE)));
+        project.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RP_CREATED_AT)));
+        project.setUpdatedAt(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RP_UPDATED_AT)));
+        return project;
+    }
+
+    /**
+     * Store the complete task list of a project; tasks no longer returned are removed.
+     */
+    public void replaceProjectTasks(long projectId, List<TaskResponse> tasks) {
+        replaceTasks(KEY_RT_PROJECT_ID, projectId, tasks);
+    }
+
+    /**
+     * Store the complete list of tasks assigned to a user; tasks no longer returned are removed.
+     */
+    public void replaceAssignedTasks(long userId, List<TaskResponse> tasks) {
+        replaceTasks(KEY_RT_ASSIGNEE_ID, userId, tasks);
+    }
+
+    private void replaceTasks(String scopeColumn, long scopeId, List<TaskResponse> tasks) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_REMOTE_TASKS, scopeColumn + " = ?", new String[]{String.valueOf(scopeId)});
+            for (TaskResponse task : tasks) {
+                upsertRemoteTask(db, task);
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Store the complete task list of a project together with its sync state (full sync)
+     */
+    public void replaceProjectTasks(long projectId, List<TaskResponse> tasks, SyncState state) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_REMOTE_TASKS, KEY_RT_PROJECT_ID + " = ?", new String[]{String.valueOf(projectId)});
+            for (TaskResponse task : tasks) {
+                upsertRemoteTask(db, task);
+            }
+            saveSyncState(db, projectTasksCollection(projectId), state);
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Apply the tasks of a project changed since the last sync, together with the new sync state
+     */
+    public void applyProjectTaskChanges(long projectId, List<TaskResponse> changed, SyncState state) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            for (TaskResponse task : changed) {
+                upsertRemoteTask(db, task);
+            }
+            saveSyncState(db, projectTasksCollection(projectId), state);
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Sync state of a project's task list, or null if it was never synced
+     */
+    public SyncState getProjectTasksSyncState(long projectId) {
+        return getSyncState(projectTasksCollection(projectId));
+    }
+
+    private SyncState getSyncState(String collection) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try (Cursor cursor = db.query(TABLE_SYNC_STATE, null, KEY_SS_COLLECTION + " = ?",
+                new String[]{collection}, null, null, null)) {
+            if (cursor.moveToFirst()) {
+                return new SyncState(
+                        cursor.getString(cursor.getColumnIndexOrThrow(KEY_SS_HIGH_WATER_MARK)),
+                        cursor.getLong(cursor.getColumnIndexOrThrow(KEY_SS_LAST_FULL_SYNC_AT)),
+                        cursor.getInt(cursor.getColumnIndexOrThrow(KEY_SS_DELTA_SUPPORTED)) == 1);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    private void saveSyncState(SQLiteDatabase db, String collection, SyncState state) {
+        ContentValues values = new ContentValues();
+        values.put(KEY_SS_COLLECTION, collection);
+        values.put(KEY_SS_HIGH_WATER_MARK, state.getHighWaterMark());
+        values.put(KEY_SS_LAST_FULL_SYNC_AT, state.getLastFullSyncAt());
+        values.put(KEY_SS_DELTA_SUPPORTED, state.isDeltaSupported() ? 1 : 0);
+        db.insertWithOnConflict(TABLE_SYNC_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static String projectTasksCollection(long projectId) {
+        return "tasks:project:" + projectId;
+    }
+
+    /**
+     * Insert or update tasks without removing others (e.g. a partial page)
+     */
+    public void upsertRemoteTasks(List<TaskResponse> tasks) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            for (TaskResponse task : tasks) {
+                upsertRemoteTask(db, task);
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void upsertRemoteTask(SQLiteDatabase db, TaskResponse task) {
+        ContentValues values = new ContentValues();
+        values.put(KEY_RT_ID, task.getId());
+        values.put(KEY_RT_NAME, task.getName());
+        values.put(KEY_RT_CONTENT, task.getContent());
+        values.put(KEY_RT_STATUS, task.getStatus());
+        values.put(KEY_RT_PROJECT_ID, task.getProjectId());
+        values.put(KEY_RT_PROJECT_NAME, task.getProjectName());
+        values.put(KEY_RT_CREATED_AT, task.getCreatedAt());
+        values.put(KEY_RT_UPDATED_AT, task.getUpdatedAt());
+        values.put(KEY_RT_ASSIGNEE_ID, task.getAssigneeId());
+        if (task.hasAssigneeDetails()) {
+            TaskResponse.Assignee assignee = task.getAssignee();
+            values.put(KEY_RT_ASSIGNEE_FIRST_NAME, assignee.getFirstName());
+            values.put(KEY_RT_ASSIGNEE_LAST_NAME, assignee.getLastName());
+            values.put(KEY_RT_ASSIGNEE_EMAIL, assignee.getEmail());
+            values.put(KEY_RT_ASSIGNEE_PICTURE, assignee.getProfilePictureUrl());
+            mergeRemoteUser(db, task.getAssigneeId(), assignee.getFirstName(), assignee.getLastName(),
+                    assignee.getEmail(), assignee.getProfilePictureUrl());
+        }
+        db.insertWithOnConflict(TABLE_REMOTE_TASKS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Remove a deleted task
+     */
+    public void deleteRemoteTask(long taskId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.delete(TABLE_REMOTE_TASKS, KEY_RT_ID + " = ?", new String[]{String.valueOf(taskId)});
+    }
+
+    /**
+     * Tasks of a project, as last synced
+     */
+    public List<TaskResponse> getRemoteProjectTasks(long projectId) {
+        return queryRemoteTasks(KEY_RT_PROJECT_ID + " = ?", new String[]{String.valueOf(projectId)});
+    }
+
+    /**
+     * Tasks of several projects, as last synced
+     */
+    public List<TaskResponse> getRemoteTasksForProjects(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return queryRemoteTasks(KEY_RT_PROJECT_ID + " IN " + placeholders(projectIds.size()),
+                toArgs(projectIds));
+    }
+
+    /**
+     * Tasks assigned to a user, as last synced
+     */
+    public List<TaskResponse> getRemoteAssignedTasks(long userId) {
+        return queryRemoteTasks(KEY_RT_ASSIGNEE_ID + " = ?", new String[]{String.valueOf(userId)});
+    }
+
+    /**
+     * Get a mirrored task by its server ID, or null
+     */
+    public TaskResponse getRemoteTask(long taskId) {
+        List<TaskResponse> tasks = queryRemoteTasks(KEY_RT_ID + " = ?", new String[]{String.valueOf(taskId)});
+        return tasks.isEmpty() ? null : tasks.get(0);
+    }
+
+    private List<TaskResponse> queryRemoteTasks(String selection, String[] args) {
+        List<TaskResponse> tasks = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try (Cursor cursor = db.query(TABLE_REMOTE_TASKS, null, selection, args, null, null, KEY_RT_ID)) {
+            while (cursor.moveToNext()) {
+                tasks.add(cursorToRemoteTask(cursor));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return tasks;
+    }
+
+    private TaskResponse cursorToRemoteTask(Cursor cursor) {
+        TaskResponse task = new TaskResponse();
+        task.setId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_RT_ID)));
+        task.setName(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_NAME)));
+        task.setContent(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_CONTENT)));
+        task.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_STATUS)));
+        task.setProjectId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_RT_PROJECT_ID)));
+        task.setProjectName(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_PROJECT_NAME)));
+        task.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_CREATED_AT)));
+        task.setUpdatedAt(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_UPDATED_AT)));
+
+        int assigneeIndex = cursor.getColumnIndexOrThrow(KEY_RT_ASSIGNEE_ID);
+        if (!cursor.isNull(assigneeIndex)) {
+            long assigneeId = cursor.getLong(assigneeIndex);
+            task.setUserId(assigneeId);
+
+            String firstName = cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_ASSIGNEE_FIRST_NAME));
+            String lastName = cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_ASSIGNEE_LAST_NAME));
+            String email = cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_ASSIGNEE_EMAIL));
+            if (firstName != null || lastName != null || email != null) {
+                TaskResponse.Assignee assignee = new TaskResponse.Assignee();
+                assignee.setId(assigneeId);
+                assignee.setFirstName(firstName);
+                assignee.setLastName(lastName);
+                assignee.setEmail(email);
+                assignee.setProfilePictureUrl(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RT_ASSIGNEE_PICTURE)));
+                task.setAssignee(assignee);
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Store the complete member list of a project
+     */
+    public void replaceProjectMembers(long projectId, List<ProjectMemberResponse> members) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_REMOTE_PROJECT_MEMBERS, KEY_RPM_PROJECT_ID + " = ?",
+                    new String[]{String.valueOf(projectId)});
+            for (ProjectMemberResponse member : members) {
+                if (member.getUserId() == null) continue;
+                ContentValues values = new ContentValues();
+                values.put(KEY_RPM_PROJECT_ID, projectId);
+                values.put(KEY_RPM_USER_ID, member.getUserId());
+                values.put(KEY_RPM_FIRST_NAME, member.getFirstName());
+                values.put(KEY_RPM_LAST_NAME, member.getLastName());
+                values.put(KEY_RPM_EMAIL, member.getEmail());
+                values.put(KEY_RPM_PICTURE, member.getProfilePictureUrl());
+                values.put(KEY_RPM_ADDED_AT, member.getAddedAt());
+                db.insertWithOnConflict(TABLE_REMOTE_PROJECT_MEMBERS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                mergeRemoteUser(db, member.getUserId(), member.getFirstName(), member.getLastName(),
+                        member.getEmail(), member.getProfilePictureUrl());
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Members of a project, as last synced
+     */
+    public List<ProjectMemberResponse> getRemoteProjectMembers(long projectId) {
+        List<ProjectMemberResponse> members = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try (Cursor cursor = db.query(TABLE_REMOTE_PROJECT_MEMBERS, null, KEY_RPM_PROJECT_ID + " = ?",
+                new String[]{String.valueOf(projectId)}, null, null, KEY_RPM_ADDED_AT)) {
+            while (cursor.moveToNext()) {
+                ProjectMemberResponse member = new ProjectMemberResponse();
+                member.setProjectId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_RPM_PROJECT_ID)));
+                member.setUserId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_RPM_USER_ID)));
+                member.setFirstName(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RPM_FIRST_NAME)));
+                member.setLastName(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RPM_LAST_NAME)));
+                member.setEmail(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RPM_EMAIL)));
+                member.setProfilePictureUrl(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RPM_PICTURE)));
+                member.setAddedAt(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RPM_ADDED_AT)));
+                members.add(member);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return members;
+    }
+
+    /**
+     * Store users as returned by the backend (e.g. a page of the user list)
+     */
+    public void upsertRemoteUsers(List<UserResponseDto> users) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            for (UserResponseDto user : users) {
+                mergeRemoteUser(db, user.getId(), user.getFirstName(), user.getLastName(),
+                        user.getEmail(), user.getProfilePictureUrl());
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Store a page of the user directory. On the last page of a complete walk,
+     * {@code state} is the directory's new sync state and {@code walkUserIds} the
+     * ids seen on every page of the walk: users no longer listed are removed (their
+     * search rows go with them). Pass null for both on any other page.
+     */
+    public void upsertDirectoryUsers(List<UserResponseDto> users, SyncState state, Set<Long> walkUserIds) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            for (UserResponseDto user : users) {
+                mergeRemoteUser(db, user.getId(), user.getFirstName(), user.getLastName(),
+                        user.getEmail(), user.getProfilePictureUrl());
+            }
+            if (state != null) {
+                List<Long> removed = new ArrayList<>();
+                try (Cursor cursor = db.query(TABLE_REMOTE_USERS, new String[]{KEY_RU_ID},
+                        null, null, null, null, null)) {
+                    while (cursor.moveToNext()) {
+                        long id = cursor.getLong(0);
+                        if (!walkUserIds.contains(id)) {
+                            removed.add(id);
+                        }
+                    }
+                }
+                for (long id : removed) {
+                    db.delete(TABLE_REMOTE_USERS, KEY_RU_ID + " = ?", new String[]{String.valueOf(id)});
+                }
+                saveSyncState(db, USER_DIRECTORY_COLLECTION, state);
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Sync state of the user directory, or null if it was never paged through
+     */
+    public SyncState getUserDirectorySyncState() {
+        return getSyncState(USER_DIRECTORY_COLLECTION);
+    }
+
+    /**
+     * Known users other than {@code excludeUserId}, in directory (id) order
+     */
+    public List<UserResponseDto> getRemoteUsers(long excludeUserId, int limit) {
+        List<UserResponseDto> users = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try (Cursor cursor = db.query(TABLE_REMOTE_USERS, null, KEY_RU_ID + " != ?",
+                new String[]{String.valueOf(excludeUserId)}, null, null, KEY_RU_ID, String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                users.add(cursorToRemoteUser(cursor));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return users;
+    }
+
+    /**
+     * Insert a user, or update the fields given for one already known. Sources
+     * disagree on what they include (an assignee may come without a picture), so
+     * missing fields never erase stored ones.
+     */
+    private void mergeRemoteUser(SQLiteDatabase db, Long userId, String firstName, String lastName,
+                                 String email, String pictureUrl) {
+        if (userId == null) return;
+        ContentValues values = new ContentValues();
+        if (firstName != null) values.put(KEY_RU_FIRST_NAME, firstName);
+        if (lastName != null) values.put(KEY_RU_LAST_NAME, lastName);
+        if (email != null) values.put(KEY_RU_EMAIL, email);
+        if (pictureUrl != null) values.put(KEY_RU_PICTURE, pictureUrl);
+        if (values.size() == 0) return;
+
+        if (db.update(TABLE_REMOTE_USERS, values, KEY_RU_ID + " = ?", new String[]{String.valueOf(userId)}) == 0) {
+            values.put(KEY_RU_ID, userId);
+            db.insertWithOnConflict(TABLE_REMOTE_USERS, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+        }
+    }
+
+    private UserResponseDto cursorToRemoteUser(Cursor cursor) {
+        UserResponseDto user = new UserResponseDto();
+        user.setId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_RU_ID)));
+        user.setFirstName(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RU_FIRST_NAME)));
+        user.setLastName(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RU_LAST_NAME)));
+        user.setEmail(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RU_EMAIL)));
+        user.setProfilePictureUrl(cursor.getString(cursor.getColumnIndexOrThrow(KEY_RU_PICTURE)));
+        return user;
+    }
+
+    // ===================== SEARCH OPERATIONS =====================
+
+    /**
+     * Mirrored projects whose name or description contain words starting with the
+     * words of {@code text}, best match first
+     */
+    public List<SearchHit<ProjectResponse>> searchProjects(String text, int limit) {
+        return search(TABLE_SEARCH_PROJECTS, TABLE_REMOTE_PROJECTS, KEY_RP_ID, text, limit,
+                this::cursorToRemoteProject);
+    }
+
+    /**
+     * Mirrored tasks whose name or content match {@code text}, best match first
+     */
+    public List<SearchHit<TaskResponse>> searchTasks(String text, int limit) {
+        return search(TABLE_SEARCH_TASKS, TABLE_REMOTE_TASKS, KEY_RT_ID, text, limit,
+                this::cursorToRemoteTask);
+    }
+
+    /**
+     * Known users whose name or e-mail match {@code text}, best match first
+     */
+    public List<SearchHit<UserResponseDto>> searchUsers(String text, int limit) {
+        return search(TABLE_SEARCH_USERS, TABLE_REMOTE_USERS, KEY_RU_ID, text, limit,
+                this::cursorToRemoteUser);
+    }
+
+    /**
+     * Rank the matches of one search table, then load the best {@code limit} rows of
+     * its source table with their marked title and detail.
+     */
+    private <T> List<SearchHit<T>> search(String table, String source, String idColumn, String text, int limit,
+                                          Function<Cursor, T> mapper) {
+        List<SearchHit<T>> hits = new ArrayList<>();
+        String match = SearchQuery.toMatchExpression(text);
+        if (match == null || limit <= 0) {
+            return hits;
+        }
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Ranking reads only the index, not the rows
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Double> scores = new HashMap<>();
+        try (Cursor cursor = db.rawQuery("SELECT docid, matchinfo(" + table + ", 'pcx') FROM " + table
+                + " WHERE " + table + " MATCH ? LIMIT " + MAX_SEARCH_CANDIDATES, new String[]{match})) {
+            while (cursor.moveToNext()) {
+                long id = cursor.getLong(0);
+                scores.put(id, SearchQuery.score(cursor.getBlob(1), SEARCH_WEIGHTS));
+                ids.add(id);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return hits;
+        }
+        if (ids.isEmpty()) {
+            return hits;
+        }
+        // Best score first, newest (highest id) first among equals
+        ids.sort((a, b) -> {
+            int byScore = Double.compare(scores.get(b), scores.get(a));
+            return byScore != 0 ? byScore : Long.compare(b, a);
+        });
+        if (ids.size() > limit) {
+            ids = ids.subList(0, limit);
+        }
+
+        String start = String.valueOf(SearchHit.MATCH_START);
+        String end = String.valueOf(SearchHit.MATCH_END);
+        String[] idArgs = toArgs(ids);
+        String[] args = new String[6 + idArgs.length];
+        args[0] = start;
+        args[1] = end;
+        args[2] = start;
+        args[3] = end;
+        args[4] = "\u2026";
+        args[5] = match;
+        System.arraycopy(idArgs, 0, args, 6, idArgs.length);
+
+        Map<Long, SearchHit<T>> byId = new HashMap<>();
+        try (Cursor cursor = db.rawQuery("SELECT s.*,"
+                        + " snippet(" + table + ", ?, ?, '', 0, 64) AS hit_title,"
+                        + " snippet(" + table + ", ?, ?, ?, 1, " + SEARCH_SNIPPET_WORDS + ") AS hit_detail"
+                        + " FROM " + table + " INNER JOIN " + source + " s ON s." + idColumn + " = " + table + ".docid"
+                        + " WHERE " + table + " MATCH ? AND " + table + ".docid IN " + placeholders(idArgs.length),
+                args)) {
+            while (cursor.moveToNext()) {
+                long id = cursor.getLong(cursor.getColumnIndexOrThrow(idColumn));
+                String detail = cursor.getString(cursor.getColumnIndexOrThrow("hit_detail"));
+                byId.put(id, new SearchHit<>(mapper.apply(cursor), scores.get(id),
+                        cursor.getString(cursor.getColumnIndexOrThrow("hit_title")),
+                        detail == null || detail.isEmpty() ? null : detail));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return hits;
+        }
+
+        for (Long id : ids) {
+            SearchHit<T> hit = byId.get(id);
+            if (hit != null) hits.add(hit);
+        }
+        return hits;
+    }
+
+    // ===================== STATS OPERATIONS =====================
+
+    /**
+     * Task counts of a project
+     */
+    public TaskCounts getProjectTaskCounts(long projectId) {
+        return getTaskCounts(SCOPE_PROJECT_TASKS, Collections.singletonList(projectId));
+    }
+
+    /**
+     * Task counts of several projects together (e.g. all projects of a user)
+     */
+    public TaskCounts getTaskCountsForProjects(Collection<Long> projectIds) {
+        return getTaskCounts(SCOPE_PROJECT_TASKS, projectIds);
+    }
+
+    /**
+     * Counts of the tasks assigned to a user
+     */
+    public TaskCounts getAssignedTaskCounts(long userId) {
+        return getTaskCounts(SCOPE_ASSIGNED_TASKS, Collections.singletonList(userId));
+    }
+
+    /**
+     * Profile counters of a user
+     */
+    public UserStats getUserStats(long userId) {
+        return new UserStats(
+                getTaskCounts(SCOPE_OWNED_PROJECTS, Collections.singletonList(userId)).getTotal(),
+                getTaskCounts(SCOPE_MEMBER_PROJECTS, Collections.singletonList(userId)).getTotal(),
+                getAssignedTaskCounts(userId));
+    }
+
+    private TaskCounts getTaskCounts(String scope, Collection<Long> scopeIds) {
+        if (scopeIds.isEmpty()) {
+            return TaskCounts.EMPTY;
+        }
+        SQLiteDatabase db = this.getReadableDatabase();
+        String[] ids = toArgs(scopeIds);
+        String[] args = new String[ids.length + 1];
+        args[0] = scope;
+        System.arraycopy(ids, 0, args, 1, ids.length);
+
+        try (Cursor cursor = db.rawQuery("SELECT SUM(" + KEY_RS_TOTAL + "), SUM(" + KEY_RS_TODO + "),"
+                        + " SUM(" + KEY_RS_IN_PROGRESS + "), SUM(" + KEY_RS_DONE + ")"
+                        + " FROM " + TABLE_REMOTE_STATS
+                        + " WHERE " + KEY_RS_SCOPE + " = ? AND " + KEY_RS_SCOPE_ID + " IN " + placeholders(ids.length),
+                args)) {
+            if (cursor.moveToFirst()) {
+                return new TaskCounts(cursor.getInt(0), cursor.getInt(1), cursor.getInt(2), cursor.getInt(3));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return TaskCounts.EMPTY;
+    }
+
+    // ===================== OUTBOX OPERATIONS =====================
+
+    /**
+     * Queue a write behind those already waiting. Rows of the same user and target
+     * whose kind is in {@code supersededKinds} are dropped first, e.g. earlier status
+     * changes of a task, except row {@code keepId} which is being sent.
+     *
+     * @return the id of the new row, or -1 if it couldn't be stored
+     */
+    public long insertOutboxMutation(OutboxMutation mutation, Collection<OutboxMutation.Kind> supersededKinds,
+                                     long keepId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        long id = -1;
+
+        db.beginTransaction();
+        try {
+            for (OutboxMutation.Kind kind : supersededKinds) {
+                db.delete(TABLE_OUTBOX, KEY_OB_USER_ID + " = ? AND " + KEY_OB_KIND + " = ? AND "
+                                + KEY_OB_TARGET_ID + " = ? AND " + KEY_OB_ID + " != ?",
+                        new String[]{String.valueOf(mutation.getUserId()), kind.name(),
+                                String.valueOf(mutation.getTargetId()), String.valueOf(keepId)});
+            }
+
+            ContentValues values = new ContentValues();
+            values.put(KEY_OB_USER_ID, mutation.getUserId());
+            values.put(KEY_OB_KIND, mutation.getKind().name());
+            values.put(KEY_OB_TARGET_ID, mutation.getTargetId());
+            values.put(KEY_OB_PAYLOAD, mutation.getPayload());
+            values.put(KEY_OB_IDEMPOTENCY_KEY, mutation.getIdempotencyKey());
+            values.put(KEY_OB_CREATED_AT, mutation.getCreatedAt());
+            id = db.insertOrThrow(TABLE_OUTBOX, null, values);
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            e.printStackTrace();
+            id = -1;
+        } finally {
+            db.endTransaction();
+        }
+
+        return id;
+    }
+
+    /**
+     * The oldest write of a user to send, or null if none; writes awaiting the user's
+     * confirmation are skipped
+     */
+    public OutboxMutation getNextOutboxMutation(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try (Cursor cursor = db.query(TABLE_OUTBOX, null,
+                KEY_OB_USER_ID + " = ? AND " + KEY_OB_AWAITING_CONFIRMATION + " = 0",
+                new String[]{String.valueOf(userId)}, null, null, KEY_OB_ID, "1")) {
+            if (cursor.moveToFirst()) {
+                return cursorToOutboxMutation(cursor);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Every write of a user still waiting, oldest first
+     */
+    public List<OutboxMutation> getOutboxMutations(long userId) {
+        List<OutboxMutation> mutations = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try (Cursor cursor = db.query(TABLE_OUTBOX, null, KEY_OB_USER_ID + " = ?",
+                new String[]{String.valueOf(userId)}, null, null, KEY_OB_ID)) {
+            while (cursor.moveToNext()) {
+                mutations.add(cursorToOutboxMutation(cursor));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return mutations;
+    }
+
+    /**
+     * Note a failed attempt at sending a write, which stays queued
+     */
+    public void recordOutboxAttempt(long id, String error) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.execSQL("UPDATE " + TABLE_OUTBOX + " SET " + KEY_OB_ATTEMPTS + " = " + KEY_OB_ATTEMPTS + " + 1, "
+                + KEY_OB_LAST_ERROR + " = ? WHERE " + KEY_OB_ID + " = ?", new Object[]{error, id});
+    }
+
+    /**
+     * Note a failed attempt at a write the backend may have applied anyway: it is
+     * not sent again until {@link #confirmOutboxMutation} is called
+     */
+    public void holdOutboxMutationForConfirmation(long id, String error) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.execSQL("UPDATE " + TABLE_OUTBOX + " SET " + KEY_OB_ATTEMPTS + " = " + KEY_OB_ATTEMPTS + " + 1, "
+                + KEY_OB_LAST_ERROR + " = ?, " + KEY_OB_AWAITING_CONFIRMATION + " = 1 WHERE " + KEY_OB_ID + " = ?",
+                new Object[]{error, id});
+    }
+
+    /**
+     * Let a write held for confirmation be sent again
+     */
+    public void confirmOutboxMutation(long id) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put(KEY_OB_AWAITING_CONFIRMATION, 0);
+        db.update(TABLE_OUTBOX, values, KEY_OB_ID + " = ?", new String[]{String.valueOf(id)});
+    }
+
+    /**
+     * Remove a write once it was applied, or rejected for good
+     */
+    public void deleteOutboxMutation(long id) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.delete(TABLE_OUTBOX, KEY_OB_ID + " = ?", new String[]{String.valueOf(id)});
+    }
+
+    private OutboxMutation cursorToOutboxMutation(Cursor cursor) {
+        OutboxMutation mutation = new OutboxMutation();
+        mutation.setId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_OB_ID)));
+        mutation.setUserId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_OB_USER_ID)));
+        mutation.setKind(OutboxMutation.Kind.valueOf(cursor.getString(cursor.getColumnIndexOrThrow(KEY_OB_KIND))));
+        mutation.setTargetId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_OB_TARGET_ID)));
+        mutation.setPayload(cursor.getString(cursor.getColumnIndexOrThrow(KEY_OB_PAYLOAD)));
+        mutation.setIdempotencyKey(cursor.getString(cursor.getColumnIndexOrThrow(KEY_OB_IDEMPOTENCY_KEY)));
+        mutation.setAttempts(cursor.getInt(cursor.getColumnIndexOrThrow(KEY_OB_ATTEMPTS)));
+        mutation.setCreatedAt(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_OB_CREATED_AT)));
+        mutation.setLastError(cursor.getString(cursor.getColumnIndexOrThrow(KEY_OB_LAST_ERROR)));
+        mutation.setAwaitingConfirmation(
+                cursor.getInt(cursor.getColumnIndexOrThrow(KEY_OB_AWAITING_CONFIRMATION)) == 1);
+        return mutation;
+    }
+
+    /**
+     * Drop all mirrored backend data (logout)
+     */
+    public void clearRemoteMirror() {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_REMOTE_TASKS, null, null);
+            db.delete(TABLE_REMOTE_PROJECT_MEMBERS, null, null);
+            db.delete(TABLE_REMOTE_MEMBER_PROJECTS, null, null);
+            db.delete(TABLE_REMOTE_PROJECTS, null, null);
+            db.delete(TABLE_SYNC_STATE, null, null);
+            db.delete(TABLE_REMOTE_STATS, null, null);
+            db.delete(TABLE_REMOTE_USERS, null, null);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * "(?,?,?)" for an IN clause
+     */
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.append(')').toString();
+    }
+
+    private static String[] toArgs(Collection<Long> ids) {
+        String[] args = new String[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            args[i++] = String.valueOf(id);
+        }
+        return args;
+    }
 }
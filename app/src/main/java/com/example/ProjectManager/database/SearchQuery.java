@@ -0,0 +1,64 @@
+package com.example.ProjectManager.database;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+
+/**
+ * Builds the MATCH expressions sent to the full-text search tables and ranks
+ * their answers.
+ *
+ * User text is split into words of letters and digits, each turned into a prefix
+ * query, so "des sp" finds "Design sprint". Anything else the user types
+ * (quotes, dashes, '*', operators) only separates words and can never form FTS
+ * query syntax.
+ */
+public final class SearchQuery {
+
+    private SearchQuery() {
+    }
+
+    /**
+     * The MATCH expression for {@code text}: every word as a prefix, all required.
+     * Null when the text has no word to search for.
+     */
+    public static String toMatchExpression(String text) {
+        if (text == null) return null;
+        StringBuilder match = new StringBuilder();
+        // Lower case keeps words such as "OR" and "NEAR" from being read as operators
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append(word).append('*');
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * Relevance of one row from its {@code matchinfo(table, 'pcx')} blob: for every
+     * phrase and column, the share of all hits of that phrase found in this row,
+     * multiplied by the column's weight. Rare words matched in a heavy column count
+     * most. Columns without a weight count as 1.
+     */
+    public static double score(byte[] matchinfo, double[] weights) {
+        if (matchinfo == null || matchinfo.length < 8) return 0;
+        ByteBuffer buffer = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder());
+        int phrases = buffer.getInt(0);
+        int columns = buffer.getInt(4);
+        if (matchinfo.length < 4 * (2 + 3 * phrases * columns)) return 0;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int at = 4 * (2 + 3 * (phrase * columns + column));
+                int hitsInRow = buffer.getInt(at);
+                int hitsInAllRows = buffer.getInt(at + 4);
+                if (hitsInRow > 0 && hitsInAllRows > 0) {
+                    double weight = column < weights.length ? weights[column] : 1;
+                    score += weight * hitsInRow / hitsInAllRows;
+                }
+            }
+        }
+        return score;
+    }
+}
@@ -5,44 +5,32 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.EditText;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.ProjectManager.R;
-import com.example.ProjectManager.adapters.MemberAdapter;
-import com.example.ProjectManager.api.ApiService;
-import com.example.ProjectManager.api.RetrofitClient;
 import com.example.ProjectManager.models.Member;
-import com.example.ProjectManager.models.dto.PageResponse;
-import com.example.ProjectManager.models.dto.UserResponseDto;
-import com.example.ProjectManager.utils.SharedPrefsManager;
+import com.example.ProjectManager.utils.MemberPicker;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class AddMemberBottomSheet extends BottomSheetDialogFragment {
 
     private static final String ARG_PRE_SELECTED_MEMBERS = "pre_selected_members";
 
     private RecyclerView rvMembers;
+    private EditText etMemberSearch;
     private Button btnCancel;
     private Button btnSelect;
-    private MemberAdapter memberAdapter;
+    private MemberPicker memberPicker;
     private OnMembersSelectedListener listener;
     private List<Member> preSelectedMembers;
-    private ApiService apiService;
-
-    private long currentUserId;
 
     public interface OnMembersSelectedListener {
         void onMembersSelected(List<Member> selectedMembers);
@@ -67,10 +55,6 @@ public class AddMemberBottomSheet extends BottomSheetDialogFragment {
         if (preSelectedMembers == null) {
             preSelectedMembers = new ArrayList<>();
         }
-
-        currentUserId = SharedPrefsManager
-                .getInstance(requireContext())
-                .getUserId();
     }
 
     @Nullable
@@ -88,23 +72,26 @@ public class AddMemberBottomSheet extends BottomSheetDialogFragment {
         super.onViewCreated(view, savedInstanceState);
 
         initViews(view);
-        setupRecyclerView();
+        setupMemberPicker();
         setupButtonListeners();
-        loadMembers();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        memberPicker.release();
     }
 
     private void initViews(View view) {
         rvMembers = view.findViewById(R.id.rv_members);
+        etMemberSearch = view.findViewById(R.id.et_member_search);
         btnCancel = view.findViewById(R.id.btn_cancel);
         btnSelect = view.findViewById(R.id.btn_select);
     }
 
-    private void setupRecyclerView() {
-        memberAdapter = new MemberAdapter();
-        memberAdapter.setMultiSelectEnabled(true);
-
-        rvMembers.setLayoutManager(new LinearLayoutManager(getContext()));
-        rvMembers.setAdapter(memberAdapter);
+    private void setupMemberPicker() {
+        memberPicker = new MemberPicker(requireContext(), rvMembers, etMemberSearch, preSelectedMembers);
+        memberPicker.start();
     }
 
     private void setupButtonListeners() {
@@ -112,7 +99,7 @@ public class AddMemberBottomSheet extends BottomSheetDialogFragment {
         btnCancel.setOnClickListener(v -> dismiss());
 
         btnSelect.setOnClickListener(v -> {
-            List<Member> selectedMembers = memberAdapter.getSelectedMembers();
+            List<Member> selectedMembers = memberPicker.getSelectedMembers();
 
             if (selectedMembers.isEmpty()) {
                 Toast.makeText(
@@ -130,79 +117,6 @@ public class AddMemberBottomSheet extends BottomSheetDialogFragment {
         });
     }
 
-    private void loadMembers() {
-        if (apiService == null && getContext() != null) {
-            apiService = RetrofitClient
-                    .getInstance(getContext())
-                    .create(ApiService.class);
-        }
-
-        btnSelect.setEnabled(false);
-        btnSelect.setText("Loading...");
-
-        Call<PageResponse<UserResponseDto>> call = apiService.getUsers(0, 50);
-        call.enqueue(new Callback<PageResponse<UserResponseDto>>() {
-
-            @Override
-            public void onResponse(
-                    Call<PageResponse<UserResponseDto>> call,
-                    Response<PageResponse<UserResponseDto>> response) {
-
-                btnSelect.setEnabled(true);
-                btnSelect.setText(R.string.select);
-
-                if (response.isSuccessful() && response.body() != null) {
-                    List<Member> members = new ArrayList<>();
-
-                    for (UserResponseDto user : response.body().getContent()) {
-                        if (user.getId() == currentUserId) {
-                            continue; // ❌ ne pas afficher moi-même
-                        }
-
-                        String fullName = user.getFirstName();
-                        if (user.getLastName() != null) {
-                            fullName += " " + user.getLastName();
-                        }
-
-                        members.add(new Member(
-                                user.getId(),
-                                fullName,
-                                user.getEmail()
-                        ));
-                    }
-
-                    memberAdapter.setMembers(members);
-
-                    if (!preSelectedMembers.isEmpty()) {
-                        memberAdapter.setPreSelectedMembers(preSelectedMembers);
-                    }
-
-                } else {
-                    Toast.makeText(
-                            getContext(),
-                            "Failed to load users",
-                            Toast.LENGTH_SHORT
-                    ).show();
-                }
-            }
-
-            @Override
-            public void onFailure(
-                    Call<PageResponse<UserResponseDto>> call,
-                    Throwable t) {
-
-                btnSelect.setEnabled(true);
-                btnSelect.setText(R.string.select);
-
-                Toast.makeText(
-                        getContext(),
-                        "Network error",
-                        Toast.LENGTH_SHORT
-                ).show();
-            }
-        });
-    }
-
     public void setOnMembersSelectedListener(OnMembersSelectedListener listener) {
         this.listener = listener;
     }
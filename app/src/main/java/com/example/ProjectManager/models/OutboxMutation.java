@@ -0,0 +1,134 @@
+package com.example.ProjectManager.models;
+
+/**
+ * A write made while it couldn't reach the backend (or before it did), waiting in
+ * the outbox table to be sent. Rows are sent in id order, each with its own
+ * idempotency key. The backend doesn't honour the key, so a create whose attempt
+ * may have been applied waits for the user to confirm it before it is sent again.
+ */
+public class OutboxMutation {
+
+    /**
+     * What the row does; the payload and target depend on it.
+     */
+    public enum Kind {
+        /** Payload: the CreateTaskRequest, as JSON. */
+        CREATE_TASK,
+        /** Target: the task; payload: the new status. */
+        UPDATE_TASK_STATUS,
+        /** Target: the task. */
+        DELETE_TASK,
+        /** Payload: the CreateProjectRequest and the ids of the members to add, as JSON. */
+        CREATE_PROJECT,
+        /** Target: the project; payload: the user id. */
+        ADD_MEMBER
+    }
+
+    private long id;
+    // User who made the change; only their session sends it
+    private long userId;
+    private Kind kind;
+    private long targetId;
+    private String payload;
+    private String idempotencyKey;
+    private int attempts;
+    private long createdAt;
+    private String lastError;
+    // A create that may already exist: not sent again until the user confirms it
+    private boolean awaitingConfirmation;
+
+    // Default constructor
+    public OutboxMutation() {
+    }
+
+    public OutboxMutation(long userId, Kind kind, long targetId, String payload, String idempotencyKey,
+                          long createdAt) {
+        this.userId = userId;
+        this.kind = kind;
+        this.targetId = targetId;
+        this.payload = payload;
+        this.idempotencyKey = idempotencyKey;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(long targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public boolean isAwaitingConfirmation() {
+        return awaitingConfirmation;
+    }
+
+    public void setAwaitingConfirmation(boolean awaitingConfirmation) {
+        this.awaitingConfirmation = awaitingConfirmation;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ProjectManager.models;
+
+/**
+ * One result of a local full-text search: the matched item, its relevance and
+ * its title and detail text with the matched words wrapped in
+ * {@link #MATCH_START} / {@link #MATCH_END} (see
+ * {@link com.example.ProjectManager.utils.HighlightUtils}).
+ *
+ * @param <T> matched item type
+ */
+public class SearchHit<T> {
+
+    public static final char MATCH_START = '\u0002';
+    public static final char MATCH_END = '\u0003';
+
+    private final T item;
+    private final double score;
+    private final String title;
+    private final String detail;
+
+    public SearchHit(T item, double score, String title, String detail) {
+        this.item = item;
+        this.score = score;
+        this.title = title;
+        this.detail = detail;
+    }
+
+    // Getters
+    public T getItem() {
+        return item;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Title with the matched words marked
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Excerpt of the description (or e-mail) around the matched words, marked; null when empty
+     */
+    public String getDetail() {
+        return detail;
+    }
+}
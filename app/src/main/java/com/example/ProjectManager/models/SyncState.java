@@ -0,0 +1,52 @@
+package com.example.ProjectManager.models;
+
+/**
+ * Sync bookkeeping of one locally mirrored collection (e.g. the tasks of a project).
+ * Stored in the sync_state table next to the mirrored rows.
+ */
+public class SyncState {
+
+    // Newest updatedAt applied locally; null until the first full sync
+    private String highWaterMark;
+    // When the collection was last downloaded completely (epoch millis); downloads made
+    // because deltas are unsupported keep the time of the last periodic resync
+    private long lastFullSyncAt;
+    // False once the server answered a delta request with unchanged rows, until the
+    // next periodic full resync
+    private boolean deltaSupported = true;
+
+    // Default constructor
+    public SyncState() {
+    }
+
+    public SyncState(String highWaterMark, long lastFullSyncAt, boolean deltaSupported) {
+        this.highWaterMark = highWaterMark;
+        this.lastFullSyncAt = lastFullSyncAt;
+        this.deltaSupported = deltaSupported;
+    }
+
+    // Getters and Setters
+    public String getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public void setHighWaterMark(String highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+
+    public long getLastFullSyncAt() {
+        return lastFullSyncAt;
+    }
+
+    public void setLastFullSyncAt(long lastFullSyncAt) {
+        this.lastFullSyncAt = lastFullSyncAt;
+    }
+
+    public boolean isDeltaSupported() {
+        return deltaSupported;
+    }
+
+    public void setDeltaSupported(boolean deltaSupported) {
+        this.deltaSupported = deltaSupported;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ProjectManager.models;
+
+/**
+ * Task counts per status of one scope (a project, the tasks assigned to a user,
+ * or several projects together), read from the counters kept by
+ * {@link com.example.ProjectManager.database.ProjectDatabaseHelper}.
+ */
+public class TaskCounts {
+
+    public static final TaskCounts EMPTY = new TaskCounts(0, 0, 0, 0);
+
+    private final int total;
+    private final int todo;
+    private final int inProgress;
+    private final int done;
+
+    public TaskCounts(int total, int todo, int inProgress, int done) {
+        this.total = total;
+        this.todo = todo;
+        this.inProgress = inProgress;
+        this.done = done;
+    }
+
+    // Getters
+    public int getTotal() {
+        return total;
+    }
+
+    public int getTodo() {
+        return todo;
+    }
+
+    public int getInProgress() {
+        return inProgress;
+    }
+
+    public int getDone() {
+        return done;
+    }
+
+    /**
+     * Share of done tasks, 0-100 (0 when there are no tasks)
+     */
+    public int getCompletionPercent() {
+        return total > 0 ? done * 100 / total : 0;
+    }
+}
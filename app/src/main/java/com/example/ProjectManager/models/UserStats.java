@@ -0,0 +1,34 @@
+package com.example.ProjectManager.models;
+
+/**
+ * Profile counters of a user: projects owned and joined, and the tasks assigned to them.
+ */
+public class UserStats {
+
+    private final int ownedProjects;
+    private final int memberProjects;
+    private final TaskCounts assignedTasks;
+
+    public UserStats(int ownedProjects, int memberProjects, TaskCounts assignedTasks) {
+        this.ownedProjects = ownedProjects;
+        this.memberProjects = memberProjects;
+        this.assignedTasks = assignedTasks;
+    }
+
+    // Getters
+    public int getOwnedProjects() {
+        return ownedProjects;
+    }
+
+    public int getMemberProjects() {
+        return memberProjects;
+    }
+
+    public int getProjectCount() {
+        return ownedProjects + memberProjects;
+    }
+
+    public TaskCounts getAssignedTasks() {
+        return assignedTasks;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.ProjectManager.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.utils.SharedPrefsManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * The logged in user's profile, shared by every screen that shows it.
+ *
+ * The profile is kept in memory and in {@link SharedPrefsManager}, so a launch
+ * starts from the last known copy. It is read from the backend again at most once
+ * per {@link #FRESHNESS_MS}, and only while a screen observes it. Changes made
+ * through the app (profile edits, picture uploads) are applied to it directly from
+ * the mutation's response instead of being fetched again.
+ *
+ * Must be used from the main thread (Retrofit delivers callbacks there).
+ */
+public final class CurrentUserStore {
+
+    private static final String TAG = "CurrentUserStore";
+
+    // How long a profile read from the backend is used before reading it again
+    private static final long FRESHNESS_MS = 10 * 60_000;
+
+    /**
+     * Receives the profile on the main thread: the known copy when observing starts,
+     * then every change.
+     */
+    public interface Observer {
+        void onUserChanged(@NonNull UserResponseDto user);
+    }
+
+    /**
+     * Handle on an observer; cancel it when the screen goes away.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private static CurrentUserStore instance;
+
+    private final ApiService apiService;
+    private final SharedPrefsManager prefs;
+    private final UserResolver userResolver;
+    private final List<Observer> observers = new ArrayList<>();
+
+    private UserResponseDto user;
+    private Call<UserResponseDto> inFlight;
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized CurrentUserStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new CurrentUserStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private CurrentUserStore(Context context) {
+        apiService = RetrofitClient.getInstance(context).create(ApiService.class);
+        prefs = SharedPrefsManager.getInstance(context);
+        userResolver = UserResolver.getInstance(context);
+    }
+
+    /**
+     * The logged in user as last known, or null when nobody is logged in.
+     */
+    @Nullable
+    public UserResponseDto get() {
+        long userId = prefs.getUserId();
+        if (userId <= 0) {
+            user = null;
+        } else if (user == null || user.getId() == null || user.getId() != userId) {
+            // First use since launch, or another account logged in meanwhile
+            user = new UserResponseDto(userId, prefs.getUserFirstName(), prefs.getUserLastName(),
+                    prefs.getUserEmail());
+            user.setProfilePictureUrl(prefs.getUserPictureUrl());
+        }
+        return user;
+    }
+
+    /**
+     * Deliver the profile to {@code observer} now and on every change, and read it
+     * from the backend if the known copy is stale.
+     */
+    @NonNull
+    public Subscription observe(@NonNull Observer observer) {
+        observers.add(observer);
+        UserResponseDto current = get();
+        if (current != null) {
+            observer.onUserChanged(current);
+            refreshIfStale();
+        }
+        return () -> observers.remove(observer);
+    }
+
+    /**
+     * Read the profile from the backend unless it was read within the freshness
+     * window; a read already on the wire is not repeated.
+     */
+    public void refreshIfStale() {
+        if (get() == null || inFlight != null) return;
+        long age = System.currentTimeMillis() - prefs.getUserProfileSyncedAt();
+        if (age >= 0 && age < FRESHNESS_MS) return;
+
+        long userId = prefs.getUserId();
+        Call<UserResponseDto> call = apiService.getUser(userId);
+        inFlight = call;
+        call.enqueue(new Callback<UserResponseDto>() {
+            @Override
+            public void onResponse(@NonNull Call<UserResponseDto> call, @NonNull Response<UserResponseDto> response) {
+                inFlight = null;
+                // Dropped if the session changed meanwhile
+                if (response.isSuccessful() && response.body() != null && prefs.getUserId() == userId) {
+                    update(response.body());
+                } else if (!response.isSuccessful()) {
+                    Log.w(TAG, "Failed to refresh user " + userId + ": " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<UserResponseDto> call, @NonNull Throwable t) {
+                inFlight = null;
+                // The known copy stays; the next observer tries again
+                Log.w(TAG, "Failed to refresh user " + userId, t);
+            }
+        });
+    }
+
+    /**
+     * Replace the profile with one returned by the backend (a read, a profile edit
+     * or a picture upload).
+     */
+    public void update(@NonNull UserResponseDto updated) {
+        if (updated.getId() == null || updated.getId() != prefs.getUserId()) {
+            return;
+        }
+        user = updated;
+        prefs.saveUserProfile(updated.getEmail(), updated.getFirstName(), updated.getLastName(),
+                updated.getProfilePictureUrl(), System.currentTimeMillis());
+        userResolver.put(updated);
+        notifyObservers();
+    }
+
+    /**
+     * Change only the profile picture, e.g. after it was removed.
+     */
+    public void setProfilePictureUrl(@Nullable String pictureUrl) {
+        UserResponseDto current = get();
+        if (current == null) return;
+        UserResponseDto patched = new UserResponseDto(current.getId(), current.getFirstName(),
+                current.getLastName(), current.getEmail());
+        patched.setProfilePictureUrl(pictureUrl);
+        user = patched;
+        prefs.saveUserProfile(patched.getEmail(), patched.getFirstName(), patched.getLastName(),
+                pictureUrl, prefs.getUserProfileSyncedAt());
+        userResolver.put(patched);
+        notifyObservers();
+    }
+
+    /**
+     * Forget the profile on logout; the preferences are cleared by the caller.
+     */
+    public void clear() {
+        user = null;
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+
+    private void notifyObservers() {
+        // Observers may unsubscribe while being notified
+        for (Observer observer : new ArrayList<>(observers)) {
+            observer.onUserChanged(user);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.ProjectManager.repository;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.models.TaskCounts;
+import com.example.ProjectManager.models.dto.PageResponse;
+import com.example.ProjectManager.models.dto.ProjectResponse;
+import com.example.ProjectManager.models.dto.TaskResponse;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Loads the dashboard of one user, one card at a time.
+ *
+ * The project fetch, the task fetch and the local reads of both all start at
+ * once; each card is handed to the {@link Listener} as soon as the data it needs
+ * is in, so the dashboard takes as long as its slowest request rather than the
+ * sum of them. Tasks don't wait for the projects: until their names are known
+ * they go out without them, and again once the projects arrive.
+ *
+ * When each card first had content is recorded, see {@link #getReadyTime(Card)}.
+ * One instance per load; must be used from the main thread.
+ */
+public final class DashboardComposer {
+
+    private static final String TAG = "DashboardComposer";
+
+    // Upcoming tasks are taken from the first page only
+    private static final int TASK_PAGE_SIZE = 100;
+
+    /**
+     * The dashboard's cards, in the order they appear.
+     */
+    public enum Card {
+        /** Project and task totals: needs the projects and the task counters. */
+        STATS,
+        /** Completion and per-status counters. */
+        PROGRESS,
+        RECENT_PROJECTS,
+        UPCOMING_TASKS
+    }
+
+    /**
+     * Receives the cards' data on the main thread, possibly several times each:
+     * the local copy first, then the network's. Not called after {@link #cancel()}.
+     */
+    public interface Listener {
+        void onProjects(@NonNull ProjectRepository.ProjectSet projects);
+
+        void onTaskCounts(@NonNull TaskCounts counts);
+
+        /**
+         * @param projectNames names of the projects known so far, by id; tasks of
+         *                     other projects are delivered again once it fills in
+         */
+        void onTasks(@NonNull List<TaskResponse> tasks, @NonNull Map<Long, String> projectNames);
+
+        /**
+         * The task fetch failed; the dashboard shows the last synced tasks.
+         */
+        default void onTasksFailed() {
+        }
+
+        /**
+         * Every card has had content once.
+         */
+        default void onAllCardsReady() {
+        }
+    }
+
+    private final ApiService apiService;
+    private final OfflineStore offlineStore;
+    private final ProjectRepository projectRepository;
+    private final long userId;
+    private final Listener listener;
+
+    private final Map<Card, Long> readyTimes = new EnumMap<>(Card.class);
+    private final Map<Long, String> projectNames = new HashMap<>();
+    private long startedAt;
+    private boolean cancelled;
+
+    private boolean projectsShown;
+    private boolean countsShown;
+    // Tasks currently shown, to deliver again once their project names are in
+    private List<TaskResponse> shownTasks;
+    // Set once the network returned tasks, so a late local read doesn't overwrite them
+    private boolean networkTasksShown;
+    // The network failed: the local copy is shown even when it is empty
+    private boolean localTasksAsFallback;
+    private List<TaskResponse> localTasks;
+
+    public DashboardComposer(@NonNull Context context, long userId, @NonNull Listener listener) {
+        this.apiService = RetrofitClient.getInstance(context).create(ApiService.class);
+        this.offlineStore = OfflineStore.getInstance(context);
+        this.projectRepository = ProjectRepository.getInstance(context);
+        this.userId = userId;
+        this.listener = listener;
+    }
+
+    /**
+     * Start every request and local read of the dashboard.
+     */
+    public void start() {
+        startedAt = SystemClock.elapsedRealtime();
+        loadProjects();
+        loadTasks();
+        loadLocalTasks();
+        loadTaskCounts();
+    }
+
+    /**
+     * Stop delivering; requests already sent still complete and store their result.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Milliseconds from {@link #start()} until {@code card} first had content, or -1
+     * if it has none yet.
+     */
+    public long getReadyTime(@NonNull Card card) {
+        Long time = readyTimes.get(card);
+        return time != null ? time : -1;
+    }
+
+    @NonNull
+    public String dump() {
+        StringBuilder builder = new StringBuilder("Dashboard cards ready after:");
+        for (Card card : Card.values()) {
+            builder.append(' ').append(card).append('=').append(getReadyTime(card)).append("ms");
+        }
+        return builder.toString();
+    }
+
+    private void loadProjects() {
+        projectRepository.getProjects(userId, new ProjectRepository.ProjectsCallback() {
+            @Override
+            public void onLocalProjectsLoaded(@NonNull ProjectRepository.ProjectSet projects) {
+                showProjects(projects);
+            }
+
+            @Override
+            public void onProjectsLoaded(@NonNull ProjectRepository.ProjectSet projects) {
+                showProjects(projects);
+            }
+        });
+    }
+
+    private void showProjects(ProjectRepository.ProjectSet projects) {
+        if (cancelled) return;
+        boolean namesChanged = false;
+        for (ProjectResponse project : projects.getAll()) {
+            String previous = projectNames.put(project.getId(), project.getName());
+            namesChanged |= !Objects.equals(previous, project.getName());
+        }
+        projectsShown = true;
+        listener.onProjects(projects);
+        markReady(Card.RECENT_PROJECTS);
+        if (countsShown) {
+            markReady(Card.STATS);
+        }
+        if (namesChanged && shownTasks != null) {
+            deliverTasks(shownTasks);
+        }
+    }
+
+    private void loadTasks() {
+        apiService.getAllTasks(0, TASK_PAGE_SIZE, userId, null, null).enqueue(new Callback<PageResponse<TaskResponse>>() {
+            @Override
+            public void onResponse(@NonNull Call<PageResponse<TaskResponse>> call,
+                                   @NonNull Response<PageResponse<TaskResponse>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().getContent() != null) {
+                    List<TaskResponse> tasks = response.body().getContent();
+                    if (response.body().isLast()) {
+                        offlineStore.execute(db -> db.replaceAssignedTasks(userId, tasks));
+                    } else {
+                        offlineStore.execute(db -> db.upsertRemoteTasks(tasks));
+                    }
+                    if (cancelled) return;
+                    networkTasksShown = true;
+                    // Queued after the write, so the counters include this page
+                    loadTaskCounts();
+                    deliverTasks(tasks);
+                } else if (!cancelled) {
+                    Log.e(TAG, "Failed to load tasks: " + response.code());
+                    onTasksFailed();
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<PageResponse<TaskResponse>> call, @NonNull Throwable t) {
+                if (cancelled) return;
+                Log.e(TAG, "Error loading tasks", t);
+                onTasksFailed();
+            }
+        });
+    }
+
+    private void onTasksFailed() {
+        // Offline: fall back to the last synced tasks
+        localTasksAsFallback = true;
+        listener.onTasksFailed();
+        if (localTasks != null && shownTasks == null) {
+            // The local read came back empty before the network failed
+            deliverTasks(localTasks);
+        }
+    }
+
+    /**
+     * The tasks stored by the last sync, shown unless the network answered first.
+     */
+    private void loadLocalTasks() {
+        offlineStore.query(db -> db.getRemoteAssignedTasks(userId), tasks -> {
+            if (cancelled || networkTasksShown) return;
+            localTasks = tasks != null ? tasks : Collections.emptyList();
+            if (!localTasks.isEmpty() || localTasksAsFallback) {
+                deliverTasks(localTasks);
+            }
+        });
+    }
+
+    private void loadTaskCounts() {
+        offlineStore.query(db -> db.getAssignedTaskCounts(userId), counts -> {
+            if (cancelled || counts == null) return;
+            countsShown = true;
+            listener.onTaskCounts(counts);
+            markReady(Card.PROGRESS);
+            if (projectsShown) {
+                markReady(Card.STATS);
+            }
+        });
+    }
+
+    private void deliverTasks(List<TaskResponse> tasks) {
+        shownTasks = tasks;
+        listener.onTasks(tasks, Collections.unmodifiableMap(new HashMap<>(projectNames)));
+        markReady(Card.UPCOMING_TASKS);
+    }
+
+    private void markReady(Card card) {
+        if (readyTimes.containsKey(card)) return;
+        long elapsed = SystemClock.elapsedRealtime() - startedAt;
+        readyTimes.put(card, elapsed);
+        Log.d(TAG, card + " ready after " + elapsed + " ms");
+        if (readyTimes.size() == Card.values().length) {
+            Log.i(TAG, dump());
+            listener.onAllCardsReady();
+        }
+    }
+}
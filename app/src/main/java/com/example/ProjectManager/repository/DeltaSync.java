@@ -0,0 +1,357 @@
+package com.example.ProjectManager.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ProjectManager.models.SyncState;
+import com.example.ProjectManager.models.dto.PageResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Incremental sync of one locally mirrored collection, driven by the updatedAt
+ * timestamp the backend puts on every row.
+ *
+ * The collection keeps a high-water mark: the newest updatedAt applied locally.
+ * A refresh asks the server only for rows updated after it, oldest change first,
+ * and applies those on top of the local rows. The collection is downloaded
+ * completely instead when there is no mark yet, when the server's answer shows it
+ * did not honour the filter or the ordering, and once every
+ * {@link #FULL_RESYNC_INTERVAL_MS} to pick up deleted rows, which a delta cannot
+ * report. A server found to ignore the filter is remembered in the sync state:
+ * refreshes then download the collection without asking for a delta first, and the
+ * delta protocol is only tried again after the next periodic full resync.
+ *
+ * Runs the calls synchronously: use it from a background thread.
+ *
+ * @param <T> row type
+ */
+public final class DeltaSync<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final long FULL_RESYNC_INTERVAL_MS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * Creates the calls to the server.
+     */
+    public interface Remote<T> {
+        /**
+         * Rows updated strictly after {@code updatedAfter} (all rows if null), sorted by
+         * updatedAt, oldest first.
+         */
+        Call<PageResponse<T>> fetch(@Nullable String updatedAfter, int page, int size);
+    }
+
+    /**
+     * The local copy of the collection. Each write must store the rows and the new
+     * state together, so the mark never gets ahead of the data.
+     */
+    public interface Local<T> {
+        @Nullable
+        SyncState getState();
+
+        void applyChanges(List<T> changed, SyncState state);
+
+        void replaceAll(List<T> rows, SyncState state);
+    }
+
+    /**
+     * Reads the updatedAt timestamp of a row.
+     */
+    public interface Timestamps<T> {
+        @Nullable
+        String updatedAt(T row);
+    }
+
+    public enum Mode {
+        DELTA,
+        FULL
+    }
+
+    /**
+     * Outcome of one {@link #sync} run.
+     */
+    public static final class Result {
+        private final Mode mode;
+        private final boolean success;
+        private final int appliedRows;
+        private final int transferredRows;
+        private final int requests;
+        private final String fullSyncReason;
+        private final String error;
+
+        private Result(Mode mode, boolean success, int appliedRows, int transferredRows, int requests,
+                       String fullSyncReason, String error) {
+            this.mode = mode;
+            this.success = success;
+            this.appliedRows = appliedRows;
+            this.transferredRows = transferredRows;
+            this.requests = requests;
+            this.fullSyncReason = fullSyncReason;
+            this.error = error;
+        }
+
+        /**
+         * A run that could not complete, e.g. because the local database failed.
+         */
+        static Result failed(Mode mode, String error) {
+            return new Result(mode, false, 0, 0, 0, null, error);
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * Rows written to the local copy (changed rows for a delta, all rows for a full sync).
+         */
+        public int getAppliedRows() {
+            return appliedRows;
+        }
+
+        /**
+         * Rows received from the server, including any a failed or discarded attempt fetched.
+         */
+        public int getTransferredRows() {
+            return transferredRows;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        /**
+         * Why the collection was downloaded completely; null for a delta.
+         */
+        @Nullable
+        public String getFullSyncReason() {
+            return fullSyncReason;
+        }
+
+        @Nullable
+        public String getError() {
+            return error;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return mode + (success ? "" : " failed (" + error + ")")
+                    + " applied=" + appliedRows
+                    + " transferred=" + transferredRows
+                    + " requests=" + requests
+                    + (fullSyncReason != null ? " reason=" + fullSyncReason : "");
+        }
+    }
+
+    private final Remote<T> remote;
+    private final Local<T> local;
+    private final Timestamps<T> timestamps;
+    private final int pageSize;
+
+    // Counters of the current run
+    private int transferred;
+    private int requests;
+    private String error;
+
+    public DeltaSync(Remote<T> remote, Local<T> local, Timestamps<T> timestamps) {
+        this(remote, local, timestamps, DEFAULT_PAGE_SIZE);
+    }
+
+    public DeltaSync(Remote<T> remote, Local<T> local, Timestamps<T> timestamps, int pageSize) {
+        if (pageSize < 2) {
+            throw new IllegalArgumentException("pageSize must be >= 2");
+        }
+        this.remote = remote;
+        this.local = local;
+        this.timestamps = timestamps;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Bring the local copy up to date.
+     *
+     * @param now current time in epoch millis, used for the periodic full resync
+     */
+    public synchronized Result sync(long now) {
+        transferred = 0;
+        requests = 0;
+        error = null;
+
+        SyncState state = local.getState();
+        if (state == null) {
+            state = new SyncState();
+        }
+
+        boolean resyncDue = now - state.getLastFullSyncAt() >= FULL_RESYNC_INTERVAL_MS
+                || now < state.getLastFullSyncAt();
+        if (state.getHighWaterMark() == null && (resyncDue || state.isDeltaSupported())) {
+            return syncFull(now, "no high-water mark", true);
+        }
+        if (resyncDue) {
+            // Also retries the delta protocol if an earlier answer disabled it
+            return syncFull(now, "periodic full resync", true);
+        }
+        if (!state.isDeltaSupported()) {
+            // Not a periodic resync: the interval keeps running from the last one, so the
+            // server is not asked for a delta again before it is over
+            return syncFull(state.getLastFullSyncAt(), "server does not support deltas", false);
+        }
+        return syncDelta(state, now);
+    }
+
+    private Result syncDelta(SyncState state, long now) {
+        List<T> changed = new ArrayList<>();
+        String cursor = state.getHighWaterMark();
+        String newest = cursor;
+
+        while (true) {
+            PageResponse<T> page = execute(remote.fetch(cursor, 0, pageSize));
+            if (page == null) {
+                // Rows arrive oldest first, so what was received can be kept; the mark only
+                // moves up to the cursor, the last timestamp known to be complete
+                if (!changed.isEmpty()) {
+                    local.applyChanges(changed, withMark(state, cursor));
+                }
+                return result(Mode.DELTA, false, changed.size(), null);
+            }
+
+            List<T> rows = page.getContent() != null ? page.getContent() : Collections.<T>emptyList();
+            String previous = cursor;
+            for (T row : rows) {
+                String updatedAt = timestamps.updatedAt(row);
+                if (updatedAt == null) {
+                    return fallBack(state, now, "row without updatedAt", true);
+                }
+                if (compare(updatedAt, cursor) <= 0) {
+                    // The server ignored the filter: it would send everything on every refresh
+                    return fallBack(state, now, "server returned unchanged rows", false);
+                }
+                if (compare(updatedAt, previous) < 0) {
+                    return fallBack(state, now, "rows not sorted by updatedAt", false);
+                }
+                previous = updatedAt;
+            }
+            if (page.isLast() || rows.size() < pageSize) {
+                changed.addAll(rows);
+                if (!rows.isEmpty()) {
+                    newest = previous;
+                }
+                break;
+            }
+
+            // Next page: restart after the last timestamp known to be complete. Rows sharing
+            // the page's final timestamp are requested again, since more may follow.
+            String next = lastCompleteTimestamp(rows, previous);
+            if (next == null) {
+                return fallBack(state, now, "page of rows with one timestamp", true);
+            }
+            for (T row : rows) {
+                if (compare(timestamps.updatedAt(row), next) <= 0) {
+                    changed.add(row);
+                }
+            }
+            cursor = next;
+            newest = next;
+        }
+
+        if (!changed.isEmpty()) {
+            local.applyChanges(changed, withMark(state, newest));
+        }
+        return result(Mode.DELTA, true, changed.size(), null);
+    }
+
+    /**
+     * The newest timestamp on the page older than {@code last}, or null if all rows share it.
+     */
+    @Nullable
+    private String lastCompleteTimestamp(List<T> rows, String last) {
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            String updatedAt = timestamps.updatedAt(rows.get(i));
+            if (compare(updatedAt, last) < 0) {
+                return updatedAt;
+            }
+        }
+        return null;
+    }
+
+    private Result fallBack(SyncState state, long now, String reason, boolean deltaSupported) {
+        return syncFull(now, reason, deltaSupported && state.isDeltaSupported());
+    }
+
+    /**
+     * @param fullSyncAt stored as the time of the last full sync, which starts the
+     *                   interval to the next periodic one
+     */
+    private Result syncFull(long fullSyncAt, String reason, boolean deltaSupported) {
+        List<T> rows = new ArrayList<>();
+        String newest = null;
+
+        for (int pageIndex = 0; ; pageIndex++) {
+            PageResponse<T> page = execute(remote.fetch(null, pageIndex, pageSize));
+            if (page == null) {
+                // Without every page deleted rows can't be told apart: keep the local copy
+                return result(Mode.FULL, false, 0, reason);
+            }
+            List<T> content = page.getContent() != null ? page.getContent() : Collections.<T>emptyList();
+            for (T row : content) {
+                String updatedAt = timestamps.updatedAt(row);
+                if (updatedAt != null && compare(updatedAt, newest) > 0) {
+                    newest = updatedAt;
+                }
+            }
+            rows.addAll(content);
+            if (page.isLast() || content.size() < pageSize) {
+                break;
+            }
+        }
+
+        local.replaceAll(rows, new SyncState(newest, fullSyncAt, deltaSupported));
+        return result(Mode.FULL, true, rows.size(), reason);
+    }
+
+    @Nullable
+    private PageResponse<T> execute(Call<PageResponse<T>> call) {
+        requests++;
+        try {
+            Response<PageResponse<T>> response = call.execute();
+            if (response.isSuccessful() && response.body() != null) {
+                List<T> content = response.body().getContent();
+                transferred += content != null ? content.size() : 0;
+                return response.body();
+            }
+            error = "HTTP " + response.code();
+        } catch (IOException | RuntimeException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        return null;
+    }
+
+    private Result result(Mode mode, boolean success, int applied, String reason) {
+        return new Result(mode, success, applied, transferred, requests, reason, success ? null : error);
+    }
+
+    private static SyncState withMark(SyncState state, String mark) {
+        return new SyncState(mark, state.getLastFullSyncAt(), state.isDeltaSupported());
+    }
+
+    /**
+     * Order of two updatedAt values. The backend formats them as ISO-8601 local date-times,
+     * which sort as plain strings; null sorts first.
+     */
+    static int compare(@Nullable String a, @Nullable String b) {
+        if (a == null) return b == null ? 0 : -1;
+        if (b == null) return 1;
+        return a.compareTo(b);
+    }
+}
@@ -0,0 +1,582 @@
+package com.example.ProjectManager.repository;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.util.Log;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.FanOutExecutor;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.models.OutboxMutation;
+import com.example.ProjectManager.models.dto.AddMemberRequest;
+import com.example.ProjectManager.models.dto.CreateProjectRequest;
+import com.example.ProjectManager.models.dto.CreateTaskRequest;
+import com.example.ProjectManager.models.dto.ProjectResponse;
+import com.example.ProjectManager.models.dto.TaskResponse;
+import com.example.ProjectManager.utils.SharedPrefsManager;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Task and project writes, kept in the outbox table until the backend applied them.
+ *
+ * Every write is stored first and then sent, oldest first, each with its own
+ * idempotency key; a write that couldn't be sent (offline, timeout, server error)
+ * stays queued with those behind it, and the queue is sent again by
+ * {@link OutboxReplayJob} once the device is online. Writes refused because the
+ * session ended wait for the same user to log in again. A new status change of a
+ * task replaces the ones still waiting for it, and deleting a task drops them.
+ *
+ * The backend ignores the idempotency key, so a create is only sent again on its
+ * own when its attempt can't have reached the server (no connection). After a
+ * timeout, a dropped connection or a 5xx the task or project may exist already:
+ * the write waits for the user to {@link #resend} or {@link #discard} it, and the
+ * rest of the queue goes on.
+ *
+ * Status changes and deletions are applied to the local mirror right away, so lists
+ * show them before they are sent. Must be used from the main thread.
+ */
+public final class MutationOutbox {
+
+    private static final String TAG = "MutationOutbox";
+
+    private static final int REPLAY_JOB_ID = 1001;
+    // First wait of the replay job after a failed replay; doubled on each failure
+    private static final long REPLAY_BACKOFF_MS = 30_000;
+    private static final long NOT_SENDING = -1;
+
+    /**
+     * Outcome of one write, on the main thread.
+     */
+    public interface Callback<T> {
+        /**
+         * The backend applied the write; {@code result} is its response, if any.
+         */
+        void onApplied(@Nullable T result);
+
+        /**
+         * The write couldn't be sent now and is queued until the device is online.
+         */
+        void onQueued();
+
+        /**
+         * The session ended (401) before the write was applied; it is queued until the
+         * same user logs in again.
+         */
+        void onSessionExpired();
+
+        /**
+         * The backend refused the write (e.g. 400, 403); it was dropped from the queue.
+         */
+        void onRejected(int code);
+
+        /**
+         * A create whose attempt may have been applied; it waits for the user to
+         * {@link #resend} or {@link #discard} it. Only creates get this.
+         */
+        default void onNeedsConfirmation(@NonNull OutboxMutation mutation) {
+        }
+    }
+
+    /**
+     * Receives the writes still waiting, on the main thread, whenever they change.
+     */
+    public interface Observer {
+        void onPendingChanged(@NonNull List<OutboxMutation> pending);
+    }
+
+    /**
+     * Handle on an observer; cancel it when the screen goes away.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    /**
+     * Told when a replay stops, e.g. by the job that started it.
+     */
+    public interface ReplayListener {
+        /**
+         * @param needsRetry whether writes are left that a later replay should send
+         */
+        void onReplayFinished(boolean needsRetry);
+    }
+
+    /**
+     * Payload of {@link OutboxMutation.Kind#CREATE_PROJECT}.
+     */
+    private static final class ProjectDraft {
+        CreateProjectRequest project;
+        List<Long> memberIds;
+    }
+
+    private static MutationOutbox instance;
+
+    private final Context context;
+    private final ApiService apiService;
+    private final OfflineStore offlineStore;
+    private final SharedPrefsManager prefs;
+    private final Gson gson = new Gson();
+
+    private final List<Observer> observers = new ArrayList<>();
+    private final List<ReplayListener> replayListeners = new ArrayList<>();
+    // Callbacks of writes submitted since launch, by row id, until they have an outcome
+    private final Map<Long, Callback<?>> callbacks = new HashMap<>();
+    private boolean replaying;
+    // Row being sent; only read and written on the database thread
+    private long sendingId = NOT_SENDING;
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized MutationOutbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new MutationOutbox(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private MutationOutbox(Context context) {
+        this.context = context;
+        apiService = RetrofitClient.getInstance(context).create(ApiService.class);
+        offlineStore = OfflineStore.getInstance(context);
+        prefs = SharedPrefsManager.getInstance(context);
+    }
+
+    public void createTask(@NonNull CreateTaskRequest request, @NonNull Callback<TaskResponse> callback) {
+        submit(OutboxMutation.Kind.CREATE_TASK, 0, gson.toJson(request),
+                Collections.emptySet(), null, callback);
+    }
+
+    public void updateTaskStatus(long taskId, @NonNull String status, @NonNull Callback<TaskResponse> callback) {
+        submit(OutboxMutation.Kind.UPDATE_TASK_STATUS, taskId, status,
+                EnumSet.of(OutboxMutation.Kind.UPDATE_TASK_STATUS), db -> {
+                    TaskResponse task = db.getRemoteTask(taskId);
+                    if (task != null) {
+                        task.setStatus(status);
+                        db.upsertRemoteTasks(Collections.singletonList(task));
+                    }
+                }, callback);
+    }
+
+    public void deleteTask(long taskId, @NonNull Callback<Void> callback) {
+        submit(OutboxMutation.Kind.DELETE_TASK, taskId, null,
+                EnumSet.of(OutboxMutation.Kind.UPDATE_TASK_STATUS), db -> db.deleteRemoteTask(taskId), callback);
+    }
+
+    /**
+     * Create a project with {@code memberIds}. If it is created while the caller
+     * waits, the caller adds the members (see {@link Callback#onApplied}); if it had
+     * to be queued, the members are queued behind it once it exists.
+     */
+    public void createProject(@NonNull CreateProjectRequest request, @NonNull List<Long> memberIds,
+                              @NonNull Callback<ProjectResponse> callback) {
+        ProjectDraft draft = new ProjectDraft();
+        draft.project = request;
+        draft.memberIds = new ArrayList<>(memberIds);
+        submit(OutboxMutation.Kind.CREATE_PROJECT, 0, gson.toJson(draft),
+                Collections.emptySet(), null, callback);
+    }
+
+    /**
+     * Queue the addition of {@code userIds} to an existing project, e.g. those a
+     * batch couldn't add.
+     */
+    public void addMembers(long projectId, @NonNull List<Long> userIds) {
+        for (Long userId : userIds) {
+            submit(OutboxMutation.Kind.ADD_MEMBER, projectId, String.valueOf(userId),
+                    Collections.emptySet(), null, null);
+        }
+    }
+
+    /**
+     * Send a write held for confirmation again, once the user checked it wasn't applied.
+     */
+    public void resend(long mutationId) {
+        offlineStore.query(db -> {
+            db.confirmOutboxMutation(mutationId);
+            return mutationId;
+        }, confirmed -> {
+            notifyObservers();
+            replay(null);
+        });
+    }
+
+    /**
+     * Drop a write held for confirmation, e.g. because it was applied after all.
+     */
+    public void discard(long mutationId) {
+        offlineStore.query(db -> {
+            db.deleteOutboxMutation(mutationId);
+            return mutationId;
+        }, discarded -> notifyObservers());
+    }
+
+    /**
+     * What a queued write does, for the user: e.g. {@code task "Design"}.
+     */
+    @NonNull
+    public String describe(@NonNull OutboxMutation mutation) {
+        try {
+            switch (mutation.getKind()) {
+                case CREATE_TASK:
+                    CreateTaskRequest task = gson.fromJson(mutation.getPayload(), CreateTaskRequest.class);
+                    return "task \"" + task.getName() + "\"";
+                case CREATE_PROJECT:
+                    ProjectDraft draft = gson.fromJson(mutation.getPayload(), ProjectDraft.class);
+                    return "project \"" + draft.project.getName() + "\"";
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Unreadable " + mutation.getKind(), e);
+        }
+        return "change";
+    }
+
+    /**
+     * Deliver the writes waiting now and on every change.
+     */
+    @NonNull
+    public Subscription observe(@NonNull Observer observer) {
+        observers.add(observer);
+        long userId = prefs.getUserId();
+        offlineStore.query(db -> db.getOutboxMutations(userId), pending -> {
+            if (pending != null && observers.contains(observer)) {
+                observer.onPendingChanged(pending);
+            }
+        });
+        return () -> observers.remove(observer);
+    }
+
+    /**
+     * Send the waiting writes of the logged in user, oldest first, until the queue is
+     * empty or one can't be sent. A replay already running is joined.
+     */
+    public void replay(@Nullable ReplayListener listener) {
+        if (listener != null) {
+            replayListeners.add(listener);
+        }
+        if (replaying) return;
+        long userId = prefs.getUserId();
+        if (!prefs.isLoggedIn() || userId <= 0) {
+            // Sent when this user logs in again
+            finishReplay(false, true);
+            return;
+        }
+        replaying = true;
+        sendNext(userId);
+    }
+
+    private <T> void submit(OutboxMutation.Kind kind, long targetId, String payload,
+                            Collection<OutboxMutation.Kind> supersedes, @Nullable OfflineStore.Write localChange,
+                            @Nullable Callback<T> callback) {
+        OutboxMutation mutation = new OutboxMutation(prefs.getUserId(), kind, targetId, payload,
+                UUID.randomUUID().toString(), System.currentTimeMillis());
+        offlineStore.query(db -> {
+            long id = db.insertOutboxMutation(mutation, supersedes, sendingId);
+            if (id >= 0 && localChange != null) {
+                localChange.run(db);
+            }
+            return id;
+        }, id -> {
+            if (id == null || id < 0) {
+                Log.e(TAG, "Failed to queue " + kind);
+                if (callback != null) callback.onRejected(-1);
+                return;
+            }
+            if (callback != null) {
+                callbacks.put(id, callback);
+            }
+            if (localChange != null) {
+                RefreshCoordinator.getInstance().invalidate(RefreshCoordinator.Dataset.TASKS);
+            }
+            notifyObservers();
+            replay(null);
+        });
+    }
+
+    private void sendNext(long userId) {
+        offlineStore.query(db -> {
+            OutboxMutation next = db.getNextOutboxMutation(userId);
+            sendingId = next != null ? next.getId() : NOT_SENDING;
+            return next;
+        }, next -> {
+            if (next == null) {
+                finishReplay(false, false);
+                return;
+            }
+            send(next, userId);
+        });
+    }
+
+    private void send(OutboxMutation mutation, long userId) {
+        Call<?> call;
+        try {
+            call = createCall(mutation);
+        } catch (RuntimeException e) {
+            // Unreadable payload: it will never go through
+            Log.e(TAG, "Dropping unreadable " + mutation.getKind(), e);
+            onRejected(mutation, -1, userId);
+            return;
+        }
+        call.timeout().timeout(FanOutExecutor.DEFAULT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        @SuppressWarnings("unchecked")
+        Call<Object> objectCall = (Call<Object>) call;
+        objectCall.enqueue(new retrofit2.Callback<Object>() {
+            @Override
+            public void onResponse(@NonNull Call<Object> call, @NonNull Response<Object> response) {
+                int code = response.code();
+                if (response.isSuccessful() || isAlreadyApplied(mutation.getKind(), code)) {
+                    onApplied(mutation, response.isSuccessful() ? response.body() : null, userId);
+                } else if (code >= 500 && isCreate(mutation)) {
+                    onNeedsConfirmation(mutation, "HTTP " + code, userId);
+                } else if (code == 408 || code == 429 || code >= 500) {
+                    onHeldBack(mutation, "HTTP " + code, true, false);
+                } else if (code == 401) {
+                    // The session ended; sent once this user logs in again
+                    onHeldBack(mutation, "HTTP 401", false, true);
+                } else {
+                    onRejected(mutation, code, userId);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<Object> call, @NonNull Throwable t) {
+                if (t instanceof IOException && isCreate(mutation) && mayHaveBeenSent((IOException) t)) {
+                    onNeedsConfirmation(mutation, String.valueOf(t.getMessage()), userId);
+                } else if (t instanceof IOException) {
+                    onHeldBack(mutation, String.valueOf(t.getMessage()), true, false);
+                } else {
+                    Log.e(TAG, "Failed to send " + mutation.getKind(), t);
+                    onRejected(mutation, -1, userId);
+                }
+            }
+        });
+    }
+
+    private Call<?> createCall(OutboxMutation mutation) {
+        String key = mutation.getIdempotencyKey();
+        switch (mutation.getKind()) {
+            case CREATE_TASK:
+                return apiService.createTask(key, gson.fromJson(mutation.getPayload(), CreateTaskRequest.class));
+            case UPDATE_TASK_STATUS:
+                return apiService.updateTaskStatus(key, mutation.getTargetId(),
+                        Collections.singletonMap("status", mutation.getPayload()));
+            case DELETE_TASK:
+                return apiService.deleteTask(key, mutation.getTargetId());
+            case CREATE_PROJECT:
+                ProjectDraft draft = gson.fromJson(mutation.getPayload(), ProjectDraft.class);
+                return apiService.createProject(key, draft.project);
+            case ADD_MEMBER:
+                return apiService.addMemberToProject(key, mutation.getTargetId(),
+                        new AddMemberRequest(Long.parseLong(mutation.getPayload())));
+            default:
+                throw new IllegalArgumentException("Unknown kind " + mutation.getKind());
+        }
+    }
+
+    /**
+     * Answers meaning an earlier attempt already did it.
+     */
+    private static boolean isAlreadyApplied(OutboxMutation.Kind kind, int code) {
+        return (kind == OutboxMutation.Kind.DELETE_TASK && code == 404)
+                || (kind == OutboxMutation.Kind.ADD_MEMBER && code == 409);
+    }
+
+    /**
+     * Writes that are applied twice if they are sent twice.
+     */
+    private static boolean isCreate(OutboxMutation mutation) {
+        return mutation.getKind() == OutboxMutation.Kind.CREATE_TASK
+                || mutation.getKind() == OutboxMutation.Kind.CREATE_PROJECT;
+    }
+
+    /**
+     * Whether a call failing with {@code error} may have reached the server: only
+     * failures to connect show it didn't.
+     */
+    private static boolean mayHaveBeenSent(IOException error) {
+        return !(error instanceof UnknownHostException
+                || error instanceof ConnectException
+                || error instanceof NoRouteToHostException);
+    }
+
+    private void onApplied(OutboxMutation mutation, @Nullable Object body, long userId) {
+        boolean callerWaiting = callbacks.containsKey(mutation.getId());
+        offlineStore.query(db -> {
+            if (body instanceof TaskResponse) {
+                db.upsertRemoteTasks(Collections.singletonList((TaskResponse) body));
+            } else if (mutation.getKind() == OutboxMutation.Kind.CREATE_PROJECT && !callerWaiting
+                    && body instanceof ProjectResponse) {
+                // The members follow the project, now that it has an id
+                long projectId = ((ProjectResponse) body).getId();
+                ProjectDraft draft = gson.fromJson(mutation.getPayload(), ProjectDraft.class);
+                for (Long memberId : draft.memberIds != null ? draft.memberIds : Collections.<Long>emptyList()) {
+                    db.insertOutboxMutation(new OutboxMutation(userId, OutboxMutation.Kind.ADD_MEMBER, projectId,
+                            String.valueOf(memberId), UUID.randomUUID().toString(), System.currentTimeMillis()),
+                            Collections.emptySet(), NOT_SENDING);
+                }
+            }
+            db.deleteOutboxMutation(mutation.getId());
+            return mutation;
+        }, applied -> {
+            invalidateFor(mutation);
+            Callback<?> callback = callbacks.remove(mutation.getId());
+            if (callback != null) {
+                deliverApplied(callback, body);
+            }
+            notifyObservers();
+            sendNext(userId);
+        });
+    }
+
+    private void onRejected(OutboxMutation mutation, int code, long userId) {
+        Log.w(TAG, mutation.getKind() + " rejected: " + code);
+        offlineStore.query(db -> {
+            db.deleteOutboxMutation(mutation.getId());
+            return mutation;
+        }, rejected -> {
+            // Screens reload what the backend has, undoing the local change
+            invalidateFor(mutation);
+            Callback<?> callback = callbacks.remove(mutation.getId());
+            if (callback != null) {
+                callback.onRejected(code);
+            } else {
+                Toast.makeText(context, "A change made offline was refused by the server", Toast.LENGTH_LONG).show();
+            }
+            notifyObservers();
+            sendNext(userId);
+        });
+    }
+
+    /**
+     * {@code mutation} waits for the user's confirmation; the rest of the queue goes on.
+     */
+    private void onNeedsConfirmation(OutboxMutation mutation, String error, long userId) {
+        Log.w(TAG, mutation.getKind() + " may have been applied: " + error);
+        offlineStore.query(db -> {
+            db.holdOutboxMutationForConfirmation(mutation.getId(), error);
+            return mutation;
+        }, held -> {
+            mutation.setAwaitingConfirmation(true);
+            Callback<?> callback = callbacks.remove(mutation.getId());
+            if (callback != null) {
+                callback.onNeedsConfirmation(mutation);
+            }
+            notifyObservers();
+            sendNext(userId);
+        });
+    }
+
+    /**
+     * {@code mutation} and everything behind it wait for a later replay.
+     */
+    private void onHeldBack(OutboxMutation mutation, String error, boolean retryWhenOnline,
+                            boolean sessionExpired) {
+        Log.i(TAG, mutation.getKind() + " held back: " + error);
+        offlineStore.query(db -> {
+            db.recordOutboxAttempt(mutation.getId(), error);
+            return mutation;
+        }, heldBack -> finishReplay(retryWhenOnline, sessionExpired));
+    }
+
+    /**
+     * @param sessionExpired whether the replay stopped because the session ended, so
+     *                       what is left waits for the next login rather than the network
+     */
+    private void finishReplay(boolean needsRetry, boolean sessionExpired) {
+        replaying = false;
+        offlineStore.execute(db -> sendingId = NOT_SENDING);
+
+        // Writes submitted during this replay and not reached: they stay queued
+        List<Callback<?>> waiting = new ArrayList<>(callbacks.values());
+        callbacks.clear();
+        for (Callback<?> callback : waiting) {
+            if (sessionExpired) {
+                callback.onSessionExpired();
+            } else {
+                callback.onQueued();
+            }
+        }
+        if (needsRetry) {
+            scheduleReplay();
+        }
+
+        List<ReplayListener> listeners = new ArrayList<>(replayListeners);
+        replayListeners.clear();
+        for (ReplayListener listener : listeners) {
+            listener.onReplayFinished(needsRetry);
+        }
+    }
+
+    /**
+     * Have {@link OutboxReplayJob} replay the queue once the device is online, also
+     * after a reboot.
+     */
+    private void scheduleReplay() {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null) return;
+        JobInfo job = new JobInfo.Builder(REPLAY_JOB_ID, new ComponentName(context, OutboxReplayJob.class))
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .setBackoffCriteria(REPLAY_BACKOFF_MS, JobInfo.BACKOFF_POLICY_EXPONENTIAL)
+                .setPersisted(true)
+                .build();
+        scheduler.schedule(job);
+    }
+
+    private void invalidateFor(OutboxMutation mutation) {
+        switch (mutation.getKind()) {
+            case CREATE_PROJECT:
+                ProjectRepository.getInstance(context).invalidate();
+                break;
+            case ADD_MEMBER:
+                RefreshCoordinator.getInstance().invalidate(RefreshCoordinator.Dataset.PROJECT, mutation.getTargetId());
+                break;
+            default:
+                RefreshCoordinator.getInstance().invalidate(RefreshCoordinator.Dataset.TASKS);
+                break;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void deliverApplied(Callback<T> callback, @Nullable Object body) {
+        // Each kind's callback was registered with the type its call returns
+        callback.onApplied((T) body);
+    }
+
+    private void notifyObservers() {
+        if (observers.isEmpty()) return;
+        long userId = prefs.getUserId();
+        offlineStore.query(db -> db.getOutboxMutations(userId), pending -> {
+            if (pending == null) return;
+            // Observers may unsubscribe while being notified
+            for (Observer observer : new ArrayList<>(observers)) {
+                observer.onPendingChanged(pending);
+            }
+        });
+    }
+}
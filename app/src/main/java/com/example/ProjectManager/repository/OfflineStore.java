@@ -0,0 +1,101 @@
+package com.example.ProjectManager.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.ProjectManager.database.ProjectDatabaseHelper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs reads and writes of the local mirror in {@link ProjectDatabaseHelper} off the
+ * main thread. A single background thread keeps writes in the order they were
+ * issued, so a read always sees the writes queued before it.
+ *
+ * Screens use it to render the last synced data right away and to store what the
+ * network returns:
+ * <pre>
+ * OfflineStore.getInstance(this).query(db -> db.getRemoteProjectTasks(projectId), this::showTasks);
+ * OfflineStore.getInstance(this).execute(db -> db.replaceProjectTasks(projectId, tasks));
+ * </pre>
+ */
+public final class OfflineStore {
+
+    private static final String TAG = "OfflineStore";
+
+    /**
+     * A read against the database, run on the background thread.
+     */
+    public interface Query<T> {
+        T run(ProjectDatabaseHelper db);
+    }
+
+    /**
+     * A write against the database, run on the background thread.
+     */
+    public interface Write {
+        void run(ProjectDatabaseHelper db);
+    }
+
+    /**
+     * Receives a query result on the main thread.
+     */
+    public interface Result<T> {
+        void onResult(T value);
+    }
+
+    private static OfflineStore instance;
+
+    private final ProjectDatabaseHelper db;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized OfflineStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new OfflineStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private OfflineStore(Context context) {
+        db = ProjectDatabaseHelper.getInstance(context);
+    }
+
+    /**
+     * Run a read in the background and deliver its result on the main thread.
+     * The result is null if the query failed.
+     */
+    public <T> void query(@NonNull Query<T> query, @NonNull Result<T> result) {
+        executor.execute(() -> {
+            T value = null;
+            try {
+                value = query.run(db);
+            } catch (Exception e) {
+                Log.e(TAG, "Local query failed", e);
+            }
+            T delivered = value;
+            mainHandler.post(() -> result.onResult(delivered));
+        });
+    }
+
+    /**
+     * Run a write in the background.
+     */
+    public void execute(@NonNull Write write) {
+        executor.execute(() -> {
+            try {
+                write.run(db);
+            } catch (Exception e) {
+                Log.e(TAG, "Local write failed", e);
+            }
+        });
+    }
+}
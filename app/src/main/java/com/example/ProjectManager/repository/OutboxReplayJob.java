@@ -0,0 +1,25 @@
+package com.example.ProjectManager.repository;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+
+/**
+ * Sends the writes left in the {@link MutationOutbox} once the device is online
+ * again. Scheduled by the outbox whenever a replay stops short; the system runs it
+ * when a network is available and backs off while the backend keeps failing.
+ */
+public class OutboxReplayJob extends JobService {
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        // The replay reports on the main thread, where this is called
+        MutationOutbox.getInstance(this).replay(needsRetry -> jobFinished(params, needsRetry));
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Lost the network mid-replay: what is left stays queued, try again later
+        return true;
+    }
+}
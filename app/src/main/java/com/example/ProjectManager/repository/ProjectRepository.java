@@ -0,0 +1,330 @@
+package com.example.ProjectManager.repository;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.models.dto.PageResponse;
+import com.example.ProjectManager.models.dto.ProjectResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Process-wide source of the current user's owned and member projects.
+ * Screens asking at the same time share a single owner + member fetch, and the
+ * merged result is kept in memory for a short time so that opening the dashboard
+ * and then the Projects tab costs one pair of requests instead of one per screen.
+ *
+ * Complete results are also mirrored to the local database. While a fetch is on
+ * the wire, the last synced copy is offered through
+ * {@link ProjectsCallback#onLocalProjectsLoaded}, and it stands in for the part
+ * of a fetch that failed (e.g. offline).
+ *
+ * Must be used from the main thread (Retrofit delivers callbacks there).
+ */
+public final class ProjectRepository {
+
+    private static final String TAG = "ProjectRepository";
+
+    // How long a merged project set is served without going back to the network
+    private static final long CACHE_TTL_MS = 30_000;
+
+    // Single page size for both endpoints, large enough for every screen
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * Receives the merged project set once it is available.
+     */
+    public interface ProjectsCallback {
+        void onProjectsLoaded(@NonNull ProjectSet projects);
+
+        /**
+         * Called before {@link #onProjectsLoaded} with the copy stored in the local
+         * database, if there is one and the network has not answered yet.
+         */
+        default void onLocalProjectsLoaded(@NonNull ProjectSet projects) {
+        }
+    }
+
+    private static ProjectRepository instance;
+
+    private final ApiService apiService;
+    private final OfflineStore offlineStore;
+
+    // Last complete result and when it was fetched
+    private ProjectSet cached;
+    private long cachedAt;
+
+    // Fetch currently on the wire, shared by every caller that asks meanwhile
+    private Fetch inFlight;
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized ProjectRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ProjectRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ProjectRepository(Context context) {
+        apiService = RetrofitClient.getInstance(context).create(ApiService.class);
+        offlineStore = OfflineStore.getInstance(context);
+    }
+
+    /**
+     * Get the user's projects, from memory when fresh enough.
+     */
+    public void getProjects(long userId, @NonNull ProjectsCallback callback) {
+        getProjects(userId, false, callback);
+    }
+
+    /**
+     * Get the user's projects.
+     *
+     * @param forceRefresh skip the in-memory copy (pull-to-refresh); an in-flight
+     *                     fetch started after the last invalidation is still shared
+     */
+    public void getProjects(long userId, boolean forceRefresh, @NonNull ProjectsCallback callback) {
+        if (!forceRefresh && isFresh(userId)) {
+            callback.onProjectsLoaded(cached);
+            return;
+        }
+
+        if (inFlight != null && inFlight.userId == userId && inFlight.cacheable) {
+            inFlight.callbacks.add(callback);
+            if (inFlight.local != null && !inFlight.local.isEmpty()) {
+                callback.onLocalProjectsLoaded(inFlight.local);
+            }
+            return;
+        }
+
+        Fetch fetch = new Fetch(userId);
+        fetch.callbacks.add(callback);
+        inFlight = fetch;
+        start(fetch);
+        loadLocal(fetch);
+    }
+
+    /**
+     * Drop the in-memory copy after a project mutation so the next read refetches,
+     * and have screens showing the project list reload on their next resume.
+     */
+    public void invalidate() {
+        cached = null;
+        RefreshCoordinator.getInstance().invalidate(RefreshCoordinator.Dataset.PROJECTS);
+        if (inFlight != null) {
+            // Its result may predate the mutation, deliver it but don't keep it
+            inFlight.cacheable = false;
+        }
+    }
+
+    private boolean isFresh(long userId) {
+        return cached != null
+                && cached.userId == userId
+                && SystemClock.elapsedRealtime() - cachedAt < CACHE_TTL_MS;
+    }
+
+    private void start(Fetch fetch) {
+        apiService.getProjectsByOwner(fetch.userId, 0, PAGE_SIZE).enqueue(new Callback<PageResponse<ProjectResponse>>() {
+            @Override
+            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
+                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().getContent() != null) {
+                    fetch.owned = response.body().getContent();
+                } else {
+                    Log.e(TAG, "Failed to load owned projects: " + response.code());
+                    fetch.failed = true;
+                }
+                onPartLoaded(fetch);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
+                Log.e(TAG, "Error loading owned projects", t);
+                fetch.failed = true;
+                onPartLoaded(fetch);
+            }
+        });
+
+        apiService.getProjectsByMember(fetch.userId, 0, PAGE_SIZE).enqueue(new Callback<PageResponse<ProjectResponse>>() {
+            @Override
+            public void onResponse(@NonNull Call<PageResponse<ProjectResponse>> call,
+                                   @NonNull Response<PageResponse<ProjectResponse>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().getContent() != null) {
+                    fetch.member = response.body().getContent();
+                } else {
+                    Log.e(TAG, "Failed to load member projects: " + response.code());
+                    fetch.failed = true;
+                }
+                onPartLoaded(fetch);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<PageResponse<ProjectResponse>> call, @NonNull Throwable t) {
+                Log.e(TAG, "Error loading member projects", t);
+                fetch.failed = true;
+                onPartLoaded(fetch);
+            }
+        });
+    }
+
+    private void loadLocal(Fetch fetch) {
+        long userId = fetch.userId;
+        offlineStore.query(
+                db -> new ProjectSet(userId, db.getOwnedRemoteProjects(userId), db.getMemberRemoteProjects(userId)),
+                local -> {
+                    fetch.local = local != null ? local : new ProjectSet(userId, null, null);
+                    if (fetch.completed) {
+                        // The network answered first; the local copy is stale by now
+                        return;
+                    }
+                    if (fetch.remaining == 0) {
+                        // The network failed first and waited for this copy
+                        complete(fetch);
+                        return;
+                    }
+                    if (fetch.local.isEmpty()) {
+                        return;
+                    }
+                    for (ProjectsCallback callback : fetch.callbacks) {
+                        callback.onLocalProjectsLoaded(fetch.local);
+                    }
+                });
+    }
+
+    private void onPartLoaded(Fetch fetch) {
+        if (--fetch.remaining > 0) {
+            return;
+        }
+        if (fetch.failed && fetch.local == null) {
+            // Offline failures are fast; wait for the local copy to fill in
+            return;
+        }
+        complete(fetch);
+    }
+
+    private void complete(Fetch fetch) {
+        if (fetch.completed) {
+            return;
+        }
+        fetch.completed = true;
+        List<ProjectResponse> owned = fetch.owned;
+        List<ProjectResponse> member = fetch.member;
+        if (fetch.failed) {
+            // Fill in what the network could not provide with the last synced copy
+            if (owned == null && fetch.local != null) owned = fetch.local.getOwned();
+            if (member == null && fetch.local != null) member = fetch.local.getMember();
+        } else {
+            List<ProjectResponse> ownedToStore = owned;
+            List<ProjectResponse> memberToStore = member;
+            offlineStore.execute(db -> db.replaceUserProjects(fetch.userId, ownedToStore, memberToStore));
+        }
+
+        ProjectSet result = new ProjectSet(fetch.userId, owned, member);
+
+        if (inFlight == fetch) {
+            inFlight = null;
+            // Partial results are still shown, but only complete ones are reused
+            if (fetch.cacheable && !fetch.failed) {
+                cached = result;
+                cachedAt = SystemClock.elapsedRealtime();
+            }
+        }
+
+        for (ProjectsCallback callback : fetch.callbacks) {
+            callback.onProjectsLoaded(result);
+        }
+    }
+
+    /**
+     * State of one owner + member round trip.
+     */
+    private static final class Fetch {
+        final long userId;
+        final List<ProjectsCallback> callbacks = new ArrayList<>();
+        List<ProjectResponse> owned;
+        List<ProjectResponse> member;
+        int remaining = 2;
+        boolean failed;
+        boolean cacheable = true;
+        // Callbacks were given the result
+        boolean completed;
+        // Last synced copy from the local database, once read
+        ProjectSet local;
+
+        Fetch(long userId) {
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the user's projects.
+     * Owned projects come first in {@link #getAll()}, followed by member projects
+     * the user does not own.
+     */
+    public static final class ProjectSet {
+        private final long userId;
+        private final List<ProjectResponse> owned;
+        private final List<ProjectResponse> member;
+        private final List<ProjectResponse> all;
+        private final Map<Long, ProjectResponse> byId = new LinkedHashMap<>();
+        private final Set<Long> ownedIds = new HashSet<>();
+
+        ProjectSet(long userId, List<ProjectResponse> owned, List<ProjectResponse> member) {
+            this.userId = userId;
+            this.owned = owned != null ? Collections.unmodifiableList(new ArrayList<>(owned)) : Collections.emptyList();
+            this.member = member != null ? Collections.unmodifiableList(new ArrayList<>(member)) : Collections.emptyList();
+
+            for (ProjectResponse p : this.owned) {
+                byId.put(p.getId(), p);
+                ownedIds.add(p.getId());
+            }
+            for (ProjectResponse p : this.member) {
+                if (!byId.containsKey(p.getId())) {
+                    byId.put(p.getId(), p);
+                }
+            }
+            this.all = Collections.unmodifiableList(new ArrayList<>(byId.values()));
+        }
+
+        public List<ProjectResponse> getOwned() {
+            return owned;
+        }
+
+        public List<ProjectResponse> getMember() {
+            return member;
+        }
+
+        public List<ProjectResponse> getAll() {
+            return all;
+        }
+
+        public ProjectResponse getById(Long projectId) {
+            return byId.get(projectId);
+        }
+
+        public boolean isOwned(Long projectId) {
+            return ownedIds.contains(projectId);
+        }
+
+        public boolean isEmpty() {
+            return all.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.ProjectManager.repository;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides when a screen coming back to the foreground has to reload what it shows.
+ *
+ * Each screen keeps a {@link Tracker} for the datasets it displays and marks it
+ * whenever it starts a load. On resume it keeps showing what it has and reloads
+ * only when its copy is older than the dataset's freshness window, or when a
+ * mutation was reported through {@link #invalidate(Dataset)} since that load
+ * started. Returning from a screen that changed nothing costs no request.
+ *
+ * Pull-to-refresh and first loads don't go through here. Must be used from the
+ * main thread.
+ */
+public final class RefreshCoordinator {
+
+    private static final String TAG = "RefreshCoordinator";
+
+    /**
+     * Data shown by several screens and changed by others.
+     */
+    public enum Dataset {
+        /** The current user's owned and member projects (same lifetime as {@link ProjectRepository}'s copy). */
+        PROJECTS(30_000),
+        /** Tasks, in any list; other members move them around, so they age faster. */
+        TASKS(15_000),
+        /** One project's details and members, scoped by project id. */
+        PROJECT(30_000);
+
+        final long freshnessMs;
+
+        Dataset(long freshnessMs) {
+            this.freshnessMs = freshnessMs;
+        }
+    }
+
+    private static RefreshCoordinator instance;
+
+    // Orders loads and invalidations; an invalidation counts against loads started before it
+    private long sequence;
+    private final Map<Dataset, Long> invalidated = new EnumMap<>(Dataset.class);
+    private final Map<Dataset, Map<Long, Long>> invalidatedScopes = new EnumMap<>(Dataset.class);
+
+    private int refreshed;
+    private int suppressed;
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized RefreshCoordinator getInstance() {
+        if (instance == null) {
+            instance = new RefreshCoordinator();
+        }
+        return instance;
+    }
+
+    private RefreshCoordinator() {
+    }
+
+    /**
+     * Tracker for a screen showing {@code datasets}, none of them scoped.
+     */
+    @NonNull
+    public Tracker track(@NonNull Dataset... datasets) {
+        return new Tracker(Tracker.NO_SCOPE, datasets);
+    }
+
+    /**
+     * Tracker for a screen showing {@code datasets}, those that are scoped for {@code scope}.
+     */
+    @NonNull
+    public Tracker track(long scope, @NonNull Dataset... datasets) {
+        return new Tracker(scope, datasets);
+    }
+
+    /**
+     * Report a mutation of {@code dataset}: every screen showing any part of it
+     * reloads on its next resume.
+     */
+    public void invalidate(@NonNull Dataset dataset) {
+        invalidated.put(dataset, ++sequence);
+    }
+
+    /**
+     * Report a mutation of the part of {@code dataset} identified by {@code scope}.
+     */
+    public void invalidate(@NonNull Dataset dataset, long scope) {
+        Map<Long, Long> scopes = invalidatedScopes.get(dataset);
+        if (scopes == null) {
+            scopes = new HashMap<>();
+            invalidatedScopes.put(dataset, scopes);
+        }
+        scopes.put(scope, ++sequence);
+    }
+
+    /**
+     * Resume reloads let through so far.
+     */
+    public int getRefreshCount() {
+        return refreshed;
+    }
+
+    /**
+     * Resume reloads skipped so far because the screen's copy was still fresh.
+     */
+    public int getSuppressedCount() {
+        return suppressed;
+    }
+
+    @NonNull
+    public String dump() {
+        return "Resume refreshes: " + refreshed + " done, " + suppressed + " suppressed";
+    }
+
+    private long lastInvalidation(Dataset dataset, long scope) {
+        Long all = invalidated.get(dataset);
+        long last = all != null ? all : 0;
+        Map<Long, Long> scopes = invalidatedScopes.get(dataset);
+        if (scopes != null && scope != Tracker.NO_SCOPE) {
+            Long one = scopes.get(scope);
+            if (one != null && one > last) {
+                last = one;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Freshness of one screen's copy of its datasets.
+     */
+    public final class Tracker {
+
+        static final long NO_SCOPE = Long.MIN_VALUE;
+
+        private final long scope;
+        private final Dataset[] datasets;
+        private final long freshnessMs;
+
+        // Sequence number and time of the last load started, 0 before the first
+        private long loadedAt;
+        private long loadedTime;
+
+        private Tracker(long scope, Dataset[] datasets) {
+            this.scope = scope;
+            this.datasets = datasets.clone();
+            long shortest = Long.MAX_VALUE;
+            for (Dataset dataset : datasets) {
+                shortest = Math.min(shortest, dataset.freshnessMs);
+            }
+            this.freshnessMs = shortest;
+        }
+
+        /**
+         * Record that the screen is (re)loading its data now. Call on every load,
+         * including first loads and pull-to-refresh.
+         */
+        public void markLoading() {
+            loadedAt = ++sequence;
+            loadedTime = SystemClock.elapsedRealtime();
+        }
+
+        /**
+         * Record that the last load failed, so the next resume tries again.
+         */
+        public void markFailed() {
+            loadedAt = 0;
+        }
+
+        /**
+         * Whether the screen should reload now: it never loaded, its last load
+         * failed, its copy is past the freshness window or a dataset it shows was
+         * invalidated since. Otherwise the skipped refresh is counted.
+         */
+        public boolean shouldRefresh() {
+            String reason = staleReason();
+            if (reason == null) {
+                suppressed++;
+                return false;
+            }
+            refreshed++;
+            Log.d(TAG, "Refreshing " + describe() + ": " + reason);
+            return true;
+        }
+
+        private String staleReason() {
+            if (loadedAt == 0) {
+                return "not loaded";
+            }
+            for (Dataset dataset : datasets) {
+                if (lastInvalidation(dataset, scope) > loadedAt) {
+                    return dataset + " changed";
+                }
+            }
+            if (SystemClock.elapsedRealtime() - loadedTime >= freshnessMs) {
+                return "expired";
+            }
+            return null;
+        }
+
+        private String describe() {
+            StringBuilder builder = new StringBuilder();
+            for (Dataset dataset : datasets) {
+                if (builder.length() > 0) builder.append('+');
+                builder.append(dataset);
+            }
+            if (scope != NO_SCOPE) {
+                builder.append(" #").append(scope);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.ProjectManager.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.database.ProjectDatabaseHelper;
+import com.example.ProjectManager.models.SyncState;
+import com.example.ProjectManager.models.dto.TaskResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the local copy of each project's task list up to date with {@link DeltaSync}:
+ * after the first download, a refresh only transfers the tasks changed since the
+ * previous one. Screens render from {@link OfflineStore} and re-read the projects
+ * reported as synced.
+ *
+ * Must be used from the main thread. Syncs run on a small background pool; a
+ * project already syncing is not synced twice, later callers wait for the running sync.
+ */
+public final class TaskSync {
+
+    private static final String TAG = "TaskSync";
+
+    private static final int PARALLELISM = 4;
+    private static final String SORT_OLDEST_CHANGE_FIRST = "updatedAt,asc";
+
+    /**
+     * Receives sync results on the main thread. Not called after {@link Handle#cancel()}.
+     */
+    public interface Listener {
+        void onProjectSynced(long projectId, @NonNull DeltaSync.Result result);
+
+        default void onComplete(int succeeded, int failed) {
+        }
+    }
+
+    /**
+     * Handle on a running sync. Cancelling only stops the callbacks; syncs already
+     * started still complete and store their result.
+     */
+    public interface Handle {
+        void cancel();
+    }
+
+    private interface ProjectCallback {
+        void onSynced(long projectId, DeltaSync.Result result);
+    }
+
+    private static TaskSync instance;
+
+    private final ApiService apiService;
+    private final ProjectDatabaseHelper db;
+    private final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Callbacks per project currently syncing
+    private final Map<Long, List<ProjectCallback>> running = new HashMap<>();
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized TaskSync getInstance(Context context) {
+        if (instance == null) {
+            instance = new TaskSync(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private TaskSync(Context context) {
+        apiService = RetrofitClient.getInstance(context).create(ApiService.class);
+        db = ProjectDatabaseHelper.getInstance(context);
+    }
+
+    /**
+     * Sync the task lists of several projects, in parallel.
+     */
+    public Handle syncProjects(@NonNull Collection<Long> projectIds, @NonNull Listener listener) {
+        Set<Long> unique = new LinkedHashSet<>(projectIds);
+        Batch batch = new Batch(unique.size(), listener);
+        if (unique.isEmpty()) {
+            mainHandler.post(batch::finishIfDone);
+        }
+        for (Long projectId : unique) {
+            syncProject(projectId, batch::onProjectSynced);
+        }
+        return batch;
+    }
+
+    /**
+     * Sync the task list of one project.
+     */
+    public Handle syncProject(long projectId, @NonNull Listener listener) {
+        List<Long> projectIds = new ArrayList<>();
+        projectIds.add(projectId);
+        return syncProjects(projectIds, listener);
+    }
+
+    private void syncProject(long projectId, ProjectCallback callback) {
+        List<ProjectCallback> callbacks = running.get(projectId);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        running.put(projectId, callbacks);
+
+        executor.execute(() -> {
+            DeltaSync.Result result;
+            try {
+                result = newSync(projectId).sync(System.currentTimeMillis());
+                Log.d(TAG, "Tasks of project " + projectId + ": " + result);
+            } catch (Exception e) {
+                Log.e(TAG, "Task sync failed for project " + projectId, e);
+                result = DeltaSync.Result.failed(DeltaSync.Mode.DELTA, e.toString());
+            }
+            DeltaSync.Result delivered = result;
+            mainHandler.post(() -> {
+                List<ProjectCallback> waiting = running.remove(projectId);
+                if (waiting == null) return;
+                for (ProjectCallback waiter : waiting) {
+                    waiter.onSynced(projectId, delivered);
+                }
+            });
+        });
+    }
+
+    private DeltaSync<TaskResponse> newSync(long projectId) {
+        return new DeltaSync<>(
+                (updatedAfter, page, size) -> apiService.getTasksUpdatedAfter(
+                        page, size, projectId, updatedAfter, SORT_OLDEST_CHANGE_FIRST),
+                new DeltaSync.Local<TaskResponse>() {
+                    @Override
+                    public SyncState getState() {
+                        return db.getProjectTasksSyncState(projectId);
+                    }
+
+                    @Override
+                    public void applyChanges(List<TaskResponse> changed, SyncState state) {
+                        db.applyProjectTaskChanges(projectId, changed, state);
+                    }
+
+                    @Override
+                    public void replaceAll(List<TaskResponse> rows, SyncState state) {
+                        db.replaceProjectTasks(projectId, rows, state);
+                    }
+                },
+                TaskResponse::getUpdatedAt);
+    }
+
+    /**
+     * Results of one {@link #syncProjects} call.
+     */
+    private static final class Batch implements Handle {
+        private final Listener listener;
+        private int remaining;
+        private int succeeded;
+        private int failed;
+        private boolean cancelled;
+
+        Batch(int size, Listener listener) {
+            this.remaining = size;
+            this.listener = listener;
+        }
+
+        void onProjectSynced(long projectId, DeltaSync.Result result) {
+            remaining--;
+            if (result.isSuccess()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+            if (!cancelled) {
+                listener.onProjectSynced(projectId, result);
+            }
+            finishIfDone();
+        }
+
+        void finishIfDone() {
+            if (remaining == 0 && !cancelled) {
+                listener.onComplete(succeeded, failed);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
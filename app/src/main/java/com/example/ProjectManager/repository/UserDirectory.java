@@ -0,0 +1,230 @@
+package com.example.ProjectManager.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.models.SearchHit;
+import com.example.ProjectManager.models.SyncState;
+import com.example.ProjectManager.models.dto.PageResponse;
+import com.example.ProjectManager.models.dto.UserResponseDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * The users that can be added to a project, mirrored locally.
+ *
+ * Pickers read the directory from the database, filtered through the prefix index
+ * on names and emails, so typing never waits on the network. The backend's user
+ * list is paged into the mirror one page at a time, as far as pickers scroll or
+ * search; once it was paged through completely it is not fetched again for
+ * {@link #FRESHNESS_MS}, and users the walk no longer found are dropped.
+ *
+ * Must be used from the main thread (Retrofit delivers callbacks there).
+ */
+public final class UserDirectory {
+
+    private static final String TAG = "UserDirectory";
+
+    public static final int PAGE_SIZE = 50;
+
+    // How long a complete copy of the directory is used before paging it again
+    private static final long FRESHNESS_MS = 60 * 60_000;
+
+    /**
+     * Receives the outcome of {@link #loadNextPage} on the main thread.
+     */
+    public interface PageListener {
+        /**
+         * A page was stored, or there was nothing left to fetch.
+         *
+         * @param hasMore whether the backend has further pages
+         */
+        void onPageStored(boolean hasMore);
+
+        default void onPageFailed() {
+        }
+    }
+
+    private static UserDirectory instance;
+
+    private final ApiService apiService;
+    private final OfflineStore offlineStore;
+
+    // Listeners of the page being fetched; a second caller joins the first one's request
+    private final List<PageListener> waiting = new ArrayList<>();
+    private boolean loading;
+    // Whether the stored sync state was read since launch
+    private boolean stateRead;
+    private int nextPage;
+    // Users seen on the pages of the current walk, from page 0 on
+    private final Set<Long> walkUserIds = new HashSet<>();
+    // When the last complete walk ended, 0 while there are pages left
+    private long completedAt;
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized UserDirectory getInstance(Context context) {
+        if (instance == null) {
+            instance = new UserDirectory(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private UserDirectory(Context context) {
+        apiService = RetrofitClient.getInstance(context).create(ApiService.class);
+        offlineStore = OfflineStore.getInstance(context);
+    }
+
+    /**
+     * Stored users other than {@code excludeUserId}: those matching {@code filter} by
+     * name or email prefix, best match first, or all of them in directory order when
+     * the filter is empty. Delivers an empty list if the read failed.
+     */
+    public void query(@NonNull String filter, long excludeUserId, int limit,
+                      @NonNull OfflineStore.Result<List<UserResponseDto>> result) {
+        String text = filter.trim();
+        offlineStore.query(db -> {
+            if (text.isEmpty()) {
+                return db.getRemoteUsers(excludeUserId, limit);
+            }
+            List<UserResponseDto> users = new ArrayList<>();
+            // One extra, in case the excluded user is among the matches
+            for (SearchHit<UserResponseDto> hit : db.searchUsers(text, limit + 1)) {
+                UserResponseDto user = hit.getItem();
+                if (user.getId() != null && user.getId() != excludeUserId && users.size() < limit) {
+                    users.add(user);
+                }
+            }
+            return users;
+        }, users -> result.onResult(users != null ? users : Collections.emptyList()));
+    }
+
+    /**
+     * Whether pages may be left to fetch. True until the directory was read
+     * completely, and again once that copy is stale.
+     */
+    public boolean hasMore() {
+        return !isComplete();
+    }
+
+    /**
+     * Fetch and store the next page of the directory, unless it is complete and
+     * fresh. Calls made while a page is on its way are answered with it.
+     */
+    public void loadNextPage(@NonNull PageListener listener) {
+        if (stateRead && isComplete()) {
+            listener.onPageStored(false);
+            return;
+        }
+        waiting.add(listener);
+        if (loading) return;
+        loading = true;
+
+        if (stateRead) {
+            fetchPage();
+            return;
+        }
+        // A directory paged through by an earlier launch may still be fresh
+        offlineStore.query(db -> db.getUserDirectorySyncState(), state -> {
+            stateRead = true;
+            if (state != null && !isStale(state.getLastFullSyncAt())) {
+                completedAt = state.getLastFullSyncAt();
+                loading = false;
+                deliverStored(false);
+            } else {
+                fetchPage();
+            }
+        });
+    }
+
+    private boolean isComplete() {
+        if (completedAt > 0 && isStale(completedAt)) {
+            // Start over: users may have joined since
+            completedAt = 0;
+            nextPage = 0;
+        }
+        return completedAt > 0;
+    }
+
+    private static boolean isStale(long syncedAt) {
+        long age = System.currentTimeMillis() - syncedAt;
+        return age < 0 || age >= FRESHNESS_MS;
+    }
+
+    private void fetchPage() {
+        int page = nextPage;
+        apiService.getUsers(page, PAGE_SIZE).enqueue(new Callback<PageResponse<UserResponseDto>>() {
+            @Override
+            public void onResponse(@NonNull Call<PageResponse<UserResponseDto>> call,
+                                   @NonNull Response<PageResponse<UserResponseDto>> response) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    Log.w(TAG, "Failed to load users page " + page + ": " + response.code());
+                    onPageFailed();
+                    return;
+                }
+                PageResponse<UserResponseDto> body = response.body();
+                List<UserResponseDto> users = body.getContent() != null
+                        ? body.getContent() : Collections.emptyList();
+                boolean last = body.isLast() || users.size() < PAGE_SIZE;
+                long now = System.currentTimeMillis();
+                SyncState state = last ? new SyncState(null, now, true) : null;
+                if (page == 0) {
+                    walkUserIds.clear();
+                }
+                for (UserResponseDto user : users) {
+                    if (user.getId() != null) {
+                        walkUserIds.add(user.getId());
+                    }
+                }
+                Set<Long> seen = last ? new HashSet<>(walkUserIds) : null;
+
+                // Delivered once stored, so a query after the callback sees the page
+                offlineStore.query(db -> {
+                    db.upsertDirectoryUsers(users, state, seen);
+                    return users;
+                }, stored -> {
+                    loading = false;
+                    nextPage = page + 1;
+                    completedAt = last ? now : 0;
+                    deliverStored(!last);
+                });
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<PageResponse<UserResponseDto>> call, @NonNull Throwable t) {
+                Log.w(TAG, "Failed to load users page " + page, t);
+                onPageFailed();
+            }
+        });
+    }
+
+    private void onPageFailed() {
+        loading = false;
+        List<PageListener> listeners = new ArrayList<>(waiting);
+        waiting.clear();
+        for (PageListener listener : listeners) {
+            listener.onPageFailed();
+        }
+    }
+
+    private void deliverStored(boolean hasMore) {
+        List<PageListener> listeners = new ArrayList<>(waiting);
+        waiting.clear();
+        for (PageListener listener : listeners) {
+            listener.onPageStored(hasMore);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.ProjectManager.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ProjectManager.api.ApiService;
+import com.example.ProjectManager.api.FanOutExecutor;
+import com.example.ProjectManager.api.RetrofitClient;
+import com.example.ProjectManager.models.dto.UserResponseDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves user IDs to {@link UserResponseDto}s for lists and detail screens.
+ *
+ * Lookups made within a short window are sent together, an ID that is already
+ * being fetched is never requested twice, and every caller waiting on it gets the
+ * result. Resolved users are kept in a bounded LRU.
+ *
+ * Must be used from the main thread (Retrofit delivers callbacks there).
+ */
+public final class UserResolver {
+
+    private static final String TAG = "UserResolver";
+
+    // Lookups made while a list binds its first screen end up in one batch
+    private static final long BATCH_WINDOW_MS = 16;
+    private static final int CACHE_SIZE = 200;
+
+    /**
+     * Receives the resolved user on the main thread.
+     */
+    public interface UserCallback {
+        void onUserResolved(@NonNull UserResponseDto user);
+
+        default void onUserUnavailable(long userId) {
+        }
+    }
+
+    private static UserResolver instance;
+
+    private final ApiService apiService;
+    private final FanOutExecutor<Long, UserResponseDto> fanOut = new FanOutExecutor<>();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final LruCache<Long, UserResponseDto> resolved = new LruCache<>(CACHE_SIZE);
+
+    // Callbacks per ID, for IDs that are queued or on the wire
+    private final Map<Long, List<UserCallback>> waiting = new HashMap<>();
+    // IDs collected during the current batch window
+    private final Set<Long> queued = new LinkedHashSet<>();
+    private final Runnable flush = this::flush;
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized UserResolver getInstance(Context context) {
+        if (instance == null) {
+            instance = new UserResolver(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private UserResolver(Context context) {
+        apiService = RetrofitClient.getInstance(context).create(ApiService.class);
+    }
+
+    /**
+     * Resolve a user. Calls back immediately when the user is already known.
+     */
+    public void resolve(long userId, @NonNull UserCallback callback) {
+        UserResponseDto user = resolved.get(userId);
+        if (user != null) {
+            callback.onUserResolved(user);
+            return;
+        }
+
+        List<UserCallback> callbacks = waiting.get(userId);
+        if (callbacks != null) {
+            // Already queued or in flight, just wait for it
+            callbacks.add(callback);
+            return;
+        }
+
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        waiting.put(userId, callbacks);
+        queued.add(userId);
+        if (queued.size() == 1) {
+            handler.postDelayed(flush, BATCH_WINDOW_MS);
+        }
+    }
+
+    /**
+     * Stop delivering to a callback, e.g. when its view holder is rebound or recycled.
+     * The lookup itself still completes and fills the cache.
+     */
+    public void cancel(@NonNull UserCallback callback) {
+        for (List<UserCallback> callbacks : waiting.values()) {
+            callbacks.remove(callback);
+        }
+    }
+
+    /**
+     * Get a user without going to the network, or null if not resolved yet.
+     * Safe to call from any thread.
+     */
+    @Nullable
+    public UserResponseDto getCached(long userId) {
+        return resolved.get(userId);
+    }
+
+    /**
+     * Store a user obtained elsewhere (e.g. after a profile update).
+     */
+    public void put(@NonNull UserResponseDto user) {
+        if (user.getId() != null) {
+            resolved.put(user.getId(), user);
+        }
+    }
+
+    /**
+     * Forget a user so the next lookup goes back to the backend.
+     */
+    public void invalidate(long userId) {
+        resolved.remove(userId);
+    }
+
+    private void flush() {
+        if (queued.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(queued);
+        queued.clear();
+        Log.d(TAG, "Resolving " + batch.size() + " users");
+
+        fanOut.execute(batch, apiService::getUser, new FanOutExecutor.Listener<Long, UserResponseDto>() {
+            @Override
+            public void onResult(Long userId, UserResponseDto user) {
+                resolved.put(userId, user);
+                List<UserCallback> callbacks = waiting.remove(userId);
+                if (callbacks == null) return;
+                for (UserCallback callback : callbacks) {
+                    callback.onUserResolved(user);
+                }
+            }
+
+            @Override
+            public void onError(Long userId, Throwable error) {
+                Log.w(TAG, "Failed to resolve user " + userId, error);
+                List<UserCallback> callbacks = waiting.remove(userId);
+                if (callbacks == null) return;
+                for (UserCallback callback : callbacks) {
+                    callback.onUserUnavailable(userId);
+                }
+            }
+
+            @Override
+            public void onComplete(int succeeded, int failed) {
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ProjectManager.utils;
+
+import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.resource.bitmap.DownsampleStrategy;
+
+import de.hdodenhof.circleimageview.CircleImageView;
+
+/**
+ * Utility class loading profile pictures into avatar views.
+ *
+ * Every avatar is decoded straight to the size of its view and cached at that
+ * size on disk as well, so a large upload is decoded at full size only once.
+ * Loads and preloads ({@link AvatarPreloader}) build the same request, which
+ * keeps their cache keys identical.
+ */
+public class AvatarLoader {
+
+    /**
+     * The request for one avatar, without placeholders.
+     *
+     * @param glide           Request manager of the screen showing the avatar
+     * @param url             Full picture URL
+     * @param circleImageView Whether the target is a {@link CircleImageView}, which draws
+     *                        through a shader that can't read hardware bitmaps
+     */
+    public static RequestBuilder<Drawable> request(@NonNull RequestManager glide, @NonNull String url,
+                                                   boolean circleImageView) {
+        RequestBuilder<Drawable> request = glide.load(url)
+                .downsample(DownsampleStrategy.CENTER_OUTSIDE)
+                .centerCrop()
+                .diskCacheStrategy(DiskCacheStrategy.ALL);
+        return circleImageView ? request.disallowHardwareConfig() : request;
+    }
+
+    /**
+     * Show the avatar at {@code url} in {@code view}, or the placeholder when there is none.
+     */
+    public static void load(@NonNull RequestManager glide, @NonNull ImageView view, @Nullable String url,
+                            @DrawableRes int placeholder) {
+        if (url == null) {
+            // A recycled row may still have a load running for its previous avatar
+            glide.clear(view);
+            view.setImageResource(placeholder);
+            return;
+        }
+        request(glide, url, view instanceof CircleImageView)
+                .placeholder(placeholder)
+                .error(placeholder)
+                .into(view);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ProjectManager.utils;
+
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.ViewPreloadSizeProvider;
+
+import java.util.Collections;
+import java.util.List;
+
+import de.hdodenhof.circleimageview.CircleImageView;
+
+/**
+ * Loads the avatars of the rows just past the edge of a list while it scrolls,
+ * so they are already in memory when those rows are bound.
+ *
+ * Preloads are sized from the first avatar view the adapter reports through
+ * {@link #observe(ImageView)}; nothing is preloaded before that. A list that
+ * switches between adapters can have a preloader per adapter: each one only
+ * works while its adapter is the one attached.
+ */
+public class AvatarPreloader implements ListPreloader.PreloadModelProvider<String> {
+
+    // Rows past the visible ones whose avatars are loaded ahead
+    private static final int PRELOAD_ROWS = 10;
+
+    /**
+     * An adapter whose rows show avatars.
+     */
+    public interface Source {
+        /**
+         * Avatar URL of the row at {@code position}, or null when it shows none.
+         */
+        @Nullable
+        String getAvatarUrl(int position);
+    }
+
+    private final RecyclerView list;
+    private final RecyclerView.Adapter<?> adapter;
+    private final Source source;
+    private final RequestManager glide;
+    private final ViewPreloadSizeProvider<String> sizes = new ViewPreloadSizeProvider<>();
+    private boolean observed;
+    private boolean circleImageView;
+
+    /**
+     * Start preloading the avatars of {@code adapter}'s rows whenever it is shown in {@code list}.
+     */
+    @NonNull
+    public static <A extends RecyclerView.Adapter<?> & Source> AvatarPreloader attach(
+            @NonNull RecyclerView list, @NonNull A adapter) {
+        AvatarPreloader preloader = new AvatarPreloader(list, adapter, adapter);
+        list.addOnScrollListener(new RecyclerViewPreloader<>(preloader.glide, preloader, preloader.sizes, PRELOAD_ROWS));
+        return preloader;
+    }
+
+    private AvatarPreloader(RecyclerView list, RecyclerView.Adapter<?> adapter, Source source) {
+        this.list = list;
+        this.adapter = adapter;
+        this.source = source;
+        this.glide = Glide.with(list.getContext());
+    }
+
+    /**
+     * Report an avatar view of the list, so preloads are made at its size. Only the
+     * first call has an effect, so adapters can call it on every bind.
+     */
+    public void observe(@NonNull ImageView avatar) {
+        if (observed) return;
+        observed = true;
+        circleImageView = avatar instanceof CircleImageView;
+        sizes.setView(avatar);
+    }
+
+    @NonNull
+    @Override
+    public List<String> getPreloadItems(int position) {
+        if (list.getAdapter() != adapter || position < 0 || position >= adapter.getItemCount()) {
+            return Collections.emptyList();
+        }
+        String url = source.getAvatarUrl(position);
+        return url != null ? Collections.singletonList(url) : Collections.emptyList();
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String url) {
+        return AvatarLoader.request(glide, url, circleImageView);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.ProjectManager.utils;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats the short dates shown in list rows.
+ *
+ * Holds its own formatters, so it is not thread-safe: create one per batch of
+ * rows being prepared (see {@link com.example.ProjectManager.adapters.MappedListAdapter}).
+ */
+public class DateLabels {
+
+    private final SimpleDateFormat isoDateTime = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
+    private final SimpleDateFormat isoDate = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+    private final SimpleDateFormat dayMonth = new SimpleDateFormat("dd MMM", Locale.getDefault());
+    private final SimpleDateFormat monthDay = new SimpleDateFormat("MMM d", Locale.getDefault());
+    private final long now = System.currentTimeMillis();
+
+    /**
+     * "12 Mar" for a date sent by the backend as ISO date-time or date.
+     * Falls back to the raw text (at most its first 10 characters) when it cannot be parsed.
+     */
+    public String dayMonth(String iso) {
+        if (iso == null) return "";
+        try {
+            return dayMonth.format(isoDateTime.parse(iso));
+        } catch (ParseException e) {
+            try {
+                return dayMonth.format(isoDate.parse(iso));
+            } catch (ParseException e2) {
+                return iso.length() > 10 ? iso.substring(0, 10) : iso;
+            }
+        }
+    }
+
+    /**
+     * "12 Mar", or an empty string for null.
+     */
+    public String dayMonth(Date date) {
+        return date != null ? dayMonth.format(date) : "";
+    }
+
+    /**
+     * "Just now", "5m ago", "3h ago", "2d ago", then "Mar 12" after a week,
+     * relative to when this instance was created.
+     */
+    public String relative(Date date) {
+        if (date == null) return "";
+
+        long diffInMillis = now - date.getTime();
+        long diffInMinutes = TimeUnit.MILLISECONDS.toMinutes(diffInMillis);
+        long diffInHours = TimeUnit.MILLISECONDS.toHours(diffInMillis);
+        long diffInDays = TimeUnit.MILLISECONDS.toDays(diffInMillis);
+
+        if (diffInMinutes < 1) {
+            return "Just now";
+        } else if (diffInMinutes < 60) {
+            return diffInMinutes + "m ago";
+        } else if (diffInHours < 24) {
+            return diffInHours + "h ago";
+        } else if (diffInDays < 7) {
+            return diffInDays + "d ago";
+        } else {
+            return monthDay.format(date);
+        }
+    }
+}
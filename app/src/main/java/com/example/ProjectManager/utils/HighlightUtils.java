@@ -0,0 +1,49 @@
+package com.example.ProjectManager.utils;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+
+import com.example.ProjectManager.models.SearchHit;
+
+/**
+ * Utility class turning search result text marked by the local search index
+ * into styled text.
+ */
+public class HighlightUtils {
+
+    /**
+     * Shows the marked words of {@code marked} in bold and {@code color}, and drops the markers.
+     *
+     * @param marked Text with matches between {@link SearchHit#MATCH_START} and {@link SearchHit#MATCH_END}
+     * @param color  Color of the matched words
+     * @return The styled text, or an empty string for null input
+     */
+    public static CharSequence highlight(String marked, int color) {
+        if (marked == null) {
+            return "";
+        }
+
+        SpannableStringBuilder text = new SpannableStringBuilder();
+        int matchStart = -1;
+        for (int i = 0; i < marked.length(); i++) {
+            char c = marked.charAt(i);
+            if (c == SearchHit.MATCH_START) {
+                matchStart = text.length();
+            } else if (c == SearchHit.MATCH_END) {
+                if (matchStart >= 0 && matchStart < text.length()) {
+                    text.setSpan(new StyleSpan(Typeface.BOLD), matchStart, text.length(),
+                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                    text.setSpan(new ForegroundColorSpan(color), matchStart, text.length(),
+                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                }
+                matchStart = -1;
+            } else {
+                text.append(c);
+            }
+        }
+        return text;
+    }
+}
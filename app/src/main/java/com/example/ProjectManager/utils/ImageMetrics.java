@@ -0,0 +1,125 @@
+package com.example.ProjectManager.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts where the images shown by the app came from: the memory cache, the disk
+ * cache or the network, so cache sizes and preloading can be checked against
+ * real use. Registered with Glide by {@link ImageModule}; {@link #dump()} gives a
+ * readable report for a debug screen or a log.
+ *
+ * Preloaded images count too: a preload that fetched an avatar shows up as a
+ * network load, and the bind that used it as a memory hit.
+ */
+public final class ImageMetrics implements RequestListener<Object> {
+
+    private static final ImageMetrics INSTANCE = new ImageMetrics();
+
+    private final AtomicInteger memoryHits = new AtomicInteger();
+    private final AtomicInteger diskHits = new AtomicInteger();
+    private final AtomicInteger networkLoads = new AtomicInteger();
+    private final AtomicInteger localLoads = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    public static ImageMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    private ImageMetrics() {
+    }
+
+    @Override
+    public boolean onResourceReady(@NonNull Object resource, @NonNull Object model, Target<Object> target,
+                                   @NonNull DataSource dataSource, boolean isFirstResource) {
+        switch (dataSource) {
+            case MEMORY_CACHE:
+                memoryHits.incrementAndGet();
+                break;
+            case RESOURCE_DISK_CACHE:
+            case DATA_DISK_CACHE:
+                diskHits.incrementAndGet();
+                break;
+            case REMOTE:
+                networkLoads.incrementAndGet();
+                break;
+            default:
+                localLoads.incrementAndGet();
+                break;
+        }
+        // Let the target show it
+        return false;
+    }
+
+    @Override
+    public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                @NonNull Target<Object> target, boolean isFirstResource) {
+        failures.incrementAndGet();
+        return false;
+    }
+
+    public int getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public int getDiskHits() {
+        return diskHits.get();
+    }
+
+    public int getNetworkLoads() {
+        return networkLoads.get();
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Share of loaded images served from memory, 0 when nothing was loaded yet.
+     */
+    public double getMemoryHitRate() {
+        int total = memoryHits.get() + diskHits.get() + networkLoads.get() + localLoads.get();
+        return total > 0 ? (double) memoryHits.get() / total : 0;
+    }
+
+    /**
+     * Share of the images missing from memory that the disk cache served.
+     */
+    public double getDiskHitRate() {
+        int misses = diskHits.get() + networkLoads.get() + localLoads.get();
+        return misses > 0 ? (double) diskHits.get() / misses : 0;
+    }
+
+    public void reset() {
+        memoryHits.set(0);
+        diskHits.set(0);
+        networkLoads.set(0);
+        localLoads.set(0);
+        failures.set(0);
+    }
+
+    /**
+     * One-line report of the counters and hit rates.
+     */
+    @NonNull
+    public String dump() {
+        return String.format(Locale.US,
+                "Images: memory=%d disk=%d network=%d local=%d failed=%d, memory hit rate %.0f%%, disk hit rate %.0f%%",
+                memoryHits.get(), diskHits.get(), networkLoads.get(), localLoads.get(), failures.get(),
+                getMemoryHitRate() * 100, getDiskHitRate() * 100);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return dump();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ProjectManager.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+
+/**
+ * App-wide Glide configuration.
+ *
+ * Images in this app are mostly small avatars repeated across lists, so the memory
+ * cache holds a few screens' worth of them and the disk cache is kept small.
+ * Hardware bitmaps stay enabled (Glide's default from Android 8); see
+ * {@link AvatarLoader} for the views that can't draw them.
+ */
+@GlideModule
+public final class ImageModule extends AppGlideModule {
+
+    private static final String DISK_CACHE_NAME = "image_cache";
+    private static final long DISK_CACHE_SIZE = 50L * 1024 * 1024;
+    // Scrolling back up a list should find its avatars still in memory
+    private static final float MEMORY_CACHE_SCREENS = 3;
+    private static final float BITMAP_POOL_SCREENS = 2;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .setBitmapPoolScreens(BITMAP_POOL_SCREENS)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, DISK_CACHE_SIZE));
+        builder.addGlobalRequestListener(ImageMetrics.getInstance());
+        builder.setLogLevel(Log.ERROR);
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.ProjectManager.utils;
+
+import android.content.Context;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.widget.EditText;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.ProjectManager.adapters.MemberAdapter;
+import com.example.ProjectManager.models.Member;
+import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.example.ProjectManager.repository.UserDirectory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives a multi-select member list backed by the {@link UserDirectory}.
+ *
+ * The list shows stored users right away and filters them on every keystroke.
+ * Scrolling near the end shows more rows, fetching the next directory page when
+ * the stored ones run out; a search with too few matches pages further too. The
+ * logged in user is never offered. Selections are kept by id, so they survive
+ * filtering and paging.
+ *
+ * Must be used from the main thread.
+ */
+public final class MemberPicker {
+
+    // Rows from the end of the list at which more are shown
+    private static final int PREFETCH_DISTANCE = 10;
+
+    private final Context context;
+    private final UserDirectory directory;
+    private final MemberAdapter adapter;
+    private final long currentUserId;
+    private final Map<Long, Member> selected = new LinkedHashMap<>();
+
+    private String filter = "";
+    private int limit = UserDirectory.PAGE_SIZE;
+    private int shownCount;
+    // Bumped on every query so the results of an older one are dropped
+    private int generation;
+    private boolean pageLoading;
+    private boolean released;
+
+    /**
+     * Bind {@code list} and {@code search}; {@code preSelected} start out checked.
+     */
+    public MemberPicker(@NonNull Context context, @NonNull RecyclerView list, @NonNull EditText search,
+                        @NonNull List<Member> preSelected) {
+        this.context = context.getApplicationContext();
+        this.directory = UserDirectory.getInstance(context);
+        this.currentUserId = SharedPrefsManager.getInstance(context).getUserId();
+        for (Member member : preSelected) {
+            selected.put(member.getId(), member);
+        }
+
+        adapter = new MemberAdapter();
+        adapter.setMultiSelectEnabled(true);
+        adapter.setOnMemberClickListener((member, position) -> {
+            if (member.isSelected()) {
+                selected.put(member.getId(), member);
+            } else {
+                selected.remove(member.getId());
+            }
+        });
+        list.setLayoutManager(new LinearLayoutManager(context));
+        list.setAdapter(adapter);
+
+        list.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0 || !(rv.getLayoutManager() instanceof LinearLayoutManager)) {
+                    return;
+                }
+                LinearLayoutManager lm = (LinearLayoutManager) rv.getLayoutManager();
+                if (lm.findLastVisibleItemPosition() >= lm.getItemCount() - 1 - PREFETCH_DISTANCE) {
+                    showMore();
+                }
+            }
+        });
+
+        search.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                String text = s.toString().trim();
+                if (text.equals(filter)) return;
+                filter = text;
+                limit = UserDirectory.PAGE_SIZE;
+                list.scrollToPosition(0);
+                requery();
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {}
+        });
+    }
+
+    /**
+     * Show the stored users, and fetch the next directory page unless the stored
+     * copy is complete and fresh.
+     */
+    public void start() {
+        requery();
+        loadNextPage();
+    }
+
+    /**
+     * Members checked so far, including those filtered out of view.
+     */
+    @NonNull
+    public List<Member> getSelectedMembers() {
+        return new ArrayList<>(selected.values());
+    }
+
+    /**
+     * Stop updating the list; call when the screen goes away.
+     */
+    public void release() {
+        released = true;
+        generation++;
+    }
+
+    private void showMore() {
+        // Only once the rows asked for so far are all shown
+        if (shownCount < limit) return;
+        limit += UserDirectory.PAGE_SIZE;
+        requery();
+    }
+
+    private void requery() {
+        int gen = ++generation;
+        directory.query(filter, currentUserId, limit, users -> {
+            if (released || gen != generation) return;
+            show(users);
+            if (users.size() < limit && directory.hasMore()) {
+                // The stored users fall short: page further
+                loadNextPage();
+            }
+        });
+    }
+
+    private void loadNextPage() {
+        if (pageLoading) return;
+        pageLoading = true;
+        directory.loadNextPage(new UserDirectory.PageListener() {
+            @Override
+            public void onPageStored(boolean hasMore) {
+                pageLoading = false;
+                if (!released) {
+                    requery();
+                }
+            }
+
+            @Override
+            public void onPageFailed() {
+                pageLoading = false;
+                if (!released && shownCount == 0) {
+                    Toast.makeText(context, "Failed to load users", Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
+    }
+
+    private void show(List<UserResponseDto> users) {
+        List<Member> members = new ArrayList<>();
+        for (UserResponseDto user : users) {
+            String fullName = user.getFirstName();
+            if (user.getLastName() != null) {
+                fullName += " " + user.getLastName();
+            }
+            Member member = new Member(user.getId(), fullName, user.getEmail(), user.getProfilePictureUrl());
+            member.setSelected(selected.containsKey(member.getId()));
+            members.add(member);
+        }
+        shownCount = members.size();
+        adapter.setMembers(members);
+    }
+}
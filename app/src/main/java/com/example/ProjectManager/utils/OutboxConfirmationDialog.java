@@ -0,0 +1,51 @@
+package com.example.ProjectManager.utils;
+
+import android.app.Activity;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
+
+import com.example.ProjectManager.models.OutboxMutation;
+import com.example.ProjectManager.repository.MutationOutbox;
+
+/**
+ * Asks the user what to do with a create the outbox couldn't confirm (see
+ * {@link MutationOutbox.Callback#onNeedsConfirmation}): send it again, drop it, or
+ * decide later, in which case the home screen asks again.
+ */
+public final class OutboxConfirmationDialog {
+
+    private OutboxConfirmationDialog() {
+    }
+
+    /**
+     * @param onDone run once the user picked an answer, e.g. to close the screen
+     */
+    public static void show(@NonNull Activity activity, @NonNull OutboxMutation mutation, @Nullable Runnable onDone) {
+        if (activity.isFinishing() || activity.isDestroyed()) {
+            // The home screen asks on its next visit
+            return;
+        }
+        MutationOutbox outbox = MutationOutbox.getInstance(activity);
+        String what = outbox.describe(mutation);
+
+        new AlertDialog.Builder(activity)
+                .setTitle("Check Before Sending Again")
+                .setMessage("The connection dropped before the server answered, so the " + what
+                        + " may already have been created. Sending it again could create it twice.")
+                .setCancelable(false)
+                .setPositiveButton("Send Again", (dialog, which) -> {
+                    outbox.resend(mutation.getId());
+                    if (onDone != null) onDone.run();
+                })
+                .setNegativeButton("Discard", (dialog, which) -> {
+                    outbox.discard(mutation.getId());
+                    if (onDone != null) onDone.run();
+                })
+                .setNeutralButton("Decide Later", (dialog, which) -> {
+                    if (onDone != null) onDone.run();
+                })
+                .show();
+    }
+}
@@ -2,15 +2,23 @@ package com.example.ProjectManager.utils;
 
 import android.content.Context;
 
+import com.example.ProjectManager.api.PageLoader;
+import com.example.ProjectManager.database.ProjectDatabaseHelper;
+import com.example.ProjectManager.repository.CurrentUserStore;
+import com.example.ProjectManager.repository.OfflineStore;
+import com.example.ProjectManager.repository.ProjectRepository;
+
 /**
  * Session Manager - Wrapper around SharedPrefsManager for managing user sessions.
  * Provides a simpler interface for authentication operations.
  */
 public class SessionManager {
 
+    private final Context context;
     private final SharedPrefsManager prefsManager;
 
     public SessionManager(Context context) {
+        this.context = context.getApplicationContext();
         this.prefsManager = SharedPrefsManager.getInstance(context);
     }
 
@@ -59,9 +67,15 @@ public class SessionManager {
     }
 
     /**
-     * Clear the session (logout)
+     * Clear the session (logout), together with what was kept for the user in memory
+     * and in the local mirror, so the next account to log in doesn't see it.
+     * Every logout path goes through here. Must be called from the main thread.
      */
     public void clearSession() {
         prefsManager.clearUserData();
+        CurrentUserStore.getInstance(context).clear();
+        OfflineStore.getInstance(context).execute(ProjectDatabaseHelper::clearRemoteMirror);
+        ProjectRepository.getInstance(context).invalidate();
+        PageLoader.clearCache();
     }
 }
@@ -15,6 +15,8 @@ public class SharedPrefsManager {
     private static final String KEY_USER_EMAIL = "user_email";
     private static final String KEY_USER_FIRST_NAME = "user_first_name";
     private static final String KEY_USER_LAST_NAME = "user_last_name";
+    private static final String KEY_USER_PICTURE_URL = "user_picture_url";
+    private static final String KEY_USER_PROFILE_SYNCED_AT = "user_profile_synced_at";
     private static final String KEY_REMEMBER_ME = "remember_me";
     private static final String KEY_AUTH_TOKEN = "auth_token";
     private static final String KEY_LAST_PROJECT_ID = "last_project_id";
@@ -50,6 +52,23 @@ public class SharedPrefsManager {
         editor.putString(KEY_USER_FIRST_NAME, firstName);
         editor.putString(KEY_USER_LAST_NAME, lastName);
         editor.putString(KEY_AUTH_TOKEN, token);
+        // A new session: its profile has yet to be read
+        editor.remove(KEY_USER_PICTURE_URL);
+        editor.remove(KEY_USER_PROFILE_SYNCED_AT);
+        editor.apply();
+    }
+
+    /**
+     * Save the logged in user's profile, leaving the session (token) as it is
+     *
+     * @param syncedAt when the profile was last read from the backend (wall clock)
+     */
+    public void saveUserProfile(String email, String firstName, String lastName, String pictureUrl, long syncedAt) {
+        editor.putString(KEY_USER_EMAIL, email);
+        editor.putString(KEY_USER_FIRST_NAME, firstName);
+        editor.putString(KEY_USER_LAST_NAME, lastName);
+        editor.putString(KEY_USER_PICTURE_URL, pictureUrl);
+        editor.putLong(KEY_USER_PROFILE_SYNCED_AT, syncedAt);
         editor.apply();
     }
 
@@ -88,6 +107,20 @@ public class SharedPrefsManager {
         return prefs.getString(KEY_USER_LAST_NAME, "");
     }
 
+    /**
+     * Get user profile picture path, or null if none is known
+     */
+    public String getUserPictureUrl() {
+        return prefs.getString(KEY_USER_PICTURE_URL, null);
+    }
+
+    /**
+     * Get when the user profile was last read from the backend, 0 if never
+     */
+    public long getUserProfileSyncedAt() {
+        return prefs.getLong(KEY_USER_PROFILE_SYNCED_AT, 0);
+    }
+
     /**
      * Get full name
      */
@@ -128,6 +161,8 @@ public class SharedPrefsManager {
         editor.remove(KEY_USER_EMAIL);
         editor.remove(KEY_USER_FIRST_NAME);
         editor.remove(KEY_USER_LAST_NAME);
+        editor.remove(KEY_USER_PICTURE_URL);
+        editor.remove(KEY_USER_PROFILE_SYNCED_AT);
         editor.remove(KEY_AUTH_TOKEN);
         editor.remove(KEY_REMEMBER_ME);
         editor.apply();
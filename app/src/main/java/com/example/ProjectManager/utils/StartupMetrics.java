@@ -0,0 +1,148 @@
+package com.example.ProjectManager.utils;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Cold start markers, measured from the moment the process was started:
+ * <ul>
+ *     <li>time to initial display: the first frame of the first activity shown;</li>
+ *     <li>time to full display: that activity reporting its content loaded
+ *     through {@link #reportFullyDrawn(Activity)};</li>
+ *     <li>how long the background warm-up took.</li>
+ * </ul>
+ * Each is recorded once per process and logged; read them back through the
+ * getters or {@link #dump()}. A value of -1 means not reached (yet).
+ */
+public final class StartupMetrics {
+
+    private static final String TAG = "StartupMetrics";
+
+    private static long processStart = -1;
+    private static volatile long initialDisplay = -1;
+    private static volatile long fullDisplay = -1;
+    private static volatile long warmUp = -1;
+    // Activity whose first frame was the initial display; only it can report full display
+    private static String startActivity;
+    private static boolean firstActivitySeen;
+
+    private StartupMetrics() {
+    }
+
+    /**
+     * Start measuring. Call from {@link Application#onCreate()}.
+     */
+    public static void install(@NonNull Application application) {
+        processStart = Process.getStartUptimeMillis();
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {
+                // An activity that forwards and finishes in onCreate is never resumed,
+                // so this is the first one the user sees
+                if (firstActivitySeen) return;
+                firstActivitySeen = true;
+                startActivity = activity.getClass().getName();
+                watchFirstFrame(activity.getWindow().getDecorView());
+            }
+
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+            }
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+            }
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {
+            }
+        });
+    }
+
+    private static void watchFirstFrame(View decorView) {
+        Handler handler = new Handler(Looper.getMainLooper());
+        ViewTreeObserver.OnDrawListener listener = new ViewTreeObserver.OnDrawListener() {
+            private boolean drawn;
+
+            @Override
+            public void onDraw() {
+                if (drawn) return;
+                drawn = true;
+                // Runs once the frame being drawn has been handed over
+                handler.postAtFrontOfQueue(() -> {
+                    initialDisplay = sinceProcessStart();
+                    Log.i(TAG, "Initial display of " + startActivity + " after " + initialDisplay + " ms");
+                });
+                // Listeners can't be removed while they are being dispatched
+                handler.post(() -> decorView.getViewTreeObserver().removeOnDrawListener(this));
+            }
+        };
+        decorView.getViewTreeObserver().addOnDrawListener(listener);
+    }
+
+    /**
+     * Mark the content of {@code activity} as loaded. Counts only for the activity
+     * the app started on, the first time; the system is told as well.
+     */
+    public static void reportFullyDrawn(@NonNull Activity activity) {
+        if (fullDisplay >= 0 || !activity.getClass().getName().equals(startActivity)) {
+            return;
+        }
+        fullDisplay = sinceProcessStart();
+        Log.i(TAG, "Full display of " + startActivity + " after " + fullDisplay + " ms");
+        activity.reportFullyDrawn();
+    }
+
+    /**
+     * Record how long the background warm-up took.
+     */
+    public static void recordWarmUp(long durationMs) {
+        warmUp = durationMs;
+        Log.i(TAG, "Warm-up took " + durationMs + " ms");
+    }
+
+    public static long getTimeToInitialDisplay() {
+        return initialDisplay;
+    }
+
+    public static long getTimeToFullDisplay() {
+        return fullDisplay;
+    }
+
+    public static long getWarmUpDuration() {
+        return warmUp;
+    }
+
+    @NonNull
+    public static String dump() {
+        return "Startup: initial display " + initialDisplay + " ms, full display " + fullDisplay
+                + " ms, warm-up " + warmUp + " ms (" + startActivity + ")";
+    }
+
+    private static long sinceProcessStart() {
+        return SystemClock.uptimeMillis() - processStart;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.ProjectManager.api;
+
+import com.example.ProjectManager.models.dto.PageResponse;
+import com.example.ProjectManager.models.dto.ProjectResponse;
+import com.example.ProjectManager.models.dto.TaskResponse;
+import com.example.ProjectManager.models.dto.UserResponseDto;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that {@link JsonAdapters} decode like Gson's reflective adapters. The
+ * timing and allocation comparison runs on a device, see JsonAdaptersBenchmark.
+ */
+public class JsonAdaptersTest {
+
+    private static final Type TASK_PAGE = new TypeToken<PageResponse<TaskResponse>>() {}.getType();
+    private static final Type PROJECT_PAGE = new TypeToken<PageResponse<ProjectResponse>>() {}.getType();
+
+    private final Gson reflective = new Gson();
+    private final Gson streaming = new GsonBuilder().registerTypeAdapterFactory(new JsonAdapters()).create();
+
+    @Test
+    public void taskPageDecodesLikeReflectiveGson() {
+        String json = "{\"content\":["
+                + "{\"id\":1,\"name\":\"Design\",\"content\":\"Mockups\",\"status\":\"TODO\",\"projectId\":7,"
+                + "\"createdAt\":\"2024-01-01T10:00:00\",\"updatedAt\":\"2024-01-02T10:00:00\","
+                + "\"assignee\":{\"id\":3,\"firstName\":\"Ana\",\"lastName\":\"Li\",\"email\":\"a@x.io\","
+                + "\"profilePictureUrl\":null,\"role\":\"ADMIN\"},\"priority\":{\"level\":2,\"tags\":[1,2]}},"
+                + "{\"id\":\"2\",\"name\":\"Build\",\"status\":null,\"projectId\":7,\"userId\":\"5\",\"assignee\":null}"
+                + "],\"pageable\":{\"pageNumber\":0,\"sort\":{\"sorted\":false}},\"number\":0,\"size\":20,"
+                + "\"totalElements\":2,\"totalPages\":1,\"last\":true,\"first\":true,\"empty\":false}";
+
+        PageResponse<TaskResponse> expected = reflective.fromJson(json, TASK_PAGE);
+        PageResponse<TaskResponse> actual = streaming.fromJson(json, TASK_PAGE);
+
+        assertEquals(expected.getTotalElements(), actual.getTotalElements());
+        assertEquals(expected.getTotalPages(), actual.getTotalPages());
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.isLast(), actual.isLast());
+        assertEquals(2, actual.getContent().size());
+        for (int i = 0; i < 2; i++) {
+            assertTaskEquals(expected.getContent().get(i), actual.getContent().get(i));
+        }
+        assertEquals("Ana", actual.getContent().get(0).getAssignee().getFirstName());
+        assertEquals(Long.valueOf(5), actual.getContent().get(1).getAssigneeId());
+    }
+
+    @Test
+    public void projectsAndUsersDecodeLikeReflectiveGson() {
+        String projects = "{\"content\":[{\"id\":4,\"name\":\"Site\",\"description\":null,\"ownerId\":9,"
+                + "\"startDate\":\"2024-02-01\",\"endDate\":\"2024-03-01\",\"members\":[{\"id\":1}]}],"
+                + "\"totalElements\":1,\"totalPages\":1,\"last\":true}";
+        PageResponse<ProjectResponse> expected = reflective.fromJson(projects, PROJECT_PAGE);
+        PageResponse<ProjectResponse> actual = streaming.fromJson(projects, PROJECT_PAGE);
+        ProjectResponse e = expected.getContent().get(0);
+        ProjectResponse a = actual.getContent().get(0);
+        assertEquals(e.getId(), a.getId());
+        assertEquals(e.getName(), a.getName());
+        assertEquals(e.getDescription(), a.getDescription());
+        assertEquals(e.getOwnerId(), a.getOwnerId());
+        assertEquals(e.getStartDate(), a.getStartDate());
+        assertEquals(e.getEndDate(), a.getEndDate());
+
+        String user = "{\"id\":12,\"firstName\":\"Sam\",\"lastName\":\"Roe\",\"email\":\"s@x.io\",\"roles\":[\"USER\"]}";
+        UserResponseDto expectedUser = reflective.fromJson(user, UserResponseDto.class);
+        UserResponseDto actualUser = streaming.fromJson(user, UserResponseDto.class);
+        assertEquals(expectedUser.getId(), actualUser.getId());
+        assertEquals(expectedUser.getFirstName(), actualUser.getFirstName());
+        assertEquals(expectedUser.getEmail(), actualUser.getEmail());
+        assertNull(actualUser.getProfilePictureUrl());
+    }
+
+    @Test
+    public void writtenTaskReadsBack() {
+        TaskResponse task = new TaskResponse();
+        task.setId(8);
+        task.setName("Ship");
+        task.setProjectId(2);
+        task.setUserId(4L);
+
+        TaskResponse copy = streaming.fromJson(streaming.toJson(task), TaskResponse.class);
+
+        assertTaskEquals(task, copy);
+    }
+
+    @Test
+    public void largeTaskPageDecodesLikeReflectiveGson() {
+        String json = taskPageJson(10_000);
+
+        PageResponse<TaskResponse> expected = reflective.fromJson(new StringReader(json), TASK_PAGE);
+        PageResponse<TaskResponse> actual = streaming.fromJson(new StringReader(json), TASK_PAGE);
+
+        assertEquals(10_000, actual.getContent().size());
+        for (int i = 0; i < expected.getContent().size(); i++) {
+            assertTaskEquals(expected.getContent().get(i), actual.getContent().get(i));
+        }
+    }
+
+    private static String taskPageJson(int count) {
+        StringBuilder sb = new StringBuilder("{\"content\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Task ").append(i).append('"')
+                    .append(",\"content\":\"Description of task ").append(i).append('"')
+                    .append(",\"status\":\"IN_PROGRESS\",\"projectId\":").append(i % 50)
+                    .append(",\"createdAt\":\"2024-01-01T10:00:00\",\"updatedAt\":\"2024-01-02T10:00:00\"")
+                    .append(",\"assignee\":{\"id\":").append(i % 200)
+                    .append(",\"firstName\":\"First\",\"lastName\":\"Last\",\"email\":\"user")
+                    .append(i % 200).append("@example.com\",\"profilePictureUrl\":null}}");
+        }
+        sb.append("],\"pageable\":{\"pageNumber\":0,\"pageSize\":").append(count)
+                .append(",\"sort\":{\"sorted\":false,\"unsorted\":true,\"empty\":true}},\"number\":0,\"size\":")
+                .append(count).append(",\"totalElements\":").append(count)
+                .append(",\"totalPages\":1,\"last\":true,\"first\":true,\"numberOfElements\":").append(count)
+                .append(",\"empty\":false}");
+        return sb.toString();
+    }
+
+    private static void assertTaskEquals(TaskResponse expected, TaskResponse actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getProjectId(), actual.getProjectId());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        assertEquals(expected.getAssigneeId(), actual.getAssigneeId());
+        assertEquals(expected.hasAssigneeDetails(), actual.hasAssigneeDetails());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ProjectManager.database;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks how {@link SearchQuery} turns user text into FTS queries and ranks matchinfo blobs.
+ */
+public class SearchQueryTest {
+
+    private static final double[] WEIGHTS = {3.0, 1.0};
+
+    @Test
+    public void wordsBecomeRequiredPrefixes() {
+        assertEquals("des* sp*", SearchQuery.toMatchExpression("  Des   SP "));
+        assertEquals("écran* 2024*", SearchQuery.toMatchExpression("Écran 2024"));
+    }
+
+    @Test
+    public void querySyntaxIsNeverPassedThrough() {
+        assertEquals("a* or* b*", SearchQuery.toMatchExpression("a OR b"));
+        assertEquals("ana* x* io*", SearchQuery.toMatchExpression("\"ana@x.io\""));
+        assertEquals("foo* bar* near*", SearchQuery.toMatchExpression("foo* -bar NEAR/"));
+        assertNull(SearchQuery.toMatchExpression("*\"()-"));
+        assertNull(SearchQuery.toMatchExpression(null));
+    }
+
+    @Test
+    public void titleMatchesOutrankBodyMatches() {
+        // One phrase; hits in this row / in all rows / rows with hits, per column
+        double inTitle = SearchQuery.score(matchinfo(1, 2, 1, 4, 4, 0, 6, 3), WEIGHTS);
+        double inBody = SearchQuery.score(matchinfo(1, 2, 0, 4, 4, 1, 6, 3), WEIGHTS);
+        assertEquals(3.0 / 4, inTitle, 1e-9);
+        assertEquals(1.0 / 6, inBody, 1e-9);
+        assertTrue(inTitle > inBody);
+    }
+
+    @Test
+    public void rareWordsCountMore() {
+        // Two phrases, one column: the second word is rare in the collection
+        double common = SearchQuery.score(matchinfo(2, 1, 1, 100, 90, 0, 2, 2), new double[]{1.0});
+        double rare = SearchQuery.score(matchinfo(2, 1, 0, 100, 90, 1, 2, 2), new double[]{1.0});
+        assertTrue(rare > common);
+    }
+
+    @Test
+    public void malformedBlobScoresZero() {
+        assertEquals(0, SearchQuery.score(null, WEIGHTS), 0);
+        assertEquals(0, SearchQuery.score(new byte[4], WEIGHTS), 0);
+        assertEquals(0, SearchQuery.score(matchinfo(2, 2, 1, 1, 1), WEIGHTS), 0);
+    }
+
+    private static byte[] matchinfo(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4).order(ByteOrder.nativeOrder());
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+}
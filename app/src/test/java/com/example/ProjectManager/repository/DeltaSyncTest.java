@@ -0,0 +1,387 @@
+package com.example.ProjectManager.repository;
+
+import com.example.ProjectManager.models.SyncState;
+import com.example.ProjectManager.models.dto.PageResponse;
+import com.example.ProjectManager.models.dto.TaskResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs {@link DeltaSync} against an in-process fake of the tasks endpoint that counts
+ * every row it sends.
+ */
+public class DeltaSyncTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final long NOW = 1_700_000_000_000L;
+
+    private FakeBackend backend;
+    private FakeLocal local;
+    private DeltaSync<TaskResponse> sync;
+
+    @Before
+    public void setUp() {
+        backend = new FakeBackend();
+        local = new FakeLocal();
+        sync = new DeltaSync<>(backend, local, TaskResponse::getUpdatedAt, PAGE_SIZE);
+        for (int i = 1; i <= 30; i++) {
+            backend.put(i, "Task " + i);
+        }
+    }
+
+    @Test
+    public void firstSyncDownloadsEverything() {
+        DeltaSync.Result result = sync.sync(NOW);
+
+        assertTrue(result.isSuccess());
+        assertEquals(DeltaSync.Mode.FULL, result.getMode());
+        assertEquals(30, result.getTransferredRows());
+        assertEquals(30, local.rows.size());
+        assertEquals(backend.newestTimestamp(), local.state.getHighWaterMark());
+    }
+
+    @Test
+    public void refreshWithoutChangesTransfersNothing() {
+        sync.sync(NOW);
+        backend.resetCounters();
+
+        DeltaSync.Result result = sync.sync(NOW + 1000);
+
+        assertTrue(result.isSuccess());
+        assertEquals(DeltaSync.Mode.DELTA, result.getMode());
+        assertEquals(0, result.getTransferredRows());
+        assertEquals(1, result.getRequests());
+        assertTrue(backend.sentIds.isEmpty());
+        assertEquals(30, local.rows.size());
+    }
+
+    @Test
+    public void refreshTransfersOnlyChangedRows() {
+        sync.sync(NOW);
+        backend.resetCounters();
+        backend.put(4, "Task 4 renamed");
+        backend.put(17, "Task 17 renamed");
+        backend.put(31, "Task 31");
+
+        DeltaSync.Result result = sync.sync(NOW + 1000);
+
+        assertEquals(DeltaSync.Mode.DELTA, result.getMode());
+        assertEquals(3, result.getTransferredRows());
+        assertEquals(ids(4, 17, 31), backend.sentIds);
+        assertEquals(31, local.rows.size());
+        assertEquals("Task 4 renamed", local.rows.get(4L).getName());
+        assertEquals(backend.newestTimestamp(), local.state.getHighWaterMark());
+    }
+
+    @Test
+    public void deltaOverSeveralPagesNeverSendsUnchangedRows() {
+        sync.sync(NOW);
+        backend.resetCounters();
+        for (int i = 1; i <= 25; i++) {
+            backend.put(i, "Task " + i + " v2");
+        }
+
+        DeltaSync.Result result = sync.sync(NOW + 1000);
+
+        assertTrue(result.isSuccess());
+        assertEquals(DeltaSync.Mode.DELTA, result.getMode());
+        assertEquals(25, result.getAppliedRows());
+        assertEquals(25, backend.sentIds.size());
+        for (int i = 1; i <= 25; i++) {
+            assertEquals("Task " + i + " v2", local.rows.get((long) i).getName());
+        }
+    }
+
+    @Test
+    public void rowsSharingATimestampAcrossPagesAreNotLost() {
+        sync.sync(NOW);
+        backend.resetCounters();
+        for (int i = 1; i <= 8; i++) {
+            backend.put(i, "Task " + i + " v2");
+        }
+        // Rows 9 to 12 change in the same instant, straddling the page boundary
+        backend.putAll(new long[]{9, 10, 11, 12}, "batch");
+
+        DeltaSync.Result result = sync.sync(NOW + 1000);
+
+        assertTrue(result.isSuccess());
+        assertEquals(DeltaSync.Mode.DELTA, result.getMode());
+        for (long id = 9; id <= 12; id++) {
+            assertEquals("batch", local.rows.get(id).getName());
+        }
+        assertFalse(backend.sentIds.contains(13L));
+    }
+
+    @Test
+    public void fallsBackToFullResyncWhenServerIgnoresFilter() {
+        sync.sync(NOW);
+        backend.honorFilter = false;
+        backend.put(5, "Task 5 renamed");
+
+        DeltaSync.Result result = sync.sync(NOW + 1000);
+
+        assertTrue(result.isSuccess());
+        assertEquals(DeltaSync.Mode.FULL, result.getMode());
+        assertNotNull(result.getFullSyncReason());
+        assertEquals("Task 5 renamed", local.rows.get(5L).getName());
+        assertFalse(local.state.isDeltaSupported());
+
+        // Not probed again before the next periodic full resync
+        backend.resetCounters();
+        assertEquals(DeltaSync.Mode.FULL, sync.sync(NOW + 2000).getMode());
+        assertEquals(30, backend.rowsSent);
+    }
+
+    @Test
+    public void unsupportedDeltasAreProbedAgainOnlyAfterTheResyncInterval() {
+        sync.sync(NOW);
+        backend.honorFilter = false;
+        long probedAt = NOW + 1000;
+        sync.sync(probedAt);
+        assertFalse(local.state.isDeltaSupported());
+
+        // Refreshes within the interval download everything, but never probe first
+        for (int i = 1; i <= 3; i++) {
+            backend.resetCounters();
+            DeltaSync.Result result = sync.sync(probedAt + i * DeltaSync.FULL_RESYNC_INTERVAL_MS / 4);
+
+            assertEquals(DeltaSync.Mode.FULL, result.getMode());
+            assertEquals(30, backend.rowsSent);
+            assertEquals(probedAt, local.state.getLastFullSyncAt());
+            assertFalse(local.state.isDeltaSupported());
+        }
+
+        DeltaSync.Result resync = sync.sync(probedAt + DeltaSync.FULL_RESYNC_INTERVAL_MS);
+
+        assertEquals("periodic full resync", resync.getFullSyncReason());
+        assertTrue(local.state.isDeltaSupported());
+    }
+
+    @Test
+    public void periodicFullResyncDropsDeletedRows() {
+        sync.sync(NOW);
+        backend.remove(7);
+
+        sync.sync(NOW + 1000);
+        assertTrue(local.rows.containsKey(7L));
+
+        DeltaSync.Result result = sync.sync(NOW + DeltaSync.FULL_RESYNC_INTERVAL_MS);
+
+        assertEquals(DeltaSync.Mode.FULL, result.getMode());
+        assertFalse(local.rows.containsKey(7L));
+        assertEquals(29, local.rows.size());
+    }
+
+    @Test
+    public void failedRefreshKeepsLocalCopyAndMark() {
+        sync.sync(NOW);
+        String mark = local.state.getHighWaterMark();
+        backend.put(3, "Task 3 renamed");
+        backend.failing = true;
+
+        DeltaSync.Result failed = sync.sync(NOW + 1000);
+
+        assertFalse(failed.isSuccess());
+        assertEquals(mark, local.state.getHighWaterMark());
+        assertEquals("Task 3", local.rows.get(3L).getName());
+
+        backend.failing = false;
+        backend.resetCounters();
+        DeltaSync.Result retried = sync.sync(NOW + 2000);
+
+        assertTrue(retried.isSuccess());
+        assertEquals(ids(3), backend.sentIds);
+        assertEquals("Task 3 renamed", local.rows.get(3L).getName());
+    }
+
+    private static Set<Long> ids(long... ids) {
+        Set<Long> set = new HashSet<>();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    /**
+     * The tasks endpoint: filters by updatedAfter and sorts oldest change first, like
+     * the real server is asked to.
+     */
+    private static final class FakeBackend implements DeltaSync.Remote<TaskResponse> {
+        private final Map<Long, TaskResponse> rows = new LinkedHashMap<>();
+        private int clock;
+
+        boolean honorFilter = true;
+        boolean failing;
+        int rowsSent;
+        final Set<Long> sentIds = new HashSet<>();
+
+        void put(long id, String name) {
+            putAll(new long[]{id}, name);
+        }
+
+        void putAll(long[] ids, String name) {
+            String updatedAt = nextTimestamp();
+            for (long id : ids) {
+                TaskResponse task = new TaskResponse();
+                task.setId(id);
+                task.setName(name);
+                task.setProjectId(1);
+                task.setUpdatedAt(updatedAt);
+                rows.put(id, task);
+            }
+        }
+
+        void remove(long id) {
+            rows.remove(id);
+        }
+
+        String newestTimestamp() {
+            String newest = null;
+            for (TaskResponse task : rows.values()) {
+                if (DeltaSync.compare(task.getUpdatedAt(), newest) > 0) {
+                    newest = task.getUpdatedAt();
+                }
+            }
+            return newest;
+        }
+
+        void resetCounters() {
+            rowsSent = 0;
+            sentIds.clear();
+        }
+
+        private String nextTimestamp() {
+            clock++;
+            return String.format("2024-01-01T%02d:%02d:%02d", clock / 3600, clock / 60 % 60, clock % 60);
+        }
+
+        @Override
+        public Call<PageResponse<TaskResponse>> fetch(String updatedAfter, int page, int size) {
+            List<TaskResponse> matching = new ArrayList<>();
+            for (TaskResponse task : rows.values()) {
+                if (!honorFilter || updatedAfter == null
+                        || DeltaSync.compare(task.getUpdatedAt(), updatedAfter) > 0) {
+                    matching.add(task);
+                }
+            }
+            matching.sort((a, b) -> {
+                int byTime = DeltaSync.compare(a.getUpdatedAt(), b.getUpdatedAt());
+                return byTime != 0 ? byTime : Long.compare(a.getId(), b.getId());
+            });
+
+            int from = Math.min(page * size, matching.size());
+            int to = Math.min(from + size, matching.size());
+            PageResponse<TaskResponse> body = new PageResponse<>();
+            body.setContent(new ArrayList<>(matching.subList(from, to)));
+            body.setNumber(page);
+            body.setSize(size);
+            body.setTotalElements(matching.size());
+            body.setTotalPages((matching.size() + size - 1) / size);
+            body.setLast(to >= matching.size());
+            return new FakeCall(body);
+        }
+
+        private final class FakeCall implements Call<PageResponse<TaskResponse>> {
+            private final PageResponse<TaskResponse> body;
+            private boolean executed;
+
+            FakeCall(PageResponse<TaskResponse> body) {
+                this.body = body;
+            }
+
+            @Override
+            public Response<PageResponse<TaskResponse>> execute() throws IOException {
+                executed = true;
+                if (failing) {
+                    throw new IOException("offline");
+                }
+                rowsSent += body.getContent().size();
+                for (TaskResponse task : body.getContent()) {
+                    sentIds.add(task.getId());
+                }
+                return Response.success(body);
+            }
+
+            @Override
+            public void enqueue(Callback<PageResponse<TaskResponse>> callback) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean isExecuted() {
+                return executed;
+            }
+
+            @Override
+            public void cancel() {
+            }
+
+            @Override
+            public boolean isCanceled() {
+                return false;
+            }
+
+            @Override
+            public Call<PageResponse<TaskResponse>> clone() {
+                return new FakeCall(body);
+            }
+
+            @Override
+            public Request request() {
+                return new Request.Builder().url("http://localhost/api/v1/tasks").build();
+            }
+
+            @Override
+            public Timeout timeout() {
+                return Timeout.NONE;
+            }
+        }
+    }
+
+    /**
+     * The local mirror, in memory.
+     */
+    private static final class FakeLocal implements DeltaSync.Local<TaskResponse> {
+        final Map<Long, TaskResponse> rows = new LinkedHashMap<>();
+        SyncState state;
+
+        @Override
+        public SyncState getState() {
+            return state;
+        }
+
+        @Override
+        public void applyChanges(List<TaskResponse> changed, SyncState newState) {
+            for (TaskResponse task : changed) {
+                rows.put(task.getId(), task);
+            }
+            state = newState;
+        }
+
+        @Override
+        public void replaceAll(List<TaskResponse> all, SyncState newState) {
+            rows.clear();
+            for (TaskResponse task : all) {
+                rows.put(task.getId(), task);
+            }
+            state = newState;
+        }
+    }
+}